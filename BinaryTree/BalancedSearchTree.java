@@ -0,0 +1,587 @@
+import java.util.*;
+
+/**
+ * An ordered set kept as an AVL tree of BinaryTree nodes. Every node caches the size and
+ * height of its subtree, so balance factors, rank and select need no extra fields and insert,
+ * delete, floor, ceiling, rank and select are O(log n) in the worst case.
+ *
+ * @author mfullhart20@georgefox.edu.
+ *
+ * @param <E> Type of elements in the tree.
+ */
+public class BalancedSearchTree<E extends Comparable<E>> implements Iterable<E>
+{
+    // Root node, null when the tree is empty.
+    private BinaryTree<E> _root;
+
+    /**
+     * Construct an empty tree.
+     */
+    public BalancedSearchTree()
+    {
+        _root = null;
+    }
+
+    /**
+     * Get number of elements in the tree.
+     *
+     * @return number of elements.
+     */
+    public int size()
+    {
+        return _root == null ? 0 : _root.size();
+    }
+
+    /**
+     * Determines if the tree is empty.
+     *
+     * @return true if empty.
+     */
+    public boolean isEmpty()
+    {
+        return _root == null;
+    }
+
+    /**
+     * Get height of the tree, which stays within 1.44 log2(n + 2).
+     *
+     * @return height of the tree, or -1 if empty.
+     */
+    public int height()
+    {
+        return height(_root);
+    }
+
+    /**
+     * Gets the root node so the tree can be navigated with the BinaryTree API. The nodes must
+     * not be modified directly.
+     *
+     * @return root node, or null if empty.
+     */
+    public BinaryTree<E> asBinaryTree()
+    {
+        return _root;
+    }
+
+    /**
+     * Determines if the tree contains an element.
+     *
+     * @param element the element to look for.
+     * @return true if found.
+     * @throws IllegalArgumentException if the element is null.
+     */
+    public boolean contains(E element)
+    {
+        return find(element) != null;
+    }
+
+    /**
+     * Inserts an element if it is not already present.
+     *
+     * @param element the element to insert.
+     * @return true if the tree changed.
+     * @throws IllegalArgumentException if the element is null.
+     */
+    public boolean insert(E element)
+    {
+        validate(element);
+        if (_root == null)
+        {
+            _root = new BinaryTree<>(element);
+            return true;
+        }
+
+        BinaryTree<E> node = _root;
+        while (true)
+        {
+            int cmp = element.compareTo(node.getElement());
+            if (cmp == 0)
+            {
+                return false;
+            }
+            BinaryTree<E> next = cmp < 0 ? node.getLeftChild() : node.getRightChild();
+            if (next == null)
+            {
+                if (cmp < 0)
+                {
+                    node.linkLeft(new BinaryTree<>(element));
+                }
+                else
+                {
+                    node.linkRight(new BinaryTree<>(element));
+                }
+                rebalance(node);
+                return true;
+            }
+            node = next;
+        }
+    }
+
+    /**
+     * Deletes an element if it is present.
+     *
+     * @param element the element to delete.
+     * @return true if the tree changed.
+     * @throws IllegalArgumentException if the element is null.
+     */
+    public boolean delete(E element)
+    {
+        BinaryTree<E> node = find(element);
+        if (node == null)
+        {
+            return false;
+        }
+
+        // A node with two children takes its successor's element, and the successor, which
+        // has no left child, is removed instead.
+        if (node.hasLeftChild() && node.hasRightChild())
+        {
+            BinaryTree<E> successor = node.getRightChild();
+            while (successor.hasLeftChild())
+            {
+                successor = successor.getLeftChild();
+            }
+            node.setElement(successor.getElement());
+            node = successor;
+        }
+
+        BinaryTree<E> child = node.hasLeftChild() ? node.getLeftChild() : node.getRightChild();
+        BinaryTree<E> parent = node.getParent();
+        replace(node, child);
+        node.unlinkParent();
+        node.linkLeft(null);
+        node.linkRight(null);
+        rebalance(parent);
+        return true;
+    }
+
+    /**
+     * Gets the smallest element.
+     *
+     * @return smallest element.
+     * @throws NoSuchElementException if the tree is empty.
+     */
+    public E first()
+    {
+        if (_root == null)
+        {
+            throw new NoSuchElementException();
+        }
+        BinaryTree<E> node = _root;
+        while (node.hasLeftChild())
+        {
+            node = node.getLeftChild();
+        }
+        return node.getElement();
+    }
+
+    /**
+     * Gets the largest element.
+     *
+     * @return largest element.
+     * @throws NoSuchElementException if the tree is empty.
+     */
+    public E last()
+    {
+        if (_root == null)
+        {
+            throw new NoSuchElementException();
+        }
+        BinaryTree<E> node = _root;
+        while (node.hasRightChild())
+        {
+            node = node.getRightChild();
+        }
+        return node.getElement();
+    }
+
+    /**
+     * Gets the largest element less than or equal to the given one.
+     *
+     * @param element the bound.
+     * @return floor element, or null if there is none.
+     * @throws IllegalArgumentException if the element is null.
+     */
+    public E floor(E element)
+    {
+        validate(element);
+        E floor = null;
+        BinaryTree<E> node = _root;
+        while (node != null)
+        {
+            int cmp = element.compareTo(node.getElement());
+            if (cmp == 0)
+            {
+                return node.getElement();
+            }
+            if (cmp < 0)
+            {
+                node = node.getLeftChild();
+            }
+            else
+            {
+                floor = node.getElement();
+                node = node.getRightChild();
+            }
+        }
+        return floor;
+    }
+
+    /**
+     * Gets the smallest element greater than or equal to the given one.
+     *
+     * @param element the bound.
+     * @return ceiling element, or null if there is none.
+     * @throws IllegalArgumentException if the element is null.
+     */
+    public E ceiling(E element)
+    {
+        BinaryTree<E> node = ceilingNode(element);
+        return node == null ? null : node.getElement();
+    }
+
+    /**
+     * Counts the elements strictly less than the given one.
+     *
+     * @param element the bound, need not be in the tree.
+     * @return rank of the element.
+     * @throws IllegalArgumentException if the element is null.
+     */
+    public int rank(E element)
+    {
+        validate(element);
+        int rank = 0;
+        BinaryTree<E> node = _root;
+        while (node != null)
+        {
+            int cmp = element.compareTo(node.getElement());
+            if (cmp <= 0)
+            {
+                if (cmp == 0)
+                {
+                    return rank + size(node.getLeftChild());
+                }
+                node = node.getLeftChild();
+            }
+            else
+            {
+                rank += size(node.getLeftChild()) + 1;
+                node = node.getRightChild();
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Gets the element with the given rank, the inverse of rank().
+     *
+     * @param index number of smaller elements, from 0 to size() - 1.
+     * @return element at that rank.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public E select(int index)
+    {
+        if (index < 0 || index >= size())
+        {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        BinaryTree<E> node = _root;
+        while (true)
+        {
+            int left = size(node.getLeftChild());
+            if (index < left)
+            {
+                node = node.getLeftChild();
+            }
+            else if (index == left)
+            {
+                return node.getElement();
+            }
+            else
+            {
+                index -= left + 1;
+                node = node.getRightChild();
+            }
+        }
+    }
+
+    /**
+     * Creates an iterator over the elements from low to high inclusive, in ascending order.
+     * Finding the first element is O(log n) and each further element is O(1) amortised.
+     *
+     * @param low smallest element to include.
+     * @param high largest element to include.
+     * @return an iterator over the range.
+     * @throws IllegalArgumentException if either bound is null.
+     */
+    public Iterator<E> range(E low, E high)
+    {
+        validate(high);
+        BinaryTree<E> first = ceilingNode(low);
+        return new Iterator<E>()
+        {
+            private BinaryTree<E> _next = first != null && first.getElement().compareTo(high) <= 0 ? first : null;
+
+            @Override
+            public boolean hasNext()
+            {
+                return _next != null;
+            }
+
+            @Override
+            public E next()
+            {
+                if (_next == null)
+                {
+                    throw new NoSuchElementException();
+                }
+                E element = _next.getElement();
+                _next = successor(_next);
+                if (_next != null && _next.getElement().compareTo(high) > 0)
+                {
+                    _next = null;
+                }
+                return element;
+            }
+        };
+    }
+
+    /**
+     * Retrieves an iterator over all elements in ascending order.
+     *
+     * @return an iterator over the elements.
+     */
+    @Override
+    public Iterator<E> iterator()
+    {
+        return _root == null ? Collections.emptyIterator() : _root.inOrderIterator();
+    }
+
+    /**
+     * Generates a string representation of the elements in ascending order.
+     *
+     * @return a string representation of the tree.
+     */
+    @Override
+    public String toString()
+    {
+        return _root == null ? "[]" : _root.toString();
+    }
+
+    /**
+     * Finds the node holding an element.
+     *
+     * @param element the element to look for.
+     * @return the node, or null if not found.
+     */
+    private BinaryTree<E> find(E element)
+    {
+        validate(element);
+        BinaryTree<E> node = _root;
+        while (node != null)
+        {
+            int cmp = element.compareTo(node.getElement());
+            if (cmp == 0)
+            {
+                return node;
+            }
+            node = cmp < 0 ? node.getLeftChild() : node.getRightChild();
+        }
+        return null;
+    }
+
+    /**
+     * Finds the node holding the smallest element greater than or equal to the given one.
+     *
+     * @param element the bound.
+     * @return the node, or null if there is none.
+     */
+    private BinaryTree<E> ceilingNode(E element)
+    {
+        validate(element);
+        BinaryTree<E> ceiling = null;
+        BinaryTree<E> node = _root;
+        while (node != null)
+        {
+            int cmp = element.compareTo(node.getElement());
+            if (cmp == 0)
+            {
+                return node;
+            }
+            if (cmp > 0)
+            {
+                node = node.getRightChild();
+            }
+            else
+            {
+                ceiling = node;
+                node = node.getLeftChild();
+            }
+        }
+        return ceiling;
+    }
+
+    /**
+     * Finds the in-order successor of a node by following parent links.
+     *
+     * @param node the current node.
+     * @return the next node, or null if this is the last one.
+     */
+    private BinaryTree<E> successor(BinaryTree<E> node)
+    {
+        if (node.hasRightChild())
+        {
+            node = node.getRightChild();
+            while (node.hasLeftChild())
+            {
+                node = node.getLeftChild();
+            }
+            return node;
+        }
+        while (node.getParent() != null && node == node.getParent().getRightChild())
+        {
+            node = node.getParent();
+        }
+        return node.getParent();
+    }
+
+    /**
+     * Refreshes the caches of a node and every ancestor, rotating wherever the heights of two
+     * sibling subtrees differ by more than one.
+     *
+     * @param node lowest node whose subtree changed, may be null.
+     */
+    private void rebalance(BinaryTree<E> node)
+    {
+        while (node != null)
+        {
+            node.refresh();
+            int balance = balance(node);
+            if (balance > 1)
+            {
+                if (balance(node.getLeftChild()) < 0)
+                {
+                    rotateLeft(node.getLeftChild());
+                }
+                node = rotateRight(node);
+            }
+            else if (balance < -1)
+            {
+                if (balance(node.getRightChild()) > 0)
+                {
+                    rotateRight(node.getRightChild());
+                }
+                node = rotateLeft(node);
+            }
+            node = node.getParent();
+        }
+    }
+
+    /**
+     * Rotates a node down to the left, lifting its right child into its place.
+     *
+     * @param node the node to rotate.
+     * @return the node now at the top of the subtree.
+     */
+    private BinaryTree<E> rotateLeft(BinaryTree<E> node)
+    {
+        BinaryTree<E> child = node.getRightChild();
+        replace(node, child);
+        node.linkRight(child.getLeftChild());
+        child.linkLeft(node);
+        node.refresh();
+        child.refresh();
+        return child;
+    }
+
+    /**
+     * Rotates a node down to the right, lifting its left child into its place.
+     *
+     * @param node the node to rotate.
+     * @return the node now at the top of the subtree.
+     */
+    private BinaryTree<E> rotateRight(BinaryTree<E> node)
+    {
+        BinaryTree<E> child = node.getLeftChild();
+        replace(node, child);
+        node.linkLeft(child.getRightChild());
+        child.linkRight(node);
+        node.refresh();
+        child.refresh();
+        return child;
+    }
+
+    /**
+     * Puts a node in another node's place under that node's parent, or at the root.
+     *
+     * @param node the node being replaced.
+     * @param replacement the node taking its place, may be null.
+     */
+    private void replace(BinaryTree<E> node, BinaryTree<E> replacement)
+    {
+        BinaryTree<E> parent = node.getParent();
+        if (parent == null)
+        {
+            _root = replacement;
+            if (replacement != null)
+            {
+                replacement.unlinkParent();
+            }
+        }
+        else if (parent.getLeftChild() == node)
+        {
+            parent.linkLeft(replacement);
+        }
+        else
+        {
+            parent.linkRight(replacement);
+        }
+    }
+
+    /**
+     * Calculates the difference between the heights of the left and right subtrees.
+     *
+     * @param node the node, may be null.
+     * @return balance factor, positive when left-heavy.
+     */
+    private int balance(BinaryTree<E> node)
+    {
+        return node == null ? 0 : height(node.getLeftChild()) - height(node.getRightChild());
+    }
+
+    /**
+     * Gets the height of a possibly empty subtree.
+     *
+     * @param node root of the subtree, may be null.
+     * @return height, or -1 if empty.
+     */
+    private static int height(BinaryTree<?> node)
+    {
+        return node == null ? -1 : node.height();
+    }
+
+    /**
+     * Gets the size of a possibly empty subtree.
+     *
+     * @param node root of the subtree, may be null.
+     * @return number of nodes.
+     */
+    private static int size(BinaryTree<?> node)
+    {
+        return node == null ? 0 : node.size();
+    }
+
+    /**
+     * Checks that an element or bound is not null.
+     *
+     * @param element the element to check.
+     * @throws IllegalArgumentException if the element is null.
+     */
+    private void validate(E element)
+    {
+        if (element == null)
+        {
+            throw new IllegalArgumentException("Null element");
+        }
+    }
+}
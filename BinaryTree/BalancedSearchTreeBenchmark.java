@@ -0,0 +1,150 @@
+import java.util.Random;
+import java.util.TreeMap;
+
+/**
+ * Compares BalancedSearchTree with java.util.TreeMap on sorted inserts, random inserts,
+ * floor lookups and deletes, and adds the rank and select queries TreeMap has no direct
+ * counterpart for. Prints the best time of each operation.
+ *
+ * @author mfullhart20@georgefox.edu.
+ */
+public class BalancedSearchTreeBenchmark
+{
+    // Number of elements inserted per run
+    private static final int ELEMENTS = 1_000_000;
+    // Number of untimed runs used to warm up the JIT
+    private static final int WARMUP_RUNS = 2;
+    // Number of timed runs
+    private static final int MEASURED_RUNS = 3;
+
+    // Keeps the JIT from discarding results
+    private static volatile long _sink;
+
+    /**
+     * Runs the comparison and prints the best time of each operation.
+     *
+     * @param args not used
+     */
+    public static void main(String[] args)
+    {
+        int[] keys = new int[ELEMENTS];
+        Random random = new Random(42);
+        for (int i = 0; i < ELEMENTS; i++)
+        {
+            keys[i] = random.nextInt();
+        }
+
+        String[] names = {"sorted insert", "random insert", "floor", "delete", "rank + select"};
+        long[] tree = new long[names.length];
+        long[] map = new long[names.length];
+        java.util.Arrays.fill(tree, Long.MAX_VALUE);
+        java.util.Arrays.fill(map, Long.MAX_VALUE);
+        int height = 0;
+        for (int run = 0; run < WARMUP_RUNS + MEASURED_RUNS; run++)
+        {
+            long[] times = new long[names.length];
+
+            long start = System.nanoTime();
+            BalancedSearchTree<Integer> sorted = new BalancedSearchTree<>();
+            for (int i = 0; i < ELEMENTS; i++)
+            {
+                sorted.insert(i);
+            }
+            times[0] = System.nanoTime() - start;
+            height = sorted.height();
+            sorted = null;
+
+            start = System.nanoTime();
+            BalancedSearchTree<Integer> balanced = new BalancedSearchTree<>();
+            for (int key : keys)
+            {
+                balanced.insert(key);
+            }
+            times[1] = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int key : keys)
+            {
+                Integer floor = balanced.floor(key ^ 1);
+                _sink += floor == null ? 0 : floor;
+            }
+            times[2] = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < ELEMENTS; i++)
+            {
+                _sink += balanced.select(balanced.rank(keys[i]));
+            }
+            times[4] = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int key : keys)
+            {
+                balanced.delete(key);
+            }
+            times[3] = System.nanoTime() - start;
+            record(run, times, tree);
+
+            times = new long[names.length];
+            start = System.nanoTime();
+            TreeMap<Integer, Boolean> sortedMap = new TreeMap<>();
+            for (int i = 0; i < ELEMENTS; i++)
+            {
+                sortedMap.put(i, Boolean.TRUE);
+            }
+            times[0] = System.nanoTime() - start;
+            sortedMap = null;
+
+            start = System.nanoTime();
+            TreeMap<Integer, Boolean> treeMap = new TreeMap<>();
+            for (int key : keys)
+            {
+                treeMap.put(key, Boolean.TRUE);
+            }
+            times[1] = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int key : keys)
+            {
+                Integer floor = treeMap.floorKey(key ^ 1);
+                _sink += floor == null ? 0 : floor;
+            }
+            times[2] = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int key : keys)
+            {
+                treeMap.remove(key);
+            }
+            times[3] = System.nanoTime() - start;
+            record(run, times, map);
+        }
+
+        System.out.printf("%d elements, sorted-insert height %d%n", ELEMENTS, height);
+        System.out.printf("%-15s %15s %15s%n", "", "BalancedTree", "TreeMap");
+        for (int i = 0; i < names.length; i++)
+        {
+            System.out.printf("%-15s %12.1f ms %15s%n", names[i], tree[i] / 1e6,
+                    map[i] == 0 ? "n/a" : String.format("%12.1f ms", map[i] / 1e6));
+        }
+    }
+
+    /**
+     * Keeps the best time of each operation once the warm-up runs are over.
+     *
+     * @param run index of the run
+     * @param times times of this run
+     * @param best best times so far
+     */
+    private static void record(int run, long[] times, long[] best)
+    {
+        if (run < WARMUP_RUNS)
+        {
+            return;
+        }
+        for (int i = 0; i < times.length; i++)
+        {
+            best[i] = Math.min(best[i], times[i]);
+        }
+    }
+}
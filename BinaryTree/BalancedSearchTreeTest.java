@@ -0,0 +1,158 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeSet;
+
+public class BalancedSearchTreeTest
+{
+    private BalancedSearchTree<Integer> tree;
+
+    @BeforeEach
+    void setup() {
+        tree = new BalancedSearchTree<>();
+        for (int i = 10; i <= 100; i += 10) {
+            tree.insert(i);
+        }
+    }
+
+    // 1. Test size and duplicate inserts
+    @Test
+    void testInsert() {
+        assertEquals(10, tree.size());
+        assertFalse(tree.insert(50));
+        assertEquals(10, tree.size());
+        assertTrue(tree.insert(55));
+        assertEquals(11, tree.size());
+        assertTrue(tree.contains(55));
+        assertFalse(tree.contains(56));
+    }
+
+    // 2. Test sorted inserts stay balanced
+    @Test
+    void testSortedInsertsStayBalanced() {
+        BalancedSearchTree<Integer> sorted = new BalancedSearchTree<>();
+        for (int i = 0; i < 100_000; i++) {
+            sorted.insert(i);
+        }
+        assertEquals(100_000, sorted.size());
+        assertEquals(16, sorted.height());
+        assertFalse(sorted.asBinaryTree().isDegenerate());
+        assertBalanced(sorted.asBinaryTree());
+    }
+
+    // 3. Test delete of leaves, inner nodes and the root
+    @Test
+    void testDelete() {
+        assertTrue(tree.delete(10));
+        assertTrue(tree.delete(tree.asBinaryTree().getElement()));
+        assertTrue(tree.delete(60));
+        assertFalse(tree.delete(60));
+        assertEquals(7, tree.size());
+        assertEquals("[20, 30, 50, 70, 80, 90, 100]", tree.toString());
+        assertBalanced(tree.asBinaryTree());
+    }
+
+    // 4. Test floor and ceiling
+    @Test
+    void testFloorAndCeiling() {
+        assertEquals(Integer.valueOf(50), tree.floor(50));
+        assertEquals(Integer.valueOf(50), tree.floor(59));
+        assertNull(tree.floor(9));
+        assertEquals(Integer.valueOf(60), tree.ceiling(51));
+        assertEquals(Integer.valueOf(10), tree.ceiling(-5));
+        assertNull(tree.ceiling(101));
+        assertEquals(Integer.valueOf(10), tree.first());
+        assertEquals(Integer.valueOf(100), tree.last());
+    }
+
+    // 5. Test rank and select
+    @Test
+    void testRankAndSelect() {
+        for (int i = 0; i < tree.size(); i++) {
+            assertEquals(Integer.valueOf(10 * (i + 1)), tree.select(i));
+            assertEquals(i, tree.rank(tree.select(i)));
+        }
+        assertEquals(0, tree.rank(5));
+        assertEquals(5, tree.rank(55));
+        assertEquals(10, tree.rank(1000));
+        assertThrows(IndexOutOfBoundsException.class, () -> tree.select(10));
+    }
+
+    // 6. Test range iteration
+    @Test
+    void testRange() {
+        assertEquals(List.of(30, 40, 50), drain(tree.range(25, 50)));
+        assertEquals(List.of(100), drain(tree.range(100, 200)));
+        assertEquals(List.of(), drain(tree.range(41, 49)));
+        assertEquals(List.of(), drain(tree.range(200, 300)));
+        assertThrows(NoSuchElementException.class, () -> tree.range(41, 49).next());
+    }
+
+    // 7. Test empty tree
+    @Test
+    void testEmptyTree() {
+        BalancedSearchTree<Integer> empty = new BalancedSearchTree<>();
+        assertTrue(empty.isEmpty());
+        assertEquals(0, empty.size());
+        assertEquals(-1, empty.height());
+        assertNull(empty.floor(1));
+        assertFalse(empty.delete(1));
+        assertFalse(empty.iterator().hasNext());
+        assertThrows(NoSuchElementException.class, empty::first);
+        assertThrows(IllegalArgumentException.class, () -> empty.insert(null));
+    }
+
+    // 8. Test random inserts and deletes against TreeSet
+    @Test
+    void testAgainstTreeSet() {
+        Random random = new Random(42);
+        BalancedSearchTree<Integer> actual = new BalancedSearchTree<>();
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int i = 0; i < 20_000; i++) {
+            int value = random.nextInt(2_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(value), actual.delete(value));
+            } else {
+                assertEquals(expected.add(value), actual.insert(value));
+            }
+            assertEquals(expected.floor(value), actual.floor(value));
+            assertEquals(expected.ceiling(value), actual.ceiling(value));
+            assertEquals(expected.headSet(value).size(), actual.rank(value));
+        }
+        assertEquals(new ArrayList<>(expected), drain(actual.iterator()));
+        assertEquals(new ArrayList<>(expected.subSet(500, true, 900, true)), drain(actual.range(500, 900)));
+        assertBalanced(actual.asBinaryTree());
+    }
+
+    private static void assertBalanced(BinaryTree<Integer> node) {
+        if (node == null) {
+            return;
+        }
+        int left = node.hasLeftChild() ? node.getLeftChild().height() : -1;
+        int right = node.hasRightChild() ? node.getRightChild().height() : -1;
+        assertTrue(Math.abs(left - right) <= 1);
+        if (node.hasLeftChild()) {
+            assertSame(node, node.getLeftChild().getParent());
+            assertTrue(node.getLeftChild().getElement() < node.getElement());
+        }
+        if (node.hasRightChild()) {
+            assertSame(node, node.getRightChild().getParent());
+            assertTrue(node.getRightChild().getElement() > node.getElement());
+        }
+        assertBalanced(node.getLeftChild());
+        assertBalanced(node.getRightChild());
+    }
+
+    private static <T> List<T> drain(Iterator<T> iterator) {
+        List<T> elements = new ArrayList<>();
+        iterator.forEachRemaining(elements::add);
+        return elements;
+    }
+
+}
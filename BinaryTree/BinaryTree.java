@@ -1,4 +1,11 @@
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A functioning binary tree class.
@@ -7,19 +14,23 @@ import java.util.*;
  *
  * @param <E> Type of elements in binary tree.
  */
-public class BinaryTree<E>
+public class BinaryTree<E> implements Iterable<E>
 {
+    // Subtrees with at most this many nodes are traversed sequentially rather than split.
+    static final int SEQUENTIAL_THRESHOLD = 1 << 12;
+
     // Elements in binary tree.
     private E _element;
     private BinaryTree<E> _leftChild;
     private BinaryTree<E> _rightChild;
     private BinaryTree<E> _parent;
 
+    // Cached shape of the subtree rooted here, updated along the parent chain whenever a
+    // child is set, so size(), height() and isFull() are O(1).
     private int _size;
-    private int _leftHeight;
-    private int _rightHeight;
+    private int _height;
+    private boolean _full;
     private int _level;
-    private int _degree;
 
     /**
      * Construct a binary tree.
@@ -31,10 +42,9 @@ public class BinaryTree<E>
         _rightChild = null;
         _parent = null;
         _size = 1;
-        _leftHeight = 0;
-        _rightHeight = 0;
+        _height = 0;
+        _full = true;
         _level = 0;
-        _degree = 0;
     }
 
     /**
@@ -79,7 +89,7 @@ public class BinaryTree<E>
     }
 
     /**
-     * Set a new left child.
+     * Set a new left child. A child that belongs to another parent is detached from it first.
      *
      * @param child new left child to be set.
      * @return previous left child.
@@ -88,6 +98,11 @@ public class BinaryTree<E>
     {
         validateChild(child);
         BinaryTree<E> oldLeftChild = _leftChild;
+        if (child != null && child == oldLeftChild)
+        {
+            return oldLeftChild;
+        }
+        detach(child);
         if (_leftChild != null)
         {
             _leftChild._parent = null;
@@ -97,6 +112,7 @@ public class BinaryTree<E>
         {
             child._parent = this;
         }
+        updateAncestors();
         return oldLeftChild;
     }
 
@@ -121,7 +137,7 @@ public class BinaryTree<E>
     }
 
     /**
-     * Set a new right child.
+     * Set a new right child. A child that belongs to another parent is detached from it first.
      *
      * @param child new right child to be set.
      * @return previous right child.
@@ -130,6 +146,11 @@ public class BinaryTree<E>
     {
         validateChild(child);
         BinaryTree<E> oldRightChild = _rightChild;
+        if (child != null && child == oldRightChild)
+        {
+            return oldRightChild;
+        }
+        detach(child);
         if (_rightChild != null)
         {
             _rightChild._parent = null;
@@ -139,85 +160,164 @@ public class BinaryTree<E>
         {
             child._parent = this;
         }
+        updateAncestors();
         return oldRightChild; // Attach new child
     }
 
     /**
-     * Gets root of the binary tree.
+     * Removes a node from its current parent, if it has one, so it can be attached elsewhere.
      *
-     * @return root node of the binary tree.
+     * @param child the node to detach, may be null.
      */
-    public BinaryTree<E> getRoot()
+    private void detach(BinaryTree<E> child)
     {
-        if (_parent != null)
+        if (child == null || child._parent == null)
         {
-            return _parent.getRoot();
+            return;
+        }
+
+        BinaryTree<E> parent = child._parent;
+        if (parent._leftChild == child)
+        {
+            parent._leftChild = null;
         }
         else
         {
-            return this;
+            parent._rightChild = null;
         }
+        child._parent = null;
+        parent.updateAncestors();
     }
 
     /**
-     * Get parent of the node.
-     *
-     * @return parent of the node.
+     * Recomputes the cached size, height and fullness of this node, then of each ancestor in
+     * turn, stopping at the first one whose cache did not change.
      */
-    public BinaryTree<E> getParent()
+    private void updateAncestors()
     {
-        return _parent;
+        BinaryTree<E> node = this;
+        while (node != null && node.refresh())
+        {
+            node = node._parent;
+        }
     }
 
     /**
-     * Calculate size of binary tree.
+     * Recomputes the cached size, height and fullness of this node from its children only.
      *
-     * @return total number of nodes in tree.
+     * @return true if the cache changed.
      */
-     public int size()
+    boolean refresh()
     {
-        if (hasRightChild())
+        int size = 1;
+        int height = 0;
+        if (_leftChild != null)
         {
-            _size += getRightChild().size();
+            size += _leftChild._size;
+            height = 1 + _leftChild._height;
         }
-        if (hasLeftChild())
+        if (_rightChild != null)
         {
-            _size += getLeftChild().size();
+            size += _rightChild._size;
+            height = Math.max(height, 1 + _rightChild._height);
         }
+        boolean full = isLeaf()
+                || (_leftChild != null && _rightChild != null && _leftChild._full && _rightChild._full);
 
-        return _size;
+        if (size == _size && height == _height && full == _full)
+        {
+            return false;
+        }
+        _size = size;
+        _height = height;
+        _full = full;
+        return true;
     }
 
     /**
-     * Calculate height of binary tree.
+     * Links a left child without validating it or refreshing any cache. For structures such as
+     * BalancedSearchTree that restructure several nodes and then refresh them in one pass.
      *
-     * @return height of tree.
+     * @param child new left child, may be null.
      */
-    public int height()
+    void linkLeft(BinaryTree<E> child)
     {
-        if (!hasLeftChild() && !hasRightChild())
-        {
-            return 0;
-        }
-        if (hasLeftChild())
+        _leftChild = child;
+        if (child != null)
         {
-            _leftHeight = getLeftChild().height();
+            child._parent = this;
         }
-        if (hasRightChild())
+    }
+
+    /**
+     * Links a right child without validating it or refreshing any cache.
+     *
+     * @param child new right child, may be null.
+     */
+    void linkRight(BinaryTree<E> child)
+    {
+        _rightChild = child;
+        if (child != null)
         {
-            _rightHeight = getRightChild().height();
+            child._parent = this;
         }
+    }
 
-        if (_leftHeight > _rightHeight)
+    /**
+     * Clears the parent link without touching the old parent.
+     */
+    void unlinkParent()
+    {
+        _parent = null;
+    }
+
+    /**
+     * Gets root of the binary tree.
+     *
+     * @return root node of the binary tree.
+     */
+    public BinaryTree<E> getRoot()
+    {
+        if (_parent != null)
         {
-            return 1 + _leftHeight;
+            return _parent.getRoot();
         }
         else
         {
-            return 1 + _rightHeight;
+            return this;
         }
     }
 
+    /**
+     * Get parent of the node.
+     *
+     * @return parent of the node.
+     */
+    public BinaryTree<E> getParent()
+    {
+        return _parent;
+    }
+
+    /**
+     * Get size of binary tree. The size is cached, so this is O(1).
+     *
+     * @return total number of nodes in tree.
+     */
+    public int size()
+    {
+        return _size;
+    }
+
+    /**
+     * Get height of binary tree. The height is cached, so this is O(1).
+     *
+     * @return height of tree.
+     */
+    public int height()
+    {
+        return _height;
+    }
+
     /**
      * Calculate level of binary tree.
      *
@@ -242,16 +342,17 @@ public class BinaryTree<E>
      */
     public int degree()
     {
+        int degree = 0;
         if (hasLeftChild())
         {
-            _degree ++;
+            degree++;
         }
         if (hasRightChild())
         {
-            _degree ++;
+            degree++;
         }
 
-        return _degree;
+        return degree;
     }
 
     /**
@@ -295,21 +396,13 @@ public class BinaryTree<E>
     }
 
     /**
-     * Determines if binary tree is full.
+     * Determines if binary tree is full. Fullness is cached, so this is O(1).
      *
      * @return true if full.
      */
     public boolean isFull()
     {
-        if (isLeaf())
-        {
-            return true;
-        }
-        if (hasLeftChild() && hasRightChild())
-        {
-            return _leftChild.isFull() && _rightChild.isFull();
-        }
-        return false;
+        return _full;
     }
 
     /**
@@ -357,7 +450,8 @@ public class BinaryTree<E>
     }
 
     /**
-     * Determines if the current node is an ancestor of the specified descendant node.
+     * Determines if the current node is an ancestor of the specified descendant node, by
+     * walking up the parent chain of the descendant in O(depth).
      *
      * @param descendant the node to check against.
      * @return true if the current node is an ancestor of the descendant node.
@@ -370,13 +464,15 @@ public class BinaryTree<E>
         {
             throw new IllegalArgumentException("NOPE");
         }
-        if (descendant == _leftChild || descendant == _rightChild)
+
+        for (BinaryTree<E> node = descendant._parent; node != null; node = node._parent)
         {
-            return true;
+            if (node == this)
+            {
+                return true;
+            }
         }
-
-        return (_leftChild != null && _leftChild.isAncestorOf(descendant))
-                || (_rightChild != null && _rightChild.isAncestorOf(descendant));
+        return false;
     }
 
     /**
@@ -451,122 +547,434 @@ public class BinaryTree<E>
      *
      * @return an iterator over the elements of the binary tree.
      */
+    @Override
     public Iterator<E> iterator()
     {
         return inOrderIterator();
     }
 
     /**
-     * Creates an in-order iterator for the binary tree.
+     * Creates a spliterator over the elements in in-order. It splits at the middle position of
+     * its range, found through the cached subtree sizes in O(height), so both halves have the
+     * same size however skewed the tree is. Ranges of at most SEQUENTIAL_THRESHOLD elements are
+     * not split. The tree must not be modified while the spliterator is in use.
      *
-     * @return an iterator over the elements of the binary tree in in-order traversal.
+     * @return an ordered, sized spliterator over the elements of the binary tree.
      */
-    public Iterator<E> inOrderIterator()
+    @Override
+    public Spliterator<E> spliterator()
+    {
+        return new TreeSpliterator(leftmost(this), _size);
+    }
+
+    /**
+     * Creates a sequential stream over the elements in in-order. Call parallel() on it to
+     * split the work across the common ForkJoinPool.
+     *
+     * @return a stream over the elements of the binary tree.
+     */
+    public Stream<E> stream()
     {
-        List<E> elements = new ArrayList<>();
-        inOrderTraverse(this, elements);
-        return elements.iterator();
+        return StreamSupport.stream(spliterator(), false);
     }
 
     /**
-     * Helper method for in-order traversal.
-     * Adds the elements of the binary tree to a list in in-order sequence.
+     * Reduces the elements on the common ForkJoinPool, splitting the tree in halves until there
+     * are about four pieces per pool thread, none smaller than SEQUENTIAL_THRESHOLD nodes, and
+     * folding each piece sequentially.
+     * Small trees are folded on the calling thread. The pieces are combined in in-order, so the
+     * combiner need only be associative.
      *
-     * @param node the current node being traversed.
-     * @param elements the list to store the elements.
+     * @param identity the identity of the combiner.
+     * @param accumulator folds one element into a partial result.
+     * @param combiner combines two partial results.
+     * @param <R> type of the result.
+     * @return the reduced result.
+     * @throws IllegalArgumentException if the accumulator or combiner is null.
      */
-    private void inOrderTraverse(BinaryTree<E> node, List<E> elements)
+    public <R> R parallelReduce(R identity, BiFunction<R, ? super E, R> accumulator, BinaryOperator<R> combiner)
     {
-        if (node == null)
+        if (accumulator == null || combiner == null)
         {
-            return;
+            throw new IllegalArgumentException("Null argument");
         }
 
-        inOrderTraverse(node._leftChild, elements);
-        elements.add(node._element);
-        inOrderTraverse(node._rightChild, elements);
+        int threshold = Math.max(SEQUENTIAL_THRESHOLD, _size / (4 * ForkJoinPool.getCommonPoolParallelism()));
+        ReduceTask<R> task = new ReduceTask<>(new TreeSpliterator(leftmost(this), _size), threshold,
+                identity, accumulator, combiner);
+        return _size <= threshold ? task.compute() : ForkJoinPool.commonPool().invoke(task);
     }
 
     /**
-     * Creates a pre-order iterator for the binary tree.
+     * Creates an in-order iterator for the binary tree. Elements are produced on demand by
+     * following parent links, so iteration uses O(1) extra memory and no recursion.
+     *
+     * @return an iterator over the elements of the binary tree in in-order traversal.
+     */
+    public Iterator<E> inOrderIterator()
+    {
+        return new TraversalIterator(leftmost(this))
+        {
+            @Override
+            protected BinaryTree<E> successor(BinaryTree<E> node)
+            {
+                if (node._rightChild != null)
+                {
+                    return leftmost(node._rightChild);
+                }
+                while (node != BinaryTree.this && node == node._parent._rightChild)
+                {
+                    node = node._parent;
+                }
+                return node == BinaryTree.this ? null : node._parent;
+            }
+        };
+    }
+
+    /**
+     * Creates a pre-order iterator for the binary tree. Elements are produced on demand by
+     * following parent links, so iteration uses O(1) extra memory and no recursion.
      *
      * @return an iterator over the elements of the binary tree in pre-order traversal.
      */
     public Iterator<E> preOrderIterator()
     {
-        List<E> elements = new ArrayList<>();
-        preOrderTraverse(this, elements);
-        return elements.iterator();
+        return new TraversalIterator(this)
+        {
+            @Override
+            protected BinaryTree<E> successor(BinaryTree<E> node)
+            {
+                if (node._leftChild != null)
+                {
+                    return node._leftChild;
+                }
+                if (node._rightChild != null)
+                {
+                    return node._rightChild;
+                }
+                while (node != BinaryTree.this)
+                {
+                    BinaryTree<E> parent = node._parent;
+                    if (node == parent._leftChild && parent._rightChild != null)
+                    {
+                        return parent._rightChild;
+                    }
+                    node = parent;
+                }
+                return null;
+            }
+        };
     }
 
     /**
-     * Helper method for pre-order traversal.
-     * Adds the elements of the binary tree to a list in pre-order sequence.
+     * Creates a post-order iterator for the binary tree. Elements are produced on demand by
+     * following parent links, so iteration uses O(1) extra memory and no recursion.
      *
-     * @param node the current node being traversed.
-     * @param elements the list to store the elements.
+     * @return an iterator over the elements of the binary tree in post-order traversal.
      */
-    private void preOrderTraverse(BinaryTree<E> node, List<E> elements)
+    public Iterator<E> postOrderIterator()
     {
-        if (node != null)
+        return new TraversalIterator(firstLeaf(this))
         {
-            elements.add(node._element);
-            preOrderTraverse(node._leftChild, elements);
-            preOrderTraverse(node._rightChild, elements);
+            @Override
+            protected BinaryTree<E> successor(BinaryTree<E> node)
+            {
+                if (node == BinaryTree.this)
+                {
+                    return null;
+                }
+                BinaryTree<E> parent = node._parent;
+                if (node == parent._leftChild && parent._rightChild != null)
+                {
+                    return firstLeaf(parent._rightChild);
+                }
+                return parent;
+            }
+        };
+    }
+
+    /**
+     * Creates a level-order iterator for the binary tree. Elements are produced on demand;
+     * the queue holds at most one level of the tree at a time.
+     *
+     * @return an iterator over the elements of the binary tree in level-order traversal.
+     */
+    public Iterator<E> levelOrderIterator()
+    {
+        Queue<BinaryTree<E>> queue = new ArrayDeque<>();
+        queue.add(this);
+        return new Iterator<E>()
+        {
+            @Override
+            public boolean hasNext()
+            {
+                return !queue.isEmpty();
+            }
+
+            @Override
+            public E next()
+            {
+                BinaryTree<E> current = queue.poll();
+                if (current == null)
+                {
+                    throw new NoSuchElementException();
+                }
+                if (current._leftChild != null)
+                {
+                    queue.add(current._leftChild);
+                }
+                if (current._rightChild != null)
+                {
+                    queue.add(current._rightChild);
+                }
+                return current._element;
+            }
+        };
+    }
+
+    /**
+     * Finds the leftmost node of a subtree, the first node visited in-order.
+     *
+     * @param node root of the subtree.
+     * @return leftmost node.
+     */
+    private BinaryTree<E> leftmost(BinaryTree<E> node)
+    {
+        while (node._leftChild != null)
+        {
+            node = node._leftChild;
         }
+        return node;
     }
 
     /**
-     * Creates a post-order iterator for the binary tree.
+     * Finds the first leaf of a subtree, the first node visited post-order.
      *
-     * @return an iterator over the elements of the binary tree in post-order traversal.
+     * @param node root of the subtree.
+     * @return first leaf, preferring left children over right.
      */
-    public Iterator<E> postOrderIterator()
+    private BinaryTree<E> firstLeaf(BinaryTree<E> node)
+    {
+        while (!node.isLeaf())
+        {
+            node = node._leftChild != null ? node._leftChild : node._rightChild;
+        }
+        return node;
+    }
+
+    /**
+     * A lazy iterator over the subtree rooted at this node that holds only the next node to
+     * visit and finds the one after it with a parent-pointer walk.
+     */
+    private abstract class TraversalIterator implements Iterator<E>
     {
-        List<E> elements = new ArrayList<>();
-        postOrderTraverse(this, elements);
-        return elements.iterator();
+        private BinaryTree<E> _next;
+
+        /**
+         * Construct an iterator starting at the given node.
+         *
+         * @param first first node to visit.
+         */
+        TraversalIterator(BinaryTree<E> first)
+        {
+            _next = first;
+        }
+
+        /**
+         * Finds the node visited after the given one, never leaving the subtree being iterated.
+         *
+         * @param node the node just visited.
+         * @return next node, or null when the traversal is finished.
+         */
+        protected abstract BinaryTree<E> successor(BinaryTree<E> node);
+
+        @Override
+        public boolean hasNext()
+        {
+            return _next != null;
+        }
+
+        @Override
+        public E next()
+        {
+            if (_next == null)
+            {
+                throw new NoSuchElementException();
+            }
+            BinaryTree<E> current = _next;
+            _next = successor(current);
+            return current._element;
+        }
     }
 
     /**
-     * Helper method for post-order traversal.
-     * Adds the elements of the binary tree to a list in post-order sequence.
+     * Finds the node a given number of positions after a node in in-order, using the cached
+     * subtree sizes to skip whole subtrees, in O(height).
      *
-     * @param node the current node being traversed.
-     * @param elements the list to store the elements.
+     * @param node the starting node.
+     * @param offset number of positions to move forward, at least 1.
+     * @return the node at that position, or null if the tree ends first.
      */
-    private void postOrderTraverse(BinaryTree<E> node, List<E> elements)
+    private BinaryTree<E> skip(BinaryTree<E> node, int offset)
     {
-        if (node == null)
+        while (true)
         {
-            return;
+            int right = node._rightChild == null ? 0 : node._rightChild._size;
+            if (offset <= right)
+            {
+                // The target is in the right subtree, at in-order index offset - 1.
+                node = node._rightChild;
+                int index = offset - 1;
+                while (true)
+                {
+                    int left = node._leftChild == null ? 0 : node._leftChild._size;
+                    if (index < left)
+                    {
+                        node = node._leftChild;
+                    }
+                    else if (index == left)
+                    {
+                        return node;
+                    }
+                    else
+                    {
+                        index -= left + 1;
+                        node = node._rightChild;
+                    }
+                }
+            }
+
+            // Step past the right subtree to the first ancestor reached from its left.
+            offset -= right + 1;
+            while (node._parent != null && node == node._parent._rightChild)
+            {
+                node = node._parent;
+            }
+            node = node._parent;
+            if (node == null || offset == 0)
+            {
+                return node;
+            }
         }
-        postOrderTraverse(node._leftChild, elements);
-        postOrderTraverse(node._rightChild, elements);
-        elements.add(node._element);
     }
 
     /**
-     * Creates a level-order iterator for the binary tree.
+     * A spliterator over a run of consecutive in-order positions, held as the first node of the
+     * run and its length.
+     */
+    private class TreeSpliterator implements Spliterator<E>
+    {
+        private BinaryTree<E> _next;
+        private int _remaining;
+
+        /**
+         * Construct a spliterator over a run of positions.
+         *
+         * @param first first node of the run.
+         * @param length number of positions in the run.
+         */
+        TreeSpliterator(BinaryTree<E> first, int length)
+        {
+            _next = first;
+            _remaining = length;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super E> action)
+        {
+            if (_remaining == 0)
+            {
+                return false;
+            }
+            BinaryTree<E> current = _next;
+            _next = --_remaining == 0 ? null : skip(current, 1);
+            action.accept(current._element);
+            return true;
+        }
+
+        @Override
+        public Spliterator<E> trySplit()
+        {
+            if (_remaining <= SEQUENTIAL_THRESHOLD)
+            {
+                return null;
+            }
+            int half = _remaining / 2;
+            TreeSpliterator prefix = new TreeSpliterator(_next, half);
+            _next = skip(_next, half);
+            _remaining -= half;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize()
+        {
+            return _remaining;
+        }
+
+        @Override
+        public int characteristics()
+        {
+            return ORDERED | SIZED | SUBSIZED;
+        }
+    }
+
+    /**
+     * Reduces the run of a spliterator, forking the first half of each split and computing the
+     * second half on the current thread.
      *
-     * @return an iterator over the elements of the binary tree in level-order traversal.
+     * @param <R> type of the result.
      */
-    public Iterator<E> levelOrderIterator()
+    @SuppressWarnings("serial")
+    private class ReduceTask<R> extends RecursiveTask<R>
     {
-        List<E> elements = new ArrayList<>();
-        Queue<BinaryTree<E>> queue = new LinkedList<>();
-        queue.add(this);
-        while (!queue.isEmpty())
+        private final TreeSpliterator _spliterator;
+        private final int _threshold;
+        private final R _identity;
+        private final BiFunction<R, ? super E, R> _accumulator;
+        private final BinaryOperator<R> _combiner;
+
+        /**
+         * Construct a task over the run of a spliterator.
+         *
+         * @param spliterator the run to reduce.
+         * @param threshold length of the longest run that is not split.
+         * @param identity the identity of the combiner.
+         * @param accumulator folds one element into a partial result.
+         * @param combiner combines two partial results.
+         */
+        ReduceTask(TreeSpliterator spliterator, int threshold, R identity,
+                BiFunction<R, ? super E, R> accumulator, BinaryOperator<R> combiner)
+        {
+            _spliterator = spliterator;
+            _threshold = threshold;
+            _identity = identity;
+            _accumulator = accumulator;
+            _combiner = combiner;
+        }
+
+        @Override
+        protected R compute()
         {
-            BinaryTree<E> current = queue.poll();
-            if (current != null)
+            TreeSpliterator prefix = _spliterator._remaining <= _threshold
+                    ? null : (TreeSpliterator) _spliterator.trySplit();
+            if (prefix == null)
             {
-                elements.add(current._element);
-                queue.add(current._leftChild);
-                queue.add(current._rightChild);
+                R result = _identity;
+                BinaryTree<E> node = _spliterator._next;
+                for (int i = _spliterator._remaining; i > 0; i--)
+                {
+                    result = _accumulator.apply(result, node._element);
+                    node = i == 1 ? null : skip(node, 1);
+                }
+                return result;
             }
+
+            ReduceTask<R> left = new ReduceTask<>(prefix, _threshold, _identity, _accumulator, _combiner);
+            left.fork();
+            R right = new ReduceTask<>(_spliterator, _threshold, _identity, _accumulator, _combiner).compute();
+            return _combiner.apply(left.join(), right);
         }
-        return elements.iterator();
     }
 
     /**
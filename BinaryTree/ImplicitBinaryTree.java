@@ -0,0 +1,714 @@
+import java.util.*;
+
+/**
+ * A complete binary tree stored implicitly in an array in level order, with the children of
+ * the node at index i at 2i + 1 and 2i + 2. Each node costs one array slot. Nodes are
+ * navigated through Node views that offer the same methods as BinaryTree, and level-order
+ * iteration is a sequential scan of the array.
+ *
+ * @author mfullhart20@georgefox.edu.
+ *
+ * @param <E> Type of elements in binary tree.
+ */
+public class ImplicitBinaryTree<E> implements Iterable<E>
+{
+    // Capacity of a tree constructed without one.
+    private static final int DEFAULT_CAPACITY = 16;
+
+    // Elements in level order.
+    private Object[] _elements;
+    private int _size;
+
+    /**
+     * Construct an empty tree.
+     */
+    public ImplicitBinaryTree()
+    {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Construct an empty tree with room for a number of elements.
+     *
+     * @param capacity number of elements to make room for.
+     * @throws IllegalArgumentException if the capacity is negative.
+     */
+    public ImplicitBinaryTree(int capacity)
+    {
+        if (capacity < 0)
+        {
+            throw new IllegalArgumentException("Negative capacity");
+        }
+        _elements = new Object[capacity];
+        _size = 0;
+    }
+
+    /**
+     * Copies a complete linked tree into a new implicit tree.
+     *
+     * @param tree the tree to copy, which must be complete.
+     * @param <E> Type of elements in binary tree.
+     * @return the implicit tree.
+     * @throws IllegalArgumentException if the tree is null or not complete.
+     */
+    public static <E> ImplicitBinaryTree<E> of(BinaryTree<E> tree)
+    {
+        if (tree == null || !tree.isComplete())
+        {
+            throw new IllegalArgumentException("Tree must be complete.");
+        }
+
+        ImplicitBinaryTree<E> implicit = new ImplicitBinaryTree<>(tree.size());
+        Iterator<E> iterator = tree.levelOrderIterator();
+        while (iterator.hasNext())
+        {
+            implicit._elements[implicit._size++] = iterator.next();
+        }
+        return implicit;
+    }
+
+    /**
+     * Copies this tree into linked BinaryTree nodes. Nodes are linked from the last to the
+     * first, so every attach happens under a parent that has no parent yet and costs O(1).
+     *
+     * @return root of the linked tree, or null if empty.
+     */
+    public BinaryTree<E> toBinaryTree()
+    {
+        List<BinaryTree<E>> nodes = new ArrayList<>(_size);
+        for (int i = 0; i < _size; i++)
+        {
+            nodes.add(new BinaryTree<>(element(i)));
+        }
+        for (int i = _size - 1; i > 0; i--)
+        {
+            BinaryTree<E> parent = nodes.get((i - 1) / 2);
+            if (i % 2 == 1)
+            {
+                parent.setLeftChild(nodes.get(i));
+            }
+            else
+            {
+                parent.setRightChild(nodes.get(i));
+            }
+        }
+        return _size == 0 ? null : nodes.get(0);
+    }
+
+    /**
+     * Get number of nodes in the tree.
+     *
+     * @return number of nodes.
+     */
+    public int size()
+    {
+        return _size;
+    }
+
+    /**
+     * Determines if the tree is empty.
+     *
+     * @return true if empty.
+     */
+    public boolean isEmpty()
+    {
+        return _size == 0;
+    }
+
+    /**
+     * Adds an element at the next free position in level order, which keeps the tree complete.
+     *
+     * @param element the element to add.
+     * @return the new node.
+     */
+    public Node add(E element)
+    {
+        if (_size == _elements.length)
+        {
+            _elements = Arrays.copyOf(_elements, Math.max(DEFAULT_CAPACITY, _size + (_size >> 1)));
+        }
+        _elements[_size] = element;
+        return new Node(_size++);
+    }
+
+    /**
+     * Removes the last node in level order, which keeps the tree complete.
+     *
+     * @return element of the removed node.
+     * @throws NoSuchElementException if the tree is empty.
+     */
+    public E removeLast()
+    {
+        if (_size == 0)
+        {
+            throw new NoSuchElementException();
+        }
+        E element = element(--_size);
+        _elements[_size] = null;
+        return element;
+    }
+
+    /**
+     * Gets root of the tree.
+     *
+     * @return root node, or null if empty.
+     */
+    public Node getRoot()
+    {
+        return _size == 0 ? null : new Node(0);
+    }
+
+    /**
+     * Gets the node at a position in level order.
+     *
+     * @param index position of the node, from 0 to size() - 1.
+     * @return the node.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public Node getNode(int index)
+    {
+        checkIndex(index);
+        return new Node(index);
+    }
+
+    /**
+     * Gets the element at a position in level order.
+     *
+     * @param index position of the node, from 0 to size() - 1.
+     * @return the element.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public E get(int index)
+    {
+        checkIndex(index);
+        return element(index);
+    }
+
+    /**
+     * Retrieves an iterator for traversing the tree in in-order traversal.
+     *
+     * @return an iterator over the elements of the tree.
+     */
+    @Override
+    public Iterator<E> iterator()
+    {
+        return _size == 0 ? Collections.emptyIterator() : new Node(0).inOrderIterator();
+    }
+
+    /**
+     * Creates a level-order iterator, which scans the array from start to end.
+     *
+     * @return an iterator over the elements of the tree in level-order traversal.
+     */
+    public Iterator<E> levelOrderIterator()
+    {
+        return _size == 0 ? Collections.emptyIterator() : new Node(0).levelOrderIterator();
+    }
+
+    /**
+     * Generates a string representation of the tree in in-order traversal.
+     *
+     * @return a string representation of the tree.
+     */
+    @Override
+    public String toString()
+    {
+        return _size == 0 ? "[]" : new Node(0).toString();
+    }
+
+    /**
+     * Gets the element at an index without checking it.
+     *
+     * @param index position of the node.
+     * @return the element.
+     */
+    @SuppressWarnings("unchecked")
+    private E element(int index)
+    {
+        return (E) _elements[index];
+    }
+
+    /**
+     * Checks that an index refers to a node.
+     *
+     * @param index position of the node.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    private void checkIndex(int index)
+    {
+        if (index < 0 || index >= _size)
+        {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + _size);
+        }
+    }
+
+    /**
+     * A view of one node of the tree, offering the navigation methods of BinaryTree. Views hold
+     * only an index, so they are cheap to create and equal when they refer to the same node.
+     * A view is invalid once its node has been removed.
+     */
+    public final class Node
+    {
+        // Position of the node in level order.
+        private final int _index;
+
+        /**
+         * Construct a view of a node.
+         *
+         * @param index position of the node.
+         */
+        private Node(int index)
+        {
+            _index = index;
+        }
+
+        /**
+         * Gets position of the node in level order.
+         *
+         * @return index into the array.
+         */
+        public int getIndex()
+        {
+            return _index;
+        }
+
+        /**
+         * Retrieves the element in the node.
+         *
+         * @return element.
+         */
+        public E getElement()
+        {
+            return element(_index);
+        }
+
+        /**
+         * Set element in the node.
+         *
+         * @param element to be set.
+         * @return element.
+         */
+        public E setElement(E element)
+        {
+            _elements[_index] = element;
+            return element;
+        }
+
+        /**
+         * Check if there is a left child.
+         *
+         * @return True if there is a left child.
+         */
+        public boolean hasLeftChild()
+        {
+            return 2L * _index + 1 < _size;
+        }
+
+        /**
+         * Gets left child.
+         *
+         * @return left child, or null if there is none.
+         */
+        public Node getLeftChild()
+        {
+            return hasLeftChild() ? new Node(2 * _index + 1) : null;
+        }
+
+        /**
+         * Check if there is a right child.
+         *
+         * @return True if there is a right child.
+         */
+        public boolean hasRightChild()
+        {
+            return 2L * _index + 2 < _size;
+        }
+
+        /**
+         * Gets right child.
+         *
+         * @return right child, or null if there is none.
+         */
+        public Node getRightChild()
+        {
+            return hasRightChild() ? new Node(2 * _index + 2) : null;
+        }
+
+        /**
+         * Get parent of the node.
+         *
+         * @return parent of the node, or null for the root.
+         */
+        public Node getParent()
+        {
+            return _index == 0 ? null : new Node((_index - 1) / 2);
+        }
+
+        /**
+         * Gets root of the tree.
+         *
+         * @return root node.
+         */
+        public Node getRoot()
+        {
+            return new Node(0);
+        }
+
+        /**
+         * Calculate size of the subtree rooted here by counting its nodes one level at a
+         * time, in O(log n).
+         *
+         * @return number of nodes in the subtree.
+         */
+        public int size()
+        {
+            int size = 0;
+            long low = _index;
+            long high = _index;
+            while (low < _size)
+            {
+                size += (int) (Math.min(high, _size - 1) - low + 1);
+                low = 2 * low + 1;
+                high = 2 * high + 2;
+            }
+            return size;
+        }
+
+        /**
+         * Calculate height of the subtree rooted here. In a complete tree the leftmost path is
+         * the longest.
+         *
+         * @return height of the subtree.
+         */
+        public int height()
+        {
+            int height = -1;
+            for (long i = _index; i < _size; i = 2 * i + 1)
+            {
+                height++;
+            }
+            return height;
+        }
+
+        /**
+         * Calculate level of the node.
+         *
+         * @return level of the node.
+         */
+        public int level()
+        {
+            return 31 - Integer.numberOfLeadingZeros(_index + 1);
+        }
+
+        /**
+         * Calculate degrees of the node.
+         *
+         * @return number of children.
+         */
+        public int degree()
+        {
+            return (hasLeftChild() ? 1 : 0) + (hasRightChild() ? 1 : 0);
+        }
+
+        /**
+         * Determines if current node is root node.
+         *
+         * @return true if root node.
+         */
+        public boolean isRoot()
+        {
+            return _index == 0;
+        }
+
+        /**
+         * Determines if current node is leaf node.
+         *
+         * @return true if leaf node.
+         */
+        public boolean isLeaf()
+        {
+            return !hasLeftChild();
+        }
+
+        /**
+         * Determines if the subtree rooted here is full. Only the parent of the last node can
+         * have a single child.
+         *
+         * @return true if full.
+         */
+        public boolean isFull()
+        {
+            if (_size % 2 == 1)
+            {
+                return true;
+            }
+            int parent = (_size - 2) / 2;
+            while (parent > _index)
+            {
+                parent = (parent - 1) / 2;
+            }
+            return parent != _index;
+        }
+
+        /**
+         * Determines if the current node is an ancestor of the specified descendant node.
+         *
+         * @param descendant the node to check against.
+         * @return true if the current node is an ancestor of the descendant node.
+         * @throws IllegalArgumentException if the descendant is null.
+         */
+        public boolean isAncestorOf(Node descendant)
+        {
+            if (descendant == null)
+            {
+                throw new IllegalArgumentException("Null argument");
+            }
+            for (int i = descendant._index; i > _index; )
+            {
+                i = (i - 1) / 2;
+                if (i == _index)
+                {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Creates an in-order iterator for the subtree rooted here.
+         *
+         * @return an iterator over the elements of the subtree in in-order traversal.
+         */
+        public Iterator<E> inOrderIterator()
+        {
+            return new IndexIterator(leftmost(_index))
+            {
+                @Override
+                protected int successor(int index)
+                {
+                    if (2L * index + 2 < _size)
+                    {
+                        return leftmost(2 * index + 2);
+                    }
+                    while (index != _index && index % 2 == 0)
+                    {
+                        index = (index - 1) / 2;
+                    }
+                    return index == _index ? -1 : (index - 1) / 2;
+                }
+            };
+        }
+
+        /**
+         * Creates a pre-order iterator for the subtree rooted here.
+         *
+         * @return an iterator over the elements of the subtree in pre-order traversal.
+         */
+        public Iterator<E> preOrderIterator()
+        {
+            return new IndexIterator(_index)
+            {
+                @Override
+                protected int successor(int index)
+                {
+                    if (2L * index + 1 < _size)
+                    {
+                        return 2 * index + 1;
+                    }
+                    while (index != _index)
+                    {
+                        if (index % 2 == 1 && index + 1 < _size)
+                        {
+                            return index + 1;
+                        }
+                        index = (index - 1) / 2;
+                    }
+                    return -1;
+                }
+            };
+        }
+
+        /**
+         * Creates a post-order iterator for the subtree rooted here.
+         *
+         * @return an iterator over the elements of the subtree in post-order traversal.
+         */
+        public Iterator<E> postOrderIterator()
+        {
+            return new IndexIterator(leftmost(_index))
+            {
+                @Override
+                protected int successor(int index)
+                {
+                    if (index == _index)
+                    {
+                        return -1;
+                    }
+                    if (index % 2 == 1 && index + 1 < _size)
+                    {
+                        return leftmost(index + 1);
+                    }
+                    return (index - 1) / 2;
+                }
+            };
+        }
+
+        /**
+         * Creates a level-order iterator for the subtree rooted here. Each level of the
+         * subtree is a contiguous run of the array, so this is a scan of those runs.
+         *
+         * @return an iterator over the elements of the subtree in level-order traversal.
+         */
+        public Iterator<E> levelOrderIterator()
+        {
+            return new Iterator<E>()
+            {
+                private long _low = _index;
+                private long _high = _index;
+                private long _next = _index;
+
+                @Override
+                public boolean hasNext()
+                {
+                    return _next < _size;
+                }
+
+                @Override
+                public E next()
+                {
+                    if (_next >= _size)
+                    {
+                        throw new NoSuchElementException();
+                    }
+                    E element = element((int) _next);
+                    if (_next++ == _high)
+                    {
+                        _low = 2 * _low + 1;
+                        _high = 2 * _high + 2;
+                        _next = _low;
+                    }
+                    return element;
+                }
+            };
+        }
+
+        /**
+         * Finds the leftmost node of a subtree, the first node visited in-order. In a complete
+         * tree it is also the first leaf, the first node visited post-order.
+         *
+         * @param index root of the subtree.
+         * @return index of the leftmost node.
+         */
+        private int leftmost(int index)
+        {
+            while (2L * index + 1 < _size)
+            {
+                index = 2 * index + 1;
+            }
+            return index;
+        }
+
+        /**
+         * Generates a string representation of the subtree in in-order traversal.
+         *
+         * @return a string representation of the subtree.
+         */
+        @Override
+        public String toString()
+        {
+            StringBuilder sb = new StringBuilder();
+            sb.append("[");
+            Iterator<E> iterator = inOrderIterator();
+            while (iterator.hasNext())
+            {
+                sb.append(iterator.next());
+                if (iterator.hasNext()) sb.append(", ");
+            }
+            sb.append("]");
+            return sb.toString();
+        }
+
+        /**
+         * Determines if another view refers to the same node of the same tree.
+         *
+         * @param other the object to compare with.
+         * @return true if same node.
+         */
+        @Override
+        public boolean equals(Object other)
+        {
+            if (!(other instanceof ImplicitBinaryTree<?>.Node))
+            {
+                return false;
+            }
+            ImplicitBinaryTree<?>.Node node = (ImplicitBinaryTree<?>.Node) other;
+            return node.tree() == ImplicitBinaryTree.this && node._index == _index;
+        }
+
+        /**
+         * Hashes the node by its position.
+         *
+         * @return hash code.
+         */
+        @Override
+        public int hashCode()
+        {
+            return _index;
+        }
+
+        /**
+         * Gets the tree the view belongs to.
+         *
+         * @return the owning tree.
+         */
+        private ImplicitBinaryTree<E> tree()
+        {
+            return ImplicitBinaryTree.this;
+        }
+    }
+
+    /**
+     * A lazy iterator over array positions that holds only the next position to visit and
+     * computes the one after it with index arithmetic.
+     */
+    private abstract class IndexIterator implements Iterator<E>
+    {
+        private int _next;
+
+        /**
+         * Construct an iterator starting at the given position.
+         *
+         * @param first first position to visit.
+         */
+        IndexIterator(int first)
+        {
+            _next = first;
+        }
+
+        /**
+         * Finds the position visited after the given one.
+         *
+         * @param index the position just visited.
+         * @return next position, or -1 when the traversal is finished.
+         */
+        protected abstract int successor(int index);
+
+        @Override
+        public boolean hasNext()
+        {
+            return _next >= 0;
+        }
+
+        @Override
+        public E next()
+        {
+            if (_next < 0)
+            {
+                throw new NoSuchElementException();
+            }
+            int current = _next;
+            _next = successor(current);
+            return element(current);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+import java.util.Iterator;
+
+/**
+ * Compares a complete tree stored as linked BinaryTree nodes with the same tree stored as an
+ * ImplicitBinaryTree. Prints the heap bytes per node of each, not counting the shared
+ * elements, and the best times of a level-order and an in-order iteration.
+ *
+ * @author mfullhart20@georgefox.edu.
+ */
+public class ImplicitBinaryTreeBenchmark
+{
+    // Number of nodes in the tree
+    private static final int NODES = 2_000_000;
+    // Number of untimed runs used to warm up the JIT
+    private static final int WARMUP_RUNS = 2;
+    // Number of timed runs
+    private static final int MEASURED_RUNS = 3;
+
+    // Keeps the JIT from discarding results
+    private static volatile long _sink;
+
+    /**
+     * Runs the comparison and prints memory per node and the best time of each iteration.
+     *
+     * @param args not used
+     */
+    public static void main(String[] args)
+    {
+        Integer[] elements = new Integer[NODES];
+        for (int i = 0; i < NODES; i++)
+        {
+            elements[i] = i;
+        }
+
+        long before = usedMemory();
+        ImplicitBinaryTree<Integer> implicit = new ImplicitBinaryTree<>(NODES);
+        for (Integer element : elements)
+        {
+            implicit.add(element);
+        }
+        long implicitBytes = usedMemory() - before;
+
+        before = usedMemory();
+        BinaryTree<Integer> linked = implicit.toBinaryTree();
+        long linkedBytes = usedMemory() - before;
+
+        long[] best = {Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE};
+        for (int run = 0; run < WARMUP_RUNS + MEASURED_RUNS; run++)
+        {
+            long[] times = {
+                    time(linked.levelOrderIterator()), time(implicit.levelOrderIterator()),
+                    time(linked.inOrderIterator()), time(implicit.iterator())};
+            for (int i = 0; run >= WARMUP_RUNS && i < times.length; i++)
+            {
+                best[i] = Math.min(best[i], times[i]);
+            }
+        }
+
+        System.out.printf("%d nodes%n", NODES);
+        System.out.printf("%-12s %12s %12s%n", "", "linked", "implicit");
+        System.out.printf("%-12s %9.1f B %10.1f B%n", "per node",
+                (double) linkedBytes / NODES, (double) implicitBytes / NODES);
+        System.out.printf("%-12s %9.1f ms %9.1f ms%n", "level order", best[0] / 1e6, best[1] / 1e6);
+        System.out.printf("%-12s %9.1f ms %9.1f ms%n", "in order", best[2] / 1e6, best[3] / 1e6);
+    }
+
+    /**
+     * Times one pass of an iterator.
+     *
+     * @param iterator the iterator to drain
+     * @return elapsed nanoseconds
+     */
+    private static long time(Iterator<Integer> iterator)
+    {
+        long start = System.nanoTime();
+        long sum = 0;
+        while (iterator.hasNext())
+        {
+            sum += iterator.next();
+        }
+        _sink += sum;
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Measures the heap in use after a garbage collection.
+     *
+     * @return bytes in use
+     */
+    private static long usedMemory()
+    {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++)
+        {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
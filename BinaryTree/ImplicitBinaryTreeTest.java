@@ -0,0 +1,134 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+public class ImplicitBinaryTreeTest
+{
+    private ImplicitBinaryTree<String> tree;
+
+    @BeforeEach
+    void setup() {
+        tree = new ImplicitBinaryTree<>();
+        for (String element : List.of("A", "B", "C", "D", "E")) {
+            tree.add(element);
+        }
+    }
+
+    // 1. Test navigation
+    @Test
+    void testNavigation() {
+        ImplicitBinaryTree<String>.Node root = tree.getRoot();
+        assertEquals("A", root.getElement());
+        assertEquals("B", root.getLeftChild().getElement());
+        assertEquals("C", root.getRightChild().getElement());
+        assertEquals("E", root.getLeftChild().getRightChild().getElement());
+        assertNull(root.getRightChild().getLeftChild());
+        assertNull(root.getParent());
+        assertEquals(root, root.getLeftChild().getLeftChild().getParent().getParent());
+        assertTrue(root.isAncestorOf(tree.getNode(4)));
+        assertFalse(tree.getNode(2).isAncestorOf(tree.getNode(4)));
+    }
+
+    // 2. Test shape queries
+    @Test
+    void testShape() {
+        ImplicitBinaryTree<String>.Node root = tree.getRoot();
+        assertEquals(5, root.size());
+        assertEquals(2, root.height());
+        assertEquals(2, root.degree());
+        assertEquals(2, tree.getNode(3).level());
+        assertTrue(root.isFull());
+        assertTrue(tree.getNode(2).isLeaf());
+        tree.removeLast();
+        assertFalse(root.isFull());
+        assertEquals(1, tree.getNode(1).degree());
+    }
+
+    // 3. Test traversals
+    @Test
+    void testTraversals() {
+        assertEquals(List.of("D", "B", "E", "A", "C"), drain(tree.iterator()));
+        assertEquals(List.of("A", "B", "D", "E", "C"), drain(tree.getRoot().preOrderIterator()));
+        assertEquals(List.of("D", "E", "B", "C", "A"), drain(tree.getRoot().postOrderIterator()));
+        assertEquals(List.of("A", "B", "C", "D", "E"), drain(tree.levelOrderIterator()));
+        assertEquals("[D, B, E, A, C]", tree.toString());
+    }
+
+    // 4. Test every subtree of trees of every size up to 40 against the linked copy
+    @Test
+    void testAgainstLinkedTree() {
+        ImplicitBinaryTree<Integer> implicit = new ImplicitBinaryTree<>(0);
+        for (int n = 1; n <= 40; n++) {
+            implicit.add(n - 1);
+            BinaryTree<Integer> linked = implicit.toBinaryTree();
+            List<BinaryTree<Integer>> nodes = drainNodes(linked);
+            assertEquals(n, nodes.size());
+            for (int i = 0; i < n; i++) {
+                ImplicitBinaryTree<Integer>.Node node = implicit.getNode(i);
+                BinaryTree<Integer> expected = nodes.get(i);
+                assertEquals(expected.getElement(), node.getElement());
+                assertEquals(expected.size(), node.size());
+                assertEquals(expected.height(), node.height());
+                assertEquals(expected.level(), node.level());
+                assertEquals(expected.degree(), node.degree());
+                assertEquals(expected.isFull(), node.isFull());
+                assertEquals(drain(expected.inOrderIterator()), drain(node.inOrderIterator()));
+                assertEquals(drain(expected.preOrderIterator()), drain(node.preOrderIterator()));
+                assertEquals(drain(expected.postOrderIterator()), drain(node.postOrderIterator()));
+                assertEquals(drain(expected.levelOrderIterator()), drain(node.levelOrderIterator()));
+            }
+        }
+    }
+
+    // 5. Test conversion from a linked tree
+    @Test
+    void testFromBinaryTree() {
+        BinaryTree<String> linked = tree.toBinaryTree();
+        assertTrue(linked.isComplete());
+        ImplicitBinaryTree<String> copy = ImplicitBinaryTree.of(linked);
+        assertEquals(drain(tree.levelOrderIterator()), drain(copy.levelOrderIterator()));
+
+        linked.getRightChild().setRightChild(new BinaryTree<>("F"));
+        assertThrows(IllegalArgumentException.class, () -> ImplicitBinaryTree.of(linked));
+        assertThrows(IllegalArgumentException.class, () -> ImplicitBinaryTree.of(null));
+    }
+
+    // 6. Test empty tree
+    @Test
+    void testEmptyTree() {
+        ImplicitBinaryTree<String> empty = new ImplicitBinaryTree<>();
+        assertTrue(empty.isEmpty());
+        assertNull(empty.getRoot());
+        assertNull(empty.toBinaryTree());
+        assertFalse(empty.iterator().hasNext());
+        assertEquals("[]", empty.toString());
+        assertThrows(NoSuchElementException.class, empty::removeLast);
+        assertThrows(IndexOutOfBoundsException.class, () -> empty.get(0));
+    }
+
+    private static <T> List<BinaryTree<T>> drainNodes(BinaryTree<T> root) {
+        List<BinaryTree<T>> nodes = new ArrayList<>();
+        nodes.add(root);
+        for (int i = 0; i < nodes.size(); i++) {
+            if (nodes.get(i).hasLeftChild()) {
+                nodes.add(nodes.get(i).getLeftChild());
+            }
+            if (nodes.get(i).hasRightChild()) {
+                nodes.add(nodes.get(i).getRightChild());
+            }
+        }
+        return nodes;
+    }
+
+    private static <T> List<T> drain(Iterator<T> iterator) {
+        List<T> elements = new ArrayList<>();
+        iterator.forEachRemaining(elements::add);
+        return elements;
+    }
+
+}
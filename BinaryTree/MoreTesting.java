@@ -2,7 +2,12 @@ import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
 
 public class MoreTesting
 {
@@ -217,4 +222,197 @@ public class MoreTesting
         assertTrue(empty.isLeaf());
     }
 
+    // 28. Test size, height and degree are stable across repeated calls
+    @Test
+    void testRepeatedShapeQueries() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(5, root.size());
+            assertEquals(2, root.height());
+            assertEquals(2, root.degree());
+        }
+    }
+
+    // 29. Test cached size and height follow attach and detach
+    @Test
+    void testShapeAfterAttachAndDetach() {
+        BinaryTree<String> f = new BinaryTree<>("F");
+        rightChild.setLeftChild(f);
+        assertEquals(6, root.size());
+        assertEquals(2, root.height());
+        assertFalse(root.isFull());
+
+        f.setLeftChild(new BinaryTree<>("G"));
+        assertEquals(7, root.size());
+        assertEquals(3, root.height());
+
+        leftChild.setLeftChild(null);
+        assertEquals(6, root.size());
+        assertEquals(3, root.height());
+        assertEquals(1, leftGrandChild.size());
+
+        rightChild.setLeftChild(null);
+        assertEquals(4, root.size());
+        assertEquals(2, root.height());
+    }
+
+    // 30. Test moving a subtree detaches it from its old parent
+    @Test
+    void testMoveSubtree() {
+        rightChild.setRightChild(leftGrandChild);
+        assertSame(rightChild, leftGrandChild.getParent());
+        assertNull(leftChild.getLeftChild());
+        assertEquals(5, root.size());
+        assertEquals(2, leftChild.size());
+        assertEquals(2, rightChild.size());
+        assertFalse(root.isFull());
+    }
+
+    // 31. Test a deep degenerate chain
+    @Test
+    void testDeepChain() {
+        BinaryTree<Integer> bottom = new BinaryTree<>(0);
+        BinaryTree<Integer> top = bottom;
+        for (int i = 1; i < 100_000; i++) {
+            BinaryTree<Integer> next = new BinaryTree<>(i);
+            next.setRightChild(top);
+            top = next;
+        }
+        assertEquals(100_000, top.size());
+        assertEquals(99_999, top.height());
+        assertTrue(top.isDegenerate());
+        assertTrue(top.isAncestorOf(bottom));
+    }
+
+    // 32. Test traversals of a subtree stay inside it
+    @Test
+    void testSubtreeTraversals() {
+        assertIterableEquals(List.of("D", "B", "E"), drain(leftChild.inOrderIterator()));
+        assertIterableEquals(List.of("B", "D", "E"), drain(leftChild.preOrderIterator()));
+        assertIterableEquals(List.of("D", "E", "B"), drain(leftChild.postOrderIterator()));
+        assertIterableEquals(List.of("B", "D", "E"), drain(leftChild.levelOrderIterator()));
+    }
+
+    // 33. Test traversals of a lopsided tree
+    @Test
+    void testLopsidedTraversals() {
+        BinaryTree<String> f = new BinaryTree<>("F");
+        BinaryTree<String> g = new BinaryTree<>("G");
+        rightChild.setRightChild(f);
+        f.setLeftChild(g);
+        assertIterableEquals(List.of("D", "B", "E", "A", "C", "G", "F"), drain(root.inOrderIterator()));
+        assertIterableEquals(List.of("A", "B", "D", "E", "C", "F", "G"), drain(root.preOrderIterator()));
+        assertIterableEquals(List.of("D", "E", "B", "G", "F", "C", "A"), drain(root.postOrderIterator()));
+        assertIterableEquals(List.of("A", "B", "C", "D", "E", "F", "G"), drain(root.levelOrderIterator()));
+    }
+
+    // 34. Test exhausted iterator throws
+    @Test
+    void testExhaustedIterator() {
+        Iterator<String> iterator = rightChild.preOrderIterator();
+        assertEquals("C", iterator.next());
+        assertFalse(iterator.hasNext());
+        assertThrows(NoSuchElementException.class, iterator::next);
+    }
+
+    // 35. Test traversals of a deep degenerate chain do not overflow
+    @Test
+    void testDeepChainTraversals() {
+        BinaryTree<Integer> top = new BinaryTree<>(0);
+        for (int i = 1; i < 100_000; i++) {
+            BinaryTree<Integer> next = new BinaryTree<>(i);
+            if (i % 2 == 0) {
+                next.setLeftChild(top);
+            } else {
+                next.setRightChild(top);
+            }
+            top = next;
+        }
+        int count = 0;
+        for (Iterator<Integer> iterator = top.inOrderIterator(); iterator.hasNext(); iterator.next()) {
+            count++;
+        }
+        assertEquals(100_000, count);
+        assertEquals(Integer.valueOf(0), top.postOrderIterator().next());
+        assertEquals(Integer.valueOf(99_999), top.preOrderIterator().next());
+        assertEquals(100_000, top.toString().split(", ").length);
+    }
+
+    // 36. Test stream follows in-order
+    @Test
+    void testStream() {
+        assertEquals(List.of("D", "B", "E", "A", "C"), root.stream().collect(Collectors.toList()));
+        assertEquals(List.of("D", "B", "E"), leftChild.stream().collect(Collectors.toList()));
+        assertEquals(5, root.spliterator().getExactSizeIfKnown());
+        assertEquals("DBEAC", root.parallelReduce("", String::concat, String::concat));
+    }
+
+    // 37. Test parallel stream and reduce over large balanced and skewed trees
+    @Test
+    void testParallelReduce() {
+        ImplicitBinaryTree<Integer> complete = new ImplicitBinaryTree<>();
+        for (int i = 0; i < 200_000; i++) {
+            complete.add(i);
+        }
+        BinaryTree<Integer> balanced = complete.toBinaryTree();
+        BinaryTree<Integer> chain = new BinaryTree<>(0);
+        for (int i = 1; i < 200_000; i++) {
+            BinaryTree<Integer> next = new BinaryTree<>(i);
+            if (i % 3 == 0) {
+                next.setLeftChild(chain);
+            } else {
+                next.setRightChild(chain);
+            }
+            chain = next;
+        }
+
+        for (BinaryTree<Integer> tree : List.of(balanced, chain)) {
+            List<Integer> expected = drain(tree.inOrderIterator());
+            long sum = expected.stream().mapToLong(Integer::longValue).sum();
+            assertEquals(sum, (long) tree.parallelReduce(0L, (total, e) -> total + e, Long::sum));
+            assertEquals(sum, tree.stream().parallel().mapToLong(Integer::longValue).sum());
+            assertEquals(expected, tree.stream().parallel().collect(Collectors.toList()));
+            assertEquals(expected.stream().filter(e -> e % 7 == 0).count(),
+                    tree.stream().parallel().filter(e -> e % 7 == 0).count());
+        }
+    }
+
+    // 38. Test spliterator splits a degenerate chain in halves
+    @Test
+    void testSpliteratorSplitsChain() {
+        BinaryTree<Integer> chain = new BinaryTree<>(0);
+        for (int i = 1; i < 100_000; i++) {
+            BinaryTree<Integer> next = new BinaryTree<>(i);
+            next.setRightChild(chain);
+            chain = next;
+        }
+        Spliterator<Integer> suffix = chain.spliterator();
+        Spliterator<Integer> prefix = suffix.trySplit();
+        assertEquals(50_000, prefix.estimateSize());
+        assertEquals(50_000, suffix.estimateSize());
+        assertTrue(prefix.tryAdvance(e -> assertEquals(Integer.valueOf(99_999), e)));
+        assertTrue(suffix.tryAdvance(e -> assertEquals(Integer.valueOf(49_999), e)));
+        assertTrue(suffix.hasCharacteristics(Spliterator.SUBSIZED));
+    }
+
+    // 39. Test re-setting the current child returns it and keeps the tree unchanged
+    @Test
+    void testResetSameChild() {
+        assertSame(leftChild, root.setLeftChild(leftChild));
+        assertSame(rightChild, root.setRightChild(rightChild));
+        assertSame(leftChild, root.getLeftChild());
+        assertSame(root, leftChild.getParent());
+        assertEquals(5, root.size());
+        assertEquals(2, root.height());
+
+        assertSame(leftGrandChild, leftChild.setLeftChild(rightGrandChild));
+        assertNull(leftChild.getRightChild());
+        assertEquals(4, root.size());
+    }
+
+    private static <T> List<T> drain(Iterator<T> iterator) {
+        List<T> elements = new ArrayList<>();
+        iterator.forEachRemaining(elements::add);
+        return elements;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,94 @@
+import java.util.Iterator;
+
+/**
+ * Compares a sequential in-order sum with parallelReduce and a parallel stream, on a complete
+ * tree and on a skewed tree that is mostly one long right spine. Prints the best time of each
+ * and the number of threads in the common ForkJoinPool.
+ *
+ * @author mfullhart20@georgefox.edu.
+ */
+public class ParallelReduceBenchmark
+{
+    // Number of nodes in each tree
+    private static final int NODES = 4_000_000;
+    // Number of untimed runs used to warm up the JIT
+    private static final int WARMUP_RUNS = 3;
+    // Number of timed runs
+    private static final int MEASURED_RUNS = 5;
+
+    // Keeps the JIT from discarding results
+    private static volatile long _sink;
+
+    /**
+     * Runs the comparison and prints the best time of each reduction.
+     *
+     * @param args not used
+     */
+    public static void main(String[] args)
+    {
+        ImplicitBinaryTree<Integer> complete = new ImplicitBinaryTree<>(NODES);
+        for (int i = 0; i < NODES; i++)
+        {
+            complete.add(i);
+        }
+        BinaryTree<Integer> balanced = complete.toBinaryTree();
+
+        // Every fourth spine node hangs a left leaf, so the tree is skewed but not a pure chain
+        BinaryTree<Integer> skewed = new BinaryTree<>(0);
+        for (int i = 1; i < NODES; i++)
+        {
+            BinaryTree<Integer> next = new BinaryTree<>(i);
+            next.setRightChild(skewed);
+            if (i % 4 == 0 && ++i < NODES)
+            {
+                next.setLeftChild(new BinaryTree<>(i));
+            }
+            skewed = next;
+        }
+
+        System.out.printf("%d nodes, %d pool threads%n", NODES,
+                java.util.concurrent.ForkJoinPool.getCommonPoolParallelism());
+        System.out.printf("%-10s %14s %14s %14s%n", "", "sequential", "parallelReduce", "parallel()");
+        report("complete", balanced);
+        report("skewed", skewed);
+    }
+
+    /**
+     * Times the three reductions of one tree and prints their best times.
+     *
+     * @param name name of the tree
+     * @param tree the tree to reduce
+     */
+    private static void report(String name, BinaryTree<Integer> tree)
+    {
+        long[] best = {Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE};
+        for (int run = 0; run < WARMUP_RUNS + MEASURED_RUNS; run++)
+        {
+            long[] times = new long[3];
+
+            long start = System.nanoTime();
+            long sum = 0;
+            for (Iterator<Integer> iterator = tree.inOrderIterator(); iterator.hasNext(); )
+            {
+                sum += iterator.next();
+            }
+            _sink += sum;
+            times[0] = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            _sink += tree.parallelReduce(0L, (total, e) -> total + e, Long::sum);
+            times[1] = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            _sink += tree.stream().parallel().mapToLong(Integer::longValue).sum();
+            times[2] = System.nanoTime() - start;
+
+            for (int i = 0; run >= WARMUP_RUNS && i < times.length; i++)
+            {
+                best[i] = Math.min(best[i], times[i]);
+            }
+        }
+        System.out.printf("%-10s %11.1f ms %11.1f ms %11.1f ms%n", name,
+                best[0] / 1e6, best[1] / 1e6, best[2] / 1e6);
+    }
+}
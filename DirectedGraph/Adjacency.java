@@ -0,0 +1,316 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * The outgoing edges of one vertex in a ListGraph, keyed by destination vertex.
+ *
+ * Low-degree vertices keep their edges in a plain array that is searched linearly. Once the
+ * degree passes HASH_THRESHOLD, an open-addressed hash table (linear probing over edge
+ * positions) is built on top of the array, so lookups, insertions and removals become O(1)
+ * expected. The table is dropped again when the degree falls back under half the threshold.
+ *
+ * @author mfullhart20@georgefox.edu
+ * @param <V> the type of the vertex labels
+ * @param <E> the type of the edge labels
+ */
+class Adjacency<V, E> implements Iterable<Edge<V, E>>
+{
+    // Degree above which the hash index is built
+    static final int HASH_THRESHOLD = 8;
+    // Shared backing array of adjacencies that have never held an edge
+    private static final Edge<?, ?>[] EMPTY = new Edge<?, ?>[0];
+
+    // The edges, packed at the front of the array
+    private Edge<V, E>[] _edges;
+    // Number of edges in the adjacency
+    private int _size;
+    // Hash index from destination vertex to (position in _edges + 1), 0 marks an empty slot;
+    // null while the adjacency is small
+    private int[] _table;
+    // 32 - log2(_table.length), used to take the high bits of the hash
+    private int _shift;
+
+    /**
+     * Constructs an empty adjacency.
+     */
+    @SuppressWarnings("unchecked")
+    Adjacency()
+    {
+        _edges = (Edge<V, E>[]) EMPTY;
+        _size = 0;
+        _table = null;
+    }
+
+    /**
+     * Returns the number of edges in the adjacency.
+     *
+     * @return the number of edges
+     */
+    int size()
+    {
+        return _size;
+    }
+
+    /**
+     * Retrieves the edge to a destination vertex.
+     *
+     * @param v the destination vertex
+     * @return the edge, or null if there is no edge to v
+     */
+    Edge<V, E> get(V v)
+    {
+        int index = indexOf(v);
+        return index < 0 ? null : _edges[index];
+    }
+
+    /**
+     * Adds an edge whose destination is not yet in the adjacency.
+     *
+     * @param edge the edge to add
+     * @return true if the edge was added, false if an edge to the same destination exists
+     */
+    boolean add(Edge<V, E> edge)
+    {
+        if (indexOf(edge.getV()) >= 0)
+        {
+            return false;
+        }
+
+        append(edge);
+        return true;
+    }
+
+    /**
+     * Adds an edge without checking for an edge to the same destination. Bulk loads call
+     * this after they have checked the whole batch.
+     *
+     * @param edge the edge to add, whose destination must not be in the adjacency
+     */
+    void append(Edge<V, E> edge)
+    {
+        ensureCapacity(_size + 1);
+        _edges[_size] = edge;
+        _size++;
+
+        if (_table != null)
+        {
+            insert(_size - 1);
+        }
+        else if (_size > HASH_THRESHOLD)
+        {
+            rehash();
+        }
+    }
+
+    /**
+     * Removes the edge to a destination vertex. Small adjacencies keep their insertion order;
+     * hashed adjacencies move their last edge into the freed position.
+     *
+     * @param v the destination vertex
+     * @return the removed edge, or null if there is no edge to v
+     */
+    Edge<V, E> remove(V v)
+    {
+        if (_table == null)
+        {
+            int index = indexOf(v);
+            if (index < 0)
+            {
+                return null;
+            }
+
+            Edge<V, E> edge = _edges[index];
+            System.arraycopy(_edges, index + 1, _edges, index, _size - index - 1);
+            _edges[--_size] = null;
+            return edge;
+        }
+
+        int slot = slotOf(v);
+        if (slot < 0)
+        {
+            return null;
+        }
+
+        int index = _table[slot] - 1;
+        int last = _size - 1;
+        Edge<V, E> edge = _edges[index];
+        deleteSlot(slot);
+
+        if (index != last)
+        {
+            _edges[index] = _edges[last];
+            _table[slotOf(_edges[index].getV())] = index + 1;
+        }
+        _edges[last] = null;
+        _size--;
+
+        if (_size <= HASH_THRESHOLD / 2)
+        {
+            _table = null;
+        }
+        return edge;
+    }
+
+    /**
+     * Makes room for at least the given number of edges.
+     *
+     * @param capacity the number of edges the adjacency must be able to hold
+     */
+    void ensureCapacity(int capacity)
+    {
+        if (capacity > _edges.length)
+        {
+            _edges = Arrays.copyOf(_edges, Math.max(capacity, Math.max(4, _edges.length * 2)));
+        }
+    }
+
+    /**
+     * Returns an iterator over the edges of the adjacency.
+     *
+     * @return an iterator over Edge<V, E> objects
+     */
+    @Override
+    public Iterator<Edge<V, E>> iterator()
+    {
+        return new Iterator<Edge<V, E>>()
+        {
+            private int _next = 0;
+
+            @Override
+            public boolean hasNext()
+            {
+                return _next < _size;
+            }
+
+            @Override
+            public Edge<V, E> next()
+            {
+                if (!hasNext())
+                {
+                    throw new NoSuchElementException();
+                }
+                return _edges[_next++];
+            }
+        };
+    }
+
+    /**
+     * Finds the position of the edge to a destination vertex.
+     *
+     * @param v the destination vertex
+     * @return the position in _edges, or -1 if there is no edge to v
+     */
+    private int indexOf(V v)
+    {
+        if (_table != null)
+        {
+            int slot = slotOf(v);
+            return slot < 0 ? -1 : _table[slot] - 1;
+        }
+
+        for (int i = 0; i < _size; i++)
+        {
+            if (_edges[i].getV().equals(v))
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Computes the home slot of a destination vertex.
+     *
+     * @param v the destination vertex
+     * @return the first slot probed for v
+     */
+    private int home(V v)
+    {
+        return (v.hashCode() * 0x9E3779B9) >>> _shift;
+    }
+
+    /**
+     * Finds the hash slot holding the edge to a destination vertex.
+     *
+     * @param v the destination vertex
+     * @return the slot, or -1 if there is no edge to v
+     */
+    private int slotOf(V v)
+    {
+        int mask = _table.length - 1;
+
+        for (int slot = home(v); _table[slot] != 0; slot = (slot + 1) & mask)
+        {
+            if (_edges[_table[slot] - 1].getV().equals(v))
+            {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Adds the edge at a position of _edges to the hash index, growing the index so that it
+     * stays at most half full.
+     *
+     * @param index the position of the edge in _edges
+     */
+    private void insert(int index)
+    {
+        if (_size * 2 > _table.length)
+        {
+            rehash();
+            return;
+        }
+
+        int mask = _table.length - 1;
+        int slot = home(_edges[index].getV());
+
+        while (_table[slot] != 0)
+        {
+            slot = (slot + 1) & mask;
+        }
+        _table[slot] = index + 1;
+    }
+
+    /**
+     * Rebuilds the hash index with room for twice the current number of edges.
+     */
+    private void rehash()
+    {
+        int length = Integer.highestOneBit(_size * 4 - 1);
+        _table = new int[length];
+        _shift = 32 - Integer.numberOfTrailingZeros(length);
+
+        for (int i = 0; i < _size; i++)
+        {
+            insert(i);
+        }
+    }
+
+    /**
+     * Empties a hash slot, shifting later entries of the same probe run back so that lookups
+     * never stop at the hole.
+     *
+     * @param slot the slot to empty
+     */
+    private void deleteSlot(int slot)
+    {
+        int mask = _table.length - 1;
+        int hole = slot;
+
+        for (int next = (hole + 1) & mask; _table[next] != 0; next = (next + 1) & mask)
+        {
+            int home = home(_edges[_table[next] - 1].getV());
+
+            // Move the entry back unless its home lies cyclically in (hole, next]
+            if (((next - home) & mask) >= ((next - hole) & mask))
+            {
+                _table[hole] = _table[next];
+                hole = next;
+            }
+        }
+        _table[hole] = 0;
+    }
+}
@@ -0,0 +1,523 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An adjacency list graph that stores no object per edge. Vertex labels are interned to dense
+ * int ids, and each vertex keeps its outgoing destinations and incoming sources as int rows
+ * (see IntGraph) with the edge labels in an array parallel to the destinations. An edge costs
+ * one int for its destination, one int for its entry in the incoming row and one label
+ * reference, where ListGraph spends an Edge object, an adjacency slot and a hash set entry.
+ *
+ * Edge objects are created only when a caller asks for one through getEdge() or edges(), and
+ * edges(true) can hand out a single flyweight. Because nothing is shared with the graph,
+ * setting the label of a returned Edge does not change the graph. Ids of removed vertices
+ * are reused. Rows are searched linearly, so edge lookups cost O(degree).
+ *
+ * @author mfullhart20@georgefox.edu
+ * @param <V> the type of the vertex labels
+ * @param <E> the type of the edge labels
+ */
+public class CompactListGraph<V, E> extends DirectedGraph<V, E>
+{
+    // Maps each vertex to its id
+    private final Map<V, Integer> _ids;
+    // Vertex labels, indexed by id; null for ids that are free
+    private final List<V> _vertices;
+    // Ids of removed vertices, reused before new ids are taken
+    private int[] _freeIds;
+    private int _freeCount;
+    // The edges, by id
+    private final Topology<E> _topology;
+
+    /**
+     * The edges of the graph over vertex ids, with the edge labels kept parallel to the rows
+     * of destinations.
+     *
+     * @param <E> the type of the edge labels
+     */
+    private static class Topology<E> extends IntGraph
+    {
+        // Shared row of vertices without edges
+        private static final Object[] EMPTY = new Object[0];
+
+        // Labels of each vertex's outgoing edges, parallel to its row of destinations
+        private Object[][] _labels;
+
+        private Topology()
+        {
+            _labels = new Object[capacity()][];
+            Arrays.fill(_labels, EMPTY);
+        }
+
+        @SuppressWarnings("unchecked")
+        private E label(int u, int slot)
+        {
+            return (E) _labels[u][slot];
+        }
+
+        @Override
+        protected void growVertices(int capacity)
+        {
+            int length = _labels.length;
+            _labels = Arrays.copyOf(_labels, capacity);
+            Arrays.fill(_labels, length, capacity, EMPTY);
+        }
+
+        @Override
+        protected void growWeights(int v, int capacity)
+        {
+            _labels[v] = Arrays.copyOf(_labels[v], capacity);
+        }
+
+        @Override
+        protected void moveWeight(int v, int from, int to)
+        {
+            _labels[v][to] = _labels[v][from];
+            _labels[v][from] = null;
+        }
+
+        @Override
+        protected void clearWeights(int v)
+        {
+            _labels[v] = EMPTY;
+        }
+    }
+
+    /**
+     * Constructs an empty CompactListGraph.
+     */
+    public CompactListGraph()
+    {
+        _ids = new HashMap<>();
+        _vertices = new ArrayList<>();
+        _freeIds = new int[4];
+        _freeCount = 0;
+        _topology = new Topology<>();
+    }
+
+    /**
+     * Adds a vertex to the graph.
+     *
+     * @param v the label of the vertex to add
+     * @throws IllegalArgumentException throw IAE if the vertex is null
+     * @throws DuplicateVertexException throw DVE if the vertex already exists
+     */
+    @Override
+    public void add(V v)
+    {
+        if (v == null)
+        {
+            throw new IllegalArgumentException("Null vertex");
+        }
+        if (_ids.containsKey(v))
+        {
+            throw new DuplicateVertexException("Vertex already exists");
+        }
+
+        int id;
+        if (_freeCount > 0)
+        {
+            id = _freeIds[--_freeCount];
+            _vertices.set(id, v);
+        }
+        else
+        {
+            id = _vertices.size();
+            _vertices.add(v);
+        }
+
+        _ids.put(v, id);
+        _topology.add(id);
+        _modCount++;
+    }
+
+    /**
+     * Checks if a vertex exists in the graph.
+     *
+     * @param v the label of the vertex to check
+     * @return true if the vertex exists, false otherwise
+     */
+    @Override
+    public boolean contains(V v)
+    {
+        return _ids.containsKey(v);
+    }
+
+    /**
+     * Retrieves the vertex object corresponding to the given label.
+     *
+     * @param v the label of the vertex to retrieve
+     * @return the vertex object
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    @Override
+    public Vertex<V> get(V v)
+    {
+        idOf(v);
+        return new Vertex<>(v);
+    }
+
+    /**
+     * Removes a vertex and all associated edges from the graph. Only the rows of the vertex
+     * and of its neighbors are touched.
+     *
+     * @param v the label of the vertex to remove
+     * @return the label of the removed vertex
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    @Override
+    public V remove(V v)
+    {
+        int id = idOf(v);
+
+        _topology.remove(id);
+        _ids.remove(v);
+        _vertices.set(id, null);
+        if (_freeCount == _freeIds.length)
+        {
+            _freeIds = Arrays.copyOf(_freeIds, _freeCount * 2);
+        }
+        _freeIds[_freeCount++] = id;
+        _modCount++;
+
+        return v;
+    }
+
+    /**
+     * Adds a directed edge between two vertices.
+     *
+     * @param u     the source vertex
+     * @param v     the destination vertex
+     * @param label the label of the edge
+     * @throws IllegalArgumentException throw IAE if the edge label is null
+     * @throws NoSuchVertexException throw NSVE if either vertex does not exist
+     * @throws DuplicateEdgeException throw DEE if the edge already exists
+     */
+    @Override
+    public void addEdge(V u, V v, E label)
+    {
+        if (label == null)
+        {
+            throw new IllegalArgumentException("Null edge label");
+        }
+
+        int uId = idOf(u);
+        int slot = _topology.insertEdge(uId, idOf(v));
+        _topology._labels[uId][slot] = label;
+        _modCount++;
+    }
+
+    /**
+     * Checks if an edge exists between two vertices.
+     *
+     * @param u the source vertex
+     * @param v the destination vertex
+     * @return true if the edge exists, false otherwise
+     * @throws NoSuchVertexException throw NSVE if either vertex does not exist
+     */
+    @Override
+    public boolean containsEdge(V u, V v)
+    {
+        return _topology.slotOf(idOf(u), idOf(v)) >= 0;
+    }
+
+    /**
+     * Retrieves the edge between two vertices. A new Edge object is created on every call.
+     *
+     * @param u the source vertex
+     * @param v the destination vertex
+     * @return the edge object
+     * @throws NoSuchVertexException throw NSVE if either vertex does not exist
+     * @throws NoSuchEdgeException throw NSEE if the edge does not exist
+     */
+    @Override
+    public Edge<V, E> getEdge(V u, V v)
+    {
+        int uId = idOf(u);
+        int slot = _topology.edgeSlot(uId, idOf(v));
+
+        return new Edge<>(u, v, _topology.label(uId, slot));
+    }
+
+    /**
+     * Removes a directed edge between two vertices.
+     *
+     * @param u the source vertex
+     * @param v the destination vertex
+     * @return the label of the removed edge
+     * @throws NoSuchEdgeException throw NSEE if either vertex or the edge does not exist
+     */
+    @Override
+    public E removeEdge(V u, V v)
+    {
+        Integer uId = _ids.get(u);
+        Integer vId = _ids.get(v);
+        if (uId == null || vId == null)
+        {
+            throw new NoSuchEdgeException("Edge not found");
+        }
+
+        int slot = _topology.edgeSlot(uId, vId);
+        E label = _topology.label(uId, slot);
+        _topology.deleteEdge(uId, slot);
+        _modCount++;
+
+        return label;
+    }
+
+    /**
+     * Returns the number of vertices in the graph.
+     *
+     * @return the number of vertices
+     */
+    @Override
+    public int size()
+    {
+        return _ids.size();
+    }
+
+    /**
+     * Returns the number of outgoing edges from a given vertex.
+     *
+     * @param v the vertex to check
+     * @return the degree of the vertex
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    @Override
+    public int degree(V v)
+    {
+        return _topology.degree(idOf(v));
+    }
+
+    /**
+     * Returns the number of incoming edges of a given vertex.
+     *
+     * @param v the vertex to check
+     * @return the in-degree of the vertex
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    @Override
+    public int inDegree(V v)
+    {
+        return _topology.inDegree(idOf(v));
+    }
+
+    /**
+     * Returns the total number of edges in the graph.
+     *
+     * @return the number of edges
+     */
+    @Override
+    public int edgeCount()
+    {
+        return _topology.edgeCount();
+    }
+
+    /**
+     * Returns an iterator over all vertices in the graph.
+     *
+     * @return an iterator over Vertex<V> objects
+     */
+    @Override
+    public Iterator<Vertex<V>> vertices()
+    {
+        return vertices(false);
+    }
+
+    /**
+     * Returns an iterator over all vertices in the graph, optionally reusing one flyweight
+     * Vertex for the whole iteration.
+     *
+     * @param flyweight true to reuse one Vertex object for the whole iteration
+     * @return an iterator over Vertex<V> objects
+     */
+    @Override
+    public Iterator<Vertex<V>> vertices(boolean flyweight)
+    {
+        return new LabelIterator(_ids.keySet().iterator(), flyweight);
+    }
+
+    /**
+     * Returns an iterator over all vertices adjacent to the given vertex.
+     *
+     * @param v the source vertex
+     * @return an iterator over adjacent Vertex<V> objects
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    @Override
+    public Iterator<Vertex<V>> adjacent(V v)
+    {
+        return adjacent(v, false);
+    }
+
+    /**
+     * Returns an iterator over all vertices adjacent to the given vertex, optionally reusing
+     * one flyweight Vertex for the whole iteration.
+     *
+     * @param v the source vertex
+     * @param flyweight true to reuse one Vertex object for the whole iteration
+     * @return an iterator over adjacent Vertex<V> objects
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    @Override
+    public Iterator<Vertex<V>> adjacent(V v, boolean flyweight)
+    {
+        int id = idOf(v);
+        return new LabelIterator(new RowLabels(_topology.targets(id), _topology.degree(id)), flyweight);
+    }
+
+    /**
+     * Returns an iterator over all vertices that have an edge to the given vertex.
+     *
+     * @param v the destination vertex
+     * @return an iterator over Vertex<V> objects with an edge to v
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    @Override
+    public Iterator<Vertex<V>> incoming(V v)
+    {
+        int id = idOf(v);
+        return new LabelIterator(new RowLabels(_topology.sources(id), _topology.inDegree(id)), false);
+    }
+
+    /**
+     * Returns an iterator over all edges in the graph. A new Edge object is created for every
+     * edge.
+     *
+     * @return an iterator over Edge<V, E> objects
+     */
+    @Override
+    public Iterator<Edge<V, E>> edges()
+    {
+        return edges(false);
+    }
+
+    /**
+     * Returns an iterator over all edges in the graph, optionally reusing one flyweight Edge
+     * for the whole iteration.
+     *
+     * @param flyweight true to reuse one Edge object for the whole iteration
+     * @return an iterator over Edge<V, E> objects
+     */
+    @Override
+    public Iterator<Edge<V, E>> edges(boolean flyweight)
+    {
+        return new EdgeIterator(flyweight)
+        {
+            // The id of the current source and the next slot in its row
+            private int _u = -1;
+            private int _slot = 0;
+            // Number of edges left to return
+            private int _remaining = _topology.edgeCount();
+
+            @Override
+            public boolean hasNext()
+            {
+                return _remaining > 0;
+            }
+
+            @Override
+            protected Edge<V, E> nextElement()
+            {
+                while (_u < 0 || _slot >= degreeOf(_u))
+                {
+                    _u++;
+                    _slot = 0;
+                }
+
+                int slot = _slot++;
+                _remaining--;
+                return edge(_vertices.get(_u), _vertices.get(_topology.targets(_u)[slot]),
+                        _topology.label(_u, slot));
+            }
+        };
+    }
+
+    /**
+     * Clears the graph by removing all vertices and edges.
+     */
+    @Override
+    public void clear()
+    {
+        _ids.clear();
+        _vertices.clear();
+        _freeCount = 0;
+        _topology.clear();
+        _modCount++;
+    }
+
+    /**
+     * Checks if the graph is empty.
+     *
+     * @return true if the graph has no vertices, false otherwise
+     */
+    @Override
+    public boolean isEmpty()
+    {
+        return _ids.isEmpty();
+    }
+
+    /**
+     * Finds the id of a vertex.
+     *
+     * @param v the vertex
+     * @return the id of the vertex
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    private int idOf(V v)
+    {
+        Integer id = v == null ? null : _ids.get(v);
+
+        if (id == null)
+        {
+            throw new NoSuchVertexException("Vertex not found");
+        }
+        return id;
+    }
+
+    /**
+     * Returns the degree of an id, or 0 if the id is free.
+     *
+     * @param id the id
+     * @return the number of outgoing edges of the id
+     */
+    private int degreeOf(int id)
+    {
+        return _topology.contains(id) ? _topology.degree(id) : 0;
+    }
+
+    /**
+     * Walks the labels of the ids in the first entries of a row.
+     */
+    private class RowLabels implements Iterator<V>
+    {
+        // The row and the number of entries in use
+        private final int[] _row;
+        private final int _length;
+        // The next entry
+        private int _next;
+
+        private RowLabels(int[] row, int length)
+        {
+            _row = row;
+            _length = length;
+            _next = 0;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return _next < _length;
+        }
+
+        @Override
+        public V next()
+        {
+            return _vertices.get(_row[_next++]);
+        }
+    }
+}
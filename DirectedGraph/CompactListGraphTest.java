@@ -0,0 +1,154 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+class CompactListGraphTest {
+    private CompactListGraph<String, Integer> graph;
+
+    @BeforeEach
+    void setUp() {
+        graph = new CompactListGraph<>();
+    }
+
+    // Test vertex operations
+    @Test
+    void testAddAndRemoveVertex() {
+        graph.add("A");
+        assertTrue(graph.contains("A"));
+        assertEquals("A", graph.get("A").getLabel());
+        assertThrows(DuplicateVertexException.class, () -> graph.add("A"));
+        assertThrows(IllegalArgumentException.class, () -> graph.add(null));
+        assertEquals("A", graph.remove("A"));
+        assertFalse(graph.contains("A"));
+        assertThrows(NoSuchVertexException.class, () -> graph.remove("A"));
+        assertTrue(graph.isEmpty());
+    }
+
+    // Test edge operations
+    @Test
+    void testEdgeOperations() {
+        graph.add("A");
+        graph.add("B");
+        graph.addEdge("A", "B", 1);
+        assertTrue(graph.containsEdge("A", "B"));
+        assertFalse(graph.containsEdge("B", "A"));
+        assertEquals(1, graph.getEdge("A", "B").getLabel());
+        assertThrows(DuplicateEdgeException.class, () -> graph.addEdge("A", "B", 2));
+        assertThrows(NoSuchVertexException.class, () -> graph.addEdge("A", "C", 2));
+        assertThrows(IllegalArgumentException.class, () -> graph.addEdge("B", "A", null));
+        assertThrows(NoSuchEdgeException.class, () -> graph.getEdge("B", "A"));
+        assertEquals(1, graph.removeEdge("A", "B"));
+        assertThrows(NoSuchEdgeException.class, () -> graph.removeEdge("A", "B"));
+        assertThrows(NoSuchEdgeException.class, () -> graph.removeEdge("A", "Z"));
+        assertEquals(0, graph.edgeCount());
+    }
+
+    // Test the returned edges are copies
+    @Test
+    void testReturnedEdgeIsDetached() {
+        graph.add("A");
+        graph.add("B");
+        graph.addEdge("A", "B", 1);
+        graph.getEdge("A", "B").setLabel(5);
+        assertEquals(1, graph.getEdge("A", "B").getLabel());
+    }
+
+    // Test removed ids are reused without keeping old edges
+    @Test
+    void testRemovedIdIsReused() {
+        graph.add("A");
+        graph.add("B");
+        graph.addEdge("A", "B", 1);
+        graph.addEdge("B", "A", 2);
+        graph.remove("B");
+        graph.add("C");
+        assertEquals(0, graph.degree("A"));
+        assertEquals(0, graph.inDegree("C"));
+        assertEquals(0, graph.degree("C"));
+        graph.addEdge("C", "A", 3);
+        assertEquals(Set.of("C"), labels(graph.incoming("A")));
+        assertEquals(1, graph.edgeStream().count());
+    }
+
+    private static Set<String> labels(Iterator<Vertex<String>> vertices) {
+        Set<String> labels = new HashSet<>();
+        vertices.forEachRemaining(vertex -> labels.add(vertex.getLabel()));
+        return labels;
+    }
+
+    // Test iterators
+    @Test
+    void testIterators() {
+        for (String v : List.of("A", "B", "C")) {
+            graph.add(v);
+        }
+        graph.addEdge("A", "B", 1);
+        graph.addEdge("A", "C", 2);
+        graph.addEdge("C", "C", 3);
+        assertEquals(Set.of("A", "B", "C"), labels(graph.vertices()));
+        assertEquals(Set.of("B", "C"), labels(graph.adjacent("A")));
+        assertEquals(Set.of("A", "C"), labels(graph.incoming("C")));
+        Set<String> edges = new HashSet<>();
+        graph.edges(true).forEachRemaining(edge -> edges.add(edge.getU() + edge.getV() + edge.getLabel()));
+        assertEquals(Set.of("AB1", "AC2", "CC3"), edges);
+        Iterator<Edge<String, Integer>> iterator = graph.edges();
+        graph.removeEdge("A", "B");
+        assertThrows(ConcurrentModificationException.class, iterator::next);
+    }
+
+    // Test random operations against ListGraph
+    @Test
+    void testMatchesListGraph() {
+        Random random = new Random(11);
+        ListGraph<Integer, Integer> reference = new ListGraph<>();
+        CompactListGraph<Integer, Integer> compact = new CompactListGraph<>();
+        for (int i = 0; i < 20_000; i++) {
+            int u = random.nextInt(60);
+            int v = random.nextInt(60);
+            int op = random.nextInt(10);
+            if (op == 0) {
+                if (reference.contains(u)) {
+                    reference.remove(u);
+                    compact.remove(u);
+                } else {
+                    reference.add(u);
+                    compact.add(u);
+                }
+            } else if (reference.contains(u) && reference.contains(v)) {
+                if (reference.containsEdge(u, v)) {
+                    assertEquals(reference.removeEdge(u, v), compact.removeEdge(u, v));
+                } else {
+                    reference.addEdge(u, v, i);
+                    compact.addEdge(u, v, i);
+                }
+            }
+        }
+        assertEquals(reference.size(), compact.size());
+        assertEquals(reference.edgeCount(), compact.edgeCount());
+        assertEquals(reference.edgeCount(), compact.edgeStream().count());
+        reference.edges().forEachRemaining(edge ->
+                assertEquals(edge.getLabel(), compact.getEdge(edge.getU(), edge.getV()).getLabel()));
+        reference.vertices().forEachRemaining(vertex ->
+                assertEquals(reference.inDegree(vertex.getLabel()), compact.inDegree(vertex.getLabel())));
+    }
+
+    // Test edges are built on demand and flyweight iteration reuses one edge
+    @Test
+    void testNoEdgeObjectsRetained() {
+        graph.add("A");
+        graph.add("B");
+        graph.addEdge("A", "B", 1);
+        graph.addEdge("B", "A", 2);
+        assertNotSame(graph.getEdge("A", "B"), graph.getEdge("A", "B"));
+        Iterator<Edge<String, Integer>> copies = graph.edges();
+        assertNotSame(copies.next(), copies.next());
+        Iterator<Edge<String, Integer>> flyweight = graph.edges(true);
+        assertSame(flyweight.next(), flyweight.next());
+    }
+}
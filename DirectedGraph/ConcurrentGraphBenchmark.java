@@ -0,0 +1,219 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Compares edge ingestion throughput of ConcurrentListGraph with a ListGraph behind one
+ * external lock. Each run adds VERTICES vertices and then lets every thread add its share of
+ * EDGES random edges, with a tenth of the operations being containsEdge reads.
+ *
+ * @author mfullhart20@georgefox.edu
+ */
+public class ConcurrentGraphBenchmark
+{
+    // Shape of the benchmark graph
+    private static final int VERTICES = 100_000;
+    private static final int EDGES = 1_000_000;
+    // Number of untimed runs used to warm up the JIT
+    private static final int WARMUP_RUNS = 2;
+    // Number of timed runs
+    private static final int MEASURED_RUNS = 3;
+
+    /**
+     * The operations a benchmark thread performs on a graph.
+     */
+    private interface Target
+    {
+        /**
+         * Adds an edge from u to v.
+         *
+         * @param u the source vertex
+         * @param v the destination vertex
+         */
+        void addEdge(int u, int v);
+
+        /**
+         * Checks for an edge from u to v.
+         *
+         * @param u the source vertex
+         * @param v the destination vertex
+         * @return true if the edge exists, false otherwise
+         */
+        boolean containsEdge(int u, int v);
+    }
+
+    /**
+     * Runs the benchmark for 1, 2, 4, ... threads up to the number of processors, or for the
+     * thread counts given on the command line, and prints operations per second.
+     *
+     * @param args optional thread counts to measure
+     * @throws Exception if a benchmark thread fails
+     */
+    public static void main(String[] args) throws Exception
+    {
+        List<Integer> threadCounts = new ArrayList<>();
+        if (args.length > 0)
+        {
+            for (String arg : args)
+            {
+                threadCounts.add(Integer.parseInt(arg));
+            }
+        }
+        else
+        {
+            int processors = Runtime.getRuntime().availableProcessors();
+            for (int threads = 1; threads < processors; threads *= 2)
+            {
+                threadCounts.add(threads);
+            }
+            threadCounts.add(processors);
+        }
+
+        for (int threads : threadCounts)
+        {
+            double locked = best(threads, false);
+            double striped = best(threads, true);
+            System.out.printf("%3d threads  synchronized ListGraph %,12.0f ops/s  ConcurrentListGraph %,12.0f ops/s%n",
+                    threads, locked, striped);
+        }
+    }
+
+    /**
+     * Measures one graph at one thread count.
+     *
+     * @param threads the number of writer threads
+     * @param concurrent true for ConcurrentListGraph, false for a synchronized ListGraph
+     * @return the best throughput in operations per second
+     * @throws Exception if a benchmark thread fails
+     */
+    private static double best(int threads, boolean concurrent) throws Exception
+    {
+        for (int i = 0; i < WARMUP_RUNS; i++)
+        {
+            measure(threads, concurrent, i);
+        }
+
+        double best = 0;
+        for (int i = 0; i < MEASURED_RUNS; i++)
+        {
+            best = Math.max(best, measure(threads, concurrent, WARMUP_RUNS + i));
+        }
+        return best;
+    }
+
+    /**
+     * Builds an empty graph and times the threads adding edges to it.
+     *
+     * @param threads the number of writer threads
+     * @param concurrent true for ConcurrentListGraph, false for a synchronized ListGraph
+     * @param seed the seed of the random edges
+     * @return the throughput in operations per second
+     * @throws Exception if a benchmark thread fails
+     */
+    private static double measure(int threads, boolean concurrent, long seed) throws Exception
+    {
+        Target target = concurrent ? concurrentTarget() : synchronizedTarget();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        int share = EDGES / threads;
+
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++)
+        {
+            Random random = new Random(seed * 31 + t);
+            futures.add(executor.submit(() ->
+            {
+                for (int i = 0; i < share; i++)
+                {
+                    int u = random.nextInt(VERTICES);
+                    int v = random.nextInt(VERTICES);
+                    if (i % 10 == 0)
+                    {
+                        target.containsEdge(u, v);
+                    }
+                    else
+                    {
+                        try
+                        {
+                            target.addEdge(u, v);
+                        }
+                        catch (DuplicateEdgeException e)
+                        {
+                            // Random edges occasionally repeat
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures)
+        {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+
+        return share * (double) threads / (elapsed / 1e9);
+    }
+
+    /**
+     * Creates a ConcurrentListGraph target with every vertex added.
+     *
+     * @return the target
+     */
+    private static Target concurrentTarget()
+    {
+        ConcurrentListGraph<Integer, Integer> graph = new ConcurrentListGraph<>();
+        for (int v = 0; v < VERTICES; v++)
+        {
+            graph.add(v);
+        }
+
+        return new Target()
+        {
+            @Override
+            public void addEdge(int u, int v)
+            {
+                graph.addEdge(u, v, v);
+            }
+
+            @Override
+            public boolean containsEdge(int u, int v)
+            {
+                return graph.containsEdge(u, v);
+            }
+        };
+    }
+
+    /**
+     * Creates a target that guards a ListGraph with one lock, with every vertex added.
+     *
+     * @return the target
+     */
+    private static Target synchronizedTarget()
+    {
+        ListGraph<Integer, Integer> graph = new ListGraph<>();
+        for (int v = 0; v < VERTICES; v++)
+        {
+            graph.add(v);
+        }
+
+        return new Target()
+        {
+            @Override
+            public synchronized void addEdge(int u, int v)
+            {
+                graph.addEdge(u, v, v);
+            }
+
+            @Override
+            public synchronized boolean containsEdge(int u, int v)
+            {
+                return graph.containsEdge(u, v);
+            }
+        };
+    }
+}
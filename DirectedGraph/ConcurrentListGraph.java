@@ -0,0 +1,630 @@
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A thread-safe adjacency list graph. Each vertex keeps its outgoing edges and its incoming
+ * vertices in concurrent hash maps, so reads (contains, containsEdge, getEdge, degree and the
+ * iterators) never take a lock.
+ *
+ * Writers lock a fixed array of stripes chosen by vertex hash. An edge operation on (u, v)
+ * holds the stripes of u and v, always taken in stripe order so two writers cannot deadlock.
+ * Removing a vertex first marks it removed under its own stripe, which stops new edges from
+ * reaching it, and then detaches its edges one pair at a time. The vertex leaves the map only
+ * after that, so a concurrent add of the same label fails until the removal is complete.
+ *
+ * Iterators are weakly consistent, like those of ConcurrentHashMap. They never throw
+ * ConcurrentModificationException and may or may not show changes made after they were
+ * created. The vertex and edge counts are exact whenever no writer is in progress.
+ *
+ * @author mfullhart20@georgefox.edu
+ * @param <V> the type of the vertex labels
+ * @param <E> the type of the edge labels
+ */
+public class ConcurrentListGraph<V, E> extends DirectedGraph<V, E>
+{
+    // Number of lock stripes used by the default constructor
+    private static final int DEFAULT_STRIPES = 64;
+
+    // Maps each vertex to its edges, including vertices that are being removed
+    private final ConcurrentHashMap<V, Node<V, E>> _nodes;
+    // The write locks, indexed by the spread hash of a vertex
+    private final ReentrantLock[] _stripes;
+    // Number of live vertices
+    private final LongAdder _vertexCount;
+    // Number of edges
+    private final LongAdder _edgeCount;
+
+    /**
+     * The edges of one vertex.
+     */
+    private static class Node<V, E>
+    {
+        // Outgoing edges keyed by destination vertex
+        private final Map<V, Edge<V, E>> _out = new ConcurrentHashMap<>();
+        // Vertices with an edge into this vertex
+        private final Set<V> _in = ConcurrentHashMap.newKeySet();
+        // Set under the vertex's stripe once a removal has started
+        private volatile boolean _removed;
+    }
+
+    /**
+     * Constructs an empty ConcurrentListGraph with the default number of lock stripes.
+     */
+    public ConcurrentListGraph()
+    {
+        this(DEFAULT_STRIPES);
+    }
+
+    /**
+     * Constructs an empty ConcurrentListGraph.
+     *
+     * @param stripes the number of write locks, rounded up to a power of two
+     * @throws IllegalArgumentException throw IAE if stripes is not positive
+     */
+    public ConcurrentListGraph(int stripes)
+    {
+        if (stripes <= 0)
+        {
+            throw new IllegalArgumentException("Stripe count must be positive");
+        }
+
+        _nodes = new ConcurrentHashMap<>();
+        _stripes = new ReentrantLock[Math.max(1, Integer.highestOneBit(stripes - 1) << 1)];
+        for (int i = 0; i < _stripes.length; i++)
+        {
+            _stripes[i] = new ReentrantLock();
+        }
+        _vertexCount = new LongAdder();
+        _edgeCount = new LongAdder();
+    }
+
+    /**
+     * Adds a vertex to the graph.
+     *
+     * @param v the label of the vertex to add
+     * @throws IllegalArgumentException throw IAE if the vertex is null
+     * @throws DuplicateVertexException throw DVE if the vertex already exists or is still
+     *     being removed
+     */
+    @Override
+    public void add(V v)
+    {
+        if (v == null)
+        {
+            throw new IllegalArgumentException("Null vertex");
+        }
+        if (_nodes.putIfAbsent(v, new Node<>()) != null)
+        {
+            throw new DuplicateVertexException("Vertex already exists");
+        }
+
+        _vertexCount.increment();
+    }
+
+    /**
+     * Checks if a vertex exists in the graph.
+     *
+     * @param v the label of the vertex to check
+     * @return true if the vertex exists, false otherwise
+     */
+    @Override
+    public boolean contains(V v)
+    {
+        if (v == null)
+        {
+            return false;
+        }
+
+        Node<V, E> node = _nodes.get(v);
+        return node != null && !node._removed;
+    }
+
+    /**
+     * Retrieves the vertex object corresponding to the given label.
+     *
+     * @param v the label of the vertex to retrieve
+     * @return the vertex object
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    @Override
+    public Vertex<V> get(V v)
+    {
+        node(v);
+        return new Vertex<>(v);
+    }
+
+    /**
+     * Removes a vertex and all associated edges from the graph. Only the stripes of the
+     * vertex and its neighbors are locked, one edge at a time.
+     *
+     * @param v the label of the vertex to remove
+     * @return the label of the removed vertex
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    @Override
+    public V remove(V v)
+    {
+        Node<V, E> node;
+        ReentrantLock lock = stripe(v);
+
+        lock.lock();
+        try
+        {
+            node = node(v);
+            node._removed = true;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+        _vertexCount.decrement();
+
+        for (V w : node._out.keySet())
+        {
+            lockPair(v, w);
+            try
+            {
+                if (node._out.remove(w) != null)
+                {
+                    Node<V, E> target = _nodes.get(w);
+                    if (target != null)
+                    {
+                        target._in.remove(v);
+                    }
+                    _edgeCount.decrement();
+                }
+            }
+            finally
+            {
+                unlockPair(v, w);
+            }
+        }
+
+        for (V u : node._in)
+        {
+            lockPair(u, v);
+            try
+            {
+                Node<V, E> source = _nodes.get(u);
+                if (source != null && source._out.remove(v) != null)
+                {
+                    _edgeCount.decrement();
+                }
+                node._in.remove(u);
+            }
+            finally
+            {
+                unlockPair(u, v);
+            }
+        }
+
+        _nodes.remove(v, node);
+        return v;
+    }
+
+    /**
+     * Adds a directed edge between two vertices.
+     *
+     * @param u     the source vertex
+     * @param v     the destination vertex
+     * @param label the label of the edge
+     * @throws IllegalArgumentException throw IAE if the edge label is null
+     * @throws NoSuchVertexException throw NSVE if either vertex does not exist
+     * @throws DuplicateEdgeException throw DEE if the edge already exists
+     */
+    @Override
+    public void addEdge(V u, V v, E label)
+    {
+        if (label == null)
+        {
+            throw new IllegalArgumentException("Null edge label");
+        }
+
+        lockPair(u, v);
+        try
+        {
+            Node<V, E> source = node(u);
+            Node<V, E> target = node(v);
+
+            if (source._out.putIfAbsent(v, new Edge<>(u, v, label)) != null)
+            {
+                throw new DuplicateEdgeException("Edge already exists");
+            }
+
+            target._in.add(u);
+            _edgeCount.increment();
+        }
+        finally
+        {
+            unlockPair(u, v);
+        }
+    }
+
+    /**
+     * Checks if an edge exists between two vertices.
+     *
+     * @param u the source vertex
+     * @param v the destination vertex
+     * @return true if the edge exists, false otherwise
+     * @throws NoSuchVertexException throw NSVE if either vertex does not exist
+     */
+    @Override
+    public boolean containsEdge(V u, V v)
+    {
+        Node<V, E> source = node(u);
+        node(v);
+
+        return source._out.containsKey(v);
+    }
+
+    /**
+     * Retrieves the edge object between two vertices.
+     *
+     * @param u the source vertex
+     * @param v the destination vertex
+     * @return the edge object
+     * @throws NoSuchVertexException throw NSVE if either vertex does not exist
+     * @throws NoSuchEdgeException throw NSEE if the edge does not exist
+     */
+    @Override
+    public Edge<V, E> getEdge(V u, V v)
+    {
+        Node<V, E> source = node(u);
+        node(v);
+
+        Edge<V, E> edge = source._out.get(v);
+
+        if (edge == null)
+        {
+            throw new NoSuchEdgeException("Edge not found");
+        }
+
+        return edge;
+    }
+
+    /**
+     * Removes a directed edge between two vertices.
+     *
+     * @param u the source vertex
+     * @param v the destination vertex
+     * @return the label of the removed edge
+     * @throws NoSuchEdgeException throw NSEE if either vertex or the edge does not exist
+     */
+    @Override
+    public E removeEdge(V u, V v)
+    {
+        if (!contains(u) || !contains(v))
+        {
+            throw new NoSuchEdgeException("Edge not found");
+        }
+
+        lockPair(u, v);
+        try
+        {
+            Node<V, E> source = _nodes.get(u);
+            Node<V, E> target = _nodes.get(v);
+
+            if (source == null || source._removed || target == null || target._removed)
+            {
+                throw new NoSuchEdgeException("Edge not found");
+            }
+
+            Edge<V, E> edge = source._out.remove(v);
+
+            if (edge == null)
+            {
+                throw new NoSuchEdgeException("Edge not found");
+            }
+
+            target._in.remove(u);
+            _edgeCount.decrement();
+            return edge.getLabel();
+        }
+        finally
+        {
+            unlockPair(u, v);
+        }
+    }
+
+    /**
+     * Returns the number of vertices in the graph.
+     *
+     * @return the number of vertices
+     */
+    @Override
+    public int size()
+    {
+        return _vertexCount.intValue();
+    }
+
+    /**
+     * Returns the number of outgoing edges from a given vertex.
+     *
+     * @param v the vertex to check
+     * @return the degree of the vertex
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    @Override
+    public int degree(V v)
+    {
+        return node(v)._out.size();
+    }
+
+    /**
+     * Returns the number of incoming edges of a given vertex.
+     *
+     * @param v the vertex to check
+     * @return the in-degree of the vertex
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    @Override
+    public int inDegree(V v)
+    {
+        return node(v)._in.size();
+    }
+
+    /**
+     * Returns the total number of edges in the graph.
+     *
+     * @return the number of edges
+     */
+    @Override
+    public int edgeCount()
+    {
+        return _edgeCount.intValue();
+    }
+
+    /**
+     * Returns a weakly consistent iterator over all vertices in the graph.
+     *
+     * @return an iterator over Vertex<V> objects
+     */
+    @Override
+    public Iterator<Vertex<V>> vertices()
+    {
+        return vertices(false);
+    }
+
+    /**
+     * Returns a weakly consistent iterator over all vertices in the graph, optionally reusing
+     * one flyweight Vertex for the whole iteration.
+     *
+     * @param flyweight true to reuse one Vertex object for the whole iteration
+     * @return an iterator over Vertex<V> objects
+     */
+    @Override
+    public Iterator<Vertex<V>> vertices(boolean flyweight)
+    {
+        Iterator<Map.Entry<V, Node<V, E>>> entries = _nodes.entrySet().iterator();
+
+        return new LabelIterator(new Iterator<V>()
+        {
+            // The next live vertex, or null once the map is exhausted
+            private V _next = advance();
+
+            private V advance()
+            {
+                while (entries.hasNext())
+                {
+                    Map.Entry<V, Node<V, E>> entry = entries.next();
+                    if (!entry.getValue()._removed)
+                    {
+                        return entry.getKey();
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public boolean hasNext()
+            {
+                return _next != null;
+            }
+
+            @Override
+            public V next()
+            {
+                if (_next == null)
+                {
+                    throw new NoSuchElementException();
+                }
+                V label = _next;
+                _next = advance();
+                return label;
+            }
+        }, flyweight);
+    }
+
+    /**
+     * Returns a weakly consistent iterator over all vertices adjacent to the given vertex.
+     *
+     * @param v the source vertex
+     * @return an iterator over adjacent Vertex<V> objects
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    @Override
+    public Iterator<Vertex<V>> adjacent(V v)
+    {
+        return adjacent(v, false);
+    }
+
+    /**
+     * Returns a weakly consistent iterator over all vertices adjacent to the given vertex,
+     * optionally reusing one flyweight Vertex for the whole iteration.
+     *
+     * @param v the source vertex
+     * @param flyweight true to reuse one Vertex object for the whole iteration
+     * @return an iterator over adjacent Vertex<V> objects
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    @Override
+    public Iterator<Vertex<V>> adjacent(V v, boolean flyweight)
+    {
+        return new LabelIterator(node(v)._out.keySet().iterator(), flyweight);
+    }
+
+    /**
+     * Returns a weakly consistent iterator over all vertices that have an edge to the given
+     * vertex.
+     *
+     * @param v the destination vertex
+     * @return an iterator over Vertex<V> objects with an edge to v
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    @Override
+    public Iterator<Vertex<V>> incoming(V v)
+    {
+        return new LabelIterator(node(v)._in.iterator(), false);
+    }
+
+    /**
+     * Returns a weakly consistent iterator over all edges in the graph. The stored Edge
+     * objects are returned as they are.
+     *
+     * @return an iterator over Edge<V, E> objects
+     */
+    @Override
+    public Iterator<Edge<V, E>> edges()
+    {
+        Iterator<Node<V, E>> nodes = _nodes.values().iterator();
+
+        return new GraphIterator<Edge<V, E>>()
+        {
+            private Iterator<Edge<V, E>> _current = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext()
+            {
+                while (!_current.hasNext() && nodes.hasNext())
+                {
+                    Node<V, E> node = nodes.next();
+                    if (!node._removed)
+                    {
+                        _current = node._out.values().iterator();
+                    }
+                }
+                return _current.hasNext();
+            }
+
+            @Override
+            protected Edge<V, E> nextElement()
+            {
+                return _current.next();
+            }
+        };
+    }
+
+    /**
+     * Removes every vertex and edge. Vertices added while the graph is being cleared may
+     * survive the call.
+     */
+    @Override
+    public void clear()
+    {
+        for (V v : _nodes.keySet())
+        {
+            try
+            {
+                remove(v);
+            }
+            catch (NoSuchVertexException e)
+            {
+                // Already removed by another thread
+            }
+        }
+    }
+
+    /**
+     * Checks if the graph is empty.
+     *
+     * @return true if the graph has no vertices, false otherwise
+     */
+    @Override
+    public boolean isEmpty()
+    {
+        return size() == 0;
+    }
+
+    /**
+     * Looks up the node of a live vertex.
+     *
+     * @param v the vertex
+     * @return the node of the vertex
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist or is being removed
+     */
+    private Node<V, E> node(V v)
+    {
+        Node<V, E> node = v == null ? null : _nodes.get(v);
+
+        if (node == null || node._removed)
+        {
+            throw new NoSuchVertexException("Vertex not found");
+        }
+        return node;
+    }
+
+    /**
+     * Finds the stripe index of a vertex.
+     *
+     * @param v the vertex
+     * @return the index of the stripe guarding v
+     */
+    private int stripeIndex(V v)
+    {
+        int h = v == null ? 0 : v.hashCode();
+        return (h ^ (h >>> 16)) & (_stripes.length - 1);
+    }
+
+    /**
+     * Finds the stripe that guards a vertex.
+     *
+     * @param v the vertex
+     * @return the lock guarding v
+     */
+    private ReentrantLock stripe(V v)
+    {
+        return _stripes[stripeIndex(v)];
+    }
+
+    /**
+     * Locks the stripes of two vertices, lower index first.
+     *
+     * @param u the first vertex
+     * @param v the second vertex
+     */
+    private void lockPair(V u, V v)
+    {
+        int a = stripeIndex(u);
+        int b = stripeIndex(v);
+
+        _stripes[Math.min(a, b)].lock();
+        if (a != b)
+        {
+            _stripes[Math.max(a, b)].lock();
+        }
+    }
+
+    /**
+     * Unlocks the stripes taken by lockPair.
+     *
+     * @param u the first vertex
+     * @param v the second vertex
+     */
+    private void unlockPair(V u, V v)
+    {
+        int a = stripeIndex(u);
+        int b = stripeIndex(v);
+
+        if (a != b)
+        {
+            _stripes[Math.max(a, b)].unlock();
+        }
+        _stripes[Math.min(a, b)].unlock();
+    }
+}
@@ -0,0 +1,196 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+class ConcurrentListGraphTest {
+    private ConcurrentListGraph<String, Integer> graph;
+
+    @BeforeEach
+    void setUp() {
+        graph = new ConcurrentListGraph<>();
+    }
+
+    // Test vertex operations
+    @Test
+    void testAddAndRemoveVertex() {
+        graph.add("A");
+        assertTrue(graph.contains("A"));
+        assertThrows(DuplicateVertexException.class, () -> graph.add("A"));
+        assertEquals("A", graph.remove("A"));
+        assertFalse(graph.contains("A"));
+        assertThrows(NoSuchVertexException.class, () -> graph.remove("A"));
+        assertThrows(IllegalArgumentException.class, () -> graph.add(null));
+    }
+
+    // Test edge operations
+    @Test
+    void testEdgeOperations() {
+        graph.add("A");
+        graph.add("B");
+        graph.addEdge("A", "B", 5);
+        assertTrue(graph.containsEdge("A", "B"));
+        assertFalse(graph.containsEdge("B", "A"));
+        assertEquals(5, graph.getEdge("A", "B").getLabel());
+        assertThrows(DuplicateEdgeException.class, () -> graph.addEdge("A", "B", 6));
+        assertThrows(NoSuchVertexException.class, () -> graph.addEdge("A", "C", 6));
+        assertThrows(IllegalArgumentException.class, () -> graph.addEdge("B", "A", null));
+        assertEquals(1, graph.degree("A"));
+        assertEquals(1, graph.inDegree("B"));
+        assertEquals(1, graph.edgeCount());
+        assertEquals(5, graph.removeEdge("A", "B"));
+        assertThrows(NoSuchEdgeException.class, () -> graph.removeEdge("A", "B"));
+        assertThrows(NoSuchEdgeException.class, () -> graph.getEdge("A", "B"));
+        assertEquals(0, graph.edgeCount());
+    }
+
+    // Test removing a vertex removes its edges in both directions
+    @Test
+    void testRemoveVertexRemovesEdges() {
+        for (String v : List.of("A", "B", "C")) {
+            graph.add(v);
+        }
+        graph.addEdge("A", "B", 1);
+        graph.addEdge("B", "C", 2);
+        graph.addEdge("C", "B", 3);
+        graph.addEdge("B", "B", 4);
+        graph.remove("B");
+        assertEquals(0, graph.edgeCount());
+        assertEquals(0, graph.degree("A"));
+        assertEquals(0, graph.inDegree("C"));
+        assertEquals(2, graph.size());
+        graph.add("B");
+        assertEquals(0, graph.degree("B"));
+        assertEquals(0, graph.inDegree("B"));
+    }
+
+    // Test iterators
+    @Test
+    void testIterators() {
+        for (String v : List.of("A", "B", "C")) {
+            graph.add(v);
+        }
+        graph.addEdge("A", "B", 1);
+        graph.addEdge("A", "C", 2);
+        assertEquals(3, graph.vertexStream().count());
+        assertEquals(2, graph.adjacentStream("A").count());
+        assertEquals(2, graph.edgeStream().count());
+        assertEquals("A", graph.incoming("C").next().getLabel());
+    }
+
+    // Test iterators do not fail on concurrent modification
+    @Test
+    void testIteratorsAreWeaklyConsistent() {
+        graph.add("A");
+        graph.add("B");
+        graph.addEdge("A", "B", 1);
+        Iterator<Vertex<String>> vertices = graph.vertices();
+        Iterator<Edge<String, Integer>> edges = graph.edges();
+        graph.add("C");
+        graph.addEdge("B", "C", 2);
+        vertices.next();
+        edges.next();
+    }
+
+    @Test
+    void testClear() {
+        graph.add("A");
+        graph.add("B");
+        graph.addEdge("A", "B", 1);
+        graph.clear();
+        assertTrue(graph.isEmpty());
+        assertEquals(0, graph.edgeCount());
+    }
+
+    // Test that concurrent writers and readers leave the graph consistent
+    @Test
+    void testConcurrentStress() throws Exception {
+        int vertices = 200;
+        int threads = 8;
+        ConcurrentListGraph<Integer, Integer> stress = new ConcurrentListGraph<>(16);
+        for (int v = 0; v < vertices; v++) {
+            stress.add(v);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean done = new AtomicBoolean();
+        List<Future<?>> writers = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            long seed = t;
+            writers.add(executor.submit(() -> {
+                Random random = new Random(seed);
+                start.await();
+                for (int i = 0; i < 20_000; i++) {
+                    int u = random.nextInt(vertices);
+                    int v = random.nextInt(vertices);
+                    int op = random.nextInt(100);
+                    try {
+                        if (op < 60) {
+                            stress.addEdge(u, v, i);
+                        } else if (op < 95) {
+                            stress.removeEdge(u, v);
+                        } else if (op < 98) {
+                            stress.remove(u);
+                        } else {
+                            stress.add(u);
+                        }
+                    } catch (DuplicateEdgeException | DuplicateVertexException
+                             | NoSuchEdgeException | NoSuchVertexException e) {
+                        // Expected when threads race on the same vertices
+                    }
+                }
+                return null;
+            }));
+        }
+
+        Future<?> reader = executor.submit(() -> {
+            start.await();
+            while (!done.get()) {
+                stress.edges().forEachRemaining(edge -> assertNotNull(edge.getLabel()));
+                stress.vertices().forEachRemaining(vertex -> assertNotNull(vertex.getLabel()));
+            }
+            return null;
+        });
+
+        start.countDown();
+        for (Future<?> writer : writers) {
+            writer.get();
+        }
+        done.set(true);
+        reader.get();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        int outDegrees = 0;
+        int inDegrees = 0;
+        int live = 0;
+        for (int v = 0; v < vertices; v++) {
+            if (stress.contains(v)) {
+                live++;
+                outDegrees += stress.degree(v);
+                inDegrees += stress.inDegree(v);
+                int source = v;
+                stress.adjacent(v).forEachRemaining(w -> {
+                    assertTrue(stress.contains(w.getLabel()));
+                    assertTrue(stress.incoming(w.getLabel()).hasNext());
+                    assertEquals(source, stress.getEdge(source, w.getLabel()).getU());
+                });
+            }
+        }
+        assertEquals(live, stress.size());
+        assertEquals(outDegrees, stress.edgeCount());
+        assertEquals(inDegrees, stress.edgeCount());
+        assertEquals(stress.edgeCount(), stress.edgeStream().count());
+    }
+}
@@ -0,0 +1,1088 @@
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * A concrete implementation of the DirectedGraph class using a compressed sparse row (CSR)
+ * layout. Vertices are numbered with dense int ids, and the outgoing edges of every vertex
+ * are packed into one contiguous slice of a shared targets array, with the edge labels kept
+ * in a parallel array. The slice of vertex i runs from _offsets[i] to _offsets[i + 1], and
+ * the targets inside a slice are kept sorted so edge lookups can use a binary search.
+ *
+ * Each edge costs one int and one label reference instead of an Edge object plus a list slot,
+ * and adjacent() walks a contiguous range of the targets array. The layout is meant to be
+ * loaded in bulk through the constructor that takes all vertices and edges at once; the
+ * incremental mutators are supported but shift the packed arrays, so each one is O(V + E).
+ * Only outgoing edges are packed; incoming() probes every row, so it is O(V log E).
+ *
+ * The labels form a column parallel to the targets, so the filtered forms of adjacent() and
+ * edges() test the labels without touching anything else and create Vertex and Edge objects
+ * only for the accepted edges. For numeric labels, adjacentInRange() and edgesInRange() scan
+ * a double copy of the column with a branch-free loop instead of calling a predicate on
+ * boxed labels.
+ *
+ * @author mfullhart20@georgefox.edu
+ * @param <V> the type of the vertex labels
+ * @param <E> the type of the edge labels
+ */
+public class CsrGraph<V, E> extends DirectedGraph<V, E>
+{
+    // Initial capacity of the packed arrays
+    private static final int DEFAULT_CAPACITY = 10;
+    // Rows shorter than this are sorted with an insertion sort during a bulk build
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+    // Number of positions a range scan selects at a time
+    private static final int SCAN_BLOCK = 256;
+
+    // Maps each vertex to its dense id
+    private Map<V, Integer> _vertexIndex;
+    // Vertex labels, indexed by id
+    private List<V> _vertices;
+    // _offsets[i] is the index in _targets of the first outgoing edge of vertex i
+    private int[] _offsets;
+    // Destination ids of all edges, grouped by source and sorted within each group
+    private int[] _targets;
+    // Edge labels, parallel to _targets
+    private E[] _labels;
+    // Number of incoming edges of each vertex, indexed by id
+    private int[] _inDegrees;
+    // The edge labels as doubles, parallel to _targets; built on the first range scan and
+    // rebuilt when _modCount has moved past _numericModCount
+    private double[] _numericLabels;
+    private int _numericModCount;
+    // Total number of edges in the graph
+    private int _edgeCount;
+
+    /**
+     * Constructs an empty CsrGraph.
+     */
+    @SuppressWarnings("unchecked")
+    public CsrGraph()
+    {
+        _vertexIndex = new HashMap<>();
+        _vertices = new ArrayList<>();
+        _offsets = new int[DEFAULT_CAPACITY + 1];
+        _inDegrees = new int[DEFAULT_CAPACITY];
+        _targets = new int[DEFAULT_CAPACITY];
+        _labels = (E[]) new Object[DEFAULT_CAPACITY];
+        _edgeCount = 0;
+    }
+
+    /**
+     * Constructs a CsrGraph in bulk from a collection of vertices and a collection of edges.
+     * The edges may be given in any order; they are grouped by source with a counting sort
+     * and the packed arrays are allocated exactly once.
+     *
+     * @param vertices the vertex labels of the graph
+     * @param edges the edges of the graph
+     * @throws IllegalArgumentException throw IAE if a vertex or edge is null
+     * @throws DuplicateVertexException throw DVE if a vertex appears more than once
+     * @throws NoSuchVertexException throw NSVE if an edge references a missing vertex
+     * @throws DuplicateEdgeException throw DEE if an edge appears more than once
+     */
+    public CsrGraph(Collection<V> vertices, Collection<Edge<V, E>> edges)
+    {
+        this(vertices, edges.iterator(), edges.size());
+    }
+
+    /**
+     * Constructs a CsrGraph in bulk from a collection of vertices and one pass over an edge
+     * iterator. Each edge is read as soon as it is returned, so the iterator may hand out a
+     * flyweight.
+     *
+     * @param vertices the vertex labels of the graph
+     * @param edges an iterator over the edges of the graph
+     * @param edgeCount the number of edges the iterator returns
+     */
+    @SuppressWarnings("unchecked")
+    private CsrGraph(Collection<V> vertices, Iterator<Edge<V, E>> edges, int edgeCount)
+    {
+        _vertexIndex = new HashMap<>(Math.max(16, (int) (vertices.size() / 0.75f) + 1));
+        _vertices = new ArrayList<>(vertices.size());
+
+        for (V v : vertices)
+        {
+            if (v == null)
+            {
+                throw new IllegalArgumentException("Null vertex");
+            }
+            if (_vertexIndex.putIfAbsent(v, _vertices.size()) != null)
+            {
+                throw new DuplicateVertexException("Vertex already exists");
+            }
+            _vertices.add(v);
+        }
+
+        int n = _vertices.size();
+        int m = edgeCount;
+        int[] sources = new int[m];
+        int[] targets = new int[m];
+        E[] labels = (E[]) new Object[m];
+        _offsets = new int[Math.max(n, DEFAULT_CAPACITY) + 1];
+        _inDegrees = new int[_offsets.length - 1];
+        _targets = new int[Math.max(m, DEFAULT_CAPACITY)];
+        _labels = (E[]) new Object[_targets.length];
+
+        // Resolve ids and count the out-degree of every vertex
+        for (int k = 0; k < m; k++)
+        {
+            Edge<V, E> edge = edges.next();
+            if (edge == null)
+            {
+                throw new IllegalArgumentException("Null edge");
+            }
+            sources[k] = indexOf(edge.getU());
+            targets[k] = indexOf(edge.getV());
+            labels[k] = edge.getLabel();
+            _offsets[sources[k] + 1]++;
+            _inDegrees[targets[k]]++;
+        }
+
+        for (int i = 0; i < n; i++)
+        {
+            _offsets[i + 1] += _offsets[i];
+        }
+
+        // Scatter every edge into the slice of its source
+        int[] next = Arrays.copyOf(_offsets, n);
+        for (int k = 0; k < m; k++)
+        {
+            int slot = next[sources[k]]++;
+            _targets[slot] = targets[k];
+            _labels[slot] = labels[k];
+        }
+
+        for (int i = 0; i < n; i++)
+        {
+            sortRow(_offsets[i], _offsets[i + 1]);
+
+            for (int j = _offsets[i] + 1; j < _offsets[i + 1]; j++)
+            {
+                if (_targets[j] == _targets[j - 1])
+                {
+                    throw new DuplicateEdgeException("Edge already exists");
+                }
+            }
+        }
+
+        _edgeCount = m;
+    }
+
+    /**
+     * Constructs a CsrGraph with its own copy of another CsrGraph's packed arrays and vertex
+     * table, trimmed to their used length.
+     *
+     * @param graph the graph to copy
+     */
+    private CsrGraph(CsrGraph<V, E> graph)
+    {
+        int n = graph._vertices.size();
+        _vertexIndex = new HashMap<>(graph._vertexIndex);
+        _vertices = new ArrayList<>(graph._vertices);
+        _offsets = Arrays.copyOf(graph._offsets, Math.max(n, DEFAULT_CAPACITY) + 1);
+        _inDegrees = Arrays.copyOf(graph._inDegrees, _offsets.length - 1);
+        _targets = Arrays.copyOf(graph._targets, Math.max(graph._edgeCount, DEFAULT_CAPACITY));
+        _labels = Arrays.copyOf(graph._labels, _targets.length);
+        _edgeCount = graph._edgeCount;
+    }
+
+    /**
+     * Builds a CsrGraph holding the same vertices and edges as another graph. A CsrGraph is
+     * copied array by array; the copy never shares state with the original.
+     *
+     * @param graph the graph to copy
+     * @param <V> the type of the vertex labels
+     * @param <E> the type of the edge labels
+     * @return a new CsrGraph with the contents of the given graph
+     * @throws IllegalArgumentException throw IAE if the graph is null
+     */
+    public static <V, E> CsrGraph<V, E> copyOf(DirectedGraph<V, E> graph)
+    {
+        if (graph == null)
+        {
+            throw new IllegalArgumentException("Null graph");
+        }
+        if (graph instanceof CsrGraph)
+        {
+            return new CsrGraph<>((CsrGraph<V, E>) graph);
+        }
+
+        List<V> vertices = new ArrayList<>(graph.size());
+        graph.vertices(true).forEachRemaining(vertex -> vertices.add(vertex.getLabel()));
+
+        return new CsrGraph<>(vertices, graph.edges(true), graph.edgeCount());
+    }
+
+    /**
+     * Sorts the slice [from, to) of the packed arrays by target id, keeping the labels aligned.
+     *
+     * @param from the first index of the slice
+     * @param to one past the last index of the slice
+     */
+    private void sortRow(int from, int to)
+    {
+        if (to - from <= INSERTION_SORT_THRESHOLD)
+        {
+            for (int i = from + 1; i < to; i++)
+            {
+                int target = _targets[i];
+                E label = _labels[i];
+                int j = i - 1;
+
+                while (j >= from && _targets[j] > target)
+                {
+                    _targets[j + 1] = _targets[j];
+                    _labels[j + 1] = _labels[j];
+                    j--;
+                }
+
+                _targets[j + 1] = target;
+                _labels[j + 1] = label;
+            }
+            return;
+        }
+
+        // Pack each target with its position in the slice so one primitive sort orders both
+        long[] keys = new long[to - from];
+        for (int i = from; i < to; i++)
+        {
+            keys[i - from] = ((long) _targets[i] << 32) | (i - from);
+        }
+        Arrays.sort(keys);
+
+        E[] labels = Arrays.copyOfRange(_labels, from, to);
+        for (int i = 0; i < keys.length; i++)
+        {
+            _targets[from + i] = (int) (keys[i] >>> 32);
+            _labels[from + i] = labels[(int) keys[i]];
+        }
+    }
+
+    /**
+     * Looks up the id of a vertex.
+     *
+     * @param v the label of the vertex
+     * @return the id of the vertex
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    int indexOf(V v)
+    {
+        Integer index = _vertexIndex.get(v);
+        if (index == null)
+        {
+            throw new NoSuchVertexException("Vertex not found");
+        }
+        return index;
+    }
+
+    /**
+     * Gets the label of the vertex with the given id.
+     *
+     * @param id the id of the vertex
+     * @return the label of the vertex
+     */
+    V vertexAt(int id)
+    {
+        return _vertices.get(id);
+    }
+
+    /**
+     * Gets the offsets array: the outgoing edges of vertex i occupy positions
+     * offsets()[i] to offsets()[i + 1] of targets(). The array is shared, not copied.
+     *
+     * @return the offsets array
+     */
+    int[] offsets()
+    {
+        return _offsets;
+    }
+
+    /**
+     * Gets the packed destination ids of all edges. The array is shared, not copied.
+     *
+     * @return the targets array
+     */
+    int[] targets()
+    {
+        return _targets;
+    }
+
+    /**
+     * Gets the label of the edge stored at a position of the packed arrays.
+     *
+     * @param position the index of the edge in targets()
+     * @return the label of the edge
+     */
+    E edgeLabel(int position)
+    {
+        return _labels[position];
+    }
+
+    /**
+     * Finds the position of an edge inside the slice of its source.
+     *
+     * @param u the id of the source vertex
+     * @param v the id of the destination vertex
+     * @return the index of the edge in the packed arrays, or (-(insertion point) - 1) if the
+     * edge does not exist
+     */
+    private int find(int u, int v)
+    {
+        return Arrays.binarySearch(_targets, _offsets[u], _offsets[u + 1], v);
+    }
+
+    /**
+     * Adds a vertex to the graph.
+     *
+     * @param v the label of the vertex to add
+     * @throws IllegalArgumentException throw IAE if the vertex is null
+     * @throws DuplicateVertexException throw DVE if the vertex already exists
+     */
+    @Override
+    public void add(V v)
+    {
+        if (v == null)
+        {
+            throw new IllegalArgumentException("Null vertex");
+        }
+        if (_vertexIndex.containsKey(v))
+        {
+            throw new DuplicateVertexException("Vertex already exists");
+        }
+
+        int n = _vertices.size();
+        if (n + 2 > _offsets.length)
+        {
+            _offsets = Arrays.copyOf(_offsets, _offsets.length * 2);
+            _inDegrees = Arrays.copyOf(_inDegrees, _offsets.length - 1);
+            _resizes++;
+        }
+
+        _vertexIndex.put(v, n);
+        _vertices.add(v);
+        _offsets[n + 1] = _offsets[n];
+        _modCount++;
+    }
+
+    /**
+     * Checks if a vertex exists in the graph.
+     *
+     * @param v the label of the vertex to check
+     * @return true if the vertex exists, false otherwise
+     */
+    @Override
+    public boolean contains(V v)
+    {
+        return _vertexIndex.containsKey(v);
+    }
+
+    /**
+     * Retrieves the vertex object corresponding to the given label.
+     *
+     * @param v the label of the vertex to retrieve
+     * @return the vertex object
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    @Override
+    public Vertex<V> get(V v)
+    {
+        indexOf(v);
+        return new Vertex<>(v);
+    }
+
+    /**
+     * Removes a vertex and all associated edges from the graph. The ids of the vertices after
+     * the removed one shift down by one, so the packed arrays are compacted in a single pass.
+     *
+     * @param v the label of the vertex to remove
+     * @return the label of the removed vertex
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    @Override
+    public V remove(V v)
+    {
+        int index = indexOf(v);
+        int n = _vertices.size();
+        int write = 0;
+        int read = 0;
+
+        for (int i = 0; i < n; i++)
+        {
+            int end = _offsets[i + 1];
+            int row = i < index ? i : i - 1;
+
+            if (i == index)
+            {
+                for (; read < end; read++)
+                {
+                    _inDegrees[_targets[read]]--;
+                }
+            }
+            else
+            {
+                _offsets[row] = write;
+
+                for (; read < end; read++)
+                {
+                    int target = _targets[read];
+                    if (target != index)
+                    {
+                        _targets[write] = target > index ? target - 1 : target;
+                        _labels[write] = _labels[read];
+                        write++;
+                    }
+                }
+            }
+            read = end;
+        }
+
+        _offsets[n - 1] = write;
+        System.arraycopy(_inDegrees, index + 1, _inDegrees, index, n - index - 1);
+        _inDegrees[n - 1] = 0;
+        Arrays.fill(_labels, write, _edgeCount, null);
+        _edgeCount = write;
+        _modCount++;
+
+        _vertexIndex.remove(v);
+        _vertices.remove(index);
+        for (int i = index; i < _vertices.size(); i++)
+        {
+            _vertexIndex.put(_vertices.get(i), i);
+        }
+
+        return v;
+    }
+
+    /**
+     * Adds a directed edge between two vertices.
+     *
+     * @param u     the source vertex
+     * @param v     the destination vertex
+     * @param label the label of the edge
+     * @throws IllegalArgumentException throw IAE if the edge label is null
+     * @throws NoSuchVertexException throw NSVE if either vertex does not exist
+     * @throws DuplicateEdgeException throw DEE if the edge already exists
+     */
+    @Override
+    public void addEdge(V u, V v, E label)
+    {
+        if (label == null)
+        {
+            throw new IllegalArgumentException("Null edge label");
+        }
+
+        int uIndex = indexOf(u);
+        int vIndex = indexOf(v);
+        int position = find(uIndex, vIndex);
+
+        if (position >= 0)
+        {
+            throw new DuplicateEdgeException("Edge already exists");
+        }
+        position = -position - 1;
+
+        if (_edgeCount == _targets.length)
+        {
+            _targets = Arrays.copyOf(_targets, _targets.length * 2);
+            _labels = Arrays.copyOf(_labels, _labels.length * 2);
+            _resizes++;
+        }
+
+        System.arraycopy(_targets, position, _targets, position + 1, _edgeCount - position);
+        System.arraycopy(_labels, position, _labels, position + 1, _edgeCount - position);
+        _targets[position] = vIndex;
+        _labels[position] = label;
+        _inDegrees[vIndex]++;
+
+        for (int i = uIndex + 1; i <= _vertices.size(); i++)
+        {
+            _offsets[i]++;
+        }
+        _edgeCount++;
+        _modCount++;
+    }
+
+    /**
+     * Checks if an edge exists between two vertices.
+     *
+     * @param u the source vertex
+     * @param v the destination vertex
+     * @return true if the edge exists, false otherwise
+     * @throws NoSuchVertexException throw NSVE if either vertex does not exist
+     */
+    @Override
+    public boolean containsEdge(V u, V v)
+    {
+        return find(indexOf(u), indexOf(v)) >= 0;
+    }
+
+    /**
+     * Retrieves the edge object between two vertices.
+     *
+     * @param u the source vertex
+     * @param v the destination vertex
+     * @return the edge object
+     * @throws NoSuchVertexException throw NSVE if either vertex does not exist
+     * @throws NoSuchEdgeException throw NSEE if the edge does not exist
+     */
+    @Override
+    public Edge<V, E> getEdge(V u, V v)
+    {
+        int position = find(indexOf(u), indexOf(v));
+
+        if (position < 0)
+        {
+            throw new NoSuchEdgeException("Edge not found");
+        }
+
+        return new Edge<>(u, v, _labels[position]);
+    }
+
+    /**
+     * Removes a directed edge between two vertices.
+     *
+     * @param u the source vertex
+     * @param v the destination vertex
+     * @return the label of the removed edge
+     * @throws NoSuchEdgeException throw NSEE if either vertex or the edge does not exist
+     */
+    @Override
+    public E removeEdge(V u, V v)
+    {
+        if (!_vertexIndex.containsKey(u) || !_vertexIndex.containsKey(v))
+        {
+            throw new NoSuchEdgeException("Edge not found");
+        }
+
+        int uIndex = indexOf(u);
+        int vIndex = indexOf(v);
+        int position = find(uIndex, vIndex);
+
+        if (position < 0)
+        {
+            throw new NoSuchEdgeException("Edge not found");
+        }
+
+        E label = _labels[position];
+        System.arraycopy(_targets, position + 1, _targets, position, _edgeCount - position - 1);
+        System.arraycopy(_labels, position + 1, _labels, position, _edgeCount - position - 1);
+        _labels[_edgeCount - 1] = null;
+        _inDegrees[vIndex]--;
+
+        for (int i = uIndex + 1; i <= _vertices.size(); i++)
+        {
+            _offsets[i]--;
+        }
+        _edgeCount--;
+        _modCount++;
+
+        return label;
+    }
+
+    /**
+     * Returns the number of vertices in the graph.
+     *
+     * @return the number of vertices
+     */
+    @Override
+    public int size()
+    {
+        return _vertices.size();
+    }
+
+    /**
+     * Returns the number of outgoing edges from a given vertex.
+     *
+     * @param v the vertex to check
+     * @return the degree of the vertex
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    @Override
+    public int degree(V v)
+    {
+        int index = indexOf(v);
+        return _offsets[index + 1] - _offsets[index];
+    }
+
+    /**
+     * Returns the number of incoming edges of a given vertex.
+     *
+     * @param v the vertex to check
+     * @return the in-degree of the vertex
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    @Override
+    public int inDegree(V v)
+    {
+        return _inDegrees[indexOf(v)];
+    }
+
+    /**
+     * Returns the total number of edges in the graph.
+     *
+     * @return the number of edges
+     */
+    @Override
+    public int edgeCount()
+    {
+        return _edgeCount;
+    }
+
+    /**
+     * Returns an iterator over all vertices in the graph, in id order.
+     *
+     * @return an iterator over Vertex<V> objects
+     */
+    @Override
+    public Iterator<Vertex<V>> vertices()
+    {
+        return vertices(false);
+    }
+
+    /**
+     * Returns an iterator over all vertices in the graph in id order, optionally reusing one
+     * flyweight Vertex for the whole iteration. The iterator fails fast if the graph is modified.
+     *
+     * @param flyweight true to reuse one Vertex object for the whole iteration
+     * @return an iterator over Vertex<V> objects
+     */
+    @Override
+    public Iterator<Vertex<V>> vertices(boolean flyweight)
+    {
+        return new LabelIterator(_vertices.iterator(), flyweight);
+    }
+
+    /**
+     * Returns an iterator over all vertices adjacent to the given vertex, in ascending id order.
+     *
+     * @param v the source vertex
+     * @return an iterator over adjacent Vertex<V> objects
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    @Override
+    public Iterator<Vertex<V>> adjacent(V v)
+    {
+        return adjacent(v, false);
+    }
+
+    /**
+     * Returns an iterator over all vertices adjacent to the given vertex, optionally reusing
+     * one flyweight Vertex for the whole iteration. The iterator walks the packed slice of the
+     * vertex directly, in ascending id order.
+     *
+     * @param v the source vertex
+     * @param flyweight true to reuse one Vertex object for the whole iteration
+     * @return an iterator over adjacent Vertex<V> objects
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    @Override
+    public Iterator<Vertex<V>> adjacent(V v, boolean flyweight)
+    {
+        int index = indexOf(v);
+        int end = _offsets[index + 1];
+
+        return new LabelIterator(new Iterator<V>()
+        {
+            private int _next = _offsets[index];
+
+            @Override
+            public boolean hasNext()
+            {
+                return _next < end;
+            }
+
+            @Override
+            public V next()
+            {
+                return _vertices.get(_targets[_next++]);
+            }
+        }, flyweight);
+    }
+
+    /**
+     * Returns an iterator over all vertices that have an edge to the given vertex, in id order.
+     * Every row is probed with a binary search.
+     *
+     * @param v the destination vertex
+     * @return an iterator over Vertex<V> objects with an edge to v
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    @Override
+    public Iterator<Vertex<V>> incoming(V v)
+    {
+        int index = indexOf(v);
+
+        return new LabelIterator(new Iterator<V>()
+        {
+            // Number of sources returned so far, and the next row to probe
+            private int _returned = 0;
+            private int _row = 0;
+
+            @Override
+            public boolean hasNext()
+            {
+                return _returned < _inDegrees[index];
+            }
+
+            @Override
+            public V next()
+            {
+                while (find(_row, index) < 0)
+                {
+                    _row++;
+                }
+                _returned++;
+                return _vertices.get(_row++);
+            }
+        }, false);
+    }
+
+    /**
+     * Returns an iterator over all edges in the graph, grouped by source id.
+     *
+     * @return an iterator over Edge<V, E> objects
+     */
+    @Override
+    public Iterator<Edge<V, E>> edges()
+    {
+        return edges(false);
+    }
+
+    /**
+     * Returns an iterator over all edges in the graph grouped by source id, optionally reusing
+     * one flyweight Edge for the whole iteration.
+     *
+     * @param flyweight true to reuse one Edge object for the whole iteration
+     * @return an iterator over Edge<V, E> objects
+     */
+    @Override
+    public Iterator<Edge<V, E>> edges(boolean flyweight)
+    {
+        return new EdgeIterator(flyweight)
+        {
+            private int _source = 0;
+            private int _next = 0;
+
+            @Override
+            public boolean hasNext()
+            {
+                return _next < _edgeCount;
+            }
+
+            @Override
+            protected Edge<V, E> nextElement()
+            {
+                while (_offsets[_source + 1] <= _next)
+                {
+                    _source++;
+                }
+
+                Edge<V, E> edge = edge(_vertices.get(_source), _vertices.get(_targets[_next]), _labels[_next]);
+                _next++;
+                return edge;
+            }
+        };
+    }
+
+    /**
+     * Returns an iterator over the vertices adjacent to the given vertex whose connecting edge
+     * has a label accepted by a filter. The filter is called on the label column of the
+     * vertex's slice, in ascending id order.
+     *
+     * @param v the source vertex
+     * @param filter accepts the labels of the edges to follow
+     * @return an iterator over the accepted adjacent Vertex<V> objects
+     * @throws IllegalArgumentException throw IAE if the filter is null
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    @Override
+    public Iterator<Vertex<V>> adjacent(V v, Predicate<? super E> filter)
+    {
+        if (filter == null)
+        {
+            throw new IllegalArgumentException("Null filter");
+        }
+
+        int index = indexOf(v);
+        int end = _offsets[index + 1];
+
+        return new LabelIterator(new Iterator<V>()
+        {
+            private int _next = advance(_offsets[index]);
+
+            private int advance(int position)
+            {
+                while (position < end && !filter.test(_labels[position]))
+                {
+                    position++;
+                }
+                return position;
+            }
+
+            @Override
+            public boolean hasNext()
+            {
+                return _next < end;
+            }
+
+            @Override
+            public V next()
+            {
+                V target = _vertices.get(_targets[_next]);
+                _next = advance(_next + 1);
+                return target;
+            }
+        }, false);
+    }
+
+    /**
+     * Returns an iterator over the edges whose label is accepted by a filter, grouped by
+     * source id. The filter is called on the label column, and Edge objects are only created
+     * for the accepted edges.
+     *
+     * @param filter accepts the labels of the edges to return
+     * @return an iterator over the accepted Edge<V, E> objects
+     * @throws IllegalArgumentException throw IAE if the filter is null
+     */
+    @Override
+    public Iterator<Edge<V, E>> edges(Predicate<? super E> filter)
+    {
+        if (filter == null)
+        {
+            throw new IllegalArgumentException("Null filter");
+        }
+
+        return new EdgeIterator(false)
+        {
+            private int _source = 0;
+            private int _next = advance(0);
+
+            private int advance(int position)
+            {
+                while (position < _edgeCount && !filter.test(_labels[position]))
+                {
+                    position++;
+                }
+                return position;
+            }
+
+            @Override
+            public boolean hasNext()
+            {
+                return _next < _edgeCount;
+            }
+
+            @Override
+            protected Edge<V, E> nextElement()
+            {
+                while (_offsets[_source + 1] <= _next)
+                {
+                    _source++;
+                }
+
+                Edge<V, E> edge = edge(_vertices.get(_source), _vertices.get(_targets[_next]), _labels[_next]);
+                _next = advance(_next + 1);
+                return edge;
+            }
+        };
+    }
+
+    /**
+     * Returns an iterator over the vertices adjacent to the given vertex whose connecting edge
+     * has a numeric label between two bounds, inclusive. The labels are compared as doubles,
+     * so long labels beyond 2^53 are rounded. NaN bounds accept nothing.
+     *
+     * @param v the source vertex
+     * @param low the smallest accepted label
+     * @param high the largest accepted label
+     * @return an iterator over the accepted adjacent Vertex<V> objects
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     * @throws IllegalStateException throw ISE if an edge label is not a Number
+     */
+    public Iterator<Vertex<V>> adjacentInRange(V v, double low, double high)
+    {
+        int index = indexOf(v);
+        Selection selection = new Selection(_offsets[index], _offsets[index + 1], low, high);
+
+        return new LabelIterator(new Iterator<V>()
+        {
+            @Override
+            public boolean hasNext()
+            {
+                return selection.hasNext();
+            }
+
+            @Override
+            public V next()
+            {
+                return _vertices.get(_targets[selection.next()]);
+            }
+        }, false);
+    }
+
+    /**
+     * Returns an iterator over the edges with a numeric label between two bounds, inclusive,
+     * grouped by source id. The labels are compared as doubles, so long labels beyond 2^53
+     * are rounded. NaN bounds accept nothing.
+     *
+     * @param low the smallest accepted label
+     * @param high the largest accepted label
+     * @param flyweight true to reuse one Edge object for the whole iteration
+     * @return an iterator over the accepted Edge<V, E> objects
+     * @throws IllegalStateException throw ISE if an edge label is not a Number
+     */
+    public Iterator<Edge<V, E>> edgesInRange(double low, double high, boolean flyweight)
+    {
+        Selection selection = new Selection(0, _edgeCount, low, high);
+
+        return new EdgeIterator(flyweight)
+        {
+            private int _source = 0;
+
+            @Override
+            public boolean hasNext()
+            {
+                return selection.hasNext();
+            }
+
+            @Override
+            protected Edge<V, E> nextElement()
+            {
+                int position = selection.next();
+                while (_offsets[_source + 1] <= position)
+                {
+                    _source++;
+                }
+                return edge(_vertices.get(_source), _vertices.get(_targets[position]), _labels[position]);
+            }
+        };
+    }
+
+    /**
+     * Gets the edge labels as doubles, parallel to the targets, converting the label column
+     * again if the graph changed since the last conversion.
+     *
+     * @return the numeric label column
+     * @throws IllegalStateException throw ISE if an edge label is not a Number
+     */
+    private double[] numericLabels()
+    {
+        if (_numericLabels == null || _numericModCount != _modCount)
+        {
+            double[] numeric = new double[_edgeCount];
+            for (int i = 0; i < _edgeCount; i++)
+            {
+                if (!(_labels[i] instanceof Number))
+                {
+                    throw new IllegalStateException("Edge labels are not numeric");
+                }
+                numeric[i] = ((Number) _labels[i]).doubleValue();
+            }
+            _numericLabels = numeric;
+            _numericModCount = _modCount;
+        }
+        return _numericLabels;
+    }
+
+    /**
+     * Selects the positions of a range of the numeric label column whose label lies between
+     * two bounds. The column is scanned a block at a time: every position is written to the
+     * buffer and the count only advances when the label is accepted, so the loop has no
+     * branch that depends on the data.
+     */
+    private class Selection
+    {
+        // The numeric label column
+        private final double[] _column;
+        // The bounds of the accepted labels
+        private final double _low;
+        private final double _high;
+        // The next position to scan, and one past the last
+        private int _scan;
+        private final int _end;
+        // The accepted positions of the current block
+        private final int[] _selected;
+        private int _count;
+        private int _next;
+
+        /**
+         * Constructs a selection over positions [from, to) of the label column.
+         *
+         * @param from the first position
+         * @param to one past the last position
+         * @param low the smallest accepted label
+         * @param high the largest accepted label
+         */
+        private Selection(int from, int to, double low, double high)
+        {
+            _column = numericLabels();
+            _low = low;
+            _high = high;
+            _scan = from;
+            _end = to;
+            _selected = new int[Math.min(SCAN_BLOCK, to - from) + 1];
+        }
+
+        /**
+         * Checks if another position is accepted, scanning blocks until one is found or the
+         * range is exhausted.
+         *
+         * @return true if another position is accepted
+         */
+        private boolean hasNext()
+        {
+            while (_next == _count && _scan < _end)
+            {
+                int stop = Math.min(_scan + SCAN_BLOCK, _end);
+                int count = 0;
+                for (int i = _scan; i < stop; i++)
+                {
+                    double label = _column[i];
+                    _selected[count] = i;
+                    count += (label >= _low) & (label <= _high) ? 1 : 0;
+                }
+                _scan = stop;
+                _count = count;
+                _next = 0;
+            }
+            return _next < _count;
+        }
+
+        /**
+         * Returns the next accepted position. hasNext() must have returned true.
+         *
+         * @return the position in the packed arrays
+         */
+        private int next()
+        {
+            return _selected[_next++];
+        }
+    }
+
+    /**
+     * Clears the graph by removing all vertices and edges.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void clear()
+    {
+        _vertexIndex.clear();
+        _vertices.clear();
+        _offsets = new int[DEFAULT_CAPACITY + 1];
+        _inDegrees = new int[DEFAULT_CAPACITY];
+        _targets = new int[DEFAULT_CAPACITY];
+        _labels = (E[]) new Object[DEFAULT_CAPACITY];
+        _edgeCount = 0;
+        _modCount++;
+    }
+
+    /**
+     * Checks if the graph is empty.
+     *
+     * @return true if the graph has no vertices, false otherwise
+     */
+    @Override
+    public boolean isEmpty()
+    {
+        return _vertices.isEmpty();
+    }
+}
@@ -0,0 +1,432 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+
+class CsrGraphTest {
+    private CsrGraph<String, Integer> graph;
+
+    @BeforeEach
+    void setUp() {
+        graph = new CsrGraph<>();
+    }
+
+    // Test adding vertices
+    @Test
+    void testAddVertex() {
+        graph.add("A");
+        assertTrue(graph.contains("A"));
+    }
+
+    @Test
+    void testAddDuplicateVertexThrowsException() {
+        graph.add("A");
+        assertThrows(DuplicateVertexException.class, () -> graph.add("A"));
+    }
+
+    @Test
+    void testAddNullVertexThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> graph.add(null));
+    }
+
+    // Test adding edges
+    @Test
+    void testAddEdge() {
+        graph.add("A");
+        graph.add("B");
+        graph.addEdge("A", "B", 10);
+        assertTrue(graph.containsEdge("A", "B"));
+        assertFalse(graph.containsEdge("B", "A"));
+    }
+
+    @Test
+    void testAddDuplicateEdgeThrowsException() {
+        graph.add("A");
+        graph.add("B");
+        graph.addEdge("A", "B", 10);
+        assertThrows(DuplicateEdgeException.class, () -> graph.addEdge("A", "B", 20));
+    }
+
+    @Test
+    void testAddEdgeWithNonExistentVertexThrowsException() {
+        graph.add("A");
+        assertThrows(NoSuchVertexException.class, () -> graph.addEdge("A", "B", 10));
+    }
+
+    @Test
+    void testAddEdgeWithNullLabelThrowsException() {
+        graph.add("A");
+        graph.add("B");
+        assertThrows(IllegalArgumentException.class, () -> graph.addEdge("A", "B", null));
+    }
+
+    // Test edges interleaved across several sources keep their slices apart
+    @Test
+    void testAddEdgesAcrossRows() {
+        graph.add("A");
+        graph.add("B");
+        graph.add("C");
+        graph.addEdge("B", "C", 1);
+        graph.addEdge("A", "C", 2);
+        graph.addEdge("A", "B", 3);
+        graph.addEdge("C", "A", 4);
+        assertEquals(2, graph.degree("A"));
+        assertEquals(1, graph.degree("B"));
+        assertEquals(1, graph.degree("C"));
+        assertEquals(3, graph.getEdge("A", "B").getLabel());
+        assertEquals(2, graph.getEdge("A", "C").getLabel());
+        assertEquals(1, graph.getEdge("B", "C").getLabel());
+        assertEquals(4, graph.getEdge("C", "A").getLabel());
+    }
+
+    // Test removing edges
+    @Test
+    void testRemoveEdge() {
+        graph.add("A");
+        graph.add("B");
+        graph.addEdge("A", "B", 10);
+        assertEquals(10, graph.removeEdge("A", "B"));
+        assertFalse(graph.containsEdge("A", "B"));
+        assertEquals(0, graph.edgeCount());
+    }
+
+    @Test
+    void testRemoveNonExistentEdgeThrowsException() {
+        graph.add("A");
+        graph.add("B");
+        assertThrows(NoSuchEdgeException.class, () -> graph.removeEdge("A", "B"));
+    }
+
+    @Test
+    void testGetNonExistentEdgeThrowsException() {
+        graph.add("A");
+        graph.add("B");
+        assertThrows(NoSuchEdgeException.class, () -> graph.getEdge("A", "B"));
+    }
+
+    // Test removing vertices renumbers the remaining ones
+    @Test
+    void testRemoveVertexRemovesEdges() {
+        graph.add("A");
+        graph.add("B");
+        graph.add("C");
+        graph.addEdge("A", "B", 1);
+        graph.addEdge("B", "C", 2);
+        graph.addEdge("C", "A", 3);
+        graph.addEdge("C", "B", 4);
+        assertEquals("B", graph.remove("B"));
+        assertFalse(graph.contains("B"));
+        assertEquals(2, graph.size());
+        assertEquals(1, graph.edgeCount());
+        assertEquals(0, graph.degree("A"));
+        assertTrue(graph.containsEdge("C", "A"));
+        assertEquals(3, graph.getEdge("C", "A").getLabel());
+    }
+
+    @Test
+    void testRemoveNonExistentVertexThrowsException() {
+        assertThrows(NoSuchVertexException.class, () -> graph.remove("A"));
+    }
+
+    @Test
+    void testRemoveAllVertices() {
+        graph.add("A");
+        graph.add("B");
+        graph.remove("A");
+        assertEquals(1, graph.size());
+        graph.remove("B");
+        assertTrue(graph.isEmpty());
+    }
+
+    // Test iterating over adjacent vertices
+    @Test
+    void testAdjacentIterator() {
+        graph.add("A");
+        graph.add("B");
+        graph.add("C");
+        graph.addEdge("A", "C", 10);
+        graph.addEdge("A", "B", 20);
+        Iterator<Vertex<String>> it = graph.adjacent("A");
+        assertEquals("B", it.next().getLabel());
+        assertEquals("C", it.next().getLabel());
+        assertFalse(it.hasNext());
+    }
+
+    @Test
+    void testAdjacentNonExistentVertexThrowsException() {
+        assertThrows(NoSuchVertexException.class, () -> graph.adjacent("A"));
+    }
+
+    // Test iterating over edges
+    @Test
+    void testEdgeIterator() {
+        graph.add("A");
+        graph.add("B");
+        graph.add("C");
+        graph.addEdge("C", "A", 30);
+        graph.addEdge("A", "B", 10);
+        List<Edge<String, Integer>> edges = new ArrayList<>();
+        graph.edges().forEachRemaining(edges::add);
+        assertEquals(List.of(new Edge<>("A", "B", 10), new Edge<>("C", "A", 30)), edges);
+    }
+
+    @Test
+    void testEmptyGraphIteration() {
+        assertFalse(graph.vertices().hasNext());
+        assertFalse(graph.edges().hasNext());
+    }
+
+    // Test the bulk constructor
+    @Test
+    void testBulkBuild() {
+        List<Edge<String, Integer>> edges = List.of(new Edge<>("C", "A", 1),
+                new Edge<>("A", "C", 2), new Edge<>("A", "B", 3), new Edge<>("B", "B", 4));
+        CsrGraph<String, Integer> built = new CsrGraph<>(List.of("A", "B", "C"), edges);
+        assertEquals(3, built.size());
+        assertEquals(4, built.edgeCount());
+        assertEquals(2, built.degree("A"));
+        assertEquals(4, built.getEdge("B", "B").getLabel());
+        Iterator<Vertex<String>> it = built.adjacent("A");
+        assertEquals("B", it.next().getLabel());
+        assertEquals("C", it.next().getLabel());
+    }
+
+    @Test
+    void testBulkBuildSortsLargeRows() {
+        List<Integer> vertices = new ArrayList<>();
+        List<Edge<Integer, Integer>> edges = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            vertices.add(i);
+            edges.add(new Edge<>(0, 99 - i, i));
+        }
+        CsrGraph<Integer, Integer> built = new CsrGraph<>(vertices, edges);
+        Iterator<Vertex<Integer>> it = built.adjacent(0);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, it.next().getLabel());
+            assertEquals(99 - i, built.getEdge(0, i).getLabel());
+        }
+    }
+
+    @Test
+    void testBulkBuildDuplicateEdgeThrowsException() {
+        List<Edge<String, Integer>> edges = List.of(new Edge<>("A", "B", 1), new Edge<>("A", "B", 2));
+        assertThrows(DuplicateEdgeException.class, () -> new CsrGraph<>(List.of("A", "B"), edges));
+    }
+
+    @Test
+    void testBulkBuildMissingVertexThrowsException() {
+        List<Edge<String, Integer>> edges = List.of(new Edge<>("A", "C", 1));
+        assertThrows(NoSuchVertexException.class, () -> new CsrGraph<>(List.of("A", "B"), edges));
+    }
+
+    @Test
+    void testCopyOfListGraph() {
+        ListGraph<String, Integer> source = new ListGraph<>();
+        source.add("A");
+        source.add("B");
+        source.addEdge("A", "B", 10);
+        source.addEdge("B", "A", 20);
+        CsrGraph<String, Integer> copy = CsrGraph.copyOf(source);
+        assertEquals(2, copy.size());
+        assertEquals(2, copy.edgeCount());
+        assertEquals(20, copy.getEdge("B", "A").getLabel());
+    }
+
+    // Test a copy of a CsrGraph shares nothing with the original
+    @Test
+    void testCopyOfCsrGraphIsIndependent() {
+        graph.add("A");
+        graph.add("B");
+        graph.add("C");
+        graph.addEdge("A", "B", 1);
+        graph.addEdge("B", "C", 2);
+        CsrGraph<String, Integer> copy = CsrGraph.copyOf(graph);
+        graph.remove("A");
+        graph.addEdge("C", "B", 3);
+        copy.addEdge("C", "A", 4);
+        assertEquals(3, copy.size());
+        assertEquals(3, copy.edgeCount());
+        assertEquals(1, copy.getEdge("A", "B").getLabel());
+        assertFalse(copy.containsEdge("C", "B"));
+        assertFalse(graph.contains("A"));
+        assertEquals(2, graph.edgeCount());
+    }
+
+    // Test clearing the graph
+    @Test
+    void testClearGraph() {
+        graph.add("A");
+        graph.add("B");
+        graph.addEdge("A", "B", 10);
+        graph.clear();
+        assertTrue(graph.isEmpty());
+        assertEquals(0, graph.edgeCount());
+        graph.add("A");
+        assertEquals(0, graph.degree("A"));
+    }
+
+    // Test incoming edges and in-degree
+    @Test
+    void testIncomingAndInDegree() {
+        graph.add("A");
+        graph.add("B");
+        graph.add("C");
+        graph.addEdge("A", "C", 1);
+        graph.addEdge("B", "C", 2);
+        graph.addEdge("C", "C", 3);
+        assertEquals(3, graph.inDegree("C"));
+        assertEquals(0, graph.inDegree("A"));
+        List<String> sources = new ArrayList<>();
+        graph.incoming("C").forEachRemaining(vertex -> sources.add(vertex.getLabel()));
+        assertTrue(sources.containsAll(List.of("A", "B", "C")));
+        graph.removeEdge("B", "C");
+        assertEquals(2, graph.inDegree("C"));
+    }
+
+    @Test
+    void testIncomingNonExistentVertexThrowsException() {
+        assertThrows(NoSuchVertexException.class, () -> graph.incoming("A"));
+        assertThrows(NoSuchVertexException.class, () -> graph.inDegree("A"));
+    }
+
+    // Test removing a vertex drops its edges in both directions, including self-loops
+    @Test
+    void testRemoveVertexUpdatesIncoming() {
+        graph.add("A");
+        graph.add("B");
+        graph.add("C");
+        graph.addEdge("A", "B", 1);
+        graph.addEdge("B", "C", 2);
+        graph.addEdge("B", "B", 3);
+        graph.addEdge("C", "B", 4);
+        graph.remove("B");
+        assertEquals(0, graph.edgeCount());
+        assertEquals(0, graph.degree("A"));
+        assertEquals(0, graph.degree("C"));
+        assertEquals(0, graph.inDegree("C"));
+        assertFalse(graph.incoming("C").hasNext());
+    }
+
+    // Test iterators fail fast when the graph is modified
+    @Test
+    void testIteratorFailsFastAfterModification() {
+        graph.add("A");
+        graph.add("B");
+        graph.addEdge("A", "B", 10);
+        Iterator<Vertex<String>> vertices = graph.vertices();
+        Iterator<Edge<String, Integer>> edges = graph.edges();
+        graph.add("C");
+        assertThrows(ConcurrentModificationException.class, vertices::next);
+        assertThrows(ConcurrentModificationException.class, edges::next);
+    }
+
+    // Test flyweight iteration reuses one view object
+    @Test
+    void testFlyweightIteration() {
+        graph.add("A");
+        graph.add("B");
+        graph.add("C");
+        graph.addEdge("A", "B", 10);
+        graph.addEdge("A", "C", 20);
+        Iterator<Vertex<String>> it = graph.adjacent("A", true);
+        Vertex<String> first = it.next();
+        String firstLabel = first.getLabel();
+        Vertex<String> second = it.next();
+        assertSame(first, second);
+        assertNotEquals(firstLabel, second.getLabel());
+        List<String> labels = new ArrayList<>();
+        graph.vertices(true).forEachRemaining(vertex -> labels.add(vertex.getLabel()));
+        assertTrue(labels.containsAll(List.of("A", "B", "C")));
+    }
+
+    // Test stream accessors
+    @Test
+    void testStreams() {
+        graph.add("A");
+        graph.add("B");
+        graph.add("C");
+        graph.addEdge("A", "B", 10);
+        graph.addEdge("B", "C", 20);
+        assertEquals(3, graph.vertexStream().count());
+        assertEquals(1, graph.adjacentStream("A").count());
+        assertEquals(30, graph.edgeStream().mapToInt(Edge::getLabel).sum());
+    }
+
+    // Test filtered adjacency and edges against the label column
+    @Test
+    void testFilteredTraversal() {
+        graph.add("A");
+        graph.add("B");
+        graph.add("C");
+        graph.add("D");
+        graph.addEdge("A", "B", 10);
+        graph.addEdge("A", "C", 20);
+        graph.addEdge("A", "D", 30);
+        graph.addEdge("C", "D", 25);
+        List<String> labels = new ArrayList<>();
+        graph.adjacent("A", (Integer label) -> label >= 20).forEachRemaining(vertex -> labels.add(vertex.getLabel()));
+        assertEquals(List.of("C", "D"), labels);
+        labels.clear();
+        graph.adjacentInRange("A", 15, 20).forEachRemaining(vertex -> labels.add(vertex.getLabel()));
+        assertEquals(List.of("C"), labels);
+        labels.clear();
+        graph.edges((Integer label) -> label > 15 && label < 30).forEachRemaining(edge -> labels.add(edge.getU() + edge.getV()));
+        assertEquals(List.of("AC", "CD"), labels);
+        labels.clear();
+        graph.edgesInRange(25, 30, true).forEachRemaining(edge -> labels.add(edge.getU() + edge.getV()));
+        assertEquals(List.of("AD", "CD"), labels);
+        assertFalse(graph.adjacent("B", (Integer label) -> true).hasNext());
+        assertFalse(graph.edgesInRange(Double.NaN, 100, false).hasNext());
+        assertThrows(IllegalArgumentException.class, () -> graph.edges((Predicate<Integer>) null));
+        assertThrows(NoSuchVertexException.class, () -> graph.adjacentInRange("Z", 0, 1));
+
+        // The numeric column follows changes to the graph
+        graph.removeEdge("A", "C");
+        graph.addEdge("B", "C", 18);
+        labels.clear();
+        graph.edgesInRange(15, 20, false).forEachRemaining(edge -> labels.add(edge.getU() + edge.getV()));
+        assertEquals(List.of("BC"), labels);
+    }
+
+    // Test range scans across many blocks match a filter
+    @Test
+    void testRangeScanMatchesFilter() {
+        Random random = new Random(4);
+        for (int i = 0; i < 100; i++) {
+            graph.add("v" + i);
+        }
+        for (int i = 0; i < 3000; i++) {
+            String u = "v" + random.nextInt(100);
+            String v = "v" + random.nextInt(100);
+            if (!graph.containsEdge(u, v)) {
+                graph.addEdge(u, v, random.nextInt(1000));
+            }
+        }
+        List<String> expected = new ArrayList<>();
+        graph.edges((Integer label) -> label >= 100 && label <= 400).forEachRemaining(edge -> expected.add(edge.getU() + edge.getV()));
+        List<String> actual = new ArrayList<>();
+        graph.edgesInRange(100, 400, true).forEachRemaining(edge -> actual.add(edge.getU() + edge.getV()));
+        assertEquals(expected, actual);
+        List<String> adjacent = new ArrayList<>();
+        graph.adjacentInRange("v7", 100, 400).forEachRemaining(vertex -> adjacent.add(vertex.getLabel()));
+        List<String> filtered = new ArrayList<>();
+        graph.adjacent("v7", (Integer label) -> label >= 100 && label <= 400).forEachRemaining(vertex -> filtered.add(vertex.getLabel()));
+        assertEquals(filtered, adjacent);
+    }
+
+    // Test range scans reject labels that are not numbers
+    @Test
+    void testRangeScanNonNumericLabelsThrowsException() {
+        CsrGraph<String, String> named = new CsrGraph<>();
+        named.add("A");
+        named.add("B");
+        named.addEdge("A", "B", "road");
+        assertThrows(IllegalStateException.class, () -> named.edgesInRange(0, 1, false));
+        assertTrue(named.edges((String label) -> label.startsWith("r")).hasNext());
+    }
+}
@@ -1,4 +1,11 @@
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Represents a generic directed graph structure where vertices are labeled
@@ -10,6 +17,151 @@ import java.util.Iterator;
  */
 public abstract class DirectedGraph<V, E>
 {
+    // Number of structural modifications, checked by GraphIterator to fail fast
+    protected int _modCount;
+    // Number of times an implementation grew its backing storage, read by InstrumentedGraph
+    protected int _resizes;
+
+    /**
+     * Base class for iterators that walk the backing structures of a graph directly. The
+     * iterator remembers the modification count of the graph when it is created, and next()
+     * throws ConcurrentModificationException once the graph has been structurally modified.
+     *
+     * @param <T> the type of element returned by the iterator
+     */
+    protected abstract class GraphIterator<T> implements Iterator<T>
+    {
+        // Modification count of the graph when the iterator was created
+        private final int _expectedModCount = _modCount;
+
+        /**
+         * Returns the next element of the iteration.
+         *
+         * @return the next element
+         * @throws ConcurrentModificationException throw CME if the graph has been modified
+         * @throws NoSuchElementException throw NSEE if there are no more elements
+         */
+        @Override
+        public final T next()
+        {
+            if (_modCount != _expectedModCount)
+            {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext())
+            {
+                throw new NoSuchElementException();
+            }
+            return nextElement();
+        }
+
+        /**
+         * Produces the next element once next() has checked that one exists.
+         *
+         * @return the next element
+         */
+        protected abstract T nextElement();
+    }
+
+    /**
+     * A fail-fast iterator that wraps vertex labels in Vertex objects, either one per label
+     * or a single flyweight that is updated in place.
+     */
+    protected class LabelIterator extends GraphIterator<Vertex<V>>
+    {
+        // The labels to wrap
+        private final Iterator<V> _labels;
+        // True to reuse _view for every element
+        private final boolean _flyweight;
+        // The flyweight vertex, created on first use
+        private Vertex<V> _view;
+
+        /**
+         * Constructs an iterator over the given labels.
+         *
+         * @param labels the labels to wrap
+         * @param flyweight true to reuse one Vertex object for the whole iteration
+         */
+        protected LabelIterator(Iterator<V> labels, boolean flyweight)
+        {
+            _labels = labels;
+            _flyweight = flyweight;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return _labels.hasNext();
+        }
+
+        @Override
+        protected Vertex<V> nextElement()
+        {
+            V label = _labels.next();
+
+            if (!_flyweight)
+            {
+                return new Vertex<>(label);
+            }
+            if (_view == null)
+            {
+                _view = new Vertex<>(label);
+            }
+            else
+            {
+                _view.reset(label);
+            }
+            return _view;
+        }
+    }
+
+    /**
+     * A fail-fast iterator over edges that either creates one Edge per element or reuses a
+     * single flyweight Edge that is updated in place.
+     */
+    protected abstract class EdgeIterator extends GraphIterator<Edge<V, E>>
+    {
+        // True to reuse _view for every element
+        private final boolean _flyweight;
+        // The flyweight edge, created on first use
+        private Edge<V, E> _view;
+
+        /**
+         * Constructs an edge iterator.
+         *
+         * @param flyweight true to reuse one Edge object for the whole iteration
+         */
+        protected EdgeIterator(boolean flyweight)
+        {
+            _flyweight = flyweight;
+        }
+
+        /**
+         * Produces the Edge handed out for the given source, destination and label.
+         *
+         * @param u the source vertex
+         * @param v the destination vertex
+         * @param label the edge label
+         * @return a new Edge, or the flyweight pointed at the given values
+         */
+        protected Edge<V, E> edge(V u, V v, E label)
+        {
+            if (!_flyweight)
+            {
+                return new Edge<>(u, v, label);
+            }
+            if (_view == null)
+            {
+                _view = new Edge<>(u, v, label);
+            }
+            else
+            {
+                _view.reset(u, v, label);
+            }
+            return _view;
+        }
+    }
+
     /**
      * Adds a vertex to the graph.
      *
@@ -92,6 +244,14 @@ public abstract class DirectedGraph<V, E>
      */
     public abstract int degree(V v);
 
+    /**
+     * Gets the in-degree (number of incoming edges) of a vertex.
+     *
+     * @param v the label of the vertex
+     * @return the in-degree of the vertex
+     */
+    public abstract int inDegree(V v);
+
     /**
      * Gets the total number of edges in the graph.
      *
@@ -114,6 +274,14 @@ public abstract class DirectedGraph<V, E>
      */
     public abstract Iterator<Vertex<V>> adjacent(V v);
 
+    /**
+     * Gets an iterator over all vertices that have an edge to the given vertex.
+     *
+     * @param v the label of the destination vertex
+     * @return an iterator over vertex objects with an edge to v
+     */
+    public abstract Iterator<Vertex<V>> incoming(V v);
+
     /**
      * Gets an iterator over all edges in the graph.
      *
@@ -133,5 +301,231 @@ public abstract class DirectedGraph<V, E>
      */
     public abstract boolean isEmpty();
 
-}
+    /**
+     * Adds a batch of edges, given in any order. The labels of the given Edge objects are
+     * copied; the objects themselves are not kept.
+     *
+     * @param edges the edges to add
+     */
+    public void addEdges(Iterable<Edge<V, E>> edges)
+    {
+        addEdges(edges, false);
+    }
 
+    /**
+     * Adds a batch of edges, given in any order. This default adds the edges one by one, so
+     * an exception leaves the edges before the failing one in the graph; ListGraph and
+     * MatrixGraph check the whole batch first and change nothing if any edge is rejected.
+     *
+     * @param edges the edges to add
+     * @param parallel true to let implementations prepare the batch on several threads
+     */
+    public void addEdges(Iterable<Edge<V, E>> edges, boolean parallel)
+    {
+        for (Edge<V, E> edge : edges)
+        {
+            if (edge == null)
+            {
+                throw new IllegalArgumentException("Null edge");
+            }
+            addEdge(edge.getU(), edge.getV(), edge.getLabel());
+        }
+    }
+
+    /**
+     * Gets an iterator over all vertices in the graph, optionally reusing a single flyweight
+     * Vertex that is updated in place on every call to next(). A flyweight is only valid until
+     * the following call to next() and must be copied if it is kept.
+     *
+     * @param flyweight true to reuse one Vertex object for the whole iteration
+     * @return an iterator over vertex objects
+     */
+    public Iterator<Vertex<V>> vertices(boolean flyweight)
+    {
+        return vertices();
+    }
+
+    /**
+     * Gets an iterator over all vertices adjacent to the given vertex, optionally reusing a
+     * single flyweight Vertex that is updated in place on every call to next().
+     *
+     * @param v the label of the source vertex
+     * @param flyweight true to reuse one Vertex object for the whole iteration
+     * @return an iterator over adjacent vertex objects
+     */
+    public Iterator<Vertex<V>> adjacent(V v, boolean flyweight)
+    {
+        return adjacent(v);
+    }
+
+    /**
+     * Gets an iterator over all edges in the graph, optionally reusing a single flyweight Edge
+     * that is updated in place on every call to next(). Setting the label of a flyweight does
+     * not change the graph.
+     *
+     * @param flyweight true to reuse one Edge object for the whole iteration
+     * @return an iterator over edge objects
+     */
+    public Iterator<Edge<V, E>> edges(boolean flyweight)
+    {
+        return edges();
+    }
+
+    /**
+     * Gets an iterator over the vertices adjacent to the given vertex whose connecting edge
+     * has a label accepted by a filter. This default looks up the edge to every neighbor;
+     * CsrGraph tests its column of labels directly.
+     *
+     * @param v the label of the source vertex
+     * @param filter accepts the labels of the edges to follow
+     * @return an iterator over the accepted adjacent vertex objects
+     * @throws IllegalArgumentException throw IAE if the filter is null
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    public Iterator<Vertex<V>> adjacent(V v, Predicate<? super E> filter)
+    {
+        if (filter == null)
+        {
+            throw new IllegalArgumentException("Null filter");
+        }
+
+        Iterator<Vertex<V>> adjacent = adjacent(v);
+        return new LabelIterator(new Filter<>(new Iterator<V>()
+        {
+            @Override
+            public boolean hasNext()
+            {
+                return adjacent.hasNext();
+            }
+
+            @Override
+            public V next()
+            {
+                return adjacent.next().getLabel();
+            }
+        }, w -> filter.test(getEdge(v, w).getLabel())), false);
+    }
+
+    /**
+     * Gets an iterator over the edges whose label is accepted by a filter. This default
+     * filters edges(); CsrGraph tests its column of labels and creates Edge objects only for
+     * the accepted edges.
+     *
+     * @param filter accepts the labels of the edges to return
+     * @return an iterator over the accepted edge objects
+     * @throws IllegalArgumentException throw IAE if the filter is null
+     */
+    public Iterator<Edge<V, E>> edges(Predicate<? super E> filter)
+    {
+        if (filter == null)
+        {
+            throw new IllegalArgumentException("Null filter");
+        }
+        return new Filter<>(edges(), edge -> filter.test(edge.getLabel()));
+    }
+
+    /**
+     * Returns the number of times the graph grew its backing storage. Only implementations
+     * that grow whole arrays, such as MatrixGraph and CsrGraph, count resizes.
+     *
+     * @return the number of resizes
+     */
+    int resizes()
+    {
+        return _resizes;
+    }
+
+    /**
+     * Gets a sequential stream over all vertices in the graph.
+     *
+     * @return a stream of vertex objects
+     */
+    public Stream<Vertex<V>> vertexStream()
+    {
+        return stream(vertices(), size());
+    }
+
+    /**
+     * Gets a sequential stream over all vertices adjacent to the given vertex.
+     *
+     * @param v the label of the source vertex
+     * @return a stream of adjacent vertex objects
+     */
+    public Stream<Vertex<V>> adjacentStream(V v)
+    {
+        return stream(adjacent(v), degree(v));
+    }
+
+    /**
+     * Gets a sequential stream over all edges in the graph.
+     *
+     * @return a stream of edge objects
+     */
+    public Stream<Edge<V, E>> edgeStream()
+    {
+        return stream(edges(), edgeCount());
+    }
+
+    /**
+     * Wraps an iterator of known length in a sized, non-null, distinct stream.
+     *
+     * @param iterator the iterator to wrap
+     * @param size the number of elements the iterator returns
+     * @param <T> the type of the elements
+     * @return a stream over the iterator
+     */
+    private static <T> Stream<T> stream(Iterator<T> iterator, long size)
+    {
+        return StreamSupport.stream(Spliterators.spliterator(iterator, size,
+                Spliterator.NONNULL | Spliterator.DISTINCT), false);
+    }
+
+    /**
+     * A fail-fast iterator over the elements of another iterator that pass a test.
+     *
+     * @param <T> the type of the elements
+     */
+    private class Filter<T> extends GraphIterator<T>
+    {
+        // The elements to filter
+        private final Iterator<T> _elements;
+        // Accepts the elements to return
+        private final Predicate<? super T> _test;
+        // The next accepted element, null if not found yet
+        private T _next;
+
+        /**
+         * Constructs an iterator over the accepted elements of another.
+         *
+         * @param elements the elements to filter
+         * @param test accepts the elements to return
+         */
+        private Filter(Iterator<T> elements, Predicate<? super T> test)
+        {
+            _elements = elements;
+            _test = test;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            while (_next == null && _elements.hasNext())
+            {
+                T element = _elements.next();
+                if (_test.test(element))
+                {
+                    _next = element;
+                }
+            }
+            return _next != null;
+        }
+
+        @Override
+        protected T nextElement()
+        {
+            T next = _next;
+            _next = null;
+            return next;
+        }
+    }
+}
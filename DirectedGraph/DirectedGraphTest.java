@@ -5,6 +5,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Iterator;
+import java.util.function.Predicate;
 
 class DirectedGraphTest {
     private DirectedGraph<String, Integer> graph;
@@ -451,4 +452,23 @@ class DirectedGraphTest {
         graph.removeEdge("A", "B");
         assertEquals(0, graph.degree("A"));
     }
+
+    // Test the default filtered traversals
+    @Test
+    void testFilteredTraversal() {
+        graph.add("A");
+        graph.add("B");
+        graph.add("C");
+        graph.addEdge("A", "B", 1);
+        graph.addEdge("A", "C", 2);
+        graph.addEdge("B", "C", 3);
+        List<String> labels = new ArrayList<>();
+        graph.adjacent("A", (Integer label) -> label % 2 == 0).forEachRemaining(vertex -> labels.add(vertex.getLabel()));
+        assertEquals(List.of("C"), labels);
+        labels.clear();
+        graph.edges((Integer label) -> label > 1).forEachRemaining(edge -> labels.add(edge.getU() + edge.getV()));
+        assertEquals(2, labels.size());
+        assertTrue(labels.containsAll(List.of("AC", "BC")));
+        assertThrows(IllegalArgumentException.class, () -> graph.adjacent("A", (Predicate<Integer>) null));
+    }
 }
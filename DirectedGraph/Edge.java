@@ -9,9 +9,9 @@
 public class Edge<V, E>
 {
     // The source vertex of the edge
-    private final V u;
+    private V u;
     // The destination vertex of the edge
-    private final V v;
+    private V v;
     // The label of the edge
     private E _label;
 
@@ -80,6 +80,21 @@ public class Edge<V, E>
         _label = label;
     }
 
+    /**
+     * Points a flyweight edge at a new source, destination and label. Only iterators that hand
+     * out a reused Edge call this.
+     *
+     * @param u the new source vertex
+     * @param v the new destination vertex
+     * @param label the new label
+     */
+    void reset(V u, V v, E label)
+    {
+        this.u = u;
+        this.v = v;
+        _label = label;
+    }
+
     /**
      * Compares this edge to another object for equality. Two edges are considered
      * equal if they have the same source vertex and the same destination vertex,
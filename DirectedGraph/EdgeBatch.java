@@ -0,0 +1,160 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.ToIntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * A batch of edges grouped by source and sorted by destination, prepared for a bulk load.
+ * The caller maps every vertex to a dense int id; the edges are then grouped by source id
+ * with a counting sort and each group is sorted by destination id, after which duplicates
+ * sit next to each other and are found in a single pass. Nothing is written to a graph here,
+ * so a batch that fails validation leaves the graph untouched.
+ *
+ * @author mfullhart20@georgefox.edu
+ * @param <V> the type of the vertex labels
+ * @param <E> the type of the edge labels
+ */
+class EdgeBatch<V, E>
+{
+    // The edges of the batch, in the order they were given
+    private final List<Edge<V, E>> _edges;
+    // _offsets[u] is the index in _slots of the first edge whose source has id u
+    private final int[] _offsets;
+    // (destination id << 32 | index in _edges) of every edge, grouped by source id and
+    // sorted within each group
+    private final long[] _slots;
+
+    /**
+     * Groups, sorts and checks a batch of edges.
+     *
+     * @param edges the edges, in any order
+     * @param ids maps a vertex to its id; throws NoSuchVertexException for a missing vertex
+     * @param parallel true to sort the groups in parallel
+     * @throws IllegalArgumentException throw IAE if an edge or edge label is null
+     * @throws NoSuchVertexException throw NSVE if an edge references a missing vertex
+     * @throws DuplicateEdgeException throw DEE if the batch holds an edge twice
+     */
+    EdgeBatch(Iterable<Edge<V, E>> edges, ToIntFunction<V> ids, boolean parallel)
+    {
+        _edges = new ArrayList<>(edges instanceof Collection ? ((Collection<?>) edges).size() : 16);
+        edges.forEach(_edges::add);
+
+        int m = _edges.size();
+        int[] sources = new int[m];
+        int[] targets = new int[m];
+        int idCount = 0;
+
+        for (int k = 0; k < m; k++)
+        {
+            Edge<V, E> edge = _edges.get(k);
+            if (edge == null)
+            {
+                throw new IllegalArgumentException("Null edge");
+            }
+            if (edge.getLabel() == null)
+            {
+                throw new IllegalArgumentException("Null edge label");
+            }
+            sources[k] = ids.applyAsInt(edge.getU());
+            targets[k] = ids.applyAsInt(edge.getV());
+            idCount = Math.max(idCount, Math.max(sources[k], targets[k]) + 1);
+        }
+
+        _offsets = new int[idCount + 1];
+        for (int k = 0; k < m; k++)
+        {
+            _offsets[sources[k] + 1]++;
+        }
+        for (int u = 0; u < idCount; u++)
+        {
+            _offsets[u + 1] += _offsets[u];
+        }
+
+        _slots = new long[m];
+        int[] next = Arrays.copyOf(_offsets, idCount);
+        for (int k = 0; k < m; k++)
+        {
+            _slots[next[sources[k]]++] = ((long) targets[k] << 32) | k;
+        }
+
+        IntStream groups = IntStream.range(0, idCount);
+        (parallel ? groups.parallel() : groups).forEach(u -> Arrays.sort(_slots, _offsets[u], _offsets[u + 1]));
+
+        for (int u = 0; u < idCount; u++)
+        {
+            for (int p = _offsets[u] + 1; p < _offsets[u + 1]; p++)
+            {
+                if (target(p) == target(p - 1))
+                {
+                    throw new DuplicateEdgeException("Edge already exists");
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of edges in the batch.
+     *
+     * @return the number of edges
+     */
+    int size()
+    {
+        return _slots.length;
+    }
+
+    /**
+     * Returns one more than the largest vertex id in the batch, which bounds the source ids.
+     *
+     * @return the number of source groups
+     */
+    int groups()
+    {
+        return _offsets.length - 1;
+    }
+
+    /**
+     * Returns the position of the first edge whose source has a given id.
+     *
+     * @param u the source id
+     * @return the first position of the group
+     */
+    int start(int u)
+    {
+        return _offsets[u];
+    }
+
+    /**
+     * Returns one past the position of the last edge whose source has a given id.
+     *
+     * @param u the source id
+     * @return the end of the group
+     */
+    int end(int u)
+    {
+        return _offsets[u + 1];
+    }
+
+    /**
+     * Returns the destination id of the edge at a position.
+     *
+     * @param p the position
+     * @return the destination id
+     */
+    int target(int p)
+    {
+        return (int) (_slots[p] >>> 32);
+    }
+
+    /**
+     * Returns the edge at a position, as it was given to the batch.
+     *
+     * @param p the position
+     * @return the edge
+     */
+    Edge<V, E> edge(int p)
+    {
+        return _edges.get((int) _slots[p]);
+    }
+}
@@ -0,0 +1,118 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Compares ways of visiting the edges whose label lies in a range: iterating every edge and
+ * testing its label, the filtered edges() of a ListGraph and a CsrGraph, and the range scan of
+ * CsrGraph over its numeric label column. Also times the filtered adjacency of every vertex.
+ * Labels are the destination ids, so the range picks a fixed fraction of the edges.
+ *
+ * @author mfullhart20@georgefox.edu
+ */
+public class FilterBenchmark
+{
+    // Number of vertices and edges of the graph
+    private static final int VERTICES = 200_000;
+    private static final int EDGES = 2_000_000;
+    // Fraction of the label range that is accepted
+    private static final double SELECTIVITY = 0.1;
+    // Number of untimed runs used to warm up the JIT
+    private static final int WARMUP_RUNS = 2;
+    // Number of timed runs
+    private static final int MEASURED_RUNS = 3;
+
+    // Keeps the JIT from discarding results
+    private static volatile long _sink;
+
+    /**
+     * Runs the comparison and prints the best time of each method.
+     *
+     * @param args not used
+     */
+    public static void main(String[] args)
+    {
+        List<Edge<Integer, Integer>> edges =
+                GraphFixtures.edges(GraphFixtures.Shape.RANDOM, VERTICES, EDGES, 1);
+        ListGraph<Integer, Integer> list = GraphFixtures.fill(new ListGraph<>(), VERTICES, edges);
+        CsrGraph<Integer, Integer> csr = CsrGraph.copyOf(list);
+        int high = (int) (VERTICES * SELECTIVITY) - 1;
+
+        String[] names = {"all edges + test", "ListGraph edges(Predicate)", "CsrGraph edges(Predicate)",
+                "CsrGraph edgesInRange", "CsrGraph adjacent(Predicate)", "CsrGraph adjacentInRange"};
+        long[] best = new long[names.length];
+        Arrays.fill(best, Long.MAX_VALUE);
+
+        for (int run = 0; run < WARMUP_RUNS + MEASURED_RUNS; run++)
+        {
+            long[] times = new long[names.length];
+            long sink = 0;
+
+            long start = System.nanoTime();
+            for (Iterator<Edge<Integer, Integer>> it = csr.edges(true); it.hasNext(); )
+            {
+                Edge<Integer, Integer> edge = it.next();
+                if (edge.getLabel() <= high)
+                {
+                    sink += edge.getU();
+                }
+            }
+            times[0] = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (Iterator<Edge<Integer, Integer>> it = list.edges((Integer label) -> label <= high); it.hasNext(); )
+            {
+                sink += it.next().getU();
+            }
+            times[1] = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (Iterator<Edge<Integer, Integer>> it = csr.edges((Integer label) -> label <= high); it.hasNext(); )
+            {
+                sink += it.next().getU();
+            }
+            times[2] = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (Iterator<Edge<Integer, Integer>> it = csr.edgesInRange(0, high, true); it.hasNext(); )
+            {
+                sink += it.next().getU();
+            }
+            times[3] = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int v = 0; v < VERTICES; v++)
+            {
+                for (Iterator<Vertex<Integer>> it = csr.adjacent(v, (Integer label) -> label <= high); it.hasNext(); )
+                {
+                    sink += it.next().getLabel();
+                }
+            }
+            times[4] = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int v = 0; v < VERTICES; v++)
+            {
+                for (Iterator<Vertex<Integer>> it = csr.adjacentInRange(v, 0, high); it.hasNext(); )
+                {
+                    sink += it.next().getLabel();
+                }
+            }
+            times[5] = System.nanoTime() - start;
+
+            _sink = sink;
+            if (run >= WARMUP_RUNS)
+            {
+                for (int i = 0; i < names.length; i++)
+                {
+                    best[i] = Math.min(best[i], times[i]);
+                }
+            }
+        }
+
+        for (int i = 0; i < names.length; i++)
+        {
+            System.out.printf("%-30s %,10.1f ms%n", names[i], best[i] / 1e6);
+        }
+    }
+}
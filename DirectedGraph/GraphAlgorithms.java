@@ -0,0 +1,506 @@
+import java.util.*;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Traversal and shortest-path algorithms over any DirectedGraph.
+ *
+ * Every algorithm first brings the graph into compressed sparse row form: a CsrGraph is used
+ * as it is, and any other implementation is copied once into a CsrGraph in O(V + E). The
+ * algorithm itself then runs over the packed int arrays, with int ids for vertices and
+ * primitive arrays for its own state, so no iterator or Vertex object is created per edge.
+ *
+ * @author mfullhart20@georgefox.edu
+ */
+public final class GraphAlgorithms
+{
+    /**
+     * GraphAlgorithms only has static methods.
+     */
+    private GraphAlgorithms()
+    {
+    }
+
+    /**
+     * Gets the compressed sparse row form of a graph. A CsrGraph is returned as is, so the
+     * result must not be kept past the call; results that hold on to the graph take a
+     * CsrGraph.copyOf instead.
+     *
+     * @param graph the graph
+     * @param <V> the type of the vertex labels
+     * @param <E> the type of the edge labels
+     * @return the graph itself if it is a CsrGraph, otherwise a CsrGraph copy of it
+     * @throws IllegalArgumentException throw IAE if the graph is null
+     */
+    static <V, E> CsrGraph<V, E> compact(DirectedGraph<V, E> graph)
+    {
+        if (graph instanceof CsrGraph)
+        {
+            return (CsrGraph<V, E>) graph;
+        }
+        return CsrGraph.copyOf(graph);
+    }
+
+    /**
+     * Lists the vertices reachable from a source in breadth-first order.
+     *
+     * @param graph the graph to search
+     * @param source the vertex to start from
+     * @param <V> the type of the vertex labels
+     * @param <E> the type of the edge labels
+     * @return the reachable vertices, starting with the source, in the order they were reached
+     * @throws NoSuchVertexException throw NSVE if the source does not exist
+     */
+    public static <V, E> List<V> breadthFirst(DirectedGraph<V, E> graph, V source)
+    {
+        CsrGraph<V, E> csr = compact(graph);
+        int[] offsets = csr.offsets();
+        int[] targets = csr.targets();
+        int[] queue = new int[csr.size()];
+        boolean[] visited = new boolean[csr.size()];
+        int head = 0;
+        int tail = 0;
+
+        int start = csr.indexOf(source);
+        queue[tail++] = start;
+        visited[start] = true;
+
+        while (head < tail)
+        {
+            int u = queue[head++];
+            for (int e = offsets[u]; e < offsets[u + 1]; e++)
+            {
+                int v = targets[e];
+                if (!visited[v])
+                {
+                    visited[v] = true;
+                    queue[tail++] = v;
+                }
+            }
+        }
+
+        return labels(csr, queue, tail);
+    }
+
+    /**
+     * Lists the vertices reachable from a source in depth-first pre-order. The search keeps
+     * an explicit stack, so deep graphs cannot overflow the call stack.
+     *
+     * @param graph the graph to search
+     * @param source the vertex to start from
+     * @param <V> the type of the vertex labels
+     * @param <E> the type of the edge labels
+     * @return the reachable vertices, starting with the source, in the order they were entered
+     * @throws NoSuchVertexException throw NSVE if the source does not exist
+     */
+    public static <V, E> List<V> depthFirst(DirectedGraph<V, E> graph, V source)
+    {
+        CsrGraph<V, E> csr = compact(graph);
+        int[] offsets = csr.offsets();
+        int[] targets = csr.targets();
+        int[] order = new int[csr.size()];
+        int[] stack = new int[csr.size()];
+        int[] cursor = new int[csr.size()];
+        boolean[] visited = new boolean[csr.size()];
+        int count = 0;
+        int top = 0;
+
+        int start = csr.indexOf(source);
+        visited[start] = true;
+        order[count++] = start;
+        stack[top++] = start;
+        cursor[start] = offsets[start];
+
+        while (top > 0)
+        {
+            int u = stack[top - 1];
+            if (cursor[u] == offsets[u + 1])
+            {
+                top--;
+                continue;
+            }
+
+            int v = targets[cursor[u]++];
+            if (!visited[v])
+            {
+                visited[v] = true;
+                order[count++] = v;
+                stack[top++] = v;
+                cursor[v] = offsets[v];
+            }
+        }
+
+        return labels(csr, order, count);
+    }
+
+    /**
+     * Orders the vertices of an acyclic graph so that every edge points forward.
+     *
+     * @param graph the graph to sort
+     * @param <V> the type of the vertex labels
+     * @param <E> the type of the edge labels
+     * @return the vertices in topological order
+     * @throws IllegalArgumentException throw IAE if the graph contains a cycle
+     */
+    public static <V, E> List<V> topologicalSort(DirectedGraph<V, E> graph)
+    {
+        CsrGraph<V, E> csr = compact(graph);
+        int n = csr.size();
+        int[] offsets = csr.offsets();
+        int[] targets = csr.targets();
+        int[] inDegree = new int[n];
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+
+        for (int e = 0; e < offsets[n]; e++)
+        {
+            inDegree[targets[e]]++;
+        }
+        for (int v = 0; v < n; v++)
+        {
+            if (inDegree[v] == 0)
+            {
+                queue[tail++] = v;
+            }
+        }
+
+        while (head < tail)
+        {
+            int u = queue[head++];
+            for (int e = offsets[u]; e < offsets[u + 1]; e++)
+            {
+                if (--inDegree[targets[e]] == 0)
+                {
+                    queue[tail++] = targets[e];
+                }
+            }
+        }
+
+        if (tail < n)
+        {
+            throw new IllegalArgumentException("Graph contains a cycle");
+        }
+        return labels(csr, queue, tail);
+    }
+
+    /**
+     * Finds the strongly connected components of a graph with Tarjan's algorithm.
+     *
+     * @param graph the graph to decompose
+     * @param <V> the type of the vertex labels
+     * @param <E> the type of the edge labels
+     * @return the components, each a list of vertices, in reverse topological order of the
+     * condensed graph (a component is listed before every component that reaches it)
+     */
+    public static <V, E> List<List<V>> stronglyConnectedComponents(DirectedGraph<V, E> graph)
+    {
+        CsrGraph<V, E> csr = compact(graph);
+        int[] component = new int[csr.size()];
+        int count = tarjan(csr.size(), csr.offsets(), csr.targets(), component);
+
+        List<List<V>> components = new ArrayList<>(count);
+        for (int c = 0; c < count; c++)
+        {
+            components.add(new ArrayList<>());
+        }
+        for (int v = 0; v < csr.size(); v++)
+        {
+            components.get(component[v]).add(csr.vertexAt(v));
+        }
+        return components;
+    }
+
+    /**
+     * Labels every vertex of a graph in CSR form with the number of its strongly connected
+     * component. Components are numbered in the order Tarjan's algorithm completes them, which
+     * is a reverse topological order: every edge between components goes from a higher number
+     * to a lower one. The search keeps explicit stacks instead of recursing.
+     *
+     * @param n the number of vertices
+     * @param offsets the CSR offsets array
+     * @param targets the CSR targets array
+     * @param component receives the component number of each vertex
+     * @return the number of components
+     */
+    static int tarjan(int n, int[] offsets, int[] targets, int[] component)
+    {
+        int[] index = new int[n];
+        int[] low = new int[n];
+        int[] cursor = new int[n];
+        int[] callStack = new int[n];
+        int[] sccStack = new int[n];
+        boolean[] onStack = new boolean[n];
+        int counter = 0;
+        int components = 0;
+
+        Arrays.fill(index, -1);
+
+        for (int root = 0; root < n; root++)
+        {
+            if (index[root] >= 0)
+            {
+                continue;
+            }
+
+            int callTop = 0;
+            int sccTop = 0;
+            index[root] = low[root] = counter++;
+            cursor[root] = offsets[root];
+            callStack[callTop++] = root;
+            sccStack[sccTop++] = root;
+            onStack[root] = true;
+
+            while (callTop > 0)
+            {
+                int v = callStack[callTop - 1];
+
+                if (cursor[v] < offsets[v + 1])
+                {
+                    int w = targets[cursor[v]++];
+                    if (index[w] < 0)
+                    {
+                        index[w] = low[w] = counter++;
+                        cursor[w] = offsets[w];
+                        callStack[callTop++] = w;
+                        sccStack[sccTop++] = w;
+                        onStack[w] = true;
+                    }
+                    else if (onStack[w])
+                    {
+                        low[v] = Math.min(low[v], index[w]);
+                    }
+                    continue;
+                }
+
+                callTop--;
+                if (callTop > 0)
+                {
+                    int parent = callStack[callTop - 1];
+                    low[parent] = Math.min(low[parent], low[v]);
+                }
+
+                if (low[v] == index[v])
+                {
+                    int w;
+                    do
+                    {
+                        w = sccStack[--sccTop];
+                        onStack[w] = false;
+                        component[w] = components;
+                    }
+                    while (w != v);
+                    components++;
+                }
+            }
+        }
+
+        return components;
+    }
+
+    /**
+     * Computes single-source shortest paths with Dijkstra's algorithm. Edge weights are read
+     * from the edge labels through a weight function and must not be negative.
+     *
+     * @param graph the graph to search
+     * @param source the vertex to start from
+     * @param weight maps an edge label to the weight of the edge
+     * @param <V> the type of the vertex labels
+     * @param <E> the type of the edge labels
+     * @return the shortest distances and paths from the source
+     * @throws NoSuchVertexException throw NSVE if the source does not exist
+     * @throws IllegalArgumentException throw IAE if the weight function is null or an edge
+     * weight is negative or NaN
+     */
+    public static <V, E> ShortestPaths<V> dijkstra(DirectedGraph<V, E> graph, V source,
+                                                   ToDoubleFunction<? super E> weight)
+    {
+        if (weight == null)
+        {
+            throw new IllegalArgumentException("Null weight function");
+        }
+
+        // The result keeps the graph to map ids to labels, so it must own a copy
+        CsrGraph<V, E> csr = CsrGraph.copyOf(graph);
+        int n = csr.size();
+        int[] offsets = csr.offsets();
+        int[] targets = csr.targets();
+        double[] distances = new double[n];
+        int[] parents = new int[n];
+        IndexedMinHeap heap = new IndexedMinHeap(n);
+
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        Arrays.fill(parents, -1);
+
+        int start = csr.indexOf(source);
+        distances[start] = 0;
+        heap.offer(start, 0);
+
+        while (!heap.isEmpty())
+        {
+            int u = heap.poll();
+            for (int e = offsets[u]; e < offsets[u + 1]; e++)
+            {
+                double w = weight.applyAsDouble(csr.edgeLabel(e));
+                if (!(w >= 0))
+                {
+                    throw new IllegalArgumentException("Negative edge weight");
+                }
+
+                int v = targets[e];
+                double distance = distances[u] + w;
+                if (distance < distances[v])
+                {
+                    distances[v] = distance;
+                    parents[v] = u;
+                    heap.offer(v, distance);
+                }
+            }
+        }
+
+        return new ShortestPaths<>(csr, source, distances, parents);
+    }
+
+    /**
+     * Transposes a graph in CSR form: the incoming edges of vertex v occupy positions
+     * inOffsets[v] to inOffsets[v + 1] of sources, in increasing order of source id.
+     *
+     * @param n the number of vertices
+     * @param offsets the CSR offsets array
+     * @param targets the CSR targets array
+     * @return the offsets array and the sources array of the transposed graph
+     */
+    static int[][] transpose(int n, int[] offsets, int[] targets)
+    {
+        int[] inOffsets = new int[n + 1];
+        int[] sources = new int[offsets[n]];
+
+        for (int e = 0; e < offsets[n]; e++)
+        {
+            inOffsets[targets[e] + 1]++;
+        }
+        for (int v = 0; v < n; v++)
+        {
+            inOffsets[v + 1] += inOffsets[v];
+        }
+
+        int[] fill = Arrays.copyOf(inOffsets, n);
+        for (int u = 0; u < n; u++)
+        {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++)
+            {
+                sources[fill[targets[e]]++] = u;
+            }
+        }
+        return new int[][] {inOffsets, sources};
+    }
+
+    /**
+     * Converts a prefix of an id array into vertex labels.
+     *
+     * @param csr the graph the ids belong to
+     * @param ids the ids
+     * @param count the number of ids to convert
+     * @param <V> the type of the vertex labels
+     * @return the labels of the first count ids
+     */
+    private static <V> List<V> labels(CsrGraph<V, ?> csr, int[] ids, int count)
+    {
+        List<V> labels = new ArrayList<>(count);
+        for (int i = 0; i < count; i++)
+        {
+            labels.add(csr.vertexAt(ids[i]));
+        }
+        return labels;
+    }
+
+    /**
+     * The result of a single-source shortest path search: the distance to every vertex and
+     * a shortest-path tree that can be walked back to the source.
+     *
+     * @param <V> the type of the vertex labels
+     */
+    public static class ShortestPaths<V>
+    {
+        // The graph the ids refer to
+        private final CsrGraph<V, ?> _graph;
+        // The vertex the search started from
+        private final V _source;
+        // Distance of each vertex from the source, infinite if unreachable
+        private final double[] _distances;
+        // Predecessor of each vertex on its shortest path, -1 for the source and unreachable ones
+        private final int[] _parents;
+
+        /**
+         * Constructs a result over the arrays filled in by a search.
+         *
+         * @param graph the graph the ids refer to
+         * @param source the vertex the search started from
+         * @param distances the distance of each vertex
+         * @param parents the predecessor of each vertex
+         */
+        ShortestPaths(CsrGraph<V, ?> graph, V source, double[] distances, int[] parents)
+        {
+            _graph = graph;
+            _source = source;
+            _distances = distances;
+            _parents = parents;
+        }
+
+        /**
+         * Returns the vertex the search started from.
+         *
+         * @return the source vertex
+         */
+        public V getSource()
+        {
+            return _source;
+        }
+
+        /**
+         * Returns the length of the shortest path from the source to a vertex.
+         *
+         * @param v the destination vertex
+         * @return the distance, or positive infinity if v is unreachable
+         * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+         */
+        public double distanceTo(V v)
+        {
+            return _distances[_graph.indexOf(v)];
+        }
+
+        /**
+         * Checks if a vertex is reachable from the source.
+         *
+         * @param v the destination vertex
+         * @return true if there is a path from the source to v, false otherwise
+         * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+         */
+        public boolean hasPathTo(V v)
+        {
+            return distanceTo(v) < Double.POSITIVE_INFINITY;
+        }
+
+        /**
+         * Returns a shortest path from the source to a vertex.
+         *
+         * @param v the destination vertex
+         * @return the vertices on the path, from the source to v, or an empty list if v is
+         * unreachable
+         * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+         */
+        public List<V> pathTo(V v)
+        {
+            LinkedList<V> path = new LinkedList<>();
+            if (!hasPathTo(v))
+            {
+                return path;
+            }
+
+            for (int id = _graph.indexOf(v); id >= 0; id = _parents[id])
+            {
+                path.addFirst(_graph.vertexAt(id));
+            }
+            return path;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+class GraphAlgorithmsTest {
+    private ListGraph<String, Integer> graph;
+
+    @BeforeEach
+    void setUp() {
+        // A -> B -> D, A -> C -> D, D -> E, plus an unreachable F
+        graph = new ListGraph<>();
+        for (String v : List.of("A", "B", "C", "D", "E", "F")) {
+            graph.add(v);
+        }
+        graph.addEdge("A", "B", 1);
+        graph.addEdge("A", "C", 4);
+        graph.addEdge("B", "D", 5);
+        graph.addEdge("C", "D", 1);
+        graph.addEdge("D", "E", 2);
+    }
+
+    // Test breadth-first order
+    @Test
+    void testBreadthFirst() {
+        List<String> order = GraphAlgorithms.breadthFirst(graph, "A");
+        assertEquals(5, order.size());
+        assertEquals("A", order.get(0));
+        assertEquals(Set.of("B", "C"), new HashSet<>(order.subList(1, 3)));
+        assertEquals("D", order.get(3));
+        assertEquals("E", order.get(4));
+    }
+
+    // Test depth-first order
+    @Test
+    void testDepthFirst() {
+        List<String> order = GraphAlgorithms.depthFirst(graph, "A");
+        assertEquals(5, order.size());
+        assertEquals("A", order.get(0));
+        assertTrue(order.indexOf("D") < order.indexOf("E"));
+        assertFalse(order.contains("F"));
+    }
+
+    @Test
+    void testTraversalFromMissingVertexThrowsException() {
+        assertThrows(NoSuchVertexException.class, () -> GraphAlgorithms.breadthFirst(graph, "Z"));
+        assertThrows(NoSuchVertexException.class, () -> GraphAlgorithms.depthFirst(graph, "Z"));
+    }
+
+    // Test topological sorting
+    @Test
+    void testTopologicalSort() {
+        List<String> order = GraphAlgorithms.topologicalSort(graph);
+        assertEquals(6, order.size());
+        graph.edges().forEachRemaining(edge ->
+                assertTrue(order.indexOf(edge.getU()) < order.indexOf(edge.getV())));
+    }
+
+    @Test
+    void testTopologicalSortWithCycleThrowsException() {
+        graph.addEdge("E", "A", 1);
+        assertThrows(IllegalArgumentException.class, () -> GraphAlgorithms.topologicalSort(graph));
+    }
+
+    // Test strongly connected components
+    @Test
+    void testStronglyConnectedComponents() {
+        graph.addEdge("E", "B", 1);
+        List<List<String>> components = GraphAlgorithms.stronglyConnectedComponents(graph);
+        assertEquals(4, components.size());
+        Set<Set<String>> sets = new HashSet<>();
+        for (List<String> component : components) {
+            sets.add(new HashSet<>(component));
+        }
+        assertTrue(sets.contains(Set.of("B", "D", "E")));
+        assertTrue(sets.contains(Set.of("A")));
+        assertTrue(sets.contains(Set.of("C")));
+        assertTrue(sets.contains(Set.of("F")));
+        // Components come after every component they reach
+        int a = components.indexOf(List.of("A"));
+        int c = components.indexOf(List.of("C"));
+        assertTrue(a > c);
+        for (int i = 0; i < components.size(); i++) {
+            if (components.get(i).contains("D")) {
+                assertTrue(c > i);
+            }
+        }
+    }
+
+    // Test Dijkstra's shortest paths
+    @Test
+    void testDijkstra() {
+        GraphAlgorithms.ShortestPaths<String> paths = GraphAlgorithms.dijkstra(graph, "A", Integer::doubleValue);
+        assertEquals(0, paths.distanceTo("A"));
+        assertEquals(5, paths.distanceTo("D"));
+        assertEquals(7, paths.distanceTo("E"));
+        assertEquals(List.of("A", "C", "D", "E"), paths.pathTo("E"));
+        assertFalse(paths.hasPathTo("F"));
+        assertTrue(paths.pathTo("F").isEmpty());
+    }
+
+    @Test
+    void testDijkstraNegativeWeightThrowsException() {
+        graph.addEdge("E", "F", -1);
+        assertThrows(IllegalArgumentException.class,
+                () -> GraphAlgorithms.dijkstra(graph, "A", Integer::doubleValue));
+    }
+
+    // Test a Dijkstra result on a CsrGraph does not change when the graph does
+    @Test
+    void testDijkstraResultSurvivesMutation() {
+        CsrGraph<String, Integer> csr = CsrGraph.copyOf(graph);
+        GraphAlgorithms.ShortestPaths<String> paths = GraphAlgorithms.dijkstra(csr, "A", Integer::doubleValue);
+        csr.remove("B");
+        csr.remove("C");
+        assertEquals(5, paths.distanceTo("D"));
+        assertEquals(7, paths.distanceTo("E"));
+        assertEquals(List.of("A", "C", "D", "E"), paths.pathTo("E"));
+        assertFalse(GraphAlgorithms.dijkstra(csr, "A", Integer::doubleValue).hasPathTo("D"));
+    }
+
+    // Test Dijkstra agrees on every implementation
+    @Test
+    void testDijkstraMatchesAcrossImplementations() {
+        Random random = new Random(42);
+        ListGraph<Integer, Integer> list = new ListGraph<>();
+        MatrixGraph<Integer, Integer> matrix = new MatrixGraph<>();
+        for (int i = 0; i < 200; i++) {
+            list.add(i);
+            matrix.add(i);
+        }
+        for (int i = 0; i < 1000; i++) {
+            int u = random.nextInt(200);
+            int v = random.nextInt(200);
+            int w = random.nextInt(100);
+            if (!list.containsEdge(u, v)) {
+                list.addEdge(u, v, w);
+                matrix.addEdge(u, v, w);
+            }
+        }
+        CsrGraph<Integer, Integer> csr = CsrGraph.copyOf(list);
+        GraphAlgorithms.ShortestPaths<Integer> fromList = GraphAlgorithms.dijkstra(list, 0, Integer::doubleValue);
+        GraphAlgorithms.ShortestPaths<Integer> fromMatrix = GraphAlgorithms.dijkstra(matrix, 0, Integer::doubleValue);
+        GraphAlgorithms.ShortestPaths<Integer> fromCsr = GraphAlgorithms.dijkstra(csr, 0, Integer::doubleValue);
+        for (int i = 0; i < 200; i++) {
+            assertEquals(fromList.distanceTo(i), fromMatrix.distanceTo(i));
+            assertEquals(fromList.distanceTo(i), fromCsr.distanceTo(i));
+        }
+    }
+}
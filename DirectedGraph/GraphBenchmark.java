@@ -0,0 +1,287 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Compares the graph implementations operation by operation over a grid of graph sizes,
+ * average degrees and shapes (see GraphFixtures). For every cell of the grid each operation
+ * is warmed up, then timed MEASURED_RUNS times, and the best time is reported in nanoseconds
+ * per operation:
+ *
+ *   add           adding every vertex to an empty graph
+ *   addEdge       adding every edge to a graph holding all the vertices
+ *   containsEdge  QUERIES lookups, half of them edges that exist
+ *   degree        degree() of every vertex
+ *   adjacent      walking adjacent() of every vertex, per edge returned
+ *   edges         walking edges(), per edge returned
+ *   remove        removing REMOVALS random vertices from a filled graph
+ *
+ * Pass "--csv" for machine-readable output that can be diffed between runs to catch
+ * regressions. Sizes and degrees can be given with "--sizes=1000,10000" and
+ * "--degrees=2,16".
+ *
+ * @author mfullhart20@georgefox.edu
+ */
+public class GraphBenchmark
+{
+    // Default grid
+    private static final int[] SIZES = {1_000, 10_000, 100_000};
+    private static final int[] DEGREES = {2, 16};
+    // Number of containsEdge lookups per run
+    private static final int QUERIES = 200_000;
+    // Upper bound on the number of vertices removed per run
+    private static final int REMOVALS = 1_000;
+    // Number of untimed runs used to warm up the JIT
+    private static final int WARMUP_RUNS = 2;
+    // Number of timed runs
+    private static final int MEASURED_RUNS = 3;
+    // The operations, in report order
+    private static final String[] OPERATIONS =
+            {"add", "addEdge", "containsEdge", "degree", "adjacent", "edges", "remove"};
+
+    // Written by every operation so the JIT cannot discard the work
+    private static volatile long _sink;
+
+    /**
+     * Runs the benchmark grid and prints one row per implementation, shape, size and degree.
+     *
+     * @param args optional "--csv", "--sizes=..." and "--degrees=..."
+     */
+    public static void main(String[] args)
+    {
+        boolean csv = false;
+        int[] sizes = SIZES;
+        int[] degrees = DEGREES;
+
+        for (String arg : args)
+        {
+            if (arg.equals("--csv"))
+            {
+                csv = true;
+            }
+            else if (arg.startsWith("--sizes="))
+            {
+                sizes = parse(arg.substring("--sizes=".length()));
+            }
+            else if (arg.startsWith("--degrees="))
+            {
+                degrees = parse(arg.substring("--degrees=".length()));
+            }
+            else
+            {
+                throw new IllegalArgumentException("Unknown argument " + arg);
+            }
+        }
+
+        Map<String, Supplier<DirectedGraph<Integer, Integer>>> implementations = new LinkedHashMap<>();
+        implementations.put("ListGraph", ListGraph::new);
+        implementations.put("MatrixGraph", MatrixGraph::new);
+        implementations.put("CompactList", CompactListGraph::new);
+
+        if (csv)
+        {
+            System.out.println("implementation,shape,vertices,degree," + String.join(",", OPERATIONS));
+        }
+        else
+        {
+            System.out.printf("%-12s %-9s %9s %6s", "ns/op", "shape", "vertices", "degree");
+            for (String operation : OPERATIONS)
+            {
+                System.out.printf(" %12s", operation);
+            }
+            System.out.println();
+        }
+
+        for (GraphFixtures.Shape shape : GraphFixtures.Shape.values())
+        {
+            for (int n : sizes)
+            {
+                for (int degree : degrees)
+                {
+                    List<Edge<Integer, Integer>> edges = GraphFixtures.edges(shape, n, n * degree, n);
+
+                    for (Map.Entry<String, Supplier<DirectedGraph<Integer, Integer>>> entry
+                            : implementations.entrySet())
+                    {
+                        double[] results = run(entry.getValue(), n, edges);
+                        print(csv, entry.getKey(), shape, n, degree, results);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Parses a comma-separated list of ints.
+     *
+     * @param list the list
+     * @return the values
+     */
+    private static int[] parse(String list)
+    {
+        String[] parts = list.split(",");
+        int[] values = new int[parts.length];
+        for (int i = 0; i < parts.length; i++)
+        {
+            values[i] = Integer.parseInt(parts[i].trim());
+        }
+        return values;
+    }
+
+    /**
+     * Prints one row of results.
+     *
+     * @param csv true for comma-separated output
+     * @param name the implementation
+     * @param shape the shape of the graph
+     * @param n the number of vertices
+     * @param degree the average degree
+     * @param results nanoseconds per operation, in OPERATIONS order
+     */
+    private static void print(boolean csv, String name, GraphFixtures.Shape shape, int n, int degree,
+                              double[] results)
+    {
+        if (csv)
+        {
+            StringBuilder row = new StringBuilder(name + "," + shape + "," + n + "," + degree);
+            for (double result : results)
+            {
+                row.append(',').append(String.format("%.1f", result));
+            }
+            System.out.println(row);
+        }
+        else
+        {
+            System.out.printf("%-12s %-9s %,9d %6d", name, shape, n, degree);
+            for (double result : results)
+            {
+                System.out.printf(" %12.1f", result);
+            }
+            System.out.println();
+        }
+    }
+
+    /**
+     * Times every operation on one implementation and one fixture.
+     *
+     * @param factory creates empty graphs of the implementation
+     * @param n the number of vertices
+     * @param edges the edges of the fixture
+     * @return nanoseconds per operation, in OPERATIONS order
+     */
+    private static double[] run(Supplier<DirectedGraph<Integer, Integer>> factory, int n,
+                                List<Edge<Integer, Integer>> edges)
+    {
+        double[] best = new double[OPERATIONS.length];
+        Arrays.fill(best, Double.MAX_VALUE);
+
+        for (int run = 0; run < WARMUP_RUNS + MEASURED_RUNS; run++)
+        {
+            double[] times = measure(factory, n, edges, run);
+            if (run >= WARMUP_RUNS)
+            {
+                for (int i = 0; i < best.length; i++)
+                {
+                    best[i] = Math.min(best[i], times[i]);
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Builds a graph from a fixture while timing each operation once.
+     *
+     * @param factory creates empty graphs of the implementation
+     * @param n the number of vertices
+     * @param edges the edges of the fixture
+     * @param seed the seed of the random queries
+     * @return nanoseconds per operation, in OPERATIONS order
+     */
+    private static double[] measure(Supplier<DirectedGraph<Integer, Integer>> factory, int n,
+                                    List<Edge<Integer, Integer>> edges, long seed)
+    {
+        Random random = new Random(seed);
+        double[] times = new double[OPERATIONS.length];
+        DirectedGraph<Integer, Integer> graph = factory.get();
+        long sink = 0;
+
+        long start = System.nanoTime();
+        for (int v = 0; v < n; v++)
+        {
+            graph.add(v);
+        }
+        times[0] = (System.nanoTime() - start) / (double) n;
+
+        start = System.nanoTime();
+        for (Edge<Integer, Integer> edge : edges)
+        {
+            graph.addEdge(edge.getU(), edge.getV(), edge.getLabel());
+        }
+        times[1] = (System.nanoTime() - start) / (double) Math.max(1, edges.size());
+
+        Integer[] queries = new Integer[2 * QUERIES];
+        for (int i = 0; i < QUERIES; i++)
+        {
+            Edge<Integer, Integer> edge = edges.get(random.nextInt(edges.size()));
+            queries[2 * i] = i % 2 == 0 ? edge.getU() : random.nextInt(n);
+            queries[2 * i + 1] = i % 2 == 0 ? edge.getV() : random.nextInt(n);
+        }
+        start = System.nanoTime();
+        for (int i = 0; i < queries.length; i += 2)
+        {
+            if (graph.containsEdge(queries[i], queries[i + 1]))
+            {
+                sink++;
+            }
+        }
+        times[2] = (System.nanoTime() - start) / (double) QUERIES;
+
+        start = System.nanoTime();
+        for (int v = 0; v < n; v++)
+        {
+            sink += graph.degree(v);
+        }
+        times[3] = (System.nanoTime() - start) / (double) n;
+
+        start = System.nanoTime();
+        for (int v = 0; v < n; v++)
+        {
+            Iterator<Vertex<Integer>> adjacent = graph.adjacent(v);
+            while (adjacent.hasNext())
+            {
+                sink += adjacent.next().getLabel();
+            }
+        }
+        times[4] = (System.nanoTime() - start) / (double) Math.max(1, edges.size());
+
+        start = System.nanoTime();
+        Iterator<Edge<Integer, Integer>> all = graph.edges();
+        while (all.hasNext())
+        {
+            sink += all.next().getLabel();
+        }
+        times[5] = (System.nanoTime() - start) / (double) Math.max(1, edges.size());
+
+        int removals = Math.min(REMOVALS, n / 10);
+        int removed = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < removals; i++)
+        {
+            int v = random.nextInt(n);
+            if (graph.contains(v))
+            {
+                graph.remove(v);
+                removed++;
+            }
+        }
+        times[6] = (System.nanoTime() - start) / (double) Math.max(1, removed);
+
+        _sink = sink;
+        return times;
+    }
+}
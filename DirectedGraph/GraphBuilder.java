@@ -0,0 +1,117 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Collects vertices and edges and builds a graph from them in one bulk load. The edges may be
+ * added in any order; duplicate and missing-vertex checks are deferred to build(), which adds
+ * the vertices one by one and then hands all the edges to DirectedGraph.addEdges().
+ *
+ * @author mfullhart20@georgefox.edu
+ * @param <V> the type of the vertex labels
+ * @param <E> the type of the edge labels
+ */
+public class GraphBuilder<V, E>
+{
+    // The collected vertices and edges
+    private final List<V> _vertices;
+    private final List<Edge<V, E>> _edges;
+    // True to prepare the edge batch on several threads
+    private boolean _parallel;
+
+    /**
+     * Constructs an empty builder.
+     */
+    public GraphBuilder()
+    {
+        _vertices = new ArrayList<>();
+        _edges = new ArrayList<>();
+        _parallel = false;
+    }
+
+    /**
+     * Adds a vertex.
+     *
+     * @param v the label of the vertex
+     * @return this builder
+     */
+    public GraphBuilder<V, E> addVertex(V v)
+    {
+        _vertices.add(v);
+        return this;
+    }
+
+    /**
+     * Adds vertices.
+     *
+     * @param vertices the labels of the vertices
+     * @return this builder
+     */
+    public GraphBuilder<V, E> addVertices(Iterable<V> vertices)
+    {
+        vertices.forEach(_vertices::add);
+        return this;
+    }
+
+    /**
+     * Adds an edge. It is not checked until build().
+     *
+     * @param u the source vertex
+     * @param v the destination vertex
+     * @param label the label of the edge
+     * @return this builder
+     */
+    public GraphBuilder<V, E> addEdge(V u, V v, E label)
+    {
+        _edges.add(new Edge<>(u, v, label));
+        return this;
+    }
+
+    /**
+     * Adds edges. They are not checked until build().
+     *
+     * @param edges the edges
+     * @return this builder
+     */
+    public GraphBuilder<V, E> addEdges(Iterable<Edge<V, E>> edges)
+    {
+        edges.forEach(_edges::add);
+        return this;
+    }
+
+    /**
+     * Chooses whether build() prepares the edges on several threads.
+     *
+     * @param parallel true to sort the edge batch in parallel
+     * @return this builder
+     */
+    public GraphBuilder<V, E> parallel(boolean parallel)
+    {
+        _parallel = parallel;
+        return this;
+    }
+
+    /**
+     * Builds a graph holding the collected vertices and edges.
+     *
+     * @param factory creates the empty graph to fill
+     * @param <G> the type of the graph
+     * @return the filled graph
+     * @throws IllegalArgumentException throw IAE if a vertex, edge or edge label is null
+     * @throws DuplicateVertexException throw DVE if a vertex was added twice
+     * @throws NoSuchVertexException throw NSVE if an edge references a missing vertex
+     * @throws DuplicateEdgeException throw DEE if an edge was added twice
+     */
+    public <G extends DirectedGraph<V, E>> G build(Supplier<G> factory)
+    {
+        G graph = factory.get();
+
+        for (V v : _vertices)
+        {
+            graph.add(v);
+        }
+        graph.addEdges(_edges, _parallel);
+
+        return graph;
+    }
+}
@@ -0,0 +1,82 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+class GraphBuilderTest {
+
+    // Test building each implementation from edges in any order
+    @Test
+    void testBuildMatchesAddEdge() {
+        List<Edge<Integer, Integer>> edges = new ArrayList<>(
+                GraphFixtures.edges(GraphFixtures.Shape.POWER_LAW, 500, 4000, 7));
+        Collections.shuffle(edges, new Random(1));
+        ListGraph<Integer, Integer> reference = GraphFixtures.fill(new ListGraph<>(), 500, edges);
+        List<Supplier<DirectedGraph<Integer, Integer>>> factories =
+                List.of(ListGraph::new, MatrixGraph::new, CsrGraph::new, ConcurrentListGraph::new);
+
+        for (Supplier<DirectedGraph<Integer, Integer>> factory : factories) {
+            for (boolean parallel : new boolean[] {false, true}) {
+                DirectedGraph<Integer, Integer> graph = new GraphBuilder<Integer, Integer>()
+                        .addVertices(GraphFixtures.vertices(500))
+                        .addEdges(edges)
+                        .parallel(parallel)
+                        .build(factory);
+                assertEquals(reference.edgeCount(), graph.edgeCount());
+                for (int v = 0; v < 500; v++) {
+                    assertEquals(reference.degree(v), graph.degree(v));
+                    assertEquals(reference.inDegree(v), graph.inDegree(v));
+                }
+                reference.edges().forEachRemaining(edge ->
+                        assertEquals(edge.getLabel(), graph.getEdge(edge.getU(), edge.getV()).getLabel()));
+            }
+        }
+    }
+
+    // Test a rejected batch leaves ListGraph and MatrixGraph unchanged
+    @Test
+    void testRejectedBatchChangesNothing() {
+        for (DirectedGraph<String, Integer> graph : List.<DirectedGraph<String, Integer>>of(new ListGraph<>(), new MatrixGraph<>())) {
+            graph.add("A");
+            graph.add("B");
+            graph.add("C");
+            graph.addEdge("A", "B", 1);
+
+            assertThrows(DuplicateEdgeException.class, () -> graph.addEdges(List.of(
+                    new Edge<>("B", "C", 2), new Edge<>("C", "A", 3), new Edge<>("B", "C", 4))));
+            assertThrows(DuplicateEdgeException.class, () -> graph.addEdges(List.of(
+                    new Edge<>("B", "C", 2), new Edge<>("A", "B", 3))));
+            assertThrows(NoSuchVertexException.class, () -> graph.addEdges(List.of(
+                    new Edge<>("B", "C", 2), new Edge<>("C", "Z", 3))));
+            assertThrows(IllegalArgumentException.class, () -> graph.addEdges(List.of(
+                    new Edge<>("B", "C", 2), new Edge<>("C", "A", null))));
+
+            assertEquals(1, graph.edgeCount());
+            assertEquals(0, graph.degree("B"));
+            assertEquals(0, graph.inDegree("C"));
+
+            graph.addEdges(List.of(new Edge<>("B", "C", 2), new Edge<>("C", "A", 3)));
+            assertEquals(3, graph.edgeCount());
+            assertEquals(3, graph.getEdge("C", "A").getLabel());
+        }
+    }
+
+    // Test the builder reports the same exceptions as the graphs
+    @Test
+    void testBuildRejectsBadInput() {
+        GraphBuilder<String, Integer> builder = new GraphBuilder<String, Integer>()
+                .addVertex("A")
+                .addVertex("B")
+                .addEdge("A", "B", 1);
+        assertEquals(1, builder.build(ListGraph::new).edgeCount());
+        builder.addEdge("A", "B", 2);
+        assertThrows(DuplicateEdgeException.class, () -> builder.build(ListGraph::new));
+        assertThrows(NoSuchVertexException.class,
+                () -> new GraphBuilder<String, Integer>().addEdge("A", "B", 1).build(MatrixGraph::new));
+        assertThrows(DuplicateVertexException.class,
+                () -> new GraphBuilder<String, Integer>().addVertex("A").addVertex("A").build(ListGraph::new));
+    }
+}
@@ -0,0 +1,198 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Writes graphs in a compact binary format that MappedGraph serves directly from a memory
+ * mapping. All values are big-endian. The file is a fixed header followed by these sections,
+ * back to back:
+ *
+ *   vertex label offsets   long[n + 1]  byte range of each vertex label in the next section
+ *   vertex label bytes     byte[]       the encoded vertex labels, in id order
+ *   vertex hash table      int[t]       id + 1 of the vertex hashed to each slot, 0 if empty
+ *   offsets                int[n + 1]   CSR offsets of the outgoing edges
+ *   targets                int[m]       destination ids, sorted within each row
+ *   incoming offsets       int[n + 1]   CSR offsets of the incoming edges
+ *   sources                int[m]       source ids, sorted within each row
+ *   edge label offsets     long[m + 1]  byte range of each edge label, parallel to targets
+ *   edge label bytes       byte[]       the encoded edge labels
+ *
+ * The hash table is open-addressed with linear probing over the hash of the encoded label, so
+ * it is independent of the hashCode of the label type.
+ *
+ * @author mfullhart20@georgefox.edu
+ */
+public final class GraphFile
+{
+    // "DGRF"
+    static final int MAGIC = 0x44475246;
+    static final int VERSION = 1;
+    // magic, version, n, m, t, vertex label bytes, edge label bytes
+    static final int HEADER_SIZE = 5 * Integer.BYTES + 2 * Long.BYTES;
+
+    /**
+     * GraphFile only has static methods.
+     */
+    private GraphFile()
+    {
+    }
+
+    /**
+     * Writes a graph to a file, replacing the file if it exists.
+     *
+     * @param graph the graph to write
+     * @param path the file to write
+     * @param vertexCodec encodes the vertex labels
+     * @param edgeCodec encodes the edge labels
+     * @param <V> the type of the vertex labels
+     * @param <E> the type of the edge labels
+     * @throws IOException if the file cannot be written
+     * @throws IllegalArgumentException throw IAE if an argument is null
+     */
+    public static <V, E> void write(DirectedGraph<V, E> graph, Path path, LabelCodec<V> vertexCodec,
+                                    LabelCodec<E> edgeCodec) throws IOException
+    {
+        if (graph == null || path == null || vertexCodec == null || edgeCodec == null)
+        {
+            throw new IllegalArgumentException("Null argument");
+        }
+
+        CsrGraph<V, E> csr = GraphAlgorithms.compact(graph);
+        int n = csr.size();
+        int m = csr.edgeCount();
+        int[] offsets = csr.offsets();
+        int[] targets = csr.targets();
+
+        byte[][] vertexBytes = new byte[n][];
+        long vertexLength = 0;
+        for (int i = 0; i < n; i++)
+        {
+            vertexBytes[i] = vertexCodec.encode(csr.vertexAt(i));
+            vertexLength += vertexBytes[i].length;
+        }
+
+        byte[][] edgeBytes = new byte[m][];
+        long edgeLength = 0;
+        for (int e = 0; e < m; e++)
+        {
+            edgeBytes[e] = edgeCodec.encode(csr.edgeLabel(e));
+            edgeLength += edgeBytes[e].length;
+        }
+
+        int tableSize = tableSize(n);
+        int[] table = new int[tableSize];
+        for (int i = 0; i < n; i++)
+        {
+            int slot = home(vertexBytes[i], tableSize);
+            while (table[slot] != 0)
+            {
+                slot = (slot + 1) & (tableSize - 1);
+            }
+            table[slot] = i + 1;
+        }
+
+        // Transpose the rows; scanning sources in order keeps every incoming row sorted
+        int[] inOffsets = new int[n + 1];
+        int[] sources = new int[m];
+        for (int e = 0; e < m; e++)
+        {
+            inOffsets[targets[e] + 1]++;
+        }
+        for (int i = 0; i < n; i++)
+        {
+            inOffsets[i + 1] += inOffsets[i];
+        }
+        int[] fill = Arrays.copyOf(inOffsets, n);
+        for (int u = 0; u < n; u++)
+        {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++)
+            {
+                sources[fill[targets[e]]++] = u;
+            }
+        }
+
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(path), 1 << 16)))
+        {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(n);
+            out.writeInt(m);
+            out.writeInt(tableSize);
+            out.writeLong(vertexLength);
+            out.writeLong(edgeLength);
+
+            writeLabels(out, vertexBytes);
+            writeInts(out, table, tableSize);
+            writeInts(out, offsets, n + 1);
+            writeInts(out, targets, m);
+            writeInts(out, inOffsets, n + 1);
+            writeInts(out, sources, m);
+            writeLabels(out, edgeBytes);
+        }
+    }
+
+    /**
+     * Chooses the hash table size for a number of vertices: a power of two at least twice n.
+     *
+     * @param n the number of vertices
+     * @return the number of slots
+     */
+    static int tableSize(int n)
+    {
+        return Math.max(2, Integer.highestOneBit(Math.max(1, n) * 4 - 1));
+    }
+
+    /**
+     * Computes the home slot of an encoded label.
+     *
+     * @param bytes the encoded label
+     * @param tableSize the number of slots, a power of two
+     * @return the first slot probed for the label
+     */
+    static int home(byte[] bytes, int tableSize)
+    {
+        return (Arrays.hashCode(bytes) * 0x9E3779B9) >>> (32 - Integer.numberOfTrailingZeros(tableSize));
+    }
+
+    /**
+     * Writes a label offsets section followed by the label bytes section.
+     *
+     * @param out the stream to write
+     * @param labels the encoded labels
+     * @throws IOException if the stream cannot be written
+     */
+    private static void writeLabels(DataOutputStream out, byte[][] labels) throws IOException
+    {
+        long position = 0;
+        out.writeLong(position);
+        for (byte[] label : labels)
+        {
+            position += label.length;
+            out.writeLong(position);
+        }
+        for (byte[] label : labels)
+        {
+            out.write(label);
+        }
+    }
+
+    /**
+     * Writes the first count ints of an array.
+     *
+     * @param out the stream to write
+     * @param values the array
+     * @param count the number of ints to write
+     * @throws IOException if the stream cannot be written
+     */
+    private static void writeInts(DataOutputStream out, int[] values, int count) throws IOException
+    {
+        for (int i = 0; i < count; i++)
+        {
+            out.writeInt(values[i]);
+        }
+    }
+}
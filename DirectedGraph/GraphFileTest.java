@@ -0,0 +1,129 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+class GraphFileTest {
+    @TempDir
+    Path directory;
+
+    private ListGraph<String, Integer> graph;
+
+    @BeforeEach
+    void setUp() {
+        graph = new ListGraph<>();
+        for (String v : List.of("A", "B", "C", "D")) {
+            graph.add(v);
+        }
+        graph.addEdge("A", "B", 1);
+        graph.addEdge("A", "C", 2);
+        graph.addEdge("C", "A", 3);
+        graph.addEdge("D", "D", 4);
+    }
+
+    private MappedGraph<String, Integer> roundTrip(DirectedGraph<String, Integer> source) throws IOException {
+        Path path = directory.resolve("graph.bin");
+        GraphFile.write(source, path, LabelCodec.STRING, LabelCodec.INTEGER);
+        return MappedGraph.open(path, LabelCodec.STRING, LabelCodec.INTEGER);
+    }
+
+    // Test the mapped graph matches the written graph
+    @Test
+    void testRoundTrip() throws IOException {
+        MappedGraph<String, Integer> mapped = roundTrip(graph);
+        assertEquals(4, mapped.size());
+        assertEquals(4, mapped.edgeCount());
+        assertTrue(mapped.contains("A"));
+        assertFalse(mapped.contains("E"));
+        assertTrue(mapped.containsEdge("A", "C"));
+        assertFalse(mapped.containsEdge("B", "A"));
+        assertEquals(3, mapped.getEdge("C", "A").getLabel());
+        assertEquals(2, mapped.degree("A"));
+        assertEquals(1, mapped.inDegree("A"));
+        assertEquals("C", mapped.incoming("A").next().getLabel());
+        assertEquals(Set.of("B", "C"), labels(mapped.adjacent("A")));
+        assertEquals(Set.of("A", "B", "C", "D"), labels(mapped.vertices()));
+        Set<String> edges = new HashSet<>();
+        mapped.edges().forEachRemaining(edge -> {
+            assertEquals(graph.getEdge(edge.getU(), edge.getV()).getLabel(), edge.getLabel());
+            edges.add(edge.getU() + edge.getV());
+        });
+        assertEquals(Set.of("AB", "AC", "CA", "DD"), edges);
+    }
+
+    private static Set<String> labels(Iterator<Vertex<String>> vertices) {
+        Set<String> labels = new HashSet<>();
+        vertices.forEachRemaining(vertex -> labels.add(vertex.getLabel()));
+        return labels;
+    }
+
+    @Test
+    void testMissingVertexAndEdgeThrowExceptions() throws IOException {
+        MappedGraph<String, Integer> mapped = roundTrip(graph);
+        assertThrows(NoSuchVertexException.class, () -> mapped.containsEdge("A", "Z"));
+        assertThrows(NoSuchVertexException.class, () -> mapped.degree("Z"));
+        assertThrows(NoSuchEdgeException.class, () -> mapped.getEdge("B", "A"));
+    }
+
+    @Test
+    void testMutatorsThrowException() throws IOException {
+        MappedGraph<String, Integer> mapped = roundTrip(graph);
+        assertThrows(UnsupportedOperationException.class, () -> mapped.add("E"));
+        assertThrows(UnsupportedOperationException.class, () -> mapped.remove("A"));
+        assertThrows(UnsupportedOperationException.class, () -> mapped.addEdge("B", "A", 1));
+        assertThrows(UnsupportedOperationException.class, () -> mapped.removeEdge("A", "B"));
+        assertThrows(UnsupportedOperationException.class, mapped::clear);
+    }
+
+    @Test
+    void testEmptyGraph() throws IOException {
+        MappedGraph<String, Integer> mapped = roundTrip(new ListGraph<>());
+        assertTrue(mapped.isEmpty());
+        assertFalse(mapped.contains("A"));
+        assertFalse(mapped.edges().hasNext());
+    }
+
+    @Test
+    void testInvalidFileThrowsException() throws IOException {
+        Path path = directory.resolve("bad.bin");
+        Files.write(path, new byte[64]);
+        assertThrows(IOException.class, () -> MappedGraph.open(path, LabelCodec.STRING, LabelCodec.INTEGER));
+        GraphFile.write(graph, path, LabelCodec.STRING, LabelCodec.INTEGER);
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IOException.class, () -> MappedGraph.open(path, LabelCodec.STRING, LabelCodec.INTEGER));
+    }
+
+    // Test a larger random graph survives the round trip, copied back into a CsrGraph
+    @Test
+    void testRandomGraphRoundTrip() throws IOException {
+        Random random = new Random(9);
+        MatrixGraph<Integer, Double> source = new MatrixGraph<>();
+        for (int i = 0; i < 500; i++) {
+            source.add(i * 7);
+        }
+        for (int i = 0; i < 3000; i++) {
+            int u = random.nextInt(500) * 7;
+            int v = random.nextInt(500) * 7;
+            if (!source.containsEdge(u, v)) {
+                source.addEdge(u, v, random.nextDouble());
+            }
+        }
+        Path path = directory.resolve("random.bin");
+        GraphFile.write(source, path, LabelCodec.INTEGER, LabelCodec.DOUBLE);
+        CsrGraph<Integer, Double> copy = CsrGraph.copyOf(MappedGraph.open(path, LabelCodec.INTEGER, LabelCodec.DOUBLE));
+        assertEquals(source.size(), copy.size());
+        assertEquals(source.edgeCount(), copy.edgeCount());
+        source.edges().forEachRemaining(edge ->
+                assertEquals(edge.getLabel(), copy.getEdge(edge.getU(), edge.getV()).getLabel()));
+    }
+}
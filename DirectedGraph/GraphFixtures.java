@@ -0,0 +1,185 @@
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Generates reproducible graphs for the benchmarks. Vertices are the Integers 0 to n - 1 and
+ * every edge is labeled with its destination. Two shapes are available: uniform random graphs,
+ * where every vertex has about the same degree, and power-law graphs, where the endpoints of
+ * each edge are drawn from a Zipf distribution so a few hub vertices hold most of the edges.
+ *
+ * @author mfullhart20@georgefox.edu
+ */
+public final class GraphFixtures
+{
+    /**
+     * The shapes of graph the fixtures can generate.
+     */
+    public enum Shape
+    {
+        RANDOM,
+        POWER_LAW
+    }
+
+    // Zipf exponent of the power-law shape
+    private static final double POWER_LAW_EXPONENT = 1.0;
+
+    /**
+     * GraphFixtures only has static methods.
+     */
+    private GraphFixtures()
+    {
+    }
+
+    /**
+     * Lists the vertices 0 to n - 1.
+     *
+     * @param n the number of vertices
+     * @return the vertex labels
+     */
+    public static List<Integer> vertices(int n)
+    {
+        List<Integer> vertices = new ArrayList<>(n);
+        for (int v = 0; v < n; v++)
+        {
+            vertices.add(v);
+        }
+        return vertices;
+    }
+
+    /**
+     * Generates distinct edges of the given shape, in random order.
+     *
+     * @param shape the shape of the graph
+     * @param n the number of vertices
+     * @param m the number of edges
+     * @param seed the random seed
+     * @return the edges
+     * @throws IllegalArgumentException throw IAE if m is larger than n * n
+     */
+    public static List<Edge<Integer, Integer>> edges(Shape shape, int n, int m, long seed)
+    {
+        if ((long) m > (long) n * n)
+        {
+            throw new IllegalArgumentException("Too many edges for " + n + " vertices");
+        }
+
+        Random random = new Random(seed);
+        double[] cumulative = shape == Shape.POWER_LAW ? zipf(n) : null;
+        int[] vertexOfRank = shuffled(n, random);
+        Set<Long> seen = new HashSet<>(Math.max(16, (int) (m / 0.75f) + 1));
+        List<Edge<Integer, Integer>> edges = new ArrayList<>(m);
+
+        while (edges.size() < m)
+        {
+            int u = cumulative == null ? random.nextInt(n) : vertexOfRank[sample(cumulative, random)];
+            int v = cumulative == null ? random.nextInt(n) : vertexOfRank[sample(cumulative, random)];
+            if (seen.add((long) u * n + v))
+            {
+                edges.add(new Edge<>(u, v, v));
+            }
+        }
+        return edges;
+    }
+
+    /**
+     * Fills an empty graph with the vertices 0 to n - 1 and the given edges.
+     *
+     * @param graph the empty graph to fill
+     * @param n the number of vertices
+     * @param edges the edges to add
+     * @param <G> the type of the graph
+     * @return the filled graph
+     */
+    public static <G extends DirectedGraph<Integer, Integer>> G fill(G graph, int n,
+                                                                     List<Edge<Integer, Integer>> edges)
+    {
+        for (int v = 0; v < n; v++)
+        {
+            graph.add(v);
+        }
+        for (Edge<Integer, Integer> edge : edges)
+        {
+            graph.addEdge(edge.getU(), edge.getV(), edge.getLabel());
+        }
+        return graph;
+    }
+
+    /**
+     * Shuffles the ids 0 to n - 1, so the hubs of a power-law graph are spread over the id
+     * range instead of sitting at the lowest ids.
+     *
+     * @param n the number of ids
+     * @param random the source of randomness
+     * @return a random permutation of the ids
+     */
+    private static int[] shuffled(int n, Random random)
+    {
+        int[] ids = new int[n];
+        for (int i = 0; i < n; i++)
+        {
+            ids[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--)
+        {
+            int j = random.nextInt(i + 1);
+            int swap = ids[i];
+            ids[i] = ids[j];
+            ids[j] = swap;
+        }
+        return ids;
+    }
+
+    /**
+     * Computes the cumulative Zipf distribution over n ranks.
+     *
+     * @param n the number of ranks
+     * @return the cumulative probabilities, ending in 1
+     */
+    private static double[] zipf(int n)
+    {
+        double[] cumulative = new double[n];
+        double total = 0;
+
+        for (int rank = 0; rank < n; rank++)
+        {
+            total += 1 / Math.pow(rank + 1, POWER_LAW_EXPONENT);
+            cumulative[rank] = total;
+        }
+        for (int rank = 0; rank < n; rank++)
+        {
+            cumulative[rank] /= total;
+        }
+        return cumulative;
+    }
+
+    /**
+     * Draws a rank from a cumulative distribution.
+     *
+     * @param cumulative the cumulative probabilities of the ranks
+     * @param random the source of randomness
+     * @return the drawn rank
+     */
+    private static int sample(double[] cumulative, Random random)
+    {
+        double target = random.nextDouble();
+        int low = 0;
+        int high = cumulative.length - 1;
+
+        while (low < high)
+        {
+            int middle = (low + high) >>> 1;
+            if (cumulative[middle] < target)
+            {
+                low = middle + 1;
+            }
+            else
+            {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,270 @@
+import java.util.Arrays;
+
+/**
+ * Splits the vertices of a graph into shards for ShardedGraph. Every vertex starts in the
+ * shard picked by the hash of its label, which is also where ShardedGraph puts vertices added
+ * later. Refinement passes then visit the vertices in id order and move each one to the shard
+ * holding most of its neighbors, in either direction, as long as that lowers the number of
+ * edges between shards and the target shard stays under its capacity. Passes stop early once
+ * no vertex moves.
+ *
+ * @author mfullhart20@georgefox.edu
+ */
+public final class GraphPartitioner
+{
+    // Default number of refinement passes
+    private static final int DEFAULT_PASSES = 8;
+    // Default fraction by which a shard may exceed an even share of the vertices
+    private static final double DEFAULT_IMBALANCE = 0.1;
+
+    /**
+     * GraphPartitioner only has static methods.
+     */
+    private GraphPartitioner()
+    {
+    }
+
+    /**
+     * Partitions a graph with the default number of passes and imbalance.
+     *
+     * @param graph the graph to split
+     * @param shards the number of shards
+     * @param <V> the type of the vertex labels
+     * @param <E> the type of the edge labels
+     * @return the shard of every vertex
+     * @throws IllegalArgumentException throw IAE if shards is not positive
+     */
+    public static <V, E> Partition<V> partition(DirectedGraph<V, E> graph, int shards)
+    {
+        return partition(graph, shards, DEFAULT_PASSES, DEFAULT_IMBALANCE);
+    }
+
+    /**
+     * Partitions a graph.
+     *
+     * @param graph the graph to split
+     * @param shards the number of shards
+     * @param passes the largest number of refinement passes, 0 for a plain hash partition
+     * @param imbalance the fraction by which a shard may exceed an even share of the vertices
+     * @param <V> the type of the vertex labels
+     * @param <E> the type of the edge labels
+     * @return the shard of every vertex
+     * @throws IllegalArgumentException throw IAE if shards is not positive or passes or
+     * imbalance is negative
+     */
+    public static <V, E> Partition<V> partition(DirectedGraph<V, E> graph, int shards, int passes,
+                                                double imbalance)
+    {
+        if (shards <= 0)
+        {
+            throw new IllegalArgumentException("Shard count must be positive");
+        }
+        if (passes < 0 || !(imbalance >= 0))
+        {
+            throw new IllegalArgumentException("Negative passes or imbalance");
+        }
+
+        // The partition keeps the graph to map labels to ids, so it must own a copy
+        CsrGraph<V, E> csr = CsrGraph.copyOf(graph);
+        int n = csr.size();
+        int[] offsets = csr.offsets();
+        int[] targets = csr.targets();
+
+        int[] shardOf = new int[n];
+        int[] sizes = new int[shards];
+        for (int v = 0; v < n; v++)
+        {
+            shardOf[v] = hashShard(csr.vertexAt(v), shards);
+            sizes[shardOf[v]]++;
+        }
+
+        if (passes > 0 && shards > 1)
+        {
+            int[][] transposed = GraphAlgorithms.transpose(n, offsets, targets);
+            int capacity = Math.max(1, (int) Math.ceil((1 + imbalance) * n / shards));
+            // Neighbor count per shard of the vertex being visited, and the shards touched
+            int[] counts = new int[shards];
+            int[] touched = new int[shards];
+
+            for (int pass = 0; pass < passes; pass++)
+            {
+                int moves = 0;
+                for (int v = 0; v < n; v++)
+                {
+                    int touchedCount = 0;
+                    touchedCount = count(shardOf, targets, offsets[v], offsets[v + 1], counts, touched, touchedCount);
+                    touchedCount = count(shardOf, transposed[1], transposed[0][v], transposed[0][v + 1], counts,
+                            touched, touchedCount);
+
+                    int current = shardOf[v];
+                    int best = current;
+                    for (int i = 0; i < touchedCount; i++)
+                    {
+                        int s = touched[i];
+                        if (counts[s] > counts[best] && sizes[s] < capacity)
+                        {
+                            best = s;
+                        }
+                    }
+                    for (int i = 0; i < touchedCount; i++)
+                    {
+                        counts[touched[i]] = 0;
+                    }
+
+                    if (best != current)
+                    {
+                        shardOf[v] = best;
+                        sizes[current]--;
+                        sizes[best]++;
+                        moves++;
+                    }
+                }
+                if (moves == 0)
+                {
+                    break;
+                }
+            }
+        }
+
+        long edgeCut = 0;
+        for (int u = 0; u < n; u++)
+        {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++)
+            {
+                if (shardOf[targets[e]] != shardOf[u])
+                {
+                    edgeCut++;
+                }
+            }
+        }
+
+        return new Partition<>(csr, shardOf, sizes, edgeCut);
+    }
+
+    /**
+     * Picks the shard of a vertex from the hash of its label.
+     *
+     * @param v the vertex
+     * @param shards the number of shards
+     * @return the shard
+     */
+    static int hashShard(Object v, int shards)
+    {
+        int h = v.hashCode();
+        h ^= h >>> 16;
+        h *= 0x9E3779B1;
+        return Math.floorMod(h ^ (h >>> 15), shards);
+    }
+
+    /**
+     * Counts the shards of the neighbors in one CSR row.
+     *
+     * @param shardOf the shard of every vertex
+     * @param neighbors the CSR neighbor array
+     * @param from the first position of the row
+     * @param to one past the last position of the row
+     * @param counts the neighbor count of every shard, updated
+     * @param touched the shards with a non-zero count, updated
+     * @param touchedCount the number of entries of touched in use
+     * @return the new number of entries of touched in use
+     */
+    private static int count(int[] shardOf, int[] neighbors, int from, int to, int[] counts, int[] touched,
+                             int touchedCount)
+    {
+        for (int e = from; e < to; e++)
+        {
+            int s = shardOf[neighbors[e]];
+            if (counts[s]++ == 0)
+            {
+                touched[touchedCount++] = s;
+            }
+        }
+        return touchedCount;
+    }
+
+    /**
+     * The shard of every vertex of a graph, with the number of edges the split cuts.
+     *
+     * @param <V> the type of the vertex labels
+     */
+    public static class Partition<V>
+    {
+        // The graph the ids refer to
+        private final CsrGraph<V, ?> _graph;
+        // Shard of each vertex, indexed by id
+        private final int[] _shardOf;
+        // Number of vertices in each shard
+        private final int[] _sizes;
+        // Number of edges whose endpoints are in different shards
+        private final long _edgeCut;
+
+        /**
+         * Constructs a partition.
+         *
+         * @param graph the graph the ids refer to
+         * @param shardOf the shard of each vertex
+         * @param sizes the number of vertices in each shard
+         * @param edgeCut the number of edges between shards
+         */
+        Partition(CsrGraph<V, ?> graph, int[] shardOf, int[] sizes, long edgeCut)
+        {
+            _graph = graph;
+            _shardOf = shardOf;
+            _sizes = sizes;
+            _edgeCut = edgeCut;
+        }
+
+        /**
+         * Returns the shard of a vertex.
+         *
+         * @param v the vertex
+         * @return the shard
+         * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+         */
+        public int shardOf(V v)
+        {
+            return _shardOf[_graph.indexOf(v)];
+        }
+
+        /**
+         * Returns the number of shards.
+         *
+         * @return the number of shards
+         */
+        public int shardCount()
+        {
+            return _sizes.length;
+        }
+
+        /**
+         * Returns the number of vertices in a shard.
+         *
+         * @param shard the shard
+         * @return the number of vertices
+         */
+        public int shardSize(int shard)
+        {
+            return _sizes[shard];
+        }
+
+        /**
+         * Returns the number of edges whose endpoints are in different shards.
+         *
+         * @return the edge cut
+         */
+        public long edgeCut()
+        {
+            return _edgeCut;
+        }
+
+        /**
+         * Returns the shard of every vertex, indexed by the ids of the graph in CSR form.
+         *
+         * @return a copy of the shard assignment
+         */
+        public int[] getShards()
+        {
+            return Arrays.copyOf(_shardOf, _shardOf.length);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import java.util.Random;
+
+class GraphPartitionerTest {
+    // Builds clusters of densely linked vertices with a few edges between clusters
+    private static ListGraph<Integer, Integer> clusters(int clusters, int clusterSize, long seed) {
+        ListGraph<Integer, Integer> graph = new ListGraph<>();
+        int n = clusters * clusterSize;
+        for (int v = 0; v < n; v++) {
+            graph.add(v);
+        }
+        Random random = new Random(seed);
+        for (int v = 0; v < n; v++) {
+            int base = v / clusterSize * clusterSize;
+            for (int i = 0; i < 6; i++) {
+                int w = base + random.nextInt(clusterSize);
+                if (w != v && !graph.containsEdge(v, w)) {
+                    graph.addEdge(v, w, i);
+                }
+            }
+            int w = random.nextInt(n);
+            if (random.nextInt(4) == 0 && w != v && !graph.containsEdge(v, w)) {
+                graph.addEdge(v, w, -1);
+            }
+        }
+        return graph;
+    }
+
+    // Test refinement cuts fewer edges than hashing and keeps the shards balanced
+    @Test
+    void testRefinementLowersEdgeCut() {
+        ListGraph<Integer, Integer> graph = clusters(8, 100, 7);
+        GraphPartitioner.Partition<Integer> hashed = GraphPartitioner.partition(graph, 4, 0, 0.1);
+        GraphPartitioner.Partition<Integer> refined = GraphPartitioner.partition(graph, 4, 8, 0.1);
+        assertTrue(refined.edgeCut() < hashed.edgeCut() / 2,
+                "refined " + refined.edgeCut() + " hashed " + hashed.edgeCut());
+
+        int total = 0;
+        for (int s = 0; s < 4; s++) {
+            assertTrue(refined.shardSize(s) <= Math.ceil(1.1 * 800 / 4));
+            total += refined.shardSize(s);
+        }
+        assertEquals(800, total);
+
+        long cut = 0;
+        for (Edge<Integer, Integer> edge : (Iterable<Edge<Integer, Integer>>) graph::edges) {
+            if (refined.shardOf(edge.getU()) != refined.shardOf(edge.getV())) {
+                cut++;
+            }
+        }
+        assertEquals(refined.edgeCut(), cut);
+    }
+
+    // Test a partition of a CsrGraph keeps its meaning when the graph changes
+    @Test
+    void testPartitionSurvivesMutation() {
+        CsrGraph<Integer, Integer> csr = CsrGraph.copyOf(clusters(2, 20, 3));
+        GraphPartitioner.Partition<Integer> partition = GraphPartitioner.partition(csr, 3, 2, 0.1);
+        int[] before = new int[40];
+        for (int v = 0; v < 40; v++) {
+            before[v] = partition.shardOf(v);
+        }
+        csr.remove(0);
+        csr.remove(7);
+        for (int v = 0; v < 40; v++) {
+            assertEquals(before[v], partition.shardOf(v));
+        }
+    }
+
+    // Test unrefined partitions place vertices where a sharded graph would add them
+    @Test
+    void testHashPartition() {
+        ListGraph<Integer, Integer> graph = clusters(2, 20, 3);
+        GraphPartitioner.Partition<Integer> hashed = GraphPartitioner.partition(graph, 3, 0, 0);
+        for (int v = 0; v < 40; v++) {
+            assertEquals(GraphPartitioner.hashShard(v, 3), hashed.shardOf(v));
+        }
+        assertEquals(1, GraphPartitioner.partition(graph, 1).shardCount());
+        assertEquals(0, GraphPartitioner.partition(graph, 1).edgeCut());
+        assertThrows(NoSuchVertexException.class, () -> hashed.shardOf(99));
+        assertThrows(IllegalArgumentException.class, () -> GraphPartitioner.partition(graph, 0));
+        assertThrows(IllegalArgumentException.class, () -> GraphPartitioner.partition(graph, 2, -1, 0));
+        assertThrows(IllegalArgumentException.class, () -> GraphPartitioner.partition(graph, 2, 1, -0.5));
+    }
+}
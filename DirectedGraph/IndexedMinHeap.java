@@ -0,0 +1,195 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A binary min-heap of int ids in the range [0, capacity) keyed by double priorities. Every id
+ * remembers its position in the heap, so the key of a queued id can be lowered in O(log n),
+ * which is what Dijkstra-style searches need.
+ *
+ * @author mfullhart20@georgefox.edu
+ */
+class IndexedMinHeap
+{
+    // The ids in heap order
+    private final int[] _heap;
+    // Position of each id in _heap, or -1 if the id is not queued
+    private final int[] _position;
+    // Current key of each queued id
+    private final double[] _keys;
+    // Number of queued ids
+    private int _size;
+
+    /**
+     * Constructs an empty heap for ids in the range [0, capacity).
+     *
+     * @param capacity one more than the largest id that will be queued
+     */
+    IndexedMinHeap(int capacity)
+    {
+        _heap = new int[capacity];
+        _position = new int[capacity];
+        _keys = new double[capacity];
+        Arrays.fill(_position, -1);
+        _size = 0;
+    }
+
+    /**
+     * Checks if the heap is empty.
+     *
+     * @return true if no ids are queued, false otherwise
+     */
+    boolean isEmpty()
+    {
+        return _size == 0;
+    }
+
+    /**
+     * Checks if an id is queued.
+     *
+     * @param id the id to check
+     * @return true if the id is in the heap, false otherwise
+     */
+    boolean contains(int id)
+    {
+        return _position[id] >= 0;
+    }
+
+    /**
+     * Queues an id, or lowers its key if it is already queued with a larger key.
+     *
+     * @param id the id to queue
+     * @param key the priority of the id
+     * @return true if the id was added or its key lowered, false otherwise
+     */
+    boolean offer(int id, double key)
+    {
+        if (_position[id] < 0)
+        {
+            _heap[_size] = id;
+            _position[id] = _size;
+            _keys[id] = key;
+            siftUp(_size++);
+            return true;
+        }
+        if (key < _keys[id])
+        {
+            _keys[id] = key;
+            siftUp(_position[id]);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Gets the smallest key in the heap without removing it.
+     *
+     * @return the smallest key
+     * @throws NoSuchElementException throw NSEE if the heap is empty
+     */
+    double peekKey()
+    {
+        if (_size == 0)
+        {
+            throw new NoSuchElementException("Heap is empty");
+        }
+        return _keys[_heap[0]];
+    }
+
+    /**
+     * Removes the id with the smallest key.
+     *
+     * @return the removed id
+     * @throws NoSuchElementException throw NSEE if the heap is empty
+     */
+    int poll()
+    {
+        if (_size == 0)
+        {
+            throw new NoSuchElementException("Heap is empty");
+        }
+
+        int id = _heap[0];
+        _position[id] = -1;
+        _size--;
+
+        if (_size > 0)
+        {
+            _heap[0] = _heap[_size];
+            _position[_heap[0]] = 0;
+            siftDown(0);
+        }
+        return id;
+    }
+
+    /**
+     * Removes every queued id. Only the queued ids are touched.
+     */
+    void clear()
+    {
+        for (int i = 0; i < _size; i++)
+        {
+            _position[_heap[i]] = -1;
+        }
+        _size = 0;
+    }
+
+    /**
+     * Moves the id at a heap position up until its parent's key is not larger.
+     *
+     * @param index the heap position to sift
+     */
+    private void siftUp(int index)
+    {
+        int id = _heap[index];
+        double key = _keys[id];
+
+        while (index > 0)
+        {
+            int parent = (index - 1) >>> 1;
+            if (_keys[_heap[parent]] <= key)
+            {
+                break;
+            }
+            _heap[index] = _heap[parent];
+            _position[_heap[index]] = index;
+            index = parent;
+        }
+
+        _heap[index] = id;
+        _position[id] = index;
+    }
+
+    /**
+     * Moves the id at a heap position down until neither child's key is smaller.
+     *
+     * @param index the heap position to sift
+     */
+    private void siftDown(int index)
+    {
+        int id = _heap[index];
+        double key = _keys[id];
+
+        while (true)
+        {
+            int child = 2 * index + 1;
+            if (child >= _size)
+            {
+                break;
+            }
+            if (child + 1 < _size && _keys[_heap[child + 1]] < _keys[_heap[child]])
+            {
+                child++;
+            }
+            if (_keys[_heap[child]] >= key)
+            {
+                break;
+            }
+            _heap[index] = _heap[child];
+            _position[_heap[index]] = index;
+            index = child;
+        }
+
+        _heap[index] = id;
+        _position[id] = index;
+    }
+}
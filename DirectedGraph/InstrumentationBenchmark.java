@@ -0,0 +1,87 @@
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures the overhead of InstrumentedGraph: edge lookups on a bare ListGraph, on the same
+ * graph wrapped with recording switched off, and with recording switched on. Prints the best
+ * time per lookup of each and the figures recorded by the last run.
+ *
+ * @author mfullhart20@georgefox.edu
+ */
+public class InstrumentationBenchmark
+{
+    // Number of vertices and edges of the graph
+    private static final int VERTICES = 100_000;
+    private static final int EDGES = 1_000_000;
+    // Number of lookups per run
+    private static final int LOOKUPS = 2_000_000;
+    // Number of untimed runs used to warm up the JIT
+    private static final int WARMUP_RUNS = 2;
+    // Number of timed runs
+    private static final int MEASURED_RUNS = 3;
+
+    // Keeps the JIT from discarding results
+    private static volatile long _sink;
+
+    /**
+     * Runs the comparison and prints the best time per lookup of each configuration.
+     *
+     * @param args not used
+     */
+    public static void main(String[] args)
+    {
+        List<Edge<Integer, Integer>> edges =
+                GraphFixtures.edges(GraphFixtures.Shape.RANDOM, VERTICES, EDGES, 1);
+        ListGraph<Integer, Integer> list = GraphFixtures.fill(new ListGraph<>(), VERTICES, edges);
+        InstrumentedGraph<Integer, Integer> instrumented = new InstrumentedGraph<>(list);
+
+        int[] sources = new int[LOOKUPS];
+        int[] targets = new int[LOOKUPS];
+        Random random = new Random(2);
+        for (int i = 0; i < LOOKUPS; i++)
+        {
+            sources[i] = random.nextInt(VERTICES);
+            targets[i] = random.nextInt(VERTICES);
+        }
+
+        String[] names = {"ListGraph", "InstrumentedGraph disabled", "InstrumentedGraph enabled"};
+        long[] best = {Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE};
+        for (int run = 0; run < WARMUP_RUNS + MEASURED_RUNS; run++)
+        {
+            for (int config = 0; config < names.length; config++)
+            {
+                DirectedGraph<Integer, Integer> graph = config == 0 ? list : instrumented;
+                instrumented.setEnabled(config == 2);
+                instrumented.reset();
+
+                long sink = 0;
+                long start = System.nanoTime();
+                for (int i = 0; i < LOOKUPS; i++)
+                {
+                    sink += graph.containsEdge(sources[i], targets[i]) ? 1 : 0;
+                }
+                long time = System.nanoTime() - start;
+                _sink = sink;
+
+                if (run >= WARMUP_RUNS)
+                {
+                    best[config] = Math.min(best[config], time);
+                }
+            }
+        }
+
+        for (int config = 0; config < names.length; config++)
+        {
+            System.out.printf("%-28s %,8.1f ns/lookup%n", names[config], (double) best[config] / LOOKUPS);
+        }
+        InstrumentedGraph.Metrics metrics = instrumented.snapshot();
+        System.out.printf("recorded lookups %,d, mean %.1f ns, p99 <= %,d ns, %,d bytes allocated%n",
+                metrics.count(InstrumentedGraph.Operation.CONTAINS_EDGE),
+                metrics.meanNanos(InstrumentedGraph.Operation.CONTAINS_EDGE),
+                metrics.percentileNanos(InstrumentedGraph.Operation.CONTAINS_EDGE, 0.99),
+                metrics.allocatedBytes());
+        System.out.printf("mean degree %.1f, degree histogram %s%n", metrics.meanDegree(),
+                Arrays.toString(metrics.degreeHistogram()));
+    }
+}
@@ -0,0 +1,1164 @@
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * A DirectedGraph decorator that records what the wrapped graph is doing: how often each
+ * operation runs, a latency histogram per operation, the bytes the operations allocate, and
+ * the resizes of the backing storage. The degree distribution is computed when asked for.
+ * The figures can be read through snapshot() or over JMX after register().
+ *
+ * Latencies go into power-of-two buckets of nanoseconds, so percentiles are upper bounds
+ * within a factor of two. Iterator operations are timed when the iterator is created, not
+ * while it is walked. Allocations are read from the per-thread allocation counter of the JVM
+ * and are 0 where that counter is not available.
+ *
+ * Recording can be switched off with setEnabled(false); every operation then costs one read
+ * of a volatile flag on top of the wrapped call. All operations are forwarded to the wrapped
+ * graph, which must not be modified directly once it is wrapped.
+ *
+ * @author mfullhart20@georgefox.edu
+ * @param <V> the type of the vertex labels
+ * @param <E> the type of the edge labels
+ */
+public class InstrumentedGraph<V, E> extends DirectedGraph<V, E> implements InstrumentedGraphMXBean
+{
+    /**
+     * The recorded operations.
+     */
+    public enum Operation
+    {
+        ADD,
+        CONTAINS,
+        GET,
+        REMOVE,
+        ADD_EDGE,
+        ADD_EDGES,
+        CONTAINS_EDGE,
+        GET_EDGE,
+        REMOVE_EDGE,
+        // degree() and inDegree()
+        DEGREE,
+        // Creating an iterator over vertices, neighbors or edges
+        ITERATOR,
+        CLEAR
+    }
+
+    // Number of latency and degree buckets, one per bit of a long
+    private static final int BUCKETS = 64;
+    // Measures allocations per thread, null if the JVM cannot
+    private static final com.sun.management.ThreadMXBean ALLOCATIONS = allocations();
+    // All operations, cached to avoid copying values()
+    private static final Operation[] OPERATIONS = Operation.values();
+
+    // The decorated graph
+    private final DirectedGraph<V, E> _graph;
+    // True while operations are recorded
+    private volatile boolean _enabled;
+    // Count and total latency of each operation, indexed by ordinal
+    private final LongAdder[] _counts;
+    private final LongAdder[] _nanos;
+    // Latency histogram of each operation; bucket b counts latencies in [2^(b - 1), 2^b)
+    private final AtomicLongArray _latencies;
+    // Bytes allocated by the recorded operations
+    private final LongAdder _allocated;
+    // The name the graph is registered under, null if it is not registered
+    private ObjectName _objectName;
+
+    /**
+     * Wraps a graph and starts recording.
+     *
+     * @param graph the graph to instrument
+     * @throws IllegalArgumentException throw IAE if the graph is null
+     */
+    public InstrumentedGraph(DirectedGraph<V, E> graph)
+    {
+        if (graph == null)
+        {
+            throw new IllegalArgumentException("Null graph");
+        }
+
+        _graph = graph;
+        _counts = new LongAdder[OPERATIONS.length];
+        _nanos = new LongAdder[OPERATIONS.length];
+        for (int i = 0; i < OPERATIONS.length; i++)
+        {
+            _counts[i] = new LongAdder();
+            _nanos[i] = new LongAdder();
+        }
+        _latencies = new AtomicLongArray(OPERATIONS.length * BUCKETS);
+        _allocated = new LongAdder();
+        _enabled = true;
+    }
+
+    /**
+     * Finds the allocation counter of the JVM.
+     *
+     * @return the thread bean, or null if it cannot measure allocations
+     */
+    private static com.sun.management.ThreadMXBean allocations()
+    {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported())
+        {
+            return (com.sun.management.ThreadMXBean) threads;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the bytes allocated so far by the current thread.
+     *
+     * @return the allocated bytes, or 0 if they cannot be measured
+     */
+    private static long allocated()
+    {
+        return ALLOCATIONS == null ? 0 : ALLOCATIONS.getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * Returns the bucket of a non-negative value: 0 for 0, otherwise the number of bits it
+     * needs.
+     *
+     * @param value the value
+     * @return the bucket
+     */
+    private static int bucket(long value)
+    {
+        return BUCKETS - Long.numberOfLeadingZeros(value);
+    }
+
+    /**
+     * Returns the upper end of the bucket of a latency histogram that holds a percentile.
+     *
+     * @param histogram the number of latencies in each bucket
+     * @param count the number of latencies recorded
+     * @param fraction the percentile as a fraction
+     * @return the latency bound in nanoseconds, 0 if nothing was recorded
+     */
+    private static long percentile(long[] histogram, long count, double fraction)
+    {
+        long rank = (long) Math.ceil(fraction * count);
+        long seen = 0;
+        for (int b = 0; b < histogram.length; b++)
+        {
+            seen += histogram[b];
+            if (seen >= rank && seen > 0)
+            {
+                return b == 0 ? 0 : (1L << b) - 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Records one operation.
+     *
+     * @param operation the operation
+     * @param start the value of System.nanoTime() when the operation started
+     * @param bytes the value of allocated() when the operation started
+     */
+    private void record(Operation operation, long start, long bytes)
+    {
+        long nanos = Math.max(0, System.nanoTime() - start);
+        _allocated.add(allocated() - bytes);
+        int i = operation.ordinal();
+        _counts[i].increment();
+        _nanos[i].add(nanos);
+        _latencies.incrementAndGet(i * BUCKETS + Math.min(BUCKETS - 1, bucket(nanos)));
+    }
+
+    /**
+     * Checks if operations are being recorded.
+     *
+     * @return true if recording, false otherwise
+     */
+    @Override
+    public boolean isEnabled()
+    {
+        return _enabled;
+    }
+
+    /**
+     * Starts or stops recording operations. The figures recorded so far are kept.
+     *
+     * @param enabled true to record operations
+     */
+    @Override
+    public void setEnabled(boolean enabled)
+    {
+        _enabled = enabled;
+    }
+
+    /**
+     * Clears the recorded counts, latencies and allocations.
+     */
+    @Override
+    public void reset()
+    {
+        for (int i = 0; i < OPERATIONS.length; i++)
+        {
+            _counts[i].reset();
+            _nanos[i].reset();
+        }
+        for (int i = 0; i < _latencies.length(); i++)
+        {
+            _latencies.set(i, 0);
+        }
+        _allocated.reset();
+    }
+
+    /**
+     * Takes a snapshot of the recorded figures and of the shape of the graph. Computing the
+     * degree distribution walks the wrapped graph, so callers must not run it while another
+     * thread modifies the graph unless they synchronise with that thread.
+     *
+     * @return the snapshot
+     */
+    public Metrics snapshot()
+    {
+        long[] counts = new long[OPERATIONS.length];
+        long[] nanos = new long[OPERATIONS.length];
+        long[][] latencies = new long[OPERATIONS.length][];
+        for (int i = 0; i < OPERATIONS.length; i++)
+        {
+            counts[i] = _counts[i].sum();
+            nanos[i] = _nanos[i].sum();
+            latencies[i] = latencyHistogram(i);
+        }
+        return new Metrics(counts, nanos, latencies, _allocated.sum(), _graph.resizes(), degreeHistogram(),
+                _graph.size(), _graph.edgeCount());
+    }
+
+    /**
+     * Copies the latency histogram of one operation.
+     *
+     * @param operation the ordinal of the operation
+     * @return the number of latencies in each bucket
+     */
+    private long[] latencyHistogram(int operation)
+    {
+        long[] histogram = new long[BUCKETS];
+        for (int b = 0; b < BUCKETS; b++)
+        {
+            histogram[b] = _latencies.get(operation * BUCKETS + b);
+        }
+        return histogram;
+    }
+
+    /**
+     * Registers the graph with the platform MBean server under
+     * DirectedGraph:type=InstrumentedGraph,name=(the given name).
+     *
+     * @param name the name of the graph
+     * @return the name it was registered under
+     * @throws JMException if the name is taken or cannot be used
+     * @throws IllegalArgumentException throw IAE if the name is null
+     * @throws IllegalStateException throw ISE if the graph is already registered
+     */
+    public synchronized ObjectName register(String name) throws JMException
+    {
+        if (name == null)
+        {
+            throw new IllegalArgumentException("Null argument");
+        }
+        if (_objectName != null)
+        {
+            throw new IllegalStateException("Graph is already registered");
+        }
+
+        ObjectName objectName = new ObjectName("DirectedGraph:type=InstrumentedGraph,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        _objectName = objectName;
+        return objectName;
+    }
+
+    /**
+     * Removes the graph from the platform MBean server. Does nothing if it is not registered.
+     *
+     * @throws JMException if the graph cannot be unregistered
+     */
+    public synchronized void unregister() throws JMException
+    {
+        if (_objectName != null)
+        {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(_objectName);
+            _objectName = null;
+        }
+    }
+
+    /**
+     * Returns the number of vertices of the graph.
+     *
+     * @return the number of vertices
+     */
+    @Override
+    public int getVertexCount()
+    {
+        return _graph.size();
+    }
+
+    /**
+     * Returns the number of edges of the graph.
+     *
+     * @return the number of edges
+     */
+    @Override
+    public int getEdgeCount()
+    {
+        return _graph.edgeCount();
+    }
+
+    /**
+     * Returns the average number of outgoing edges per vertex.
+     *
+     * @return the mean degree, 0 for an empty graph
+     */
+    @Override
+    public double getMeanDegree()
+    {
+        int size = _graph.size();
+        return size == 0 ? 0 : (double) _graph.edgeCount() / size;
+    }
+
+    /**
+     * Returns the number of times the graph grew its backing storage.
+     *
+     * @return the number of resizes
+     */
+    @Override
+    public long getResizes()
+    {
+        return _graph.resizes();
+    }
+
+    /**
+     * Returns the bytes allocated by the recorded operations.
+     *
+     * @return the allocated bytes
+     */
+    @Override
+    public long getAllocatedBytes()
+    {
+        return _allocated.sum();
+    }
+
+    /**
+     * Returns the number of times each operation was recorded.
+     *
+     * @return the count of each operation
+     */
+    @Override
+    public Map<String, Long> getOperationCounts()
+    {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Operation operation : OPERATIONS)
+        {
+            counts.put(operation.name(), _counts[operation.ordinal()].sum());
+        }
+        return counts;
+    }
+
+    /**
+     * Returns the mean latency of each recorded operation. Only the recorded figures are read,
+     * not the graph.
+     *
+     * @return the mean latency of each operation in nanoseconds
+     */
+    @Override
+    public Map<String, Double> getMeanLatencyNanos()
+    {
+        Map<String, Double> latencies = new LinkedHashMap<>();
+        for (Operation operation : OPERATIONS)
+        {
+            long count = _counts[operation.ordinal()].sum();
+            long nanos = _nanos[operation.ordinal()].sum();
+            latencies.put(operation.name(), count == 0 ? 0 : (double) nanos / count);
+        }
+        return latencies;
+    }
+
+    /**
+     * Returns an upper bound for the 99th percentile latency of each recorded operation. Only
+     * the recorded figures are read, not the graph.
+     *
+     * @return the 99th percentile latency of each operation in nanoseconds
+     */
+    @Override
+    public Map<String, Long> getP99LatencyNanos()
+    {
+        Map<String, Long> latencies = new LinkedHashMap<>();
+        for (Operation operation : OPERATIONS)
+        {
+            long[] histogram = latencyHistogram(operation.ordinal());
+            latencies.put(operation.name(), percentile(histogram, Arrays.stream(histogram).sum(), 0.99));
+        }
+        return latencies;
+    }
+
+    /**
+     * Returns the degree distribution of the graph. It walks the wrapped graph, so callers
+     * must not run it while another thread modifies the graph unless they synchronise with
+     * that thread.
+     *
+     * @return the number of vertices in each degree bucket
+     */
+    @Override
+    public long[] getDegreeHistogram()
+    {
+        return degreeHistogram();
+    }
+
+    /**
+     * Counts the vertices in each degree bucket, dropping the empty buckets at the end.
+     *
+     * @return the number of vertices in each degree bucket
+     */
+    private long[] degreeHistogram()
+    {
+        long[] histogram = new long[BUCKETS];
+        int used = 0;
+        Iterator<Vertex<V>> vertices = _graph.vertices(true);
+        while (vertices.hasNext())
+        {
+            int b = bucket(_graph.degree(vertices.next().getLabel()));
+            histogram[b]++;
+            used = Math.max(used, b + 1);
+        }
+        return Arrays.copyOf(histogram, used);
+    }
+
+    /**
+     * Returns the number of times the wrapped graph grew its backing storage.
+     *
+     * @return the number of resizes
+     */
+    @Override
+    int resizes()
+    {
+        return _graph.resizes();
+    }
+
+    /**
+     * Adds a vertex to the wrapped graph.
+     *
+     * @param v the label of the vertex to add
+     */
+    @Override
+    public void add(V v)
+    {
+        if (!_enabled)
+        {
+            _graph.add(v);
+            return;
+        }
+        long bytes = allocated();
+        long start = System.nanoTime();
+        try
+        {
+            _graph.add(v);
+        }
+        finally
+        {
+            record(Operation.ADD, start, bytes);
+        }
+    }
+
+    /**
+     * Checks if a vertex exists in the wrapped graph.
+     *
+     * @param v the label of the vertex to check
+     * @return true if the vertex exists, false otherwise
+     */
+    @Override
+    public boolean contains(V v)
+    {
+        if (!_enabled)
+        {
+            return _graph.contains(v);
+        }
+        long bytes = allocated();
+        long start = System.nanoTime();
+        try
+        {
+            return _graph.contains(v);
+        }
+        finally
+        {
+            record(Operation.CONTAINS, start, bytes);
+        }
+    }
+
+    /**
+     * Gets the vertex object for a given label from the wrapped graph.
+     *
+     * @param v the label of the vertex
+     * @return the vertex object
+     */
+    @Override
+    public Vertex<V> get(V v)
+    {
+        if (!_enabled)
+        {
+            return _graph.get(v);
+        }
+        long bytes = allocated();
+        long start = System.nanoTime();
+        try
+        {
+            return _graph.get(v);
+        }
+        finally
+        {
+            record(Operation.GET, start, bytes);
+        }
+    }
+
+    /**
+     * Removes a vertex and its edges from the wrapped graph.
+     *
+     * @param v the label of the vertex to remove
+     * @return the label of the removed vertex
+     */
+    @Override
+    public V remove(V v)
+    {
+        if (!_enabled)
+        {
+            return _graph.remove(v);
+        }
+        long bytes = allocated();
+        long start = System.nanoTime();
+        try
+        {
+            return _graph.remove(v);
+        }
+        finally
+        {
+            record(Operation.REMOVE, start, bytes);
+        }
+    }
+
+    /**
+     * Adds an edge to the wrapped graph.
+     *
+     * @param u the source vertex
+     * @param v the destination vertex
+     * @param label the edge label
+     */
+    @Override
+    public void addEdge(V u, V v, E label)
+    {
+        if (!_enabled)
+        {
+            _graph.addEdge(u, v, label);
+            return;
+        }
+        long bytes = allocated();
+        long start = System.nanoTime();
+        try
+        {
+            _graph.addEdge(u, v, label);
+        }
+        finally
+        {
+            record(Operation.ADD_EDGE, start, bytes);
+        }
+    }
+
+    /**
+     * Adds a batch of edges to the wrapped graph, recorded as one operation.
+     *
+     * @param edges the edges to add
+     * @param parallel true to let the wrapped graph prepare the batch on several threads
+     */
+    @Override
+    public void addEdges(Iterable<Edge<V, E>> edges, boolean parallel)
+    {
+        if (!_enabled)
+        {
+            _graph.addEdges(edges, parallel);
+            return;
+        }
+        long bytes = allocated();
+        long start = System.nanoTime();
+        try
+        {
+            _graph.addEdges(edges, parallel);
+        }
+        finally
+        {
+            record(Operation.ADD_EDGES, start, bytes);
+        }
+    }
+
+    /**
+     * Checks if an edge exists in the wrapped graph.
+     *
+     * @param u the source vertex
+     * @param v the destination vertex
+     * @return true if the edge exists, false otherwise
+     */
+    @Override
+    public boolean containsEdge(V u, V v)
+    {
+        if (!_enabled)
+        {
+            return _graph.containsEdge(u, v);
+        }
+        long bytes = allocated();
+        long start = System.nanoTime();
+        try
+        {
+            return _graph.containsEdge(u, v);
+        }
+        finally
+        {
+            record(Operation.CONTAINS_EDGE, start, bytes);
+        }
+    }
+
+    /**
+     * Gets an edge object from the wrapped graph.
+     *
+     * @param u the source vertex
+     * @param v the destination vertex
+     * @return the edge object
+     */
+    @Override
+    public Edge<V, E> getEdge(V u, V v)
+    {
+        if (!_enabled)
+        {
+            return _graph.getEdge(u, v);
+        }
+        long bytes = allocated();
+        long start = System.nanoTime();
+        try
+        {
+            return _graph.getEdge(u, v);
+        }
+        finally
+        {
+            record(Operation.GET_EDGE, start, bytes);
+        }
+    }
+
+    /**
+     * Removes an edge from the wrapped graph.
+     *
+     * @param u the source vertex
+     * @param v the destination vertex
+     * @return the label of the removed edge
+     */
+    @Override
+    public E removeEdge(V u, V v)
+    {
+        if (!_enabled)
+        {
+            return _graph.removeEdge(u, v);
+        }
+        long bytes = allocated();
+        long start = System.nanoTime();
+        try
+        {
+            return _graph.removeEdge(u, v);
+        }
+        finally
+        {
+            record(Operation.REMOVE_EDGE, start, bytes);
+        }
+    }
+
+    /**
+     * Returns the number of vertices in the wrapped graph. Not recorded.
+     *
+     * @return the number of vertices
+     */
+    @Override
+    public int size()
+    {
+        return _graph.size();
+    }
+
+    /**
+     * Returns the number of outgoing edges of a vertex of the wrapped graph.
+     *
+     * @param v the vertex to check
+     * @return the degree of the vertex
+     */
+    @Override
+    public int degree(V v)
+    {
+        if (!_enabled)
+        {
+            return _graph.degree(v);
+        }
+        long bytes = allocated();
+        long start = System.nanoTime();
+        try
+        {
+            return _graph.degree(v);
+        }
+        finally
+        {
+            record(Operation.DEGREE, start, bytes);
+        }
+    }
+
+    /**
+     * Returns the number of incoming edges of a vertex of the wrapped graph.
+     *
+     * @param v the vertex to check
+     * @return the in-degree of the vertex
+     */
+    @Override
+    public int inDegree(V v)
+    {
+        if (!_enabled)
+        {
+            return _graph.inDegree(v);
+        }
+        long bytes = allocated();
+        long start = System.nanoTime();
+        try
+        {
+            return _graph.inDegree(v);
+        }
+        finally
+        {
+            record(Operation.DEGREE, start, bytes);
+        }
+    }
+
+    /**
+     * Returns the number of edges in the wrapped graph. Not recorded.
+     *
+     * @return the number of edges
+     */
+    @Override
+    public int edgeCount()
+    {
+        return _graph.edgeCount();
+    }
+
+    /**
+     * Gets an iterator over all vertices of the wrapped graph.
+     *
+     * @return an iterator over vertex objects
+     */
+    @Override
+    public Iterator<Vertex<V>> vertices()
+    {
+        return vertices(false);
+    }
+
+    /**
+     * Gets an iterator over all vertices of the wrapped graph, optionally reusing a single
+     * flyweight Vertex.
+     *
+     * @param flyweight true to reuse one Vertex object for the whole iteration
+     * @return an iterator over vertex objects
+     */
+    @Override
+    public Iterator<Vertex<V>> vertices(boolean flyweight)
+    {
+        if (!_enabled)
+        {
+            return _graph.vertices(flyweight);
+        }
+        long bytes = allocated();
+        long start = System.nanoTime();
+        try
+        {
+            return _graph.vertices(flyweight);
+        }
+        finally
+        {
+            record(Operation.ITERATOR, start, bytes);
+        }
+    }
+
+    /**
+     * Gets an iterator over the vertices adjacent to a vertex of the wrapped graph.
+     *
+     * @param v the label of the source vertex
+     * @return an iterator over adjacent vertex objects
+     */
+    @Override
+    public Iterator<Vertex<V>> adjacent(V v)
+    {
+        return adjacent(v, false);
+    }
+
+    /**
+     * Gets an iterator over the vertices adjacent to a vertex of the wrapped graph, optionally
+     * reusing a single flyweight Vertex.
+     *
+     * @param v the label of the source vertex
+     * @param flyweight true to reuse one Vertex object for the whole iteration
+     * @return an iterator over adjacent vertex objects
+     */
+    @Override
+    public Iterator<Vertex<V>> adjacent(V v, boolean flyweight)
+    {
+        if (!_enabled)
+        {
+            return _graph.adjacent(v, flyweight);
+        }
+        long bytes = allocated();
+        long start = System.nanoTime();
+        try
+        {
+            return _graph.adjacent(v, flyweight);
+        }
+        finally
+        {
+            record(Operation.ITERATOR, start, bytes);
+        }
+    }
+
+    /**
+     * Gets an iterator over the vertices adjacent to a vertex of the wrapped graph through an
+     * edge whose label is accepted by a filter.
+     *
+     * @param v the label of the source vertex
+     * @param filter accepts the labels of the edges to follow
+     * @return an iterator over the accepted adjacent vertex objects
+     */
+    @Override
+    public Iterator<Vertex<V>> adjacent(V v, Predicate<? super E> filter)
+    {
+        if (!_enabled)
+        {
+            return _graph.adjacent(v, filter);
+        }
+        long bytes = allocated();
+        long start = System.nanoTime();
+        try
+        {
+            return _graph.adjacent(v, filter);
+        }
+        finally
+        {
+            record(Operation.ITERATOR, start, bytes);
+        }
+    }
+
+    /**
+     * Gets an iterator over the vertices with an edge into a vertex of the wrapped graph.
+     *
+     * @param v the label of the destination vertex
+     * @return an iterator over vertex objects
+     */
+    @Override
+    public Iterator<Vertex<V>> incoming(V v)
+    {
+        if (!_enabled)
+        {
+            return _graph.incoming(v);
+        }
+        long bytes = allocated();
+        long start = System.nanoTime();
+        try
+        {
+            return _graph.incoming(v);
+        }
+        finally
+        {
+            record(Operation.ITERATOR, start, bytes);
+        }
+    }
+
+    /**
+     * Gets an iterator over all edges of the wrapped graph.
+     *
+     * @return an iterator over edge objects
+     */
+    @Override
+    public Iterator<Edge<V, E>> edges()
+    {
+        return edges(false);
+    }
+
+    /**
+     * Gets an iterator over all edges of the wrapped graph, optionally reusing a single
+     * flyweight Edge.
+     *
+     * @param flyweight true to reuse one Edge object for the whole iteration
+     * @return an iterator over edge objects
+     */
+    @Override
+    public Iterator<Edge<V, E>> edges(boolean flyweight)
+    {
+        if (!_enabled)
+        {
+            return _graph.edges(flyweight);
+        }
+        long bytes = allocated();
+        long start = System.nanoTime();
+        try
+        {
+            return _graph.edges(flyweight);
+        }
+        finally
+        {
+            record(Operation.ITERATOR, start, bytes);
+        }
+    }
+
+    /**
+     * Gets an iterator over the edges of the wrapped graph whose label is accepted by a filter.
+     *
+     * @param filter accepts the labels of the edges to return
+     * @return an iterator over the accepted edge objects
+     */
+    @Override
+    public Iterator<Edge<V, E>> edges(Predicate<? super E> filter)
+    {
+        if (!_enabled)
+        {
+            return _graph.edges(filter);
+        }
+        long bytes = allocated();
+        long start = System.nanoTime();
+        try
+        {
+            return _graph.edges(filter);
+        }
+        finally
+        {
+            record(Operation.ITERATOR, start, bytes);
+        }
+    }
+
+    /**
+     * Removes all vertices and edges from the wrapped graph.
+     */
+    @Override
+    public void clear()
+    {
+        if (!_enabled)
+        {
+            _graph.clear();
+            return;
+        }
+        long bytes = allocated();
+        long start = System.nanoTime();
+        try
+        {
+            _graph.clear();
+        }
+        finally
+        {
+            record(Operation.CLEAR, start, bytes);
+        }
+    }
+
+    /**
+     * Checks if the wrapped graph is empty. Not recorded.
+     *
+     * @return true if the graph has no vertices, false otherwise
+     */
+    @Override
+    public boolean isEmpty()
+    {
+        return _graph.isEmpty();
+    }
+
+    /**
+     * The figures of an InstrumentedGraph at one point in time.
+     */
+    public static class Metrics
+    {
+        // Count, total latency and latency histogram of each operation, indexed by ordinal
+        private final long[] _counts;
+        private final long[] _nanos;
+        private final long[][] _latencies;
+        // Bytes allocated by the recorded operations
+        private final long _allocatedBytes;
+        // Number of resizes of the backing storage
+        private final long _resizes;
+        // Number of vertices in each degree bucket
+        private final long[] _degrees;
+        // Size of the graph
+        private final int _vertexCount;
+        private final int _edgeCount;
+
+        /**
+         * Constructs a snapshot.
+         *
+         * @param counts the count of each operation
+         * @param nanos the total latency of each operation
+         * @param latencies the latency histogram of each operation
+         * @param allocatedBytes the bytes allocated by the operations
+         * @param resizes the number of resizes
+         * @param degrees the degree histogram
+         * @param vertexCount the number of vertices
+         * @param edgeCount the number of edges
+         */
+        Metrics(long[] counts, long[] nanos, long[][] latencies, long allocatedBytes, long resizes,
+                long[] degrees, int vertexCount, int edgeCount)
+        {
+            _counts = counts;
+            _nanos = nanos;
+            _latencies = latencies;
+            _allocatedBytes = allocatedBytes;
+            _resizes = resizes;
+            _degrees = degrees;
+            _vertexCount = vertexCount;
+            _edgeCount = edgeCount;
+        }
+
+        /**
+         * Returns the number of times an operation was recorded.
+         *
+         * @param operation the operation
+         * @return the count
+         */
+        public long count(Operation operation)
+        {
+            return _counts[operation.ordinal()];
+        }
+
+        /**
+         * Returns the total latency of an operation.
+         *
+         * @param operation the operation
+         * @return the sum of its latencies in nanoseconds
+         */
+        public long totalNanos(Operation operation)
+        {
+            return _nanos[operation.ordinal()];
+        }
+
+        /**
+         * Returns the mean latency of an operation.
+         *
+         * @param operation the operation
+         * @return the mean latency in nanoseconds, 0 if it was not recorded
+         */
+        public double meanNanos(Operation operation)
+        {
+            long count = count(operation);
+            return count == 0 ? 0 : (double) totalNanos(operation) / count;
+        }
+
+        /**
+         * Returns an upper bound for a percentile of the latency of an operation: the upper end
+         * of the bucket that holds it.
+         *
+         * @param operation the operation
+         * @param fraction the percentile as a fraction, for example 0.99
+         * @return the latency bound in nanoseconds, 0 if the operation was not recorded
+         * @throws IllegalArgumentException throw IAE if the fraction is not between 0 and 1
+         */
+        public long percentileNanos(Operation operation, double fraction)
+        {
+            if (!(fraction >= 0 && fraction <= 1))
+            {
+                throw new IllegalArgumentException("Fraction must be between 0 and 1");
+            }
+
+            return percentile(_latencies[operation.ordinal()], count(operation), fraction);
+        }
+
+        /**
+         * Returns the latency histogram of an operation. Entry 0 counts latencies of 0 and
+         * entry b counts latencies in [2^(b - 1), 2^b) nanoseconds.
+         *
+         * @param operation the operation
+         * @return a copy of the histogram
+         */
+        public long[] latencyHistogram(Operation operation)
+        {
+            return Arrays.copyOf(_latencies[operation.ordinal()], BUCKETS);
+        }
+
+        /**
+         * Returns the count of every operation.
+         *
+         * @return the count of each operation
+         */
+        public Map<Operation, Long> counts()
+        {
+            Map<Operation, Long> counts = new EnumMap<>(Operation.class);
+            for (Operation operation : OPERATIONS)
+            {
+                counts.put(operation, count(operation));
+            }
+            return counts;
+        }
+
+        /**
+         * Returns the bytes allocated by the recorded operations.
+         *
+         * @return the allocated bytes, 0 if the JVM cannot measure them
+         */
+        public long allocatedBytes()
+        {
+            return _allocatedBytes;
+        }
+
+        /**
+         * Returns the number of times the graph grew its backing storage.
+         *
+         * @return the number of resizes
+         */
+        public long resizes()
+        {
+            return _resizes;
+        }
+
+        /**
+         * Returns the degree distribution. Entry 0 counts vertices without outgoing edges and
+         * entry b counts vertices whose degree is in [2^(b - 1), 2^b).
+         *
+         * @return a copy of the degree histogram
+         */
+        public long[] degreeHistogram()
+        {
+            return Arrays.copyOf(_degrees, _degrees.length);
+        }
+
+        /**
+         * Returns the number of vertices.
+         *
+         * @return the number of vertices
+         */
+        public int vertexCount()
+        {
+            return _vertexCount;
+        }
+
+        /**
+         * Returns the number of edges.
+         *
+         * @return the number of edges
+         */
+        public int edgeCount()
+        {
+            return _edgeCount;
+        }
+
+        /**
+         * Returns the average number of outgoing edges per vertex.
+         *
+         * @return the mean degree, 0 for an empty graph
+         */
+        public double meanDegree()
+        {
+            return _vertexCount == 0 ? 0 : (double) _edgeCount / _vertexCount;
+        }
+    }
+}
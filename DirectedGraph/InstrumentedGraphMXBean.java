@@ -0,0 +1,95 @@
+import java.util.Map;
+
+/**
+ * The management interface of an InstrumentedGraph, registered with the platform MBean server
+ * through InstrumentedGraph.register(). Latency and count maps are keyed by operation name.
+ *
+ * @author mfullhart20@georgefox.edu
+ */
+public interface InstrumentedGraphMXBean
+{
+    /**
+     * Checks if operations are being recorded.
+     *
+     * @return true if recording, false otherwise
+     */
+    boolean isEnabled();
+
+    /**
+     * Starts or stops recording operations.
+     *
+     * @param enabled true to record operations
+     */
+    void setEnabled(boolean enabled);
+
+    /**
+     * Returns the number of vertices of the graph.
+     *
+     * @return the number of vertices
+     */
+    int getVertexCount();
+
+    /**
+     * Returns the number of edges of the graph.
+     *
+     * @return the number of edges
+     */
+    int getEdgeCount();
+
+    /**
+     * Returns the average number of outgoing edges per vertex.
+     *
+     * @return the mean degree, 0 for an empty graph
+     */
+    double getMeanDegree();
+
+    /**
+     * Returns the number of times the graph grew its backing storage.
+     *
+     * @return the number of resizes
+     */
+    long getResizes();
+
+    /**
+     * Returns the bytes allocated by the recorded operations, or 0 if the JVM cannot measure
+     * allocations per thread.
+     *
+     * @return the allocated bytes
+     */
+    long getAllocatedBytes();
+
+    /**
+     * Returns the number of times each operation was recorded.
+     *
+     * @return the count of each operation
+     */
+    Map<String, Long> getOperationCounts();
+
+    /**
+     * Returns the mean latency of each recorded operation.
+     *
+     * @return the mean latency of each operation in nanoseconds
+     */
+    Map<String, Double> getMeanLatencyNanos();
+
+    /**
+     * Returns an upper bound for the 99th percentile latency of each recorded operation.
+     *
+     * @return the 99th percentile latency of each operation in nanoseconds
+     */
+    Map<String, Long> getP99LatencyNanos();
+
+    /**
+     * Returns the degree distribution of the graph. Entry 0 counts vertices without outgoing
+     * edges and entry b counts vertices whose degree is in [2^(b - 1), 2^b). Unlike the other
+     * attributes it walks the graph, which must not be modified meanwhile.
+     *
+     * @return the number of vertices in each degree bucket
+     */
+    long[] getDegreeHistogram();
+
+    /**
+     * Clears the recorded counts, latencies and allocations.
+     */
+    void reset();
+}
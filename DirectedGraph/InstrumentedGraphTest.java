@@ -0,0 +1,147 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.lang.management.ManagementFactory;
+import java.util.Iterator;
+import java.util.Map;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+class InstrumentedGraphTest {
+    private InstrumentedGraph<String, Integer> graph;
+
+    @BeforeEach
+    void setUp() {
+        graph = new InstrumentedGraph<>(new ListGraph<>());
+    }
+
+    // Test operations are forwarded and counted
+    @Test
+    void testOperationCounts() {
+        graph.add("A");
+        graph.add("B");
+        graph.addEdge("A", "B", 1);
+        assertTrue(graph.containsEdge("A", "B"));
+        assertFalse(graph.contains("C"));
+        assertThrows(DuplicateVertexException.class, () -> graph.add("A"));
+        assertEquals(1, graph.getEdge("A", "B").getLabel());
+        graph.adjacent("A").next();
+        graph.edges().next();
+        assertEquals(1, graph.degree("A"));
+        assertEquals(1, graph.inDegree("B"));
+        assertEquals(1, graph.removeEdge("A", "B"));
+
+        InstrumentedGraph.Metrics metrics = graph.snapshot();
+        assertEquals(3, metrics.count(InstrumentedGraph.Operation.ADD));
+        assertEquals(1, metrics.count(InstrumentedGraph.Operation.ADD_EDGE));
+        assertEquals(1, metrics.count(InstrumentedGraph.Operation.CONTAINS));
+        assertEquals(2, metrics.count(InstrumentedGraph.Operation.ITERATOR));
+        assertEquals(2, metrics.count(InstrumentedGraph.Operation.DEGREE));
+        assertEquals(1, metrics.count(InstrumentedGraph.Operation.REMOVE_EDGE));
+        assertEquals(0, metrics.count(InstrumentedGraph.Operation.CLEAR));
+        long[] latencies = metrics.latencyHistogram(InstrumentedGraph.Operation.ADD);
+        long total = 0;
+        for (long count : latencies) {
+            total += count;
+        }
+        assertEquals(3, total);
+        assertTrue(metrics.percentileNanos(InstrumentedGraph.Operation.ADD, 0.99) >= metrics.meanNanos(InstrumentedGraph.Operation.ADD) / 2);
+        assertEquals(0, metrics.percentileNanos(InstrumentedGraph.Operation.CLEAR, 0.5));
+        assertEquals(2, metrics.vertexCount());
+        assertEquals(0, metrics.edgeCount());
+    }
+
+    // Test nothing is recorded while disabled, and reset clears the figures
+    @Test
+    void testDisabledAndReset() {
+        graph.setEnabled(false);
+        assertFalse(graph.isEnabled());
+        graph.add("A");
+        graph.contains("A");
+        assertEquals(0, graph.snapshot().count(InstrumentedGraph.Operation.ADD));
+        assertTrue(graph.contains("A"));
+
+        graph.setEnabled(true);
+        graph.add("B");
+        assertEquals(1, graph.snapshot().count(InstrumentedGraph.Operation.ADD));
+        graph.reset();
+        assertEquals(0, graph.snapshot().count(InstrumentedGraph.Operation.ADD));
+        assertEquals(0, graph.getAllocatedBytes());
+    }
+
+    // Test resizes of a MatrixGraph and the degree distribution
+    @Test
+    void testResizesAndDegrees() {
+        InstrumentedGraph<Integer, Integer> matrix = new InstrumentedGraph<>(new MatrixGraph<>());
+        for (int i = 0; i < 100; i++) {
+            matrix.add(i);
+        }
+        // 16 slots doubled to 128
+        assertEquals(3, matrix.getResizes());
+        for (int i = 1; i < 9; i++) {
+            matrix.addEdge(0, i, i);
+        }
+        matrix.addEdge(1, 2, 0);
+        InstrumentedGraph.Metrics metrics = matrix.snapshot();
+        assertEquals(3, metrics.resizes());
+        // 98 vertices of degree 0, one of degree 1 and one of degree 8
+        assertArrayEquals(new long[] {98, 1, 0, 0, 1}, metrics.degreeHistogram());
+        assertEquals(0.09, metrics.meanDegree(), 1e-9);
+        assertEquals(0, new InstrumentedGraph<>(new ListGraph<>()).getResizes());
+    }
+
+    // Test the latency getters agree with a snapshot without walking the graph
+    @Test
+    void testLatenciesDoNotWalkGraph() {
+        boolean[] walked = {false};
+        InstrumentedGraph<String, Integer> watched = new InstrumentedGraph<>(new ListGraph<String, Integer>() {
+            @Override
+            public Iterator<Vertex<String>> vertices(boolean flyweight) {
+                walked[0] = true;
+                return super.vertices(flyweight);
+            }
+        });
+        watched.add("A");
+        watched.add("B");
+        watched.addEdge("A", "B", 1);
+        watched.contains("A");
+
+        Map<String, Double> means = watched.getMeanLatencyNanos();
+        Map<String, Long> p99 = watched.getP99LatencyNanos();
+        assertFalse(walked[0]);
+        InstrumentedGraph.Metrics metrics = watched.snapshot();
+        assertTrue(walked[0]);
+        for (InstrumentedGraph.Operation operation : InstrumentedGraph.Operation.values()) {
+            assertEquals(metrics.meanNanos(operation), means.get(operation.name()), 1e-9);
+            assertEquals(metrics.percentileNanos(operation, 0.99), p99.get(operation.name()));
+        }
+        assertEquals(0L, p99.get("CLEAR"));
+    }
+
+    // Test the figures are readable over JMX
+    @Test
+    void testJmx() throws Exception {
+        graph.add("A");
+        graph.add("B");
+        graph.addEdge("A", "B", 1);
+        ObjectName name = graph.register("test graph");
+        try {
+            assertThrows(IllegalStateException.class, () -> graph.register("again"));
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            assertTrue(server.isRegistered(name));
+            assertEquals(2, server.getAttribute(name, "VertexCount"));
+            assertEquals(1, server.getAttribute(name, "EdgeCount"));
+            assertEquals(true, server.getAttribute(name, "Enabled"));
+            assertNotNull(server.getAttribute(name, "OperationCounts"));
+            Map<String, Long> counts = graph.getOperationCounts();
+            assertEquals(2L, counts.get("ADD"));
+            assertEquals(graph.getOperationCounts().keySet(), graph.getMeanLatencyNanos().keySet());
+            server.invoke(name, "reset", null, null);
+            assertEquals(0L, graph.getOperationCounts().get("ADD"));
+        } finally {
+            graph.unregister();
+        }
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+        assertThrows(IllegalArgumentException.class, () -> new InstrumentedGraph<>(null));
+    }
+}
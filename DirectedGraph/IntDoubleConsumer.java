@@ -0,0 +1,17 @@
+/**
+ * An action on a vertex id and a double edge weight, used to visit neighbors of an
+ * IntDoubleGraph without boxing.
+ *
+ * @author mfullhart20@georgefox.edu
+ */
+@FunctionalInterface
+public interface IntDoubleConsumer
+{
+    /**
+     * Performs the action.
+     *
+     * @param v the vertex id
+     * @param weight the edge weight
+     */
+    void accept(int v, double weight);
+}
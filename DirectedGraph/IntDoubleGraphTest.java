@@ -0,0 +1,131 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+class IntDoubleGraphTest {
+    private IntDoubleGraph graph;
+
+    @BeforeEach
+    void setUp() {
+        graph = new IntDoubleGraph();
+    }
+
+    // Test adding and removing vertices
+    @Test
+    void testAddAndRemoveVertex() {
+        graph.add(3);
+        assertTrue(graph.contains(3));
+        assertFalse(graph.contains(2));
+        assertEquals(1, graph.size());
+        assertThrows(DuplicateVertexException.class, () -> graph.add(3));
+        assertThrows(IllegalArgumentException.class, () -> graph.add(-1));
+        assertEquals(3, graph.remove(3));
+        assertFalse(graph.contains(3));
+        assertThrows(NoSuchVertexException.class, () -> graph.remove(3));
+        assertTrue(graph.isEmpty());
+    }
+
+    // Test edge operations
+    @Test
+    void testEdgeOperations() {
+        graph.add(0);
+        graph.add(1);
+        graph.addEdge(0, 1, 2.5);
+        assertTrue(graph.containsEdge(0, 1));
+        assertFalse(graph.containsEdge(1, 0));
+        assertEquals(2.5, graph.getWeight(0, 1));
+        graph.setWeight(0, 1, 3.5);
+        assertEquals(3.5, graph.getWeight(0, 1));
+        assertThrows(DuplicateEdgeException.class, () -> graph.addEdge(0, 1, 1.0));
+        assertThrows(NoSuchVertexException.class, () -> graph.addEdge(0, 99, 1.0));
+        assertThrows(NoSuchEdgeException.class, () -> graph.getWeight(1, 0));
+        assertEquals(1, graph.degree(0));
+        assertEquals(1, graph.inDegree(1));
+        assertEquals(3.5, graph.removeEdge(0, 1));
+        assertEquals(0, graph.edgeCount());
+    }
+
+    // Test removing a vertex removes its edges in both directions
+    @Test
+    void testRemoveVertexRemovesEdges() {
+        for (int v = 0; v < 4; v++) {
+            graph.add(v);
+        }
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 2, 2);
+        graph.addEdge(2, 1, 3);
+        graph.addEdge(1, 1, 4);
+        graph.addEdge(3, 2, 5);
+        graph.remove(1);
+        assertEquals(1, graph.edgeCount());
+        assertEquals(0, graph.degree(0));
+        assertEquals(0, graph.degree(2));
+        assertEquals(5, graph.getWeight(3, 2));
+    }
+
+    // Test the visitors
+    @Test
+    void testVisitors() {
+        for (int v = 0; v < 3; v++) {
+            graph.add(v);
+        }
+        graph.addEdge(0, 1, 1.5);
+        graph.addEdge(0, 2, 2.5);
+        graph.addEdge(2, 1, 3.5);
+        Map<Integer, Double> neighbors = new HashMap<>();
+        graph.forEachNeighbor(0, neighbors::put);
+        assertEquals(Map.of(1, 1.5, 2, 2.5), neighbors);
+        List<Integer> incoming = new ArrayList<>();
+        graph.forEachIncoming(1, incoming::add);
+        assertEquals(2, incoming.size());
+        List<Integer> vertices = new ArrayList<>();
+        graph.forEachVertex(vertices::add);
+        assertEquals(List.of(0, 1, 2), vertices);
+    }
+
+    // Test weights follow their edges when rows are compacted
+    @Test
+    void testMatchesListGraph() {
+        Random random = new Random(5);
+        ListGraph<Integer, Double> reference = new ListGraph<>();
+        for (int v = 0; v < 100; v++) {
+            graph.add(v);
+            reference.add(v);
+        }
+        for (int i = 0; i < 5000; i++) {
+            int u = random.nextInt(100);
+            int v = random.nextInt(100);
+            if (random.nextInt(3) == 0) {
+                if (reference.containsEdge(u, v)) {
+                    assertEquals(reference.removeEdge(u, v), graph.removeEdge(u, v));
+                }
+            } else if (!reference.containsEdge(u, v)) {
+                double weight = random.nextDouble();
+                reference.addEdge(u, v, weight);
+                graph.addEdge(u, v, weight);
+            }
+        }
+        assertEquals(reference.edgeCount(), graph.edgeCount());
+        reference.edges().forEachRemaining(edge ->
+                assertEquals(edge.getLabel(), graph.getWeight(edge.getU(), edge.getV())));
+        IntDoubleGraph copy = IntDoubleGraph.copyOf(reference);
+        assertEquals(reference.edgeCount(), copy.edgeCount());
+    }
+
+    @Test
+    void testClear() {
+        graph.add(0);
+        graph.add(1);
+        graph.addEdge(0, 1, 1);
+        graph.clear();
+        assertTrue(graph.isEmpty());
+        assertEquals(0, graph.edgeCount());
+        graph.add(1);
+        assertEquals(0, graph.inDegree(1));
+    }
+}
@@ -0,0 +1,451 @@
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * The topology shared by the primitive-specialized graphs IntDoubleGraph and IntIntGraph.
+ * Vertices are non-negative int ids and every vertex keeps its outgoing destinations and its
+ * incoming sources in int arrays, so no vertex, edge or label object is ever allocated. The
+ * arrays grow to the largest id added, so ids should be dense.
+ *
+ * Subclasses keep the edge weights in arrays parallel to the outgoing destinations. The rows
+ * are unordered: removing an edge moves the last edge of the row into its slot, and the
+ * subclass is told through moveWeight() so its weights follow.
+ *
+ * @author mfullhart20@georgefox.edu
+ */
+public abstract class IntGraph
+{
+    // Initial number of vertex slots and initial capacity of a row
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int DEFAULT_ROW_CAPACITY = 4;
+    // Shared row of vertices without edges
+    private static final int[] EMPTY = new int[0];
+
+    // One bit per id, set if the vertex exists
+    private long[] _present;
+    // Outgoing destinations of each vertex, the first _degrees[v] entries are used
+    private int[][] _targets;
+    private int[] _degrees;
+    // Incoming sources of each vertex, the first _inDegrees[v] entries are used
+    private int[][] _sources;
+    private int[] _inDegrees;
+    // Number of vertices and edges
+    private int _size;
+    private int _edgeCount;
+
+    /**
+     * Constructs an empty graph.
+     */
+    protected IntGraph()
+    {
+        _present = new long[(DEFAULT_CAPACITY + 63) >>> 6];
+        _targets = new int[DEFAULT_CAPACITY][];
+        _degrees = new int[DEFAULT_CAPACITY];
+        _sources = new int[DEFAULT_CAPACITY][];
+        _inDegrees = new int[DEFAULT_CAPACITY];
+        Arrays.fill(_targets, EMPTY);
+        Arrays.fill(_sources, EMPTY);
+    }
+
+    /**
+     * Adds a vertex to the graph.
+     *
+     * @param v the id of the vertex to add
+     * @throws IllegalArgumentException throw IAE if the id is negative
+     * @throws DuplicateVertexException throw DVE if the vertex already exists
+     */
+    public void add(int v)
+    {
+        if (v < 0)
+        {
+            throw new IllegalArgumentException("Negative vertex id");
+        }
+        if (contains(v))
+        {
+            throw new DuplicateVertexException("Vertex already exists");
+        }
+
+        if (v >= _degrees.length)
+        {
+            int capacity = Math.max(v + 1, _degrees.length * 2);
+            _present = Arrays.copyOf(_present, (capacity + 63) >>> 6);
+            _targets = grow(_targets, capacity);
+            _degrees = Arrays.copyOf(_degrees, capacity);
+            _sources = grow(_sources, capacity);
+            _inDegrees = Arrays.copyOf(_inDegrees, capacity);
+            growVertices(capacity);
+        }
+
+        _present[v >>> 6] |= 1L << v;
+        _size++;
+    }
+
+    /**
+     * Checks if a vertex exists in the graph.
+     *
+     * @param v the id of the vertex to check
+     * @return true if the vertex exists, false otherwise
+     */
+    public boolean contains(int v)
+    {
+        return v >= 0 && v < _degrees.length && (_present[v >>> 6] & (1L << v)) != 0;
+    }
+
+    /**
+     * Removes a vertex and all associated edges from the graph.
+     *
+     * @param v the id of the vertex to remove
+     * @return the id of the removed vertex
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    public int remove(int v)
+    {
+        check(v);
+
+        while (_degrees[v] > 0)
+        {
+            deleteEdge(v, _degrees[v] - 1);
+        }
+        while (_inDegrees[v] > 0)
+        {
+            int u = _sources[v][_inDegrees[v] - 1];
+            deleteEdge(u, slotOf(u, v));
+        }
+
+        _targets[v] = EMPTY;
+        _sources[v] = EMPTY;
+        clearWeights(v);
+        _present[v >>> 6] &= ~(1L << v);
+        _size--;
+        return v;
+    }
+
+    /**
+     * Checks if an edge exists between two vertices.
+     *
+     * @param u the source vertex
+     * @param v the destination vertex
+     * @return true if the edge exists, false otherwise
+     * @throws NoSuchVertexException throw NSVE if either vertex does not exist
+     */
+    public boolean containsEdge(int u, int v)
+    {
+        check(u);
+        check(v);
+
+        return slotOf(u, v) >= 0;
+    }
+
+    /**
+     * Returns the number of vertices in the graph.
+     *
+     * @return the number of vertices
+     */
+    public int size()
+    {
+        return _size;
+    }
+
+    /**
+     * Returns the number of outgoing edges from a given vertex.
+     *
+     * @param v the vertex to check
+     * @return the degree of the vertex
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    public int degree(int v)
+    {
+        check(v);
+        return _degrees[v];
+    }
+
+    /**
+     * Returns the number of incoming edges of a given vertex.
+     *
+     * @param v the vertex to check
+     * @return the in-degree of the vertex
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    public int inDegree(int v)
+    {
+        check(v);
+        return _inDegrees[v];
+    }
+
+    /**
+     * Returns the total number of edges in the graph.
+     *
+     * @return the number of edges
+     */
+    public int edgeCount()
+    {
+        return _edgeCount;
+    }
+
+    /**
+     * Calls an action with every vertex in the graph, in increasing id order.
+     *
+     * @param action the action to call
+     */
+    public void forEachVertex(IntConsumer action)
+    {
+        for (int word = 0; word < _present.length; word++)
+        {
+            for (long bits = _present[word]; bits != 0; bits &= bits - 1)
+            {
+                action.accept((word << 6) + Long.numberOfTrailingZeros(bits));
+            }
+        }
+    }
+
+    /**
+     * Calls an action with every vertex that has an edge to the given vertex.
+     *
+     * @param v the destination vertex
+     * @param action the action to call
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    public void forEachIncoming(int v, IntConsumer action)
+    {
+        check(v);
+
+        int[] sources = _sources[v];
+        for (int i = 0; i < _inDegrees[v]; i++)
+        {
+            action.accept(sources[i]);
+        }
+    }
+
+    /**
+     * Clears the graph by removing all vertices and edges.
+     */
+    public void clear()
+    {
+        Arrays.fill(_present, 0);
+        Arrays.fill(_targets, EMPTY);
+        Arrays.fill(_degrees, 0);
+        Arrays.fill(_sources, EMPTY);
+        Arrays.fill(_inDegrees, 0);
+        for (int v = 0; v < _degrees.length; v++)
+        {
+            clearWeights(v);
+        }
+        _size = 0;
+        _edgeCount = 0;
+    }
+
+    /**
+     * Checks if the graph is empty.
+     *
+     * @return true if the graph has no vertices, false otherwise
+     */
+    public boolean isEmpty()
+    {
+        return _size == 0;
+    }
+
+    /**
+     * Returns the number of vertex slots, one more than the largest id that fits without
+     * growing.
+     *
+     * @return the vertex capacity
+     */
+    protected int capacity()
+    {
+        return _degrees.length;
+    }
+
+    /**
+     * Returns the outgoing destinations of a vertex. Only the first degree(v) entries are
+     * edges; the array is shared, not copied.
+     *
+     * @param v the vertex
+     * @return the row of destinations
+     */
+    protected int[] targets(int v)
+    {
+        return _targets[v];
+    }
+
+    /**
+     * Returns the incoming sources of a vertex. Only the first inDegree(v) entries are
+     * edges; the array is shared, not copied.
+     *
+     * @param v the vertex
+     * @return the row of sources
+     */
+    protected int[] sources(int v)
+    {
+        return _sources[v];
+    }
+
+    /**
+     * Throws if a vertex does not exist.
+     *
+     * @param v the vertex to check
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    protected void check(int v)
+    {
+        if (!contains(v))
+        {
+            throw new NoSuchVertexException("Vertex not found");
+        }
+    }
+
+    /**
+     * Finds the slot of an edge in the row of its source.
+     *
+     * @param u the source vertex
+     * @param v the destination vertex
+     * @return the slot of the edge, or -1 if there is no edge from u to v
+     */
+    protected int slotOf(int u, int v)
+    {
+        int[] targets = _targets[u];
+        for (int i = 0; i < _degrees[u]; i++)
+        {
+            if (targets[i] == v)
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Adds an edge to the topology. The caller stores the weight at the returned slot.
+     *
+     * @param u the source vertex
+     * @param v the destination vertex
+     * @return the slot of the new edge in the row of u
+     * @throws NoSuchVertexException throw NSVE if either vertex does not exist
+     * @throws DuplicateEdgeException throw DEE if the edge already exists
+     */
+    protected int insertEdge(int u, int v)
+    {
+        check(u);
+        check(v);
+
+        if (slotOf(u, v) >= 0)
+        {
+            throw new DuplicateEdgeException("Edge already exists");
+        }
+
+        int slot = _degrees[u];
+        if (slot == _targets[u].length)
+        {
+            int capacity = Math.max(DEFAULT_ROW_CAPACITY, slot * 2);
+            _targets[u] = Arrays.copyOf(_targets[u], capacity);
+            growWeights(u, capacity);
+        }
+        _targets[u][slot] = v;
+        _degrees[u]++;
+
+        if (_inDegrees[v] == _sources[v].length)
+        {
+            _sources[v] = Arrays.copyOf(_sources[v], Math.max(DEFAULT_ROW_CAPACITY, _inDegrees[v] * 2));
+        }
+        _sources[v][_inDegrees[v]++] = u;
+
+        _edgeCount++;
+        return slot;
+    }
+
+    /**
+     * Finds the slot of an edge that must exist.
+     *
+     * @param u the source vertex
+     * @param v the destination vertex
+     * @return the slot of the edge in the row of u
+     * @throws NoSuchVertexException throw NSVE if either vertex does not exist
+     * @throws NoSuchEdgeException throw NSEE if the edge does not exist
+     */
+    protected int edgeSlot(int u, int v)
+    {
+        check(u);
+        check(v);
+
+        int slot = slotOf(u, v);
+        if (slot < 0)
+        {
+            throw new NoSuchEdgeException("Edge not found");
+        }
+        return slot;
+    }
+
+    /**
+     * Removes the edge at a slot of a row. The last edge of the row moves into the slot.
+     *
+     * @param u the source vertex
+     * @param slot the slot of the edge in the row of u
+     */
+    protected void deleteEdge(int u, int slot)
+    {
+        int v = _targets[u][slot];
+        int last = --_degrees[u];
+
+        _targets[u][slot] = _targets[u][last];
+        moveWeight(u, last, slot);
+
+        int[] sources = _sources[v];
+        for (int i = 0; i < _inDegrees[v]; i++)
+        {
+            if (sources[i] == u)
+            {
+                sources[i] = sources[--_inDegrees[v]];
+                break;
+            }
+        }
+
+        _edgeCount--;
+    }
+
+    /**
+     * Grows the per-vertex weight storage after the vertex capacity grew.
+     *
+     * @param capacity the new number of vertex slots
+     */
+    protected abstract void growVertices(int capacity);
+
+    /**
+     * Grows the weight row of a vertex to match its row of destinations.
+     *
+     * @param v the vertex
+     * @param capacity the new capacity of the row
+     */
+    protected abstract void growWeights(int v, int capacity);
+
+    /**
+     * Moves a weight within the row of a vertex after an edge was removed: the last edge of
+     * the row moves into the slot of the removed one. from equals to when the removed edge was
+     * the last one. Slot from is no longer in use afterwards.
+     *
+     * @param v the vertex
+     * @param from the old slot of the moved edge, the last slot of the row
+     * @param to the slot of the removed edge
+     */
+    protected abstract void moveWeight(int v, int from, int to);
+
+    /**
+     * Releases the weight row of a vertex that lost all its edges.
+     *
+     * @param v the vertex
+     */
+    protected abstract void clearWeights(int v);
+
+    /**
+     * Grows a jagged array, filling the new rows with the shared empty row.
+     *
+     * @param rows the array to grow
+     * @param capacity the new number of rows
+     * @return the grown array
+     */
+    private static int[][] grow(int[][] rows, int capacity)
+    {
+        int length = rows.length;
+        int[][] grown = Arrays.copyOf(rows, capacity);
+        Arrays.fill(grown, length, capacity, EMPTY);
+        return grown;
+    }
+}
@@ -0,0 +1,17 @@
+/**
+ * An action on a vertex id and an int edge weight, used to visit neighbors of an IntIntGraph
+ * without boxing.
+ *
+ * @author mfullhart20@georgefox.edu
+ */
+@FunctionalInterface
+public interface IntIntConsumer
+{
+    /**
+     * Performs the action.
+     *
+     * @param v the vertex id
+     * @param weight the edge weight
+     */
+    void accept(int v, int weight);
+}
@@ -0,0 +1,157 @@
+import java.util.Arrays;
+
+/**
+ * A directed graph with int vertex ids and int edge weights, kept in primitive arrays so
+ * no edge operation boxes. It offers the operations of DirectedGraph with ids in place of
+ * vertex labels and weights in place of edge labels, and visits neighbors through callbacks
+ * that allocate nothing.
+ *
+ * @author mfullhart20@georgefox.edu
+ */
+public class IntIntGraph extends IntGraph
+{
+    // Shared row of vertices without edges
+    private static final int[] EMPTY = new int[0];
+
+    // Weights of each vertex's outgoing edges, parallel to its row of destinations
+    private int[][] _weights;
+
+    /**
+     * Constructs an empty IntIntGraph.
+     */
+    public IntIntGraph()
+    {
+        _weights = new int[capacity()][];
+        Arrays.fill(_weights, EMPTY);
+    }
+
+    /**
+     * Builds an IntIntGraph holding the same vertices and edges as a generic graph.
+     *
+     * @param graph the graph to copy; vertex labels must be non-negative and edge labels
+     *     are converted with intValue()
+     * @return a new IntIntGraph with the contents of the given graph
+     * @throws IllegalArgumentException throw IAE if the graph is null or has a negative vertex
+     */
+    public static IntIntGraph copyOf(DirectedGraph<Integer, ? extends Number> graph)
+    {
+        if (graph == null)
+        {
+            throw new IllegalArgumentException("Null graph");
+        }
+
+        IntIntGraph copy = new IntIntGraph();
+        graph.vertices(true).forEachRemaining(vertex -> copy.add(vertex.getLabel()));
+        graph.edges(true).forEachRemaining(edge ->
+                copy.addEdge(edge.getU(), edge.getV(), edge.getLabel().intValue()));
+        return copy;
+    }
+
+    /**
+     * Adds a directed edge between two vertices.
+     *
+     * @param u the source vertex
+     * @param v the destination vertex
+     * @param weight the weight of the edge
+     * @throws NoSuchVertexException throw NSVE if either vertex does not exist
+     * @throws DuplicateEdgeException throw DEE if the edge already exists
+     */
+    public void addEdge(int u, int v, int weight)
+    {
+        int slot = insertEdge(u, v);
+        _weights[u][slot] = weight;
+    }
+
+    /**
+     * Retrieves the weight of the edge between two vertices.
+     *
+     * @param u the source vertex
+     * @param v the destination vertex
+     * @return the weight of the edge
+     * @throws NoSuchVertexException throw NSVE if either vertex does not exist
+     * @throws NoSuchEdgeException throw NSEE if the edge does not exist
+     */
+    public int getWeight(int u, int v)
+    {
+        int slot = edgeSlot(u, v);
+        return _weights[u][slot];
+    }
+
+    /**
+     * Changes the weight of the edge between two vertices.
+     *
+     * @param u the source vertex
+     * @param v the destination vertex
+     * @param weight the new weight of the edge
+     * @throws NoSuchVertexException throw NSVE if either vertex does not exist
+     * @throws NoSuchEdgeException throw NSEE if the edge does not exist
+     */
+    public void setWeight(int u, int v, int weight)
+    {
+        int slot = edgeSlot(u, v);
+        _weights[u][slot] = weight;
+    }
+
+    /**
+     * Removes a directed edge between two vertices.
+     *
+     * @param u the source vertex
+     * @param v the destination vertex
+     * @return the weight of the removed edge
+     * @throws NoSuchVertexException throw NSVE if either vertex does not exist
+     * @throws NoSuchEdgeException throw NSEE if the edge does not exist
+     */
+    public int removeEdge(int u, int v)
+    {
+        int slot = edgeSlot(u, v);
+        int weight = _weights[u][slot];
+        deleteEdge(u, slot);
+        return weight;
+    }
+
+    /**
+     * Calls an action with every outgoing neighbor of a vertex and the weight of the edge to
+     * it. The graph must not be modified by the action.
+     *
+     * @param u the source vertex
+     * @param action the action to call
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    public void forEachNeighbor(int u, IntIntConsumer action)
+    {
+        int degree = degree(u);
+        int[] targets = targets(u);
+        int[] weights = _weights[u];
+
+        for (int i = 0; i < degree; i++)
+        {
+            action.accept(targets[i], weights[i]);
+        }
+    }
+
+    @Override
+    protected void growVertices(int capacity)
+    {
+        int length = _weights.length;
+        _weights = Arrays.copyOf(_weights, capacity);
+        Arrays.fill(_weights, length, capacity, EMPTY);
+    }
+
+    @Override
+    protected void growWeights(int v, int capacity)
+    {
+        _weights[v] = Arrays.copyOf(_weights[v], capacity);
+    }
+
+    @Override
+    protected void moveWeight(int v, int from, int to)
+    {
+        _weights[v][to] = _weights[v][from];
+    }
+
+    @Override
+    protected void clearWeights(int v)
+    {
+        _weights[v] = EMPTY;
+    }
+}
@@ -0,0 +1,47 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.HashMap;
+import java.util.Map;
+
+class IntIntGraphTest {
+    private IntIntGraph graph;
+
+    @BeforeEach
+    void setUp() {
+        graph = new IntIntGraph();
+        for (int v = 0; v < 3; v++) {
+            graph.add(v);
+        }
+        graph.addEdge(0, 1, 10);
+        graph.addEdge(0, 2, 20);
+    }
+
+    // Test edge operations
+    @Test
+    void testEdgeOperations() {
+        assertEquals(10, graph.getWeight(0, 1));
+        assertThrows(DuplicateEdgeException.class, () -> graph.addEdge(0, 1, 5));
+        assertEquals(10, graph.removeEdge(0, 1));
+        assertEquals(20, graph.getWeight(0, 2));
+        assertThrows(NoSuchEdgeException.class, () -> graph.removeEdge(0, 1));
+    }
+
+    // Test growing past the initial capacity
+    @Test
+    void testLargeIds() {
+        graph.add(1000);
+        graph.addEdge(1000, 0, 7);
+        assertEquals(7, graph.getWeight(1000, 0));
+        assertEquals(4, graph.size());
+    }
+
+    // Test the neighbor visitor
+    @Test
+    void testForEachNeighbor() {
+        Map<Integer, Integer> neighbors = new HashMap<>();
+        graph.forEachNeighbor(0, neighbors::put);
+        assertEquals(Map.of(1, 10, 2, 20), neighbors);
+        assertThrows(NoSuchVertexException.class, () -> graph.forEachNeighbor(5, neighbors::put));
+    }
+}
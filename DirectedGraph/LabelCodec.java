@@ -0,0 +1,103 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converts vertex or edge labels to and from bytes for GraphFile. Equal labels must encode
+ * to equal bytes, because a MappedGraph finds vertices by comparing encoded labels.
+ *
+ * @author mfullhart20@georgefox.edu
+ * @param <T> the type of the labels
+ */
+public interface LabelCodec<T>
+{
+    /**
+     * Encodes String labels as UTF-8.
+     */
+    LabelCodec<String> STRING = new LabelCodec<String>()
+    {
+        @Override
+        public byte[] encode(String label)
+        {
+            return label.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String decode(ByteBuffer buffer)
+        {
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+
+    /**
+     * Encodes Integer labels as four big-endian bytes.
+     */
+    LabelCodec<Integer> INTEGER = new LabelCodec<Integer>()
+    {
+        @Override
+        public byte[] encode(Integer label)
+        {
+            return ByteBuffer.allocate(Integer.BYTES).putInt(label).array();
+        }
+
+        @Override
+        public Integer decode(ByteBuffer buffer)
+        {
+            return buffer.getInt();
+        }
+    };
+
+    /**
+     * Encodes Long labels as eight big-endian bytes.
+     */
+    LabelCodec<Long> LONG = new LabelCodec<Long>()
+    {
+        @Override
+        public byte[] encode(Long label)
+        {
+            return ByteBuffer.allocate(Long.BYTES).putLong(label).array();
+        }
+
+        @Override
+        public Long decode(ByteBuffer buffer)
+        {
+            return buffer.getLong();
+        }
+    };
+
+    /**
+     * Encodes Double labels as eight big-endian bytes.
+     */
+    LabelCodec<Double> DOUBLE = new LabelCodec<Double>()
+    {
+        @Override
+        public byte[] encode(Double label)
+        {
+            return ByteBuffer.allocate(Double.BYTES).putDouble(label).array();
+        }
+
+        @Override
+        public Double decode(ByteBuffer buffer)
+        {
+            return buffer.getDouble();
+        }
+    };
+
+    /**
+     * Encodes a label.
+     *
+     * @param label the label to encode, never null
+     * @return the bytes of the label
+     */
+    byte[] encode(T label);
+
+    /**
+     * Decodes a label from the remaining bytes of a buffer.
+     *
+     * @param buffer a buffer positioned at the first byte of the label, with its limit at the
+     *     end of the label
+     * @return the decoded label
+     */
+    T decode(ByteBuffer buffer);
+}
@@ -2,7 +2,10 @@ import java.util.*;
 
 /**
  * A concrete implementation of the DirectedGraph class using an adjacency list
- * to represent edges. Each vertex maps to a list of its outgoing edges.
+ * to represent edges. Each vertex maps to a list of its outgoing edges, and to the set
+ * of vertices with an edge into it so that removing a vertex only touches its own edges.
+ * The outgoing list of a high-degree vertex is hash-indexed by destination (see Adjacency),
+ * so edge lookups, insertions and removals stay O(1) expected on hub vertices.
  *
  * @author mfullhart20@georgefox.edu
  * @param <V> the type of the vertex labels
@@ -11,7 +14,9 @@ import java.util.*;
 public class ListGraph<V, E> extends DirectedGraph<V, E>
 {
     // Maps each vertex to a list of its outgoing edges
-    private Map<V, List<Edge<V, E>>> _adjacencyList;
+    private Map<V, Adjacency<V, E>> _adjacencyList;
+    // Maps each vertex to the set of vertices with an edge into it
+    private Map<V, Set<V>> _incoming;
     // A set of all vertices in the graph
     private Set<V> _vertices;
     // Total number of edges in the graph
@@ -23,6 +28,7 @@ public class ListGraph<V, E> extends DirectedGraph<V, E>
     public ListGraph()
     {
         _adjacencyList = new HashMap<>();
+        _incoming = new HashMap<>();
         _vertices = new HashSet<>();
         _edgeCount = 0;
     }
@@ -47,7 +53,9 @@ public class ListGraph<V, E> extends DirectedGraph<V, E>
         }
 
         _vertices.add(v);
-        _adjacencyList.put(v, new ArrayList<>());
+        _modCount++;
+        _adjacencyList.put(v, new Adjacency<>());
+        _incoming.put(v, new HashSet<>());
     }
 
     /**
@@ -80,7 +88,8 @@ public class ListGraph<V, E> extends DirectedGraph<V, E>
     }
 
     /**
-     * Removes a vertex and all associated edges from the graph.
+     * Removes a vertex and all associated edges from the graph. Only the vertices adjacent to
+     * the removed vertex, in either direction, are visited.
      *
      * @param v the label of the vertex to remove
      * @return the label of the removed vertex
@@ -95,11 +104,26 @@ public class ListGraph<V, E> extends DirectedGraph<V, E>
         }
 
         _vertices.remove(v);
-        _adjacencyList.remove(v);
+        _modCount++;
+        Adjacency<V, E> outgoing = _adjacencyList.remove(v);
+        Set<V> incoming = _incoming.remove(v);
 
-        for (List<Edge<V, E>> edges : _adjacencyList.values())
+        for (Edge<V, E> edge : outgoing)
         {
-            edges.removeIf(edge -> edge.getV().equals(v));
+            if (!edge.getV().equals(v))
+            {
+                _incoming.get(edge.getV()).remove(v);
+            }
+        }
+        _edgeCount -= outgoing.size();
+
+        for (V u : incoming)
+        {
+            if (!u.equals(v))
+            {
+                _adjacencyList.get(u).remove(v);
+                _edgeCount--;
+            }
         }
 
         return v;
@@ -128,18 +152,104 @@ public class ListGraph<V, E> extends DirectedGraph<V, E>
             throw new NoSuchVertexException("Vertex not found");
         }
 
-        List<Edge<V, E>> edges = _adjacencyList.get(u);
+        Adjacency<V, E> edges = _adjacencyList.get(u);
+
+        if (edges.get(v) != null)
+        {
+            throw new DuplicateEdgeException("Edge already exists");
+        }
+
+        edges.append(new Edge<>(u, v, label));
+        _incoming.get(v).add(u);
+        _edgeCount++;
+        _modCount++;
+    }
+
+    /**
+     * Adds a batch of edges in one pass. The batch is grouped by source and sorted by
+     * destination (see EdgeBatch), so duplicates inside the batch are found without a scan per
+     * edge. Every edge is then checked against the graph before anything is added, each
+     * adjacency and each empty incoming set is sized once for its final size, and the edges
+     * are appended without further duplicate checks.
+     *
+     * @param edges the edges to add, in any order
+     * @param parallel true to sort the batch on several threads
+     * @throws IllegalArgumentException throw IAE if an edge or edge label is null
+     * @throws NoSuchVertexException throw NSVE if an edge references a missing vertex
+     * @throws DuplicateEdgeException throw DEE if an edge is repeated or already exists
+     */
+    @Override
+    public void addEdges(Iterable<Edge<V, E>> edges, boolean parallel)
+    {
+        Map<V, Integer> ids = new HashMap<>();
+        List<V> labels = new ArrayList<>();
+        EdgeBatch<V, E> batch = new EdgeBatch<>(edges, v ->
+        {
+            Integer id = ids.get(v);
+            if (id == null)
+            {
+                if (!_vertices.contains(v))
+                {
+                    throw new NoSuchVertexException("Vertex not found");
+                }
+                id = labels.size();
+                ids.put(v, id);
+                labels.add(v);
+            }
+            return id;
+        }, parallel);
 
-        for (Edge<V, E> edge : edges)
+        for (int u = 0; u < batch.groups(); u++)
         {
-            if (edge.getV().equals(v))
+            Adjacency<V, E> adjacency = _adjacencyList.get(labels.get(u));
+            if (adjacency.size() == 0)
             {
-                throw new DuplicateEdgeException("Edge already exists");
+                continue;
+            }
+            for (int p = batch.start(u); p < batch.end(u); p++)
+            {
+                if (adjacency.get(batch.edge(p).getV()) != null)
+                {
+                    throw new DuplicateEdgeException("Edge already exists");
+                }
             }
         }
 
-        edges.add(new Edge<>(u, v, label));
-        _edgeCount++;
+        // Resolve the incoming set of every vertex once, sizing the empty ones for their final
+        // in-degree
+        int[] inCounts = new int[batch.groups()];
+        for (int p = 0; p < batch.size(); p++)
+        {
+            inCounts[batch.target(p)]++;
+        }
+        List<Set<V>> incoming = new ArrayList<>(inCounts.length);
+        for (int v = 0; v < inCounts.length; v++)
+        {
+            Set<V> sources = _incoming.get(labels.get(v));
+            if (inCounts[v] > 0 && sources.isEmpty())
+            {
+                sources = new HashSet<>(Math.max(16, (int) (inCounts[v] / 0.75f) + 1));
+                _incoming.put(labels.get(v), sources);
+            }
+            incoming.add(sources);
+        }
+
+        for (int u = 0; u < batch.groups(); u++)
+        {
+            V source = labels.get(u);
+            Adjacency<V, E> adjacency = _adjacencyList.get(source);
+            adjacency.ensureCapacity(adjacency.size() + batch.end(u) - batch.start(u));
+
+            for (int p = batch.start(u); p < batch.end(u); p++)
+            {
+                Edge<V, E> edge = batch.edge(p);
+                adjacency.append(new Edge<>(source, edge.getV(), edge.getLabel()));
+                incoming.get(batch.target(p)).add(source);
+            }
+        }
+
+        _edgeCount += batch.size();
+        _modCount++;
     }
 
     /**
@@ -158,7 +268,7 @@ public class ListGraph<V, E> extends DirectedGraph<V, E>
             throw new NoSuchVertexException("Vertex not found");
         }
 
-        return _adjacencyList.get(u).stream().anyMatch(edge -> edge.getV().equals(v));
+        return _adjacencyList.get(u).get(v) != null;
     }
 
     /**
@@ -178,15 +288,14 @@ public class ListGraph<V, E> extends DirectedGraph<V, E>
             throw new NoSuchVertexException("Vertex not found");
         }
 
-        for (Edge<V, E> edge : _adjacencyList.get(u))
+        Edge<V, E> edge = _adjacencyList.get(u).get(v);
+
+        if (edge == null)
         {
-            if (edge.getV().equals(v))
-            {
-                return edge;
-            }
+            throw new NoSuchEdgeException("Edge not found");
         }
 
-        throw new NoSuchEdgeException("Edge not found");
+        return edge;
     }
 
     /**
@@ -206,21 +315,17 @@ public class ListGraph<V, E> extends DirectedGraph<V, E>
             throw new NoSuchEdgeException("Edge not found");
         }
 
-        List<Edge<V, E>> edges = _adjacencyList.get(u);
-        Iterator<Edge<V, E>> iterator = edges.iterator();
+        Edge<V, E> edge = _adjacencyList.get(u).remove(v);
 
-        while (iterator.hasNext())
+        if (edge == null)
         {
-            Edge<V, E> edge = iterator.next();
-            if (edge.getV().equals(v))
-            {
-                iterator.remove();
-                _edgeCount--;
-                return edge.getLabel();
-            }
+            throw new NoSuchEdgeException("Edge not found");
         }
 
-        throw new NoSuchEdgeException("Edge not found");
+        _incoming.get(v).remove(u);
+        _edgeCount--;
+        _modCount++;
+        return edge.getLabel();
     }
 
     /**
@@ -252,6 +357,24 @@ public class ListGraph<V, E> extends DirectedGraph<V, E>
         return _adjacencyList.get(v).size();
     }
 
+    /**
+     * Returns the number of incoming edges of a given vertex.
+     *
+     * @param v the vertex to check
+     * @return the in-degree of the vertex
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    @Override
+    public int inDegree(V v)
+    {
+        if (!_vertices.contains(v))
+        {
+            throw new NoSuchVertexException("Vertex not found");
+        }
+
+        return _incoming.get(v).size();
+    }
+
     /**
      * Returns the total number of edges in the graph.
      *
@@ -264,24 +387,33 @@ public class ListGraph<V, E> extends DirectedGraph<V, E>
     }
 
     /**
-     * Returns an iterator over all vertices in the graph.
+     * Returns an iterator over all vertices in the graph. The iterator walks the vertex set
+     * directly and fails fast if the graph is modified.
      *
      * @return an iterator over Vertex<V> objects
      */
     @Override
     public Iterator<Vertex<V>> vertices()
     {
-        List<Vertex<V>> vertexList = new ArrayList<>();
+        return vertices(false);
+    }
 
-        for (V v : _vertices)
-        {
-            vertexList.add(new Vertex<>(v));
-        }
-        return vertexList.iterator();
+    /**
+     * Returns an iterator over all vertices in the graph, optionally reusing one flyweight
+     * Vertex for the whole iteration.
+     *
+     * @param flyweight true to reuse one Vertex object for the whole iteration
+     * @return an iterator over Vertex<V> objects
+     */
+    @Override
+    public Iterator<Vertex<V>> vertices(boolean flyweight)
+    {
+        return new LabelIterator(_vertices.iterator(), flyweight);
     }
 
     /**
-     * Returns an iterator over all vertices adjacent to the given vertex.
+     * Returns an iterator over all vertices adjacent to the given vertex. The iterator walks
+     * the vertex's adjacency directly and fails fast if the graph is modified.
      *
      * @param v the source vertex
      * @return an iterator over adjacent Vertex<V> objects
@@ -289,37 +421,93 @@ public class ListGraph<V, E> extends DirectedGraph<V, E>
      */
     @Override
     public Iterator<Vertex<V>> adjacent(V v)
+    {
+        return adjacent(v, false);
+    }
+
+    /**
+     * Returns an iterator over all vertices adjacent to the given vertex, optionally reusing
+     * one flyweight Vertex for the whole iteration.
+     *
+     * @param v the source vertex
+     * @param flyweight true to reuse one Vertex object for the whole iteration
+     * @return an iterator over adjacent Vertex<V> objects
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    @Override
+    public Iterator<Vertex<V>> adjacent(V v, boolean flyweight)
     {
         if (!_vertices.contains(v))
         {
             throw new NoSuchVertexException("Vertex not found");
         }
 
-        List<Vertex<V>> adjList = new ArrayList<>();
+        Iterator<Edge<V, E>> edges = _adjacencyList.get(v).iterator();
+        return new LabelIterator(new Iterator<V>()
+        {
+            @Override
+            public boolean hasNext()
+            {
+                return edges.hasNext();
+            }
 
-        for (Edge<V, E> edge : _adjacencyList.get(v))
+            @Override
+            public V next()
+            {
+                return edges.next().getV();
+            }
+        }, flyweight);
+    }
+
+    /**
+     * Returns an iterator over all vertices that have an edge to the given vertex.
+     *
+     * @param v the destination vertex
+     * @return an iterator over Vertex<V> objects with an edge to v
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    @Override
+    public Iterator<Vertex<V>> incoming(V v)
+    {
+        if (!_vertices.contains(v))
         {
-            adjList.add(new Vertex<>(edge.getV()));
+            throw new NoSuchVertexException("Vertex not found");
         }
-        return adjList.iterator();
+
+        return new LabelIterator(_incoming.get(v).iterator(), false);
     }
 
     /**
-     * Returns an iterator over all edges in the graph.
+     * Returns an iterator over all edges in the graph. The stored Edge objects are returned
+     * as they are, so the iteration allocates nothing per edge.
      *
      * @return an iterator over Edge<V, E> objects
      */
     @Override
     public Iterator<Edge<V, E>> edges()
     {
-        List<Edge<V, E>> edgeList = new ArrayList<>();
+        Iterator<Adjacency<V, E>> adjacencies = _adjacencyList.values().iterator();
 
-        for (List<Edge<V, E>> edges : _adjacencyList.values())
+        return new GraphIterator<Edge<V, E>>()
         {
-            edgeList.addAll(edges);
-        }
+            private Iterator<Edge<V, E>> _current = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext()
+            {
+                while (!_current.hasNext() && adjacencies.hasNext())
+                {
+                    _current = adjacencies.next().iterator();
+                }
+                return _current.hasNext();
+            }
 
-        return edgeList.iterator();
+            @Override
+            protected Edge<V, E> nextElement()
+            {
+                return _current.next();
+            }
+        };
     }
 
     /**
@@ -329,8 +517,10 @@ public class ListGraph<V, E> extends DirectedGraph<V, E>
     public void clear()
     {
         _adjacencyList.clear();
+        _incoming.clear();
         _vertices.clear();
         _edgeCount = 0;
+        _modCount++;
     }
 
     /**
@@ -1,7 +1,10 @@
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.List;
 
 class ListGraphTest {
     private ListGraph<String, Integer> graph;
@@ -291,4 +294,132 @@ class ListGraphTest {
         graph.clear();
         assertTrue(graph.isEmpty());
     }
+
+    // Test incoming edges and in-degree
+    @Test
+    void testIncomingAndInDegree() {
+        graph.add("A");
+        graph.add("B");
+        graph.add("C");
+        graph.addEdge("A", "C", 1);
+        graph.addEdge("B", "C", 2);
+        graph.addEdge("C", "C", 3);
+        assertEquals(3, graph.inDegree("C"));
+        assertEquals(0, graph.inDegree("A"));
+        List<String> sources = new ArrayList<>();
+        graph.incoming("C").forEachRemaining(vertex -> sources.add(vertex.getLabel()));
+        assertTrue(sources.containsAll(List.of("A", "B", "C")));
+        graph.removeEdge("B", "C");
+        assertEquals(2, graph.inDegree("C"));
+    }
+
+    @Test
+    void testIncomingNonExistentVertexThrowsException() {
+        assertThrows(NoSuchVertexException.class, () -> graph.incoming("A"));
+        assertThrows(NoSuchVertexException.class, () -> graph.inDegree("A"));
+    }
+
+    // Test removing a vertex drops its edges in both directions, including self-loops
+    @Test
+    void testRemoveVertexUpdatesIncoming() {
+        graph.add("A");
+        graph.add("B");
+        graph.add("C");
+        graph.addEdge("A", "B", 1);
+        graph.addEdge("B", "C", 2);
+        graph.addEdge("B", "B", 3);
+        graph.addEdge("C", "B", 4);
+        graph.remove("B");
+        assertEquals(0, graph.edgeCount());
+        assertEquals(0, graph.degree("A"));
+        assertEquals(0, graph.degree("C"));
+        assertEquals(0, graph.inDegree("C"));
+        assertFalse(graph.incoming("C").hasNext());
+    }
+
+    // Test a hub vertex whose adjacency switches to the hash index
+    @Test
+    void testHighDegreeVertex() {
+        graph.add("hub");
+        for (int i = 0; i < 200; i++) {
+            graph.add("v" + i);
+            graph.addEdge("hub", "v" + i, i);
+        }
+        assertEquals(200, graph.degree("hub"));
+        assertThrows(DuplicateEdgeException.class, () -> graph.addEdge("hub", "v7", 0));
+        for (int i = 0; i < 200; i += 2) {
+            assertEquals(i, graph.removeEdge("hub", "v" + i));
+        }
+        assertEquals(100, graph.degree("hub"));
+        for (int i = 0; i < 200; i++) {
+            assertEquals(i % 2 == 1, graph.containsEdge("hub", "v" + i));
+        }
+        assertEquals(51, graph.getEdge("hub", "v51").getLabel());
+        graph.remove("v51");
+        assertEquals(99, graph.degree("hub"));
+        assertEquals(99, graph.edgeCount());
+    }
+
+    // Test shrinking a hashed adjacency back below the threshold
+    @Test
+    void testHighDegreeVertexShrinks() {
+        graph.add("hub");
+        for (int i = 0; i < 20; i++) {
+            graph.add("v" + i);
+            graph.addEdge("hub", "v" + i, i);
+        }
+        for (int i = 0; i < 18; i++) {
+            graph.removeEdge("hub", "v" + i);
+        }
+        assertTrue(graph.containsEdge("hub", "v18"));
+        assertTrue(graph.containsEdge("hub", "v19"));
+        assertEquals(2, graph.degree("hub"));
+        graph.addEdge("hub", "v0", 0);
+        assertEquals(3, graph.degree("hub"));
+    }
+
+    // Test iterators fail fast when the graph is modified
+    @Test
+    void testIteratorFailsFastAfterModification() {
+        graph.add("A");
+        graph.add("B");
+        graph.addEdge("A", "B", 10);
+        Iterator<Vertex<String>> vertices = graph.vertices();
+        Iterator<Edge<String, Integer>> edges = graph.edges();
+        graph.add("C");
+        assertThrows(ConcurrentModificationException.class, vertices::next);
+        assertThrows(ConcurrentModificationException.class, edges::next);
+    }
+
+    // Test flyweight iteration reuses one view object
+    @Test
+    void testFlyweightIteration() {
+        graph.add("A");
+        graph.add("B");
+        graph.add("C");
+        graph.addEdge("A", "B", 10);
+        graph.addEdge("A", "C", 20);
+        Iterator<Vertex<String>> it = graph.adjacent("A", true);
+        Vertex<String> first = it.next();
+        String firstLabel = first.getLabel();
+        Vertex<String> second = it.next();
+        assertSame(first, second);
+        assertNotEquals(firstLabel, second.getLabel());
+        List<String> labels = new ArrayList<>();
+        graph.vertices(true).forEachRemaining(vertex -> labels.add(vertex.getLabel()));
+        assertTrue(labels.containsAll(List.of("A", "B", "C")));
+    }
+
+    // Test stream accessors
+    @Test
+    void testStreams() {
+        graph.add("A");
+        graph.add("B");
+        graph.add("C");
+        graph.addEdge("A", "B", 10);
+        graph.addEdge("B", "C", 20);
+        assertEquals(3, graph.vertexStream().count());
+        assertEquals(1, graph.adjacentStream("A").count());
+        assertEquals(30, graph.edgeStream().mapToInt(Edge::getLabel).sum());
+    }
 }
@@ -0,0 +1,634 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A read-only graph served straight from a file written by GraphFile. Opening the graph only
+ * reads the header and maps each section of the file, so startup does not depend on the size
+ * of the graph and nothing is copied onto the heap; the operating system pages sections in
+ * as they are touched.
+ *
+ * Vertex lookups probe the on-disk hash table and compare encoded labels, edge lookups binary
+ * search the sorted row of the source, and labels are decoded only when a Vertex or Edge is
+ * handed out. Every mutator throws UnsupportedOperationException. Each section must be
+ * smaller than 2 GB, which is the limit of a single mapping.
+ *
+ * @author mfullhart20@georgefox.edu
+ * @param <V> the type of the vertex labels
+ * @param <E> the type of the edge labels
+ */
+public class MappedGraph<V, E> extends DirectedGraph<V, E>
+{
+    // Decodes the vertex and edge labels
+    private final LabelCodec<V> _vertexCodec;
+    private final LabelCodec<E> _edgeCodec;
+    // Number of vertices and edges
+    private final int _n;
+    private final int _m;
+    // The mapped sections, see GraphFile for the layout
+    private final LongBuffer _vertexOffsets;
+    private final ByteBuffer _vertexBytes;
+    private final IntBuffer _table;
+    private final IntBuffer _offsets;
+    private final IntBuffer _targets;
+    private final IntBuffer _inOffsets;
+    private final IntBuffer _sources;
+    private final LongBuffer _edgeOffsets;
+    private final ByteBuffer _edgeBytes;
+
+    /**
+     * Maps the sections of an open graph file.
+     *
+     * @param channel the open file
+     * @param vertexCodec decodes the vertex labels
+     * @param edgeCodec decodes the edge labels
+     * @throws IOException if the file is not a graph file or cannot be mapped
+     */
+    private MappedGraph(FileChannel channel, LabelCodec<V> vertexCodec, LabelCodec<E> edgeCodec)
+            throws IOException
+    {
+        _vertexCodec = vertexCodec;
+        _edgeCodec = edgeCodec;
+
+        if (channel.size() < GraphFile.HEADER_SIZE)
+        {
+            throw new IOException("Not a graph file");
+        }
+        ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, GraphFile.HEADER_SIZE);
+        if (header.getInt() != GraphFile.MAGIC)
+        {
+            throw new IOException("Not a graph file");
+        }
+        if (header.getInt() != GraphFile.VERSION)
+        {
+            throw new IOException("Unsupported graph file version");
+        }
+        _n = header.getInt();
+        _m = header.getInt();
+        int tableSize = header.getInt();
+        long vertexLength = header.getLong();
+        long edgeLength = header.getLong();
+
+        long position = GraphFile.HEADER_SIZE;
+        long expected = position + (long) Long.BYTES * (_n + 1) + vertexLength
+                + (long) Integer.BYTES * (tableSize + 2L * (_n + 1) + 2L * _m)
+                + (long) Long.BYTES * (_m + 1) + edgeLength;
+        if (channel.size() != expected)
+        {
+            throw new IOException("Truncated or corrupt graph file");
+        }
+
+        _vertexOffsets = map(channel, position, (long) Long.BYTES * (_n + 1)).asLongBuffer();
+        position += (long) Long.BYTES * (_n + 1);
+        _vertexBytes = map(channel, position, vertexLength);
+        position += vertexLength;
+        _table = map(channel, position, (long) Integer.BYTES * tableSize).asIntBuffer();
+        position += (long) Integer.BYTES * tableSize;
+        _offsets = map(channel, position, (long) Integer.BYTES * (_n + 1)).asIntBuffer();
+        position += (long) Integer.BYTES * (_n + 1);
+        _targets = map(channel, position, (long) Integer.BYTES * _m).asIntBuffer();
+        position += (long) Integer.BYTES * _m;
+        _inOffsets = map(channel, position, (long) Integer.BYTES * (_n + 1)).asIntBuffer();
+        position += (long) Integer.BYTES * (_n + 1);
+        _sources = map(channel, position, (long) Integer.BYTES * _m).asIntBuffer();
+        position += (long) Integer.BYTES * _m;
+        _edgeOffsets = map(channel, position, (long) Long.BYTES * (_m + 1)).asLongBuffer();
+        position += (long) Long.BYTES * (_m + 1);
+        _edgeBytes = map(channel, position, edgeLength);
+    }
+
+    /**
+     * Opens a graph file written by GraphFile. The file can be closed, moved or deleted by
+     * the caller afterwards; the mapping stays valid until the graph is garbage collected.
+     *
+     * @param path the file to open
+     * @param vertexCodec decodes the vertex labels, the same codec the file was written with
+     * @param edgeCodec decodes the edge labels, the same codec the file was written with
+     * @param <V> the type of the vertex labels
+     * @param <E> the type of the edge labels
+     * @return the mapped graph
+     * @throws IOException if the file cannot be read or is not a graph file
+     * @throws IllegalArgumentException throw IAE if an argument is null
+     */
+    public static <V, E> MappedGraph<V, E> open(Path path, LabelCodec<V> vertexCodec,
+                                                LabelCodec<E> edgeCodec) throws IOException
+    {
+        if (path == null || vertexCodec == null || edgeCodec == null)
+        {
+            throw new IllegalArgumentException("Null argument");
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+        {
+            return new MappedGraph<>(channel, vertexCodec, edgeCodec);
+        }
+    }
+
+    /**
+     * Maps one section of the file.
+     *
+     * @param channel the open file
+     * @param position the offset of the section
+     * @param length the length of the section in bytes
+     * @return a read-only buffer over the section
+     * @throws IOException if the section cannot be mapped
+     */
+    private static ByteBuffer map(FileChannel channel, long position, long length) throws IOException
+    {
+        if (length > Integer.MAX_VALUE)
+        {
+            throw new IOException("Graph file section too large to map");
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+    }
+
+    /**
+     * Mapped graphs are read-only.
+     *
+     * @param v unused
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void add(V v)
+    {
+        throw new UnsupportedOperationException("Mapped graphs are read-only");
+    }
+
+    /**
+     * Checks if a vertex exists in the graph.
+     *
+     * @param v the label of the vertex to check
+     * @return true if the vertex exists, false otherwise
+     */
+    @Override
+    public boolean contains(V v)
+    {
+        return v != null && find(v) >= 0;
+    }
+
+    /**
+     * Retrieves the vertex object corresponding to the given label.
+     *
+     * @param v the label of the vertex to retrieve
+     * @return the vertex object
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    @Override
+    public Vertex<V> get(V v)
+    {
+        indexOf(v);
+        return new Vertex<>(v);
+    }
+
+    /**
+     * Mapped graphs are read-only.
+     *
+     * @param v unused
+     * @return never
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public V remove(V v)
+    {
+        throw new UnsupportedOperationException("Mapped graphs are read-only");
+    }
+
+    /**
+     * Mapped graphs are read-only.
+     *
+     * @param u unused
+     * @param v unused
+     * @param label unused
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void addEdge(V u, V v, E label)
+    {
+        throw new UnsupportedOperationException("Mapped graphs are read-only");
+    }
+
+    /**
+     * Checks if an edge exists between two vertices.
+     *
+     * @param u the source vertex
+     * @param v the destination vertex
+     * @return true if the edge exists, false otherwise
+     * @throws NoSuchVertexException throw NSVE if either vertex does not exist
+     */
+    @Override
+    public boolean containsEdge(V u, V v)
+    {
+        return edgeIndex(indexOf(u), indexOf(v)) >= 0;
+    }
+
+    /**
+     * Retrieves the edge object between two vertices. The label is decoded on every call.
+     *
+     * @param u the source vertex
+     * @param v the destination vertex
+     * @return the edge object
+     * @throws NoSuchVertexException throw NSVE if either vertex does not exist
+     * @throws NoSuchEdgeException throw NSEE if the edge does not exist
+     */
+    @Override
+    public Edge<V, E> getEdge(V u, V v)
+    {
+        int e = edgeIndex(indexOf(u), indexOf(v));
+
+        if (e < 0)
+        {
+            throw new NoSuchEdgeException("Edge not found");
+        }
+
+        return new Edge<>(u, v, edgeLabel(e));
+    }
+
+    /**
+     * Mapped graphs are read-only.
+     *
+     * @param u unused
+     * @param v unused
+     * @return never
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public E removeEdge(V u, V v)
+    {
+        throw new UnsupportedOperationException("Mapped graphs are read-only");
+    }
+
+    /**
+     * Returns the number of vertices in the graph.
+     *
+     * @return the number of vertices
+     */
+    @Override
+    public int size()
+    {
+        return _n;
+    }
+
+    /**
+     * Returns the number of outgoing edges from a given vertex.
+     *
+     * @param v the vertex to check
+     * @return the degree of the vertex
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    @Override
+    public int degree(V v)
+    {
+        int id = indexOf(v);
+        return _offsets.get(id + 1) - _offsets.get(id);
+    }
+
+    /**
+     * Returns the number of incoming edges of a given vertex.
+     *
+     * @param v the vertex to check
+     * @return the in-degree of the vertex
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    @Override
+    public int inDegree(V v)
+    {
+        int id = indexOf(v);
+        return _inOffsets.get(id + 1) - _inOffsets.get(id);
+    }
+
+    /**
+     * Returns the total number of edges in the graph.
+     *
+     * @return the number of edges
+     */
+    @Override
+    public int edgeCount()
+    {
+        return _m;
+    }
+
+    /**
+     * Returns an iterator over all vertices in the graph, in id order.
+     *
+     * @return an iterator over Vertex<V> objects
+     */
+    @Override
+    public Iterator<Vertex<V>> vertices()
+    {
+        return vertices(false);
+    }
+
+    /**
+     * Returns an iterator over all vertices in the graph, optionally reusing one flyweight
+     * Vertex for the whole iteration.
+     *
+     * @param flyweight true to reuse one Vertex object for the whole iteration
+     * @return an iterator over Vertex<V> objects
+     */
+    @Override
+    public Iterator<Vertex<V>> vertices(boolean flyweight)
+    {
+        return new LabelIterator(new IdLabels(null, 0, _n), flyweight);
+    }
+
+    /**
+     * Returns an iterator over all vertices adjacent to the given vertex.
+     *
+     * @param v the source vertex
+     * @return an iterator over adjacent Vertex<V> objects
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    @Override
+    public Iterator<Vertex<V>> adjacent(V v)
+    {
+        return adjacent(v, false);
+    }
+
+    /**
+     * Returns an iterator over all vertices adjacent to the given vertex, optionally reusing
+     * one flyweight Vertex for the whole iteration.
+     *
+     * @param v the source vertex
+     * @param flyweight true to reuse one Vertex object for the whole iteration
+     * @return an iterator over adjacent Vertex<V> objects
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    @Override
+    public Iterator<Vertex<V>> adjacent(V v, boolean flyweight)
+    {
+        int id = indexOf(v);
+        return new LabelIterator(new IdLabels(_targets, _offsets.get(id), _offsets.get(id + 1)), flyweight);
+    }
+
+    /**
+     * Returns an iterator over all vertices that have an edge to the given vertex.
+     *
+     * @param v the destination vertex
+     * @return an iterator over Vertex<V> objects with an edge to v
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    @Override
+    public Iterator<Vertex<V>> incoming(V v)
+    {
+        int id = indexOf(v);
+        return new LabelIterator(new IdLabels(_sources, _inOffsets.get(id), _inOffsets.get(id + 1)), false);
+    }
+
+    /**
+     * Returns an iterator over all edges in the graph, grouped by source.
+     *
+     * @return an iterator over Edge<V, E> objects
+     */
+    @Override
+    public Iterator<Edge<V, E>> edges()
+    {
+        return edges(false);
+    }
+
+    /**
+     * Returns an iterator over all edges in the graph, optionally reusing one flyweight Edge
+     * for the whole iteration. Each source label is decoded once per row.
+     *
+     * @param flyweight true to reuse one Edge object for the whole iteration
+     * @return an iterator over Edge<V, E> objects
+     */
+    @Override
+    public Iterator<Edge<V, E>> edges(boolean flyweight)
+    {
+        return new EdgeIterator(flyweight)
+        {
+            // The source of the next edge, and its decoded label
+            private int _u = -1;
+            private V _source;
+            // The index of the next edge
+            private int _e = 0;
+
+            @Override
+            public boolean hasNext()
+            {
+                return _e < _m;
+            }
+
+            @Override
+            protected Edge<V, E> nextElement()
+            {
+                if (_u < 0 || _e >= _offsets.get(_u + 1))
+                {
+                    do
+                    {
+                        _u++;
+                    }
+                    while (_offsets.get(_u + 1) <= _e);
+                    _source = vertexLabel(_u);
+                }
+
+                int e = _e++;
+                return edge(_source, vertexLabel(_targets.get(e)), edgeLabel(e));
+            }
+        };
+    }
+
+    /**
+     * Mapped graphs are read-only.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void clear()
+    {
+        throw new UnsupportedOperationException("Mapped graphs are read-only");
+    }
+
+    /**
+     * Checks if the graph is empty.
+     *
+     * @return true if the graph has no vertices, false otherwise
+     */
+    @Override
+    public boolean isEmpty()
+    {
+        return _n == 0;
+    }
+
+    /**
+     * Finds the id of a vertex.
+     *
+     * @param v the vertex
+     * @return the id of the vertex
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    private int indexOf(V v)
+    {
+        int id = v == null ? -1 : find(v);
+
+        if (id < 0)
+        {
+            throw new NoSuchVertexException("Vertex not found");
+        }
+        return id;
+    }
+
+    /**
+     * Probes the hash table for a vertex.
+     *
+     * @param v the vertex, not null
+     * @return the id of the vertex, or -1 if it does not exist
+     */
+    private int find(V v)
+    {
+        byte[] key = _vertexCodec.encode(v);
+        int tableSize = _table.capacity();
+
+        for (int slot = GraphFile.home(key, tableSize); ; slot = (slot + 1) & (tableSize - 1))
+        {
+            int id = _table.get(slot) - 1;
+            if (id < 0)
+            {
+                return -1;
+            }
+            if (labelEquals(id, key))
+            {
+                return id;
+            }
+        }
+    }
+
+    /**
+     * Compares the stored label of a vertex with an encoded label.
+     *
+     * @param id the id of the vertex
+     * @param key the encoded label
+     * @return true if the stored bytes equal key, false otherwise
+     */
+    private boolean labelEquals(int id, byte[] key)
+    {
+        int from = (int) _vertexOffsets.get(id);
+        int to = (int) _vertexOffsets.get(id + 1);
+
+        if (to - from != key.length)
+        {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++)
+        {
+            if (_vertexBytes.get(from + i) != key[i])
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Binary searches the row of u for v.
+     *
+     * @param u the id of the source
+     * @param v the id of the destination
+     * @return the index of the edge in the targets section, or -1 if there is no such edge
+     */
+    private int edgeIndex(int u, int v)
+    {
+        int low = _offsets.get(u);
+        int high = _offsets.get(u + 1) - 1;
+
+        while (low <= high)
+        {
+            int middle = (low + high) >>> 1;
+            int target = _targets.get(middle);
+
+            if (target < v)
+            {
+                low = middle + 1;
+            }
+            else if (target > v)
+            {
+                high = middle - 1;
+            }
+            else
+            {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Decodes the label of a vertex.
+     *
+     * @param id the id of the vertex
+     * @return the label
+     */
+    private V vertexLabel(int id)
+    {
+        return _vertexCodec.decode(slice(_vertexBytes, _vertexOffsets.get(id), _vertexOffsets.get(id + 1)));
+    }
+
+    /**
+     * Decodes the label of an edge.
+     *
+     * @param e the index of the edge in the targets section
+     * @return the label
+     */
+    private E edgeLabel(int e)
+    {
+        return _edgeCodec.decode(slice(_edgeBytes, _edgeOffsets.get(e), _edgeOffsets.get(e + 1)));
+    }
+
+    /**
+     * Creates a view of a byte range of a section.
+     *
+     * @param bytes the section
+     * @param from the first byte of the range
+     * @param to one past the last byte of the range
+     * @return a buffer positioned at from with its limit at to
+     */
+    private static ByteBuffer slice(ByteBuffer bytes, long from, long to)
+    {
+        ByteBuffer view = bytes.duplicate();
+        view.limit((int) to).position((int) from);
+        return view;
+    }
+
+    /**
+     * Decodes the vertex labels of a range of ids, either the ids stored in a section or the
+     * ids themselves.
+     */
+    private class IdLabels implements Iterator<V>
+    {
+        // The section holding the ids, or null to walk the ids of the range directly
+        private final IntBuffer _ids;
+        // The next position and the end of the range
+        private int _next;
+        private final int _end;
+
+        private IdLabels(IntBuffer ids, int from, int to)
+        {
+            _ids = ids;
+            _next = from;
+            _end = to;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return _next < _end;
+        }
+
+        @Override
+        public V next()
+        {
+            if (_next >= _end)
+            {
+                throw new NoSuchElementException();
+            }
+            int position = _next++;
+            return vertexLabel(_ids == null ? position : _ids.get(position));
+        }
+    }
+}
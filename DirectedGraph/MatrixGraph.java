@@ -2,8 +2,14 @@ import java.util.*;
 
 /**
  * A concrete implementation of the DirectedGraph class using an adjacency matrix
- * to represent the edges. The vertices are stored in a list, and each vertex is mapped
- * to its index in the adjacency matrix.
+ * to represent the edges. Each vertex is mapped to a row and column index of the matrix.
+ *
+ * The matrix is stored sparsely: it is cut into square tiles of TILE_SIZE x TILE_SIZE cells,
+ * and only the tiles that hold at least one edge are materialized. Each tile keeps a 64-bit
+ * occupancy mask and a packed array holding the labels of its occupied cells, so memory grows
+ * with the number of edges rather than with the square of the number of vertices. Per-row
+ * and per-column edge counts make degree() and inDegree() O(1), and adjacent() and edges()
+ * visit occupied tiles only.
  *
  * @author mfullhart20@georgefox.edu
  * @param <V> the type of the vertex labels
@@ -11,28 +17,148 @@ import java.util.*;
  */
 public class MatrixGraph<V, E> extends DirectedGraph<V, E>
 {
+    // Tiles are TILE_SIZE x TILE_SIZE cells, so a whole tile fits in one long occupancy mask
+    private static final int TILE_SHIFT = 3;
+    private static final int TILE_SIZE = 1 << TILE_SHIFT;
+    private static final int TILE_MASK = TILE_SIZE - 1;
+    // Initial number of vertex slots
+    private static final int DEFAULT_CAPACITY = 16;
+
     // Maps each vertex to its index in the adjacency matrix
     private Map<V, Integer> _vertexIndex;
-    // List of all vertices in the graph
+    // Vertex labels by matrix index; removed vertices leave a null slot that is reused
     private List<V> _vertices;
-    // Adjacency matrix to store edges, where _adjacencyMatrix[i][j] contains the label of the edge
-    // from vertex i to vertex j
-    private E[][] _adjacencyMatrix;
+    // Matrix indexes freed by removed vertices
+    private Deque<Integer> _freeIndices;
+    // For each row of tiles, the materialized tiles of that row keyed by tile column
+    private Map<Integer, Tile>[] _tileRows;
+    // Number of outgoing edges of each matrix row
+    private int[] _degrees;
+    // Number of incoming edges of each matrix column
+    private int[] _inDegrees;
     // Total number of edges in the graph
     private int _edgeCount;
 
     /**
-     * Constructs an empty MatrixGraph with an initial adjacency matrix capacity of 10.
+     * A TILE_SIZE x TILE_SIZE block of the adjacency matrix holding at least one edge.
+     */
+    private static class Tile
+    {
+        // Bit (row * TILE_SIZE + column) is set when that cell of the tile holds an edge
+        private long _mask;
+        // Labels of the occupied cells, packed in bit order
+        private Object[] _labels = new Object[2];
+
+        /**
+         * Gets the position of a cell's label in the packed label array.
+         *
+         * @param bit the cell number within the tile
+         * @return the number of occupied cells before the given cell
+         */
+        private int rank(int bit)
+        {
+            return Long.bitCount(_mask & ((1L << bit) - 1));
+        }
+
+        /**
+         * Checks if a cell holds an edge.
+         *
+         * @param bit the cell number within the tile
+         * @return true if the cell is occupied, false otherwise
+         */
+        private boolean contains(int bit)
+        {
+            return (_mask & (1L << bit)) != 0;
+        }
+
+        /**
+         * Gets the label stored in a cell.
+         *
+         * @param bit the cell number within the tile
+         * @return the label, or null if the cell is empty
+         */
+        private Object get(int bit)
+        {
+            return contains(bit) ? _labels[rank(bit)] : null;
+        }
+
+        /**
+         * Stores a label in an empty cell.
+         *
+         * @param bit the cell number within the tile
+         * @param label the label to store
+         */
+        private void put(int bit, Object label)
+        {
+            int rank = rank(bit);
+            int count = Long.bitCount(_mask);
+
+            if (count == _labels.length)
+            {
+                _labels = Arrays.copyOf(_labels, Math.min(_labels.length * 2, TILE_SIZE * TILE_SIZE));
+            }
+
+            System.arraycopy(_labels, rank, _labels, rank + 1, count - rank);
+            _labels[rank] = label;
+            _mask |= 1L << bit;
+        }
+
+        /**
+         * Empties an occupied cell.
+         *
+         * @param bit the cell number within the tile
+         * @return the label that was stored in the cell
+         */
+        private Object remove(int bit)
+        {
+            int rank = rank(bit);
+            int count = Long.bitCount(_mask);
+            Object label = _labels[rank];
+
+            System.arraycopy(_labels, rank + 1, _labels, rank, count - rank - 1);
+            _labels[count - 1] = null;
+            _mask &= ~(1L << bit);
+            return label;
+        }
+
+        /**
+         * Gets the occupied columns of one row of the tile.
+         *
+         * @param row the row within the tile
+         * @return a mask with bit c set if column c of the row holds an edge
+         */
+        private int row(int row)
+        {
+            return (int) (_mask >>> (row * TILE_SIZE)) & ((1 << TILE_SIZE) - 1);
+        }
+    }
+
+    /**
+     * Constructs an empty MatrixGraph with room for 16 vertices before the tile index grows.
      */
-    @SuppressWarnings("unchecked")
     public MatrixGraph()
     {
         _vertexIndex = new HashMap<>();
         _vertices = new ArrayList<>();
-        _adjacencyMatrix = (E[][]) new Object[10][10];
+        _freeIndices = new ArrayDeque<>();
+        _tileRows = newTileRows(DEFAULT_CAPACITY);
+        _degrees = new int[DEFAULT_CAPACITY];
+        _inDegrees = new int[DEFAULT_CAPACITY];
         _edgeCount = 0;
     }
 
+    /**
+     * Allocates an empty tile index with room for the given number of vertices.
+     *
+     * @param capacity the number of vertex slots
+     * @return an array with one (initially absent) tile map per row of tiles
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Map<Integer, Tile>[] newTileRows(int capacity)
+    {
+        return (Map<Integer, Tile>[]) new Map[(capacity + TILE_MASK) >> TILE_SHIFT];
+    }
+
     /**
      * Adds a vertex to the graph.
      *
@@ -52,33 +178,126 @@ public class MatrixGraph<V, E> extends DirectedGraph<V, E>
             throw new DuplicateVertexException ("Vertex already exists");
         }
 
-        _vertexIndex.put(v, _vertices.size());
-        _vertices.add(v);
+        int index;
+        if (_freeIndices.isEmpty())
+        {
+            index = _vertices.size();
+            _vertices.add(v);
+        }
+        else
+        {
+            index = _freeIndices.pop();
+            _vertices.set(index, v);
+        }
+        _vertexIndex.put(v, index);
+        _modCount++;
 
-        // Resize the matrix if necessary
-        if (_vertices.size() > _adjacencyMatrix.length)
+        // Resize the tile index if necessary
+        if (index >= _degrees.length)
         {
             resizeMatrix();
         }
     }
 
     /**
-     * Resizes the adjacency matrix by doubling its size, copying existing edges to the new matrix.
+     * Resizes the matrix by doubling the number of vertex slots. Only the per-row index of
+     * tiles and the edge counts grow; the tiles themselves are shared with the old index.
      */
     private void resizeMatrix()
     {
-        int newSize = _adjacencyMatrix.length * 2;
+        int newSize = _degrees.length * 2;
+
+        _tileRows = Arrays.copyOf(_tileRows, (newSize + TILE_MASK) >> TILE_SHIFT);
+        _degrees = Arrays.copyOf(_degrees, newSize);
+        _inDegrees = Arrays.copyOf(_inDegrees, newSize);
+        _resizes++;
+    }
+
+    /**
+     * Gets the tile covering a cell of the matrix.
+     *
+     * @param row the matrix row
+     * @param column the matrix column
+     * @return the tile, or null if it has not been materialized
+     */
+    private Tile tile(int row, int column)
+    {
+        Map<Integer, Tile> tiles = _tileRows[row >> TILE_SHIFT];
+        return tiles == null ? null : tiles.get(column >> TILE_SHIFT);
+    }
+
+    /**
+     * Gets the bit number of a matrix cell inside its tile.
+     *
+     * @param row the matrix row
+     * @param column the matrix column
+     * @return the cell number within the tile
+     */
+    private static int bit(int row, int column)
+    {
+        return ((row & TILE_MASK) << TILE_SHIFT) | (column & TILE_MASK);
+    }
 
-        @SuppressWarnings("unchecked")
-        E[][] newMatrix = (E[][]) new Object[newSize][newSize];
+    /**
+     * Gets the label stored in a cell of the matrix.
+     *
+     * @param row the matrix row
+     * @param column the matrix column
+     * @return the label, or null if there is no edge
+     */
+    @SuppressWarnings("unchecked")
+    private E cell(int row, int column)
+    {
+        Tile tile = tile(row, column);
+        return tile == null ? null : (E) tile.get(bit(row, column));
+    }
 
-        for (int i = 0; i < _adjacencyMatrix.length; i++)
+    /**
+     * Stores an edge label in an empty cell of the matrix, materializing its tile if needed.
+     *
+     * @param row the matrix row
+     * @param column the matrix column
+     * @param label the label to store
+     */
+    private void setCell(int row, int column, E label)
+    {
+        Map<Integer, Tile> tiles = _tileRows[row >> TILE_SHIFT];
+        if (tiles == null)
         {
-            System.arraycopy(_adjacencyMatrix[i], 0, newMatrix[i], 0,
-                    _adjacencyMatrix.length);
+            tiles = new HashMap<>();
+            _tileRows[row >> TILE_SHIFT] = tiles;
         }
 
-        _adjacencyMatrix = newMatrix;
+        tiles.computeIfAbsent(column >> TILE_SHIFT, key -> new Tile()).put(bit(row, column), label);
+        _degrees[row]++;
+        _inDegrees[column]++;
+        _edgeCount++;
+        _modCount++;
+    }
+
+    /**
+     * Empties an occupied cell of the matrix, dropping its tile once the tile is empty.
+     *
+     * @param row the matrix row
+     * @param column the matrix column
+     * @return the label that was stored in the cell
+     */
+    @SuppressWarnings("unchecked")
+    private E clearCell(int row, int column)
+    {
+        Map<Integer, Tile> tiles = _tileRows[row >> TILE_SHIFT];
+        Tile tile = tiles.get(column >> TILE_SHIFT);
+        E label = (E) tile.remove(bit(row, column));
+
+        if (tile._mask == 0)
+        {
+            tiles.remove(column >> TILE_SHIFT);
+        }
+        _degrees[row]--;
+        _inDegrees[column]--;
+        _edgeCount--;
+        _modCount++;
+        return label;
     }
 
     /**
@@ -127,17 +346,63 @@ public class MatrixGraph<V, E> extends DirectedGraph<V, E>
         }
 
         int index = _vertexIndex.remove(v);
-        V removedVertex = _vertices.get(index);
-        _vertices.remove(index);
+        V removedVertex = _vertices.set(index, null);
+        _freeIndices.push(index);
+        _modCount++;
 
         // Update adjacency matrix
-        for (int i = 0; i < _adjacencyMatrix.length; i++)
+        clearRow(index);
+        clearColumn(index);
+
+        return removedVertex;
+    }
+
+    /**
+     * Removes every edge leaving the given matrix row.
+     *
+     * @param row the matrix row to clear
+     */
+    private void clearRow(int row)
+    {
+        Map<Integer, Tile> tiles = _tileRows[row >> TILE_SHIFT];
+        if (tiles == null || _degrees[row] == 0)
         {
-            _adjacencyMatrix[index][i] = null;
-            _adjacencyMatrix[i][index] = null;
+            return;
         }
 
-        return removedVertex;
+        for (Integer tileColumn : new ArrayList<>(tiles.keySet()))
+        {
+            int columns = tiles.get(tileColumn).row(row & TILE_MASK);
+            while (columns != 0)
+            {
+                int column = Integer.numberOfTrailingZeros(columns);
+                clearCell(row, (tileColumn << TILE_SHIFT) | column);
+                columns &= columns - 1;
+            }
+        }
+    }
+
+    /**
+     * Removes every edge entering the given matrix column.
+     *
+     * @param column the matrix column to clear
+     */
+    private void clearColumn(int column)
+    {
+        for (int tileRow = 0; tileRow < _tileRows.length && _inDegrees[column] > 0; tileRow++)
+        {
+            Map<Integer, Tile> tiles = _tileRows[tileRow];
+            Tile tile = tiles == null ? null : tiles.get(column >> TILE_SHIFT);
+
+            for (int row = 0; tile != null && row < TILE_SIZE; row++)
+            {
+                if (tile.contains(bit(row, column)))
+                {
+                    clearCell((tileRow << TILE_SHIFT) | row, column);
+                    tile = tiles.get(column >> TILE_SHIFT);
+                }
+            }
+        }
     }
 
     /**
@@ -165,13 +430,61 @@ public class MatrixGraph<V, E> extends DirectedGraph<V, E>
         int uIndex = _vertexIndex.get(u);
         int vIndex = _vertexIndex.get(v);
 
-        if (_adjacencyMatrix[uIndex][vIndex] != null)
+        if (cell(uIndex, vIndex) != null)
         {
             throw new DuplicateEdgeException("Edge already exists");
         }
 
-        _adjacencyMatrix[uIndex][vIndex] = label;
-        _edgeCount++;
+        setCell(uIndex, vIndex, label);
+    }
+
+    /**
+     * Adds a batch of edges in one pass. The batch is grouped by source and sorted by
+     * destination (see EdgeBatch) using the matrix indices of the vertices, so duplicates
+     * inside the batch are found without a lookup per edge, and every edge is checked against
+     * the matrix before anything is added. The sorted order then fills each row tile by tile.
+     *
+     * @param edges the edges to add, in any order
+     * @param parallel true to sort the batch on several threads
+     * @throws IllegalArgumentException throw IAE if an edge or edge label is null
+     * @throws NoSuchVertexException throw NSVE if an edge references a missing vertex
+     * @throws DuplicateEdgeException throw DEE if an edge is repeated or already exists
+     */
+    @Override
+    public void addEdges(Iterable<Edge<V, E>> edges, boolean parallel)
+    {
+        EdgeBatch<V, E> batch = new EdgeBatch<>(edges, v ->
+        {
+            Integer index = v == null ? null : _vertexIndex.get(v);
+            if (index == null)
+            {
+                throw new NoSuchVertexException("Vertex not found");
+            }
+            return index;
+        }, parallel);
+
+        for (int u = 0; u < batch.groups(); u++)
+        {
+            if (_degrees[u] == 0)
+            {
+                continue;
+            }
+            for (int p = batch.start(u); p < batch.end(u); p++)
+            {
+                if (cell(u, batch.target(p)) != null)
+                {
+                    throw new DuplicateEdgeException("Edge already exists");
+                }
+            }
+        }
+
+        for (int u = 0; u < batch.groups(); u++)
+        {
+            for (int p = batch.start(u); p < batch.end(u); p++)
+            {
+                setCell(u, batch.target(p), batch.edge(p).getLabel());
+            }
+        }
     }
 
     /**
@@ -192,7 +505,8 @@ public class MatrixGraph<V, E> extends DirectedGraph<V, E>
 
         int uIndex = _vertexIndex.get(u);
         int vIndex = _vertexIndex.get(v);
-        return _adjacencyMatrix[uIndex][vIndex] != null;
+        Tile tile = tile(uIndex, vIndex);
+        return tile != null && tile.contains(bit(uIndex, vIndex));
     }
 
     /**
@@ -215,7 +529,7 @@ public class MatrixGraph<V, E> extends DirectedGraph<V, E>
 
         int uIndex = _vertexIndex.get(u);
         int vIndex = _vertexIndex.get(v);
-        E label = _adjacencyMatrix[uIndex][vIndex];
+        E label = cell(uIndex, vIndex);
 
         if (label == null)
         {
@@ -244,16 +558,12 @@ public class MatrixGraph<V, E> extends DirectedGraph<V, E>
 
         int uIndex = _vertexIndex.get(u);
         int vIndex = _vertexIndex.get(v);
-        E label = _adjacencyMatrix[uIndex][vIndex];
-
-        if(label == null)
+        if (cell(uIndex, vIndex) == null)
         {
             throw new NoSuchEdgeException("Edge not found");
         }
 
-        _adjacencyMatrix[uIndex][vIndex] = null;
-        _edgeCount--;
-        return label;
+        return clearCell(uIndex, vIndex);
     }
 
     /**
@@ -264,7 +574,7 @@ public class MatrixGraph<V, E> extends DirectedGraph<V, E>
     @Override
     public int size()
     {
-        return _vertices.size();
+        return _vertexIndex.size();
     }
 
     /**
@@ -281,15 +591,25 @@ public class MatrixGraph<V, E> extends DirectedGraph<V, E>
             throw new NoSuchVertexException("Vertex not found");
         }
 
-        int index = _vertexIndex.get(v);
-        int degree = 0;
+        return _degrees[_vertexIndex.get(v)];
+    }
 
-        for (E edge : _adjacencyMatrix[index])
+    /**
+     * Gets the in-degree (number of incoming edges) of a vertex.
+     *
+     * @param v the label of the vertex
+     * @return the in-degree of the vertex
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    @Override
+    public int inDegree(V v)
+    {
+        if (!_vertexIndex.containsKey(v))
         {
-            if (edge != null) degree++;
+            throw new NoSuchVertexException("Vertex not found");
         }
 
-        return degree;
+        return _inDegrees[_vertexIndex.get(v)];
     }
 
     /**
@@ -312,13 +632,53 @@ public class MatrixGraph<V, E> extends DirectedGraph<V, E>
     @Override
     public Iterator<Vertex<V>> vertices()
     {
-        List<Vertex<V>> vertexList = new ArrayList<>();
-        for (V v : _vertices)
+        return vertices(false);
+    }
+
+    /**
+     * Returns an iterator over all vertices in the graph, optionally reusing one flyweight
+     * Vertex for the whole iteration. The iterator walks the vertex slots directly and fails
+     * fast if the graph is modified.
+     *
+     * @param flyweight true to reuse one Vertex object for the whole iteration
+     * @return an iterator over Vertex<V> objects
+     */
+    @Override
+    public Iterator<Vertex<V>> vertices(boolean flyweight)
+    {
+        return new LabelIterator(new Iterator<V>()
         {
-            vertexList.add(new Vertex<>(v));
-        }
+            private int _next = skipFree(0);
+
+            @Override
+            public boolean hasNext()
+            {
+                return _next < _vertices.size();
+            }
 
-        return vertexList.iterator();
+            @Override
+            public V next()
+            {
+                V label = _vertices.get(_next);
+                _next = skipFree(_next + 1);
+                return label;
+            }
+        }, flyweight);
+    }
+
+    /**
+     * Finds the first occupied vertex slot at or after an index.
+     *
+     * @param index the index to start from
+     * @return the index of the next vertex, or the number of slots if there is none
+     */
+    private int skipFree(int index)
+    {
+        while (index < _vertices.size() && _vertices.get(index) == null)
+        {
+            index++;
+        }
+        return index;
     }
 
     /**
@@ -331,6 +691,22 @@ public class MatrixGraph<V, E> extends DirectedGraph<V, E>
      */
     @Override
     public Iterator<Vertex<V>> adjacent(V v)
+    {
+        return adjacent(v, false);
+    }
+
+    /**
+     * Returns an iterator over all vertices adjacent to the given vertex, optionally reusing
+     * one flyweight Vertex for the whole iteration. Only the materialized tiles in the
+     * vertex's row of tiles are visited.
+     *
+     * @param v the source vertex
+     * @param flyweight true to reuse one Vertex object for the whole iteration
+     * @return an iterator over adjacent Vertex<V> objects
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist in the graph
+     */
+    @Override
+    public Iterator<Vertex<V>> adjacent(V v, boolean flyweight)
     {
         if (!_vertexIndex.containsKey(v))
         {
@@ -338,17 +714,89 @@ public class MatrixGraph<V, E> extends DirectedGraph<V, E>
         }
 
         int index = _vertexIndex.get(v);
-        List<Vertex<V>> adjList = new ArrayList<>();
+        Map<Integer, Tile> tiles = _tileRows[index >> TILE_SHIFT];
+        Iterator<Map.Entry<Integer, Tile>> entries = tiles == null || _degrees[index] == 0
+                ? Collections.emptyIterator() : tiles.entrySet().iterator();
 
-        for (int i = 0; i < _adjacencyMatrix[index].length; i++)
+        return new LabelIterator(new Iterator<V>()
         {
-            if (_adjacencyMatrix[index][i] != null)
+            // First column of the current tile, and its remaining occupied columns in the row
+            private int _base;
+            private int _columns;
+
+            @Override
+            public boolean hasNext()
             {
-                adjList.add(new Vertex<>(_vertices.get(i)));
+                while (_columns == 0 && entries.hasNext())
+                {
+                    Map.Entry<Integer, Tile> entry = entries.next();
+                    _base = entry.getKey() << TILE_SHIFT;
+                    _columns = entry.getValue().row(index & TILE_MASK);
+                }
+                return _columns != 0;
             }
+
+            @Override
+            public V next()
+            {
+                hasNext();
+                int column = _base | Integer.numberOfTrailingZeros(_columns);
+                _columns &= _columns - 1;
+                return _vertices.get(column);
+            }
+        }, flyweight);
+    }
+
+    /**
+     * Returns an iterator over all vertices that have an edge to the given vertex.
+     * Only the tiles in the vertex's column of tiles are visited.
+     *
+     * @param v the destination vertex
+     * @return an iterator over Vertex<V> objects with an edge to v
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist in the graph
+     */
+    @Override
+    public Iterator<Vertex<V>> incoming(V v)
+    {
+        if (!_vertexIndex.containsKey(v))
+        {
+            throw new NoSuchVertexException("Vertex not found");
         }
 
-        return adjList.iterator();
+        int index = _vertexIndex.get(v);
+
+        return new LabelIterator(new Iterator<V>()
+        {
+            // Number of sources returned so far, and the next matrix row to probe
+            private int _returned = 0;
+            private int _row = 0;
+
+            @Override
+            public boolean hasNext()
+            {
+                return _returned < _inDegrees[index];
+            }
+
+            @Override
+            public V next()
+            {
+                while (true)
+                {
+                    int row = _row++;
+                    Tile tile = tile(row, index);
+
+                    if (tile == null)
+                    {
+                        _row = (row | TILE_MASK) + 1;
+                    }
+                    else if (tile.contains(bit(row, index)))
+                    {
+                        _returned++;
+                        return _vertices.get(row);
+                    }
+                }
+            }
+        }, false);
     }
 
     /**
@@ -360,34 +808,87 @@ public class MatrixGraph<V, E> extends DirectedGraph<V, E>
     @Override
     public Iterator<Edge<V, E>> edges()
     {
-        List<Edge<V, E>> edgeList = new ArrayList<>();
+        return edges(false);
+    }
 
-        for (int i = 0; i < _vertices.size(); i++)
+    /**
+     * Returns an iterator over all edges in the graph, optionally reusing one flyweight Edge
+     * for the whole iteration. Only materialized tiles are visited, so the cost is proportional
+     * to the number of edges rather than to the matrix area.
+     *
+     * @param flyweight true to reuse one Edge object for the whole iteration
+     * @return an iterator over Edge<V, E> objects
+     */
+    @Override
+    public Iterator<Edge<V, E>> edges(boolean flyweight)
+    {
+        return new EdgeIterator(flyweight)
         {
-            for (int j = 0; j < _vertices.size(); j++)
+            // Next row of tiles to visit, and the tiles left in the current row of tiles
+            private int _tileRow = 0;
+            private Iterator<Map.Entry<Integer, Tile>> _entries = Collections.emptyIterator();
+            // The current tile, its first row and column, and its cells not yet returned
+            private Tile _tile;
+            private int _baseRow;
+            private int _baseColumn;
+            private long _mask;
+            private int _rank;
+
+            @Override
+            public boolean hasNext()
             {
-                E label = _adjacencyMatrix[i][j];
-                if (label != null)
+                while (_mask == 0)
                 {
-                    edgeList.add(new Edge<>(_vertices.get(i), _vertices.get(j), label));
+                    if (_entries.hasNext())
+                    {
+                        Map.Entry<Integer, Tile> entry = _entries.next();
+                        _tile = entry.getValue();
+                        _baseColumn = entry.getKey() << TILE_SHIFT;
+                        _mask = _tile._mask;
+                        _rank = 0;
+                    }
+                    else if (_tileRow < _tileRows.length)
+                    {
+                        Map<Integer, Tile> tiles = _tileRows[_tileRow];
+                        _baseRow = _tileRow << TILE_SHIFT;
+                        _entries = tiles == null ? Collections.emptyIterator() : tiles.entrySet().iterator();
+                        _tileRow++;
+                    }
+                    else
+                    {
+                        return false;
+                    }
                 }
+                return true;
             }
-        }
 
-        return edgeList.iterator();
+            @Override
+            @SuppressWarnings("unchecked")
+            protected Edge<V, E> nextElement()
+            {
+                int bit = Long.numberOfTrailingZeros(_mask);
+                _mask &= _mask - 1;
+                return edge(_vertices.get(_baseRow | (bit >> TILE_SHIFT)),
+                        _vertices.get(_baseColumn | (bit & TILE_MASK)), (E) _tile._labels[_rank++]);
+            }
+        };
     }
 
     /**
      * Clears the graph by removing all vertices and edges.
-     * Resets the adjacency matrix, vertex list, and edge count.
+     * Resets the tile index, vertex list, and edge count.
      */
     @Override
     public void clear()
     {
         _vertexIndex.clear();
         _vertices.clear();
-        _adjacencyMatrix = (E[][]) new Object[10][10];
+        _freeIndices.clear();
+        _tileRows = newTileRows(DEFAULT_CAPACITY);
+        _degrees = new int[DEFAULT_CAPACITY];
+        _inDegrees = new int[DEFAULT_CAPACITY];
         _edgeCount = 0;
+        _modCount++;
     }
 
     /**
@@ -398,6 +899,6 @@ public class MatrixGraph<V, E> extends DirectedGraph<V, E>
     @Override
     public boolean isEmpty()
     {
-        return _vertices.isEmpty();
+        return _vertexIndex.isEmpty();
     }
 }
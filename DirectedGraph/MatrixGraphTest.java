@@ -1,7 +1,10 @@
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.List;
 
 class MatrixGraphTest {
     private MatrixGraph<String, Integer> graph;
@@ -300,4 +303,148 @@ class MatrixGraphTest {
         graph.clear();
         assertTrue(graph.isEmpty());
     }
+
+    // Test a large, sparse graph only materializes the tiles it needs
+    @Test
+    void testLargeSparseGraph() {
+        MatrixGraph<Integer, Integer> sparse = new MatrixGraph<>();
+        for (int i = 0; i < 50000; i++) {
+            sparse.add(i);
+        }
+        for (int i = 0; i < 50000; i += 7) {
+            sparse.addEdge(i, (i * 31) % 50000, i);
+        }
+        assertEquals(7143, sparse.edgeCount());
+        assertTrue(sparse.containsEdge(49994, (49994 * 31) % 50000));
+        assertEquals(1, sparse.degree(49994));
+        assertEquals(0, sparse.degree(49995));
+        int count = 0;
+        Iterator<Edge<Integer, Integer>> it = sparse.edges();
+        while (it.hasNext()) {
+            Edge<Integer, Integer> edge = it.next();
+            assertEquals(edge.getU(), edge.getLabel());
+            count++;
+        }
+        assertEquals(7143, count);
+    }
+
+    // Test removing a vertex clears both its row and its column
+    @Test
+    void testRemoveVertexClearsRowAndColumn() {
+        graph.add("A");
+        graph.add("B");
+        graph.add("C");
+        graph.addEdge("A", "B", 1);
+        graph.addEdge("B", "C", 2);
+        graph.addEdge("C", "B", 3);
+        graph.addEdge("C", "A", 4);
+        graph.remove("B");
+        assertEquals(1, graph.edgeCount());
+        assertEquals(0, graph.degree("A"));
+        assertEquals(1, graph.degree("C"));
+        assertEquals(4, graph.getEdge("C", "A").getLabel());
+    }
+
+    // Test a freed matrix slot can be reused without inheriting old edges
+    @Test
+    void testReAddRemovedVertex() {
+        graph.add("A");
+        graph.add("B");
+        graph.addEdge("A", "B", 10);
+        graph.addEdge("B", "A", 20);
+        graph.remove("B");
+        graph.add("C");
+        assertEquals(0, graph.degree("C"));
+        assertFalse(graph.containsEdge("A", "C"));
+        assertFalse(graph.containsEdge("C", "A"));
+        assertEquals(2, graph.size());
+        assertEquals(0, graph.edgeCount());
+    }
+
+    // Test incoming edges and in-degree
+    @Test
+    void testIncomingAndInDegree() {
+        graph.add("A");
+        graph.add("B");
+        graph.add("C");
+        graph.addEdge("A", "C", 1);
+        graph.addEdge("B", "C", 2);
+        graph.addEdge("C", "C", 3);
+        assertEquals(3, graph.inDegree("C"));
+        assertEquals(0, graph.inDegree("A"));
+        List<String> sources = new ArrayList<>();
+        graph.incoming("C").forEachRemaining(vertex -> sources.add(vertex.getLabel()));
+        assertTrue(sources.containsAll(List.of("A", "B", "C")));
+        graph.removeEdge("B", "C");
+        assertEquals(2, graph.inDegree("C"));
+    }
+
+    @Test
+    void testIncomingNonExistentVertexThrowsException() {
+        assertThrows(NoSuchVertexException.class, () -> graph.incoming("A"));
+        assertThrows(NoSuchVertexException.class, () -> graph.inDegree("A"));
+    }
+
+    // Test removing a vertex drops its edges in both directions, including self-loops
+    @Test
+    void testRemoveVertexUpdatesIncoming() {
+        graph.add("A");
+        graph.add("B");
+        graph.add("C");
+        graph.addEdge("A", "B", 1);
+        graph.addEdge("B", "C", 2);
+        graph.addEdge("B", "B", 3);
+        graph.addEdge("C", "B", 4);
+        graph.remove("B");
+        assertEquals(0, graph.edgeCount());
+        assertEquals(0, graph.degree("A"));
+        assertEquals(0, graph.degree("C"));
+        assertEquals(0, graph.inDegree("C"));
+        assertFalse(graph.incoming("C").hasNext());
+    }
+
+    // Test iterators fail fast when the graph is modified
+    @Test
+    void testIteratorFailsFastAfterModification() {
+        graph.add("A");
+        graph.add("B");
+        graph.addEdge("A", "B", 10);
+        Iterator<Vertex<String>> vertices = graph.vertices();
+        Iterator<Edge<String, Integer>> edges = graph.edges();
+        graph.add("C");
+        assertThrows(ConcurrentModificationException.class, vertices::next);
+        assertThrows(ConcurrentModificationException.class, edges::next);
+    }
+
+    // Test flyweight iteration reuses one view object
+    @Test
+    void testFlyweightIteration() {
+        graph.add("A");
+        graph.add("B");
+        graph.add("C");
+        graph.addEdge("A", "B", 10);
+        graph.addEdge("A", "C", 20);
+        Iterator<Vertex<String>> it = graph.adjacent("A", true);
+        Vertex<String> first = it.next();
+        String firstLabel = first.getLabel();
+        Vertex<String> second = it.next();
+        assertSame(first, second);
+        assertNotEquals(firstLabel, second.getLabel());
+        List<String> labels = new ArrayList<>();
+        graph.vertices(true).forEachRemaining(vertex -> labels.add(vertex.getLabel()));
+        assertTrue(labels.containsAll(List.of("A", "B", "C")));
+    }
+
+    // Test stream accessors
+    @Test
+    void testStreams() {
+        graph.add("A");
+        graph.add("B");
+        graph.add("C");
+        graph.addEdge("A", "B", 10);
+        graph.addEdge("B", "C", 20);
+        assertEquals(3, graph.vertexStream().count());
+        assertEquals(1, graph.adjacentStream("A").count());
+        assertEquals(30, graph.edgeStream().mapToInt(Edge::getLabel).sum());
+    }
 }
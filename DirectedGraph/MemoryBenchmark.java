@@ -0,0 +1,63 @@
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Measures the heap a graph retains per edge, by comparing the used heap after full
+ * collections before and after filling it from a fixture (see GraphFixtures). The figures
+ * depend on the collector and the JVM, and are only meaningful when System.gc() is honoured,
+ * so run it without -XX:+DisableExplicitGC.
+ *
+ * @author mfullhart20@georgefox.edu
+ */
+public class MemoryBenchmark
+{
+    // Number of vertices and average degree of the fixture
+    private static final int VERTICES = 100_000;
+    private static final int DEGREE = 10;
+    // Number of full collections run before each reading
+    private static final int COLLECTIONS = 3;
+
+    /**
+     * Fills each implementation from the same fixture and prints its heap per edge.
+     *
+     * @param args not used
+     */
+    public static void main(String[] args)
+    {
+        Map<String, Supplier<DirectedGraph<Integer, Integer>>> implementations = new LinkedHashMap<>();
+        implementations.put("ListGraph", ListGraph::new);
+        implementations.put("CompactList", CompactListGraph::new);
+
+        for (GraphFixtures.Shape shape : GraphFixtures.Shape.values())
+        {
+            List<Edge<Integer, Integer>> edges = GraphFixtures.edges(shape, VERTICES, VERTICES * DEGREE, 3);
+            for (Map.Entry<String, Supplier<DirectedGraph<Integer, Integer>>> entry : implementations.entrySet())
+            {
+                long before = usedHeap();
+                DirectedGraph<Integer, Integer> graph = GraphFixtures.fill(entry.getValue().get(), VERTICES, edges);
+                long after = usedHeap();
+                System.out.printf("%-12s %-9s %8.1f bytes/edge%n", entry.getKey(), shape,
+                        (after - before) / (double) graph.edgeCount());
+            }
+        }
+    }
+
+    /**
+     * Measures the used heap after a few full collections.
+     *
+     * @return the bytes in use
+     */
+    static long usedHeap()
+    {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < COLLECTIONS; i++)
+        {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,462 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Level-synchronous parallel breadth-first search over any DirectedGraph.
+ *
+ * The graph is brought into compressed sparse row form (see GraphAlgorithms) and each level
+ * is expanded by fork-join tasks that split the work into chunks of GRAIN vertices. Visited
+ * vertices are claimed through an atomic bitset, so each vertex gets exactly one parent.
+ *
+ * The search is direction-optimizing. While the frontier is small, each level scans the
+ * outgoing edges of the frontier ("top-down"). Once the frontier's outgoing edges exceed
+ * 1/ALPHA of the edges still unexplored, each level instead lets every unvisited vertex scan
+ * its incoming edges for a frontier parent and stop at the first one ("bottom-up"). The
+ * search goes back to top-down when the frontier shrinks below 1/BETA of the vertices.
+ *
+ * @author mfullhart20@georgefox.edu
+ */
+public final class ParallelBfs
+{
+    // Number of vertices handled by one leaf task
+    private static final int GRAIN = 1024;
+    // Switch to bottom-up when frontier edges exceed unexplored edges / ALPHA
+    private static final int ALPHA = 14;
+    // Switch back to top-down when the frontier holds fewer than n / BETA vertices
+    private static final int BETA = 24;
+
+    /**
+     * ParallelBfs only has static methods.
+     */
+    private ParallelBfs()
+    {
+    }
+
+    /**
+     * Searches a graph from a source on the common fork-join pool.
+     *
+     * @param graph the graph to search
+     * @param source the vertex to start from
+     * @param <V> the type of the vertex labels
+     * @param <E> the type of the edge labels
+     * @return the distance and parent of every vertex
+     * @throws NoSuchVertexException throw NSVE if the source does not exist
+     */
+    public static <V, E> Result<V> search(DirectedGraph<V, E> graph, V source)
+    {
+        return search(graph, source, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Searches a graph from a source on the given fork-join pool.
+     *
+     * @param graph the graph to search
+     * @param source the vertex to start from
+     * @param pool the pool that runs the level expansions
+     * @param <V> the type of the vertex labels
+     * @param <E> the type of the edge labels
+     * @return the distance and parent of every vertex
+     * @throws NoSuchVertexException throw NSVE if the source does not exist
+     * @throws IllegalArgumentException throw IAE if the pool is null
+     */
+    public static <V, E> Result<V> search(DirectedGraph<V, E> graph, V source, ForkJoinPool pool)
+    {
+        if (pool == null)
+        {
+            throw new IllegalArgumentException("Null pool");
+        }
+
+        CsrGraph<V, E> csr = GraphAlgorithms.compact(graph);
+        Search search = new Search(csr.size(), csr.offsets(), csr.targets());
+        search.run(csr.indexOf(source), pool);
+
+        return new Result<>(csr, search._distances, search._parents);
+    }
+
+    /**
+     * The state of one search: the CSR arrays, the visited bitset, the output arrays and the
+     * current and next frontier.
+     */
+    private static class Search
+    {
+        // The graph in CSR form
+        private final int _n;
+        private final int[] _offsets;
+        private final int[] _targets;
+        // The transposed graph, built the first time a bottom-up level runs
+        private int[] _inOffsets;
+        private int[] _inSources;
+
+        // One bit per vertex, set once the vertex has been claimed
+        private final AtomicLongArray _visited;
+        // Level of each vertex, -1 if unreached
+        private final int[] _distances;
+        // Parent of each vertex in the search tree, -1 for the source and unreached vertices
+        private final int[] _parents;
+
+        // The vertices of the current level
+        private int[] _frontier;
+        private int _frontierSize;
+        // The vertices of the next level; tasks reserve slots with _nextSize
+        private int[] _next;
+        private final AtomicInteger _nextSize;
+        // The current level as a bitset, used by bottom-up levels
+        private long[] _frontierBits;
+
+        /**
+         * Prepares a search over a graph in CSR form.
+         *
+         * @param n the number of vertices
+         * @param offsets the CSR offsets array
+         * @param targets the CSR targets array
+         */
+        private Search(int n, int[] offsets, int[] targets)
+        {
+            _n = n;
+            _offsets = offsets;
+            _targets = targets;
+            _visited = new AtomicLongArray((n + 63) >>> 6);
+            _distances = new int[n];
+            _parents = new int[n];
+            _frontier = new int[n];
+            _next = new int[n];
+            _nextSize = new AtomicInteger();
+            Arrays.fill(_distances, -1);
+            Arrays.fill(_parents, -1);
+        }
+
+        /**
+         * Runs the search level by level.
+         *
+         * @param source the id of the source vertex
+         * @param pool the pool that runs the level expansions
+         */
+        private void run(int source, ForkJoinPool pool)
+        {
+            claim(source);
+            _distances[source] = 0;
+            _frontier[0] = source;
+            _frontierSize = 1;
+
+            long unexplored = _offsets[_n];
+            boolean bottomUp = false;
+
+            for (int level = 0; _frontierSize > 0; level++)
+            {
+                long frontierEdges = 0;
+                for (int i = 0; i < _frontierSize; i++)
+                {
+                    int u = _frontier[i];
+                    frontierEdges += _offsets[u + 1] - _offsets[u];
+                }
+                unexplored -= frontierEdges;
+
+                if (!bottomUp && frontierEdges > unexplored / ALPHA)
+                {
+                    bottomUp = true;
+                }
+                else if (bottomUp && _frontierSize < _n / BETA)
+                {
+                    bottomUp = false;
+                }
+
+                _nextSize.set(0);
+                if (bottomUp)
+                {
+                    prepareBottomUp();
+                    pool.invoke(new BottomUpTask(0, _n, level + 1));
+                }
+                else
+                {
+                    pool.invoke(new TopDownTask(0, _frontierSize, level + 1));
+                }
+
+                int[] swap = _frontier;
+                _frontier = _next;
+                _next = swap;
+                _frontierSize = _nextSize.get();
+            }
+        }
+
+        /**
+         * Claims an unvisited vertex.
+         *
+         * @param v the vertex to claim
+         * @return true if this call set the visited bit, false if v was already visited
+         */
+        private boolean claim(int v)
+        {
+            int word = v >>> 6;
+            long bit = 1L << v;
+
+            while (true)
+            {
+                long current = _visited.get(word);
+                if ((current & bit) != 0)
+                {
+                    return false;
+                }
+                if (_visited.compareAndSet(word, current, current | bit))
+                {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Builds the transposed graph on first use and marks the current level in a bitset.
+         */
+        private void prepareBottomUp()
+        {
+            if (_inOffsets == null)
+            {
+                int[][] transposed = GraphAlgorithms.transpose(_n, _offsets, _targets);
+                _inOffsets = transposed[0];
+                _inSources = transposed[1];
+
+                _frontierBits = new long[(_n + 63) >>> 6];
+            }
+
+            Arrays.fill(_frontierBits, 0);
+            for (int i = 0; i < _frontierSize; i++)
+            {
+                _frontierBits[_frontier[i] >>> 6] |= 1L << _frontier[i];
+            }
+        }
+
+        /**
+         * Appends the vertices a leaf task discovered to the next frontier.
+         *
+         * @param found the discovered vertices
+         * @param count the number of discovered vertices
+         */
+        private void publish(int[] found, int count)
+        {
+            if (count > 0)
+            {
+                System.arraycopy(found, 0, _next, _nextSize.getAndAdd(count), count);
+            }
+        }
+
+        /**
+         * Expands a range of the current frontier along outgoing edges.
+         */
+        @SuppressWarnings("serial")
+        private class TopDownTask extends RecursiveAction
+        {
+            // The range [_from, _to) of _frontier to expand, and the level being discovered
+            private final int _from;
+            private final int _to;
+            private final int _level;
+
+            private TopDownTask(int from, int to, int level)
+            {
+                _from = from;
+                _to = to;
+                _level = level;
+            }
+
+            @Override
+            protected void compute()
+            {
+                if (_to - _from > GRAIN)
+                {
+                    int middle = (_from + _to) >>> 1;
+                    invokeAll(new TopDownTask(_from, middle, _level), new TopDownTask(middle, _to, _level));
+                    return;
+                }
+
+                int[] found = new int[64];
+                int count = 0;
+
+                for (int i = _from; i < _to; i++)
+                {
+                    int u = _frontier[i];
+                    for (int e = _offsets[u]; e < _offsets[u + 1]; e++)
+                    {
+                        int v = _targets[e];
+                        if (claim(v))
+                        {
+                            _distances[v] = _level;
+                            _parents[v] = u;
+                            if (count == found.length)
+                            {
+                                found = Arrays.copyOf(found, count * 2);
+                            }
+                            found[count++] = v;
+                        }
+                    }
+                }
+
+                publish(found, count);
+            }
+        }
+
+        /**
+         * Lets a range of unvisited vertices look for a parent in the current frontier.
+         */
+        @SuppressWarnings("serial")
+        private class BottomUpTask extends RecursiveAction
+        {
+            // The range [_from, _to) of vertex ids to check, and the level being discovered
+            private final int _from;
+            private final int _to;
+            private final int _level;
+
+            private BottomUpTask(int from, int to, int level)
+            {
+                _from = from;
+                _to = to;
+                _level = level;
+            }
+
+            @Override
+            protected void compute()
+            {
+                if (_to - _from > GRAIN)
+                {
+                    // Split on a multiple of 64 so no two leaves share a word of the bitset
+                    int middle = ((_from + _to) >>> 1) & ~63;
+                    if (middle > _from)
+                    {
+                        invokeAll(new BottomUpTask(_from, middle, _level), new BottomUpTask(middle, _to, _level));
+                        return;
+                    }
+                }
+
+                int[] found = new int[64];
+                int count = 0;
+
+                for (int v = _from; v < _to; v++)
+                {
+                    if ((_visited.get(v >>> 6) & (1L << v)) != 0)
+                    {
+                        continue;
+                    }
+
+                    for (int e = _inOffsets[v]; e < _inOffsets[v + 1]; e++)
+                    {
+                        int u = _inSources[e];
+                        if ((_frontierBits[u >>> 6] & (1L << u)) != 0)
+                        {
+                            claim(v);
+                            _distances[v] = _level;
+                            _parents[v] = u;
+                            if (count == found.length)
+                            {
+                                found = Arrays.copyOf(found, count * 2);
+                            }
+                            found[count++] = v;
+                            break;
+                        }
+                    }
+                }
+
+                publish(found, count);
+            }
+        }
+    }
+
+    /**
+     * The result of a parallel breadth-first search: the level and parent of every vertex.
+     * The raw arrays are indexed by the ids of the CSR form of the searched graph.
+     *
+     * @param <V> the type of the vertex labels
+     */
+    public static class Result<V>
+    {
+        // The graph the ids refer to
+        private final CsrGraph<V, ?> _graph;
+        // Level of each vertex, -1 if unreachable
+        private final int[] _distances;
+        // Parent of each vertex, -1 for the source and unreachable vertices
+        private final int[] _parents;
+
+        /**
+         * Constructs a result over the arrays filled in by a search.
+         *
+         * @param graph the graph the ids refer to
+         * @param distances the level of each vertex
+         * @param parents the parent of each vertex
+         */
+        Result(CsrGraph<V, ?> graph, int[] distances, int[] parents)
+        {
+            _graph = graph;
+            _distances = distances;
+            _parents = parents;
+        }
+
+        /**
+         * Returns the number of edges on a shortest path from the source to a vertex.
+         *
+         * @param v the destination vertex
+         * @return the distance, or -1 if v is unreachable
+         * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+         */
+        public int distanceTo(V v)
+        {
+            return _distances[_graph.indexOf(v)];
+        }
+
+        /**
+         * Returns the parent of a vertex in the breadth-first search tree.
+         *
+         * @param v the vertex
+         * @return the parent, or null for the source and unreachable vertices
+         * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+         */
+        public V parentOf(V v)
+        {
+            int parent = _parents[_graph.indexOf(v)];
+            return parent < 0 ? null : _graph.vertexAt(parent);
+        }
+
+        /**
+         * Returns the id a vertex has in the raw arrays.
+         *
+         * @param v the vertex
+         * @return the id of the vertex
+         * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+         */
+        public int idOf(V v)
+        {
+            return _graph.indexOf(v);
+        }
+
+        /**
+         * Returns the vertex with a given id in the raw arrays.
+         *
+         * @param id the id
+         * @return the vertex label
+         */
+        public V vertexAt(int id)
+        {
+            return _graph.vertexAt(id);
+        }
+
+        /**
+         * Returns the level of every vertex, indexed by id; -1 marks unreachable vertices.
+         * The array is shared, not copied.
+         *
+         * @return the distances array
+         */
+        public int[] getDistances()
+        {
+            return _distances;
+        }
+
+        /**
+         * Returns the parent id of every vertex, indexed by id; -1 marks the source and
+         * unreachable vertices. The array is shared, not copied.
+         *
+         * @return the parents array
+         */
+        public int[] getParents()
+        {
+            return _parents;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Measures how ParallelBfs scales with the number of threads. A random graph of VERTICES
+ * vertices and VERTICES * DEGREE uniform edges (see GraphFixtures) is built once in CSR
+ * form, then searched from vertex 0 on fork-join pools of 1, 2, 4, ... threads up to the
+ * number of available processors. The thread counts can also be given on the command line.
+ *
+ * @author mfullhart20@georgefox.edu
+ */
+public class ParallelBfsBenchmark
+{
+    // Shape of the benchmark graph: VERTICES * DEGREE = 1.6 * 10^7 edges
+    private static final int VERTICES = 1_000_000;
+    private static final int DEGREE = 16;
+    // Number of untimed searches used to warm up the JIT
+    private static final int WARMUP_RUNS = 3;
+    // Number of timed searches
+    private static final int MEASURED_RUNS = 5;
+
+    /**
+     * Runs the benchmark and prints the best search time and speedup for each thread count.
+     *
+     * @param args optional thread counts to measure
+     */
+    public static void main(String[] args)
+    {
+        List<Integer> threadCounts = new ArrayList<>();
+        if (args.length > 0)
+        {
+            for (String arg : args)
+            {
+                threadCounts.add(Integer.parseInt(arg));
+            }
+        }
+        else
+        {
+            int processors = Runtime.getRuntime().availableProcessors();
+            for (int threads = 1; threads < processors; threads *= 2)
+            {
+                threadCounts.add(threads);
+            }
+            threadCounts.add(processors);
+        }
+
+        CsrGraph<Integer, Integer> graph = new CsrGraph<>(GraphFixtures.vertices(VERTICES),
+                GraphFixtures.edges(GraphFixtures.Shape.RANDOM, VERTICES, VERTICES * DEGREE, 42));
+        System.out.printf("%,d vertices, %,d edges, %d processors%n",
+                VERTICES, graph.edgeCount(), Runtime.getRuntime().availableProcessors());
+
+        double baseline = 0;
+        for (int threads : threadCounts)
+        {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try
+            {
+                double millis = measure(graph, pool);
+                if (baseline == 0)
+                {
+                    baseline = millis;
+                }
+                System.out.printf("%3d threads %8.1f ms  %5.2fx%n", threads, millis, baseline / millis);
+            }
+            finally
+            {
+                pool.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Times searches of the graph on one pool.
+     *
+     * @param graph the graph to search
+     * @param pool the pool to search on
+     * @return the best time of a search in milliseconds
+     */
+    private static double measure(CsrGraph<Integer, Integer> graph, ForkJoinPool pool)
+    {
+        for (int i = 0; i < WARMUP_RUNS; i++)
+        {
+            ParallelBfs.search(graph, 0, pool);
+        }
+
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURED_RUNS; i++)
+        {
+            long start = System.nanoTime();
+            ParallelBfs.search(graph, 0, pool);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best / 1e6;
+    }
+}
@@ -0,0 +1,111 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+class ParallelBfsTest {
+
+    // Builds a random graph with the given number of vertices and edge attempts
+    private static ListGraph<Integer, Integer> randomGraph(int vertices, int edges, long seed) {
+        Random random = new Random(seed);
+        ListGraph<Integer, Integer> graph = new ListGraph<>();
+        for (int i = 0; i < vertices; i++) {
+            graph.add(i);
+        }
+        for (int i = 0; i < edges; i++) {
+            int u = random.nextInt(vertices);
+            int v = random.nextInt(vertices);
+            if (!graph.containsEdge(u, v)) {
+                graph.addEdge(u, v, i);
+            }
+        }
+        return graph;
+    }
+
+    // Checks distances against the sequential search and that every parent is one level up
+    private static void assertMatchesSequential(DirectedGraph<Integer, Integer> graph, ParallelBfs.Result<Integer> result) {
+        List<Integer> order = GraphAlgorithms.breadthFirst(graph, 0);
+        int[] expected = new int[graph.size()];
+        Arrays.fill(expected, -1);
+        expected[0] = 0;
+        for (int v : order) {
+            graph.adjacent(v).forEachRemaining(w -> {
+                if (expected[w.getLabel()] < 0) {
+                    expected[w.getLabel()] = expected[v] + 1;
+                }
+            });
+        }
+        for (int v = 0; v < graph.size(); v++) {
+            assertEquals(expected[v], result.distanceTo(v));
+            Integer parent = result.parentOf(v);
+            if (v == 0 || expected[v] < 0) {
+                assertNull(parent);
+            } else {
+                assertTrue(graph.containsEdge(parent, v));
+                assertEquals(expected[v] - 1, result.distanceTo(parent));
+            }
+        }
+    }
+
+    // Test a small graph by hand
+    @Test
+    void testSmallGraph() {
+        ListGraph<String, Integer> graph = new ListGraph<>();
+        for (String v : List.of("A", "B", "C", "D", "E")) {
+            graph.add(v);
+        }
+        graph.addEdge("A", "B", 1);
+        graph.addEdge("A", "C", 1);
+        graph.addEdge("B", "D", 1);
+        graph.addEdge("C", "D", 1);
+        ParallelBfs.Result<String> result = ParallelBfs.search(graph, "A");
+        assertEquals(0, result.distanceTo("A"));
+        assertEquals(1, result.distanceTo("B"));
+        assertEquals(2, result.distanceTo("D"));
+        assertEquals(-1, result.distanceTo("E"));
+        assertNull(result.parentOf("A"));
+        assertTrue(List.of("B", "C").contains(result.parentOf("D")));
+        assertEquals(2, result.getDistances()[result.idOf("D")]);
+        assertEquals("D", result.vertexAt(result.idOf("D")));
+    }
+
+    // Test a sparse graph, which stays top-down
+    @Test
+    void testSparseGraphMatchesSequential() {
+        ListGraph<Integer, Integer> graph = randomGraph(20_000, 30_000, 1);
+        assertMatchesSequential(graph, ParallelBfs.search(graph, 0));
+    }
+
+    // Test a dense graph, whose large frontiers switch to bottom-up
+    @Test
+    void testDenseGraphMatchesSequential() {
+        ListGraph<Integer, Integer> graph = randomGraph(5_000, 100_000, 2);
+        assertMatchesSequential(graph, ParallelBfs.search(graph, 0));
+    }
+
+    // Test on a pool with several threads
+    @Test
+    void testCustomPoolMatchesSequential() {
+        ListGraph<Integer, Integer> graph = randomGraph(10_000, 80_000, 3);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertMatchesSequential(graph, ParallelBfs.search(graph, 0, pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testMissingSourceThrowsException() {
+        ListGraph<Integer, Integer> graph = randomGraph(10, 10, 4);
+        assertThrows(NoSuchVertexException.class, () -> ParallelBfs.search(graph, 99));
+    }
+
+    @Test
+    void testNullPoolThrowsException() {
+        ListGraph<Integer, Integer> graph = randomGraph(10, 10, 4);
+        assertThrows(IllegalArgumentException.class, () -> ParallelBfs.search(graph, 0, null));
+    }
+}
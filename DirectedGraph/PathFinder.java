@@ -0,0 +1,443 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ToDoubleBiFunction;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Answers point-to-point shortest path queries over a graph that is prepared once. The graph is
+ * brought into CSR form together with its transpose, and the edge weights are read from the
+ * labels up front, so a query touches nothing but int and double arrays.
+ *
+ * Two searches are offered: bidirectional Dijkstra, which grows one search from the source and
+ * one backwards from the destination until they meet, and A*, which steers a single search
+ * towards the destination with a heuristic. Both settle far fewer vertices than a full
+ * Dijkstra. The search state lives in a workspace of primitive arrays kept per thread; a query
+ * only resets the entries it touched, so repeated queries allocate nothing but the result.
+ *
+ * A PathFinder is a copy of the graph at the time it was built and does not see later changes.
+ * It may be queried from many threads at once.
+ *
+ * @author mfullhart20@georgefox.edu
+ * @param <V> the type of the vertex labels
+ */
+public final class PathFinder<V>
+{
+    // The graph in CSR form, which maps labels to ids
+    private final CsrGraph<V, ?> _graph;
+    // Outgoing edges and their weights
+    private final int[] _offsets;
+    private final int[] _targets;
+    private final double[] _weights;
+    // Incoming edges and their weights
+    private final int[] _inOffsets;
+    private final int[] _sources;
+    private final double[] _inWeights;
+    // The search state of each thread
+    private final ThreadLocal<Workspace> _workspace;
+
+    /**
+     * Constructs a path finder over a graph in CSR form.
+     *
+     * @param graph the graph
+     * @param weight maps an edge label to the weight of the edge
+     * @param <E> the type of the edge labels
+     * @throws IllegalArgumentException throw IAE if an edge weight is negative or NaN
+     */
+    private <E> PathFinder(CsrGraph<V, E> graph, ToDoubleFunction<? super E> weight)
+    {
+        int n = graph.size();
+        _graph = graph;
+        _offsets = graph.offsets();
+        _targets = graph.targets();
+        _weights = new double[_offsets[n]];
+        for (int e = 0; e < _weights.length; e++)
+        {
+            _weights[e] = weight.applyAsDouble(graph.edgeLabel(e));
+            if (!(_weights[e] >= 0))
+            {
+                throw new IllegalArgumentException("Negative edge weight");
+            }
+        }
+
+        int[][] transposed = GraphAlgorithms.transpose(n, _offsets, _targets);
+        _inOffsets = transposed[0];
+        _sources = transposed[1];
+        _inWeights = new double[_weights.length];
+        // transpose() lists the incoming edges of each vertex in increasing order of source,
+        // which is the order the outgoing edges are visited in here
+        int[] fill = new int[n];
+        for (int u = 0; u < n; u++)
+        {
+            for (int e = _offsets[u]; e < _offsets[u + 1]; e++)
+            {
+                int v = _targets[e];
+                _inWeights[_inOffsets[v] + fill[v]++] = _weights[e];
+            }
+        }
+
+        _workspace = ThreadLocal.withInitial(() -> new Workspace(n));
+    }
+
+    /**
+     * Prepares a graph for shortest path queries. The edge weights are read from the edge
+     * labels through a weight function and must not be negative.
+     *
+     * @param graph the graph
+     * @param weight maps an edge label to the weight of the edge
+     * @param <V> the type of the vertex labels
+     * @param <E> the type of the edge labels
+     * @return the path finder
+     * @throws IllegalArgumentException throw IAE if an argument is null or an edge weight is
+     * negative or NaN
+     */
+    public static <V, E> PathFinder<V> of(DirectedGraph<V, E> graph, ToDoubleFunction<? super E> weight)
+    {
+        if (graph == null || weight == null)
+        {
+            throw new IllegalArgumentException("Null argument");
+        }
+        return new PathFinder<>(CsrGraph.copyOf(graph), weight);
+    }
+
+    /**
+     * Returns the straight-line distance between the coordinates of two vertices, an A*
+     * heuristic for graphs embedded in the plane. It never overestimates as long as no edge
+     * weighs less than the straight-line distance between its endpoints.
+     *
+     * @param x the x coordinate of a vertex
+     * @param y the y coordinate of a vertex
+     * @param <V> the type of the vertex labels
+     * @return the heuristic
+     * @throws IllegalArgumentException throw IAE if a coordinate function is null
+     */
+    public static <V> ToDoubleBiFunction<V, V> euclidean(ToDoubleFunction<? super V> x, ToDoubleFunction<? super V> y)
+    {
+        if (x == null || y == null)
+        {
+            throw new IllegalArgumentException("Null argument");
+        }
+        return (u, v) ->
+        {
+            double dx = x.applyAsDouble(u) - x.applyAsDouble(v);
+            double dy = y.applyAsDouble(u) - y.applyAsDouble(v);
+            return Math.sqrt(dx * dx + dy * dy);
+        };
+    }
+
+    /**
+     * Returns the sum of the coordinate differences of two vertices, an A* heuristic for grids
+     * whose edges run along the axes. It never overestimates as long as no edge weighs less
+     * than the Manhattan distance between its endpoints.
+     *
+     * @param x the x coordinate of a vertex
+     * @param y the y coordinate of a vertex
+     * @param <V> the type of the vertex labels
+     * @return the heuristic
+     * @throws IllegalArgumentException throw IAE if a coordinate function is null
+     */
+    public static <V> ToDoubleBiFunction<V, V> manhattan(ToDoubleFunction<? super V> x, ToDoubleFunction<? super V> y)
+    {
+        if (x == null || y == null)
+        {
+            throw new IllegalArgumentException("Null argument");
+        }
+        return (u, v) -> Math.abs(x.applyAsDouble(u) - x.applyAsDouble(v))
+                + Math.abs(y.applyAsDouble(u) - y.applyAsDouble(v));
+    }
+
+    /**
+     * Finds a shortest path with bidirectional Dijkstra. The search expanding the smaller
+     * distance goes next, and the searches stop once the two smallest queued distances add
+     * up to at least the shortest path seen where they met.
+     *
+     * @param source the vertex to start from
+     * @param destination the vertex to reach
+     * @return the shortest path
+     * @throws NoSuchVertexException throw NSVE if either vertex does not exist
+     */
+    public Route<V> shortestPath(V source, V destination)
+    {
+        int s = _graph.indexOf(source);
+        int t = _graph.indexOf(destination);
+        Workspace work = _workspace.get();
+        work.reset();
+
+        work.reach(work._forward, work._forwardParents, s, 0, -1);
+        work._forwardHeap.offer(s, 0);
+        work.reach(work._backward, work._backwardParents, t, 0, -1);
+        work._backwardHeap.offer(t, 0);
+
+        double best = s == t ? 0 : Double.POSITIVE_INFINITY;
+        int meeting = s == t ? s : -1;
+        int settled = 0;
+
+        while (!work._forwardHeap.isEmpty() && !work._backwardHeap.isEmpty()
+                && work._forwardHeap.peekKey() + work._backwardHeap.peekKey() < best)
+        {
+            boolean forward = work._forwardHeap.peekKey() <= work._backwardHeap.peekKey();
+            double[] distances = forward ? work._forward : work._backward;
+            double[] other = forward ? work._backward : work._forward;
+            int[] parents = forward ? work._forwardParents : work._backwardParents;
+            IndexedMinHeap heap = forward ? work._forwardHeap : work._backwardHeap;
+            int[] offsets = forward ? _offsets : _inOffsets;
+            int[] neighbors = forward ? _targets : _sources;
+            double[] weights = forward ? _weights : _inWeights;
+
+            int u = heap.poll();
+            settled++;
+            for (int e = offsets[u]; e < offsets[u + 1]; e++)
+            {
+                int v = neighbors[e];
+                double distance = distances[u] + weights[e];
+                if (distance < distances[v])
+                {
+                    work.reach(distances, parents, v, distance, u);
+                    heap.offer(v, distance);
+                    if (distance + other[v] < best)
+                    {
+                        best = distance + other[v];
+                        meeting = v;
+                    }
+                }
+            }
+        }
+
+        if (meeting < 0)
+        {
+            return new Route<>(Collections.emptyList(), Double.POSITIVE_INFINITY, settled);
+        }
+
+        List<V> path = new ArrayList<>();
+        for (int id = meeting; id >= 0; id = work._forwardParents[id])
+        {
+            path.add(_graph.vertexAt(id));
+        }
+        Collections.reverse(path);
+        for (int id = work._backwardParents[meeting]; id >= 0; id = work._backwardParents[id])
+        {
+            path.add(_graph.vertexAt(id));
+        }
+        return new Route<>(path, best, settled);
+    }
+
+    /**
+     * Finds a shortest path with A*. Vertices are expanded in order of their distance from the
+     * source plus the heuristic estimate of their distance to the destination. The path is
+     * shortest as long as the heuristic never overestimates; vertices are expanded again if
+     * a shorter path to them turns up, so the heuristic need not be consistent.
+     *
+     * @param source the vertex to start from
+     * @param destination the vertex to reach
+     * @param heuristic estimates the distance from a vertex to the destination, given the
+     * vertex and the destination
+     * @return the shortest path
+     * @throws IllegalArgumentException throw IAE if the heuristic is null
+     * @throws NoSuchVertexException throw NSVE if either vertex does not exist
+     */
+    public Route<V> aStar(V source, V destination, ToDoubleBiFunction<? super V, ? super V> heuristic)
+    {
+        if (heuristic == null)
+        {
+            throw new IllegalArgumentException("Null heuristic");
+        }
+        int s = _graph.indexOf(source);
+        int t = _graph.indexOf(destination);
+        Workspace work = _workspace.get();
+        work.reset();
+
+        double[] distances = work._forward;
+        int[] parents = work._forwardParents;
+        IndexedMinHeap heap = work._forwardHeap;
+        work.reach(distances, parents, s, 0, -1);
+        heap.offer(s, heuristic.applyAsDouble(source, destination));
+        int settled = 0;
+
+        while (!heap.isEmpty())
+        {
+            int u = heap.poll();
+            settled++;
+            if (u == t)
+            {
+                break;
+            }
+            for (int e = _offsets[u]; e < _offsets[u + 1]; e++)
+            {
+                int v = _targets[e];
+                double distance = distances[u] + _weights[e];
+                if (distance < distances[v])
+                {
+                    work.reach(distances, parents, v, distance, u);
+                    heap.offer(v, distance + heuristic.applyAsDouble(_graph.vertexAt(v), destination));
+                }
+            }
+        }
+
+        if (distances[t] == Double.POSITIVE_INFINITY)
+        {
+            return new Route<>(Collections.emptyList(), Double.POSITIVE_INFINITY, settled);
+        }
+
+        List<V> path = new ArrayList<>();
+        for (int id = t; id >= 0; id = parents[id])
+        {
+            path.add(_graph.vertexAt(id));
+        }
+        Collections.reverse(path);
+        return new Route<>(path, distances[t], settled);
+    }
+
+    /**
+     * The search state of one thread: the distances and parents of both search directions and
+     * their heaps, sized to the graph once. Every id whose entries were set is recorded, and
+     * reset() restores only those.
+     */
+    private static final class Workspace
+    {
+        // Distance of each vertex from the source, and to the destination
+        private final double[] _forward;
+        private final double[] _backward;
+        // Predecessor of each vertex in each direction, -1 if none
+        private final int[] _forwardParents;
+        private final int[] _backwardParents;
+        // The queued vertices of each direction
+        private final IndexedMinHeap _forwardHeap;
+        private final IndexedMinHeap _backwardHeap;
+        // True for each id already in _touched
+        private final boolean[] _marked;
+        // The ids whose entries were set since the last reset
+        private final int[] _touched;
+        private int _touchedCount;
+
+        /**
+         * Constructs a workspace for a graph of n vertices.
+         *
+         * @param n the number of vertices
+         */
+        private Workspace(int n)
+        {
+            _forward = new double[n];
+            _backward = new double[n];
+            _forwardParents = new int[n];
+            _backwardParents = new int[n];
+            _forwardHeap = new IndexedMinHeap(n);
+            _backwardHeap = new IndexedMinHeap(n);
+            _marked = new boolean[n];
+            _touched = new int[n];
+            Arrays.fill(_forward, Double.POSITIVE_INFINITY);
+            Arrays.fill(_backward, Double.POSITIVE_INFINITY);
+            Arrays.fill(_forwardParents, -1);
+            Arrays.fill(_backwardParents, -1);
+        }
+
+        /**
+         * Sets the distance and parent of a vertex in one direction and records the vertex.
+         *
+         * @param distances the distances of the direction
+         * @param parents the parents of the direction
+         * @param v the vertex
+         * @param distance the new distance
+         * @param parent the new parent
+         */
+        private void reach(double[] distances, int[] parents, int v, double distance, int parent)
+        {
+            distances[v] = distance;
+            parents[v] = parent;
+            if (!_marked[v])
+            {
+                _marked[v] = true;
+                _touched[_touchedCount++] = v;
+            }
+        }
+
+        /**
+         * Restores every entry set since the last reset and empties the heaps.
+         */
+        private void reset()
+        {
+            for (int i = 0; i < _touchedCount; i++)
+            {
+                int v = _touched[i];
+                _forward[v] = Double.POSITIVE_INFINITY;
+                _backward[v] = Double.POSITIVE_INFINITY;
+                _forwardParents[v] = -1;
+                _backwardParents[v] = -1;
+                _marked[v] = false;
+            }
+            _touchedCount = 0;
+            _forwardHeap.clear();
+            _backwardHeap.clear();
+        }
+    }
+
+    /**
+     * A path found by a query, with its length and the number of vertices the search settled.
+     *
+     * @param <V> the type of the vertex labels
+     */
+    public static class Route<V>
+    {
+        // The vertices on the path, from the source to the destination
+        private final List<V> _vertices;
+        // The sum of the edge weights along the path
+        private final double _distance;
+        // Number of vertices taken off the heap
+        private final int _settled;
+
+        /**
+         * Constructs a route.
+         *
+         * @param vertices the vertices on the path
+         * @param distance the length of the path
+         * @param settled the number of vertices settled
+         */
+        Route(List<V> vertices, double distance, int settled)
+        {
+            _vertices = Collections.unmodifiableList(vertices);
+            _distance = distance;
+            _settled = settled;
+        }
+
+        /**
+         * Checks if the destination was reachable.
+         *
+         * @return true if a path was found, false otherwise
+         */
+        public boolean isFound()
+        {
+            return _distance < Double.POSITIVE_INFINITY;
+        }
+
+        /**
+         * Returns the length of the path.
+         *
+         * @return the distance, or positive infinity if the destination is unreachable
+         */
+        public double getDistance()
+        {
+            return _distance;
+        }
+
+        /**
+         * Returns the vertices on the path.
+         *
+         * @return the vertices from the source to the destination, or an empty list if the
+         * destination is unreachable
+         */
+        public List<V> getVertices()
+        {
+            return _vertices;
+        }
+
+        /**
+         * Returns the number of vertices the search took off its heap, a measure of its work.
+         *
+         * @return the number of settled vertices
+         */
+        public int getSettled()
+        {
+            return _settled;
+        }
+    }
+}
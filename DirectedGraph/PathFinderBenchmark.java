@@ -0,0 +1,133 @@
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+import java.util.function.ToDoubleBiFunction;
+
+/**
+ * Compares point-to-point queries on a road-like grid: a full Dijkstra from GraphAlgorithms
+ * per query, bidirectional Dijkstra and A* with the Euclidean heuristic from a PathFinder
+ * prepared once. Prints the time per query, the vertices settled per query and the bytes
+ * allocated per query by the PathFinder searches.
+ *
+ * @author mfullhart20@georgefox.edu
+ */
+public class PathFinderBenchmark
+{
+    // Width and height of the grid
+    private static final int WIDTH = 500;
+    // Number of queries per run for the full Dijkstra and for the PathFinder searches
+    private static final int DIJKSTRA_QUERIES = 10;
+    private static final int QUERIES = 1_000;
+    // Number of untimed runs used to warm up the JIT
+    private static final int WARMUP_RUNS = 2;
+    // Number of timed runs
+    private static final int MEASURED_RUNS = 3;
+
+    // Keeps the JIT from discarding results
+    private static volatile double _sink;
+
+    /**
+     * Runs the comparison and prints the best time of each search.
+     *
+     * @param args not used
+     */
+    public static void main(String[] args)
+    {
+        ListGraph<Integer, Double> grid = grid();
+        int n = WIDTH * WIDTH;
+        ToDoubleBiFunction<Integer, Integer> euclidean = PathFinder.euclidean(v -> v % WIDTH, v -> v / WIDTH);
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+
+        long start = System.nanoTime();
+        PathFinder<Integer> finder = PathFinder.of(grid, Double::doubleValue);
+        long prepare = System.nanoTime() - start;
+
+        long[] best = {Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE};
+        long[] settled = new long[3];
+        long[] allocated = new long[3];
+        for (int run = 0; run < WARMUP_RUNS + MEASURED_RUNS; run++)
+        {
+            Random random = new Random(run);
+            start = System.nanoTime();
+            for (int i = 0; i < DIJKSTRA_QUERIES; i++)
+            {
+                int source = random.nextInt(n);
+                _sink += GraphAlgorithms.dijkstra(grid, source, Double::doubleValue).distanceTo(random.nextInt(n));
+            }
+            long dijkstra = System.nanoTime() - start;
+
+            long[] times = new long[3];
+            times[0] = dijkstra;
+            for (int search = 1; search < 3; search++)
+            {
+                random = new Random(run);
+                long settledCount = 0;
+                long bytes = threads.getThreadAllocatedBytes(thread);
+                start = System.nanoTime();
+                for (int i = 0; i < QUERIES; i++)
+                {
+                    int source = random.nextInt(n);
+                    int destination = random.nextInt(n);
+                    PathFinder.Route<Integer> route = search == 1
+                            ? finder.shortestPath(source, destination)
+                            : finder.aStar(source, destination, euclidean);
+                    _sink += route.getDistance();
+                    settledCount += route.getSettled();
+                }
+                times[search] = System.nanoTime() - start;
+                if (run >= WARMUP_RUNS)
+                {
+                    settled[search] = settledCount / QUERIES;
+                    allocated[search] = (threads.getThreadAllocatedBytes(thread) - bytes) / QUERIES;
+                }
+            }
+
+            if (run >= WARMUP_RUNS)
+            {
+                for (int i = 0; i < 3; i++)
+                {
+                    best[i] = Math.min(best[i], times[i]);
+                }
+            }
+        }
+
+        System.out.printf("prepare PathFinder   %,10.1f ms%n", prepare / 1e6);
+        System.out.printf("full Dijkstra        %,10.3f ms/query  %,7d settled%n",
+                best[0] / 1e6 / DIJKSTRA_QUERIES, n);
+        System.out.printf("bidirectional        %,10.3f ms/query  %,7d settled  %,6d B/query%n",
+                best[1] / 1e6 / QUERIES, settled[1], allocated[1]);
+        System.out.printf("A* euclidean         %,10.3f ms/query  %,7d settled  %,6d B/query%n",
+                best[2] / 1e6 / QUERIES, settled[2], allocated[2]);
+    }
+
+    /**
+     * Builds a grid with two-way streets between horizontal and vertical neighbors, each
+     * weighing between 1 and 2 times its length.
+     *
+     * @return the grid
+     */
+    private static ListGraph<Integer, Double> grid()
+    {
+        Random random = new Random(1);
+        ListGraph<Integer, Double> grid = new ListGraph<>();
+        for (int v = 0; v < WIDTH * WIDTH; v++)
+        {
+            grid.add(v);
+        }
+        for (int v = 0; v < WIDTH * WIDTH; v++)
+        {
+            if (v % WIDTH < WIDTH - 1)
+            {
+                grid.addEdge(v, v + 1, 1 + random.nextDouble());
+                grid.addEdge(v + 1, v, 1 + random.nextDouble());
+            }
+            if (v + WIDTH < WIDTH * WIDTH)
+            {
+                grid.addEdge(v, v + WIDTH, 1 + random.nextDouble());
+                grid.addEdge(v + WIDTH, v, 1 + random.nextDouble());
+            }
+        }
+        return grid;
+    }
+}
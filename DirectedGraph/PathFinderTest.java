@@ -0,0 +1,163 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.ToDoubleBiFunction;
+
+class PathFinderTest {
+    private static final int WIDTH = 40;
+
+    private ListGraph<String, Integer> graph;
+
+    @BeforeEach
+    void setUp() {
+        // A -> B -> D, A -> C -> D, D -> E, plus an unreachable F
+        graph = new ListGraph<>();
+        for (String v : List.of("A", "B", "C", "D", "E", "F")) {
+            graph.add(v);
+        }
+        graph.addEdge("A", "B", 1);
+        graph.addEdge("A", "C", 4);
+        graph.addEdge("B", "D", 5);
+        graph.addEdge("C", "D", 1);
+        graph.addEdge("D", "E", 2);
+    }
+
+    // Builds a grid with edges between horizontal and vertical neighbors, some of them missing
+    private static ListGraph<Integer, Double> grid(long seed) {
+        Random random = new Random(seed);
+        ListGraph<Integer, Double> grid = new ListGraph<>();
+        for (int v = 0; v < WIDTH * WIDTH; v++) {
+            grid.add(v);
+        }
+        for (int v = 0; v < WIDTH * WIDTH; v++) {
+            int[] neighbors = {v % WIDTH > 0 ? v - 1 : -1, v % WIDTH < WIDTH - 1 ? v + 1 : -1, v - WIDTH, v + WIDTH};
+            for (int w : neighbors) {
+                if (w >= 0 && w < WIDTH * WIDTH && random.nextInt(10) > 0) {
+                    grid.addEdge(v, w, 1 + random.nextDouble() * 3);
+                }
+            }
+        }
+        return grid;
+    }
+
+    private static double length(DirectedGraph<Integer, Double> graph, List<Integer> path) {
+        double length = 0;
+        for (int i = 1; i < path.size(); i++) {
+            length += graph.getEdge(path.get(i - 1), path.get(i)).getLabel();
+        }
+        return length;
+    }
+
+    // Test both searches on a small graph
+    @Test
+    void testSmallGraph() {
+        PathFinder<String> finder = PathFinder.of(graph, Integer::doubleValue);
+        PathFinder.Route<String> route = finder.shortestPath("A", "E");
+        assertTrue(route.isFound());
+        assertEquals(7, route.getDistance());
+        assertEquals(List.of("A", "C", "D", "E"), route.getVertices());
+
+        route = finder.aStar("A", "E", (u, v) -> 0);
+        assertEquals(7, route.getDistance());
+        assertEquals(List.of("A", "C", "D", "E"), route.getVertices());
+
+        assertFalse(finder.shortestPath("A", "F").isFound());
+        assertTrue(finder.aStar("A", "F", (u, v) -> 0).getVertices().isEmpty());
+        assertFalse(finder.shortestPath("E", "A").isFound());
+        assertEquals(List.of("D"), finder.shortestPath("D", "D").getVertices());
+        assertEquals(0, finder.aStar("D", "D", (u, v) -> 0).getDistance());
+    }
+
+    // Test a PathFinder built from a CsrGraph does not see later changes
+    @Test
+    void testMutationAfterBuild() {
+        CsrGraph<String, Integer> csr = CsrGraph.copyOf(graph);
+        PathFinder<String> finder = PathFinder.of(csr, Integer::doubleValue);
+        csr.remove("B");
+        csr.remove("C");
+        csr.addEdge("A", "E", 1);
+        PathFinder.Route<String> route = finder.shortestPath("A", "E");
+        assertEquals(7, route.getDistance());
+        assertEquals(List.of("A", "C", "D", "E"), route.getVertices());
+        assertEquals(List.of("A", "C", "D", "E"), finder.aStar("A", "E", (u, v) -> 0).getVertices());
+        assertEquals(1, PathFinder.of(csr, Integer::doubleValue).shortestPath("A", "E").getDistance());
+    }
+
+    // Test both searches agree with Dijkstra on a grid, with both heuristics
+    @Test
+    void testGridMatchesDijkstra() {
+        ListGraph<Integer, Double> grid = grid(3);
+        PathFinder<Integer> finder = PathFinder.of(grid, Double::doubleValue);
+        ToDoubleBiFunction<Integer, Integer> euclidean = PathFinder.euclidean(v -> v % WIDTH, v -> v / WIDTH);
+        ToDoubleBiFunction<Integer, Integer> manhattan = PathFinder.manhattan(v -> v % WIDTH, v -> v / WIDTH);
+        assertEquals(5, euclidean.applyAsDouble(0, 3 + 4 * WIDTH));
+        assertEquals(7, manhattan.applyAsDouble(0, 3 + 4 * WIDTH));
+
+        Random random = new Random(9);
+        for (int i = 0; i < 20; i++) {
+            int source = random.nextInt(WIDTH * WIDTH);
+            GraphAlgorithms.ShortestPaths<Integer> expected = GraphAlgorithms.dijkstra(grid, source, Double::doubleValue);
+            for (int j = 0; j < 20; j++) {
+                int destination = random.nextInt(WIDTH * WIDTH);
+                double distance = expected.distanceTo(destination);
+                for (PathFinder.Route<Integer> route : List.of(finder.shortestPath(source, destination),
+                        finder.aStar(source, destination, euclidean), finder.aStar(source, destination, manhattan))) {
+                    assertEquals(distance, route.getDistance(), 1e-9);
+                    if (route.isFound()) {
+                        assertEquals(source, route.getVertices().get(0));
+                        assertEquals(destination, route.getVertices().get(route.getVertices().size() - 1));
+                        assertEquals(distance, length(grid, route.getVertices()), 1e-9);
+                    }
+                }
+            }
+        }
+
+        // Both searches settle less than a full Dijkstra across the grid
+        int corner = WIDTH * WIDTH - 1;
+        assertTrue(finder.aStar(0, WIDTH + 1, manhattan).getSettled() < WIDTH * WIDTH / 10);
+        assertTrue(finder.shortestPath(0, corner).getSettled() < WIDTH * WIDTH);
+    }
+
+    // Test queries from several threads use separate workspaces
+    @Test
+    void testConcurrentQueries() throws Exception {
+        ListGraph<Integer, Double> grid = grid(5);
+        PathFinder<Integer> finder = PathFinder.of(grid, Double::doubleValue);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Double>> results = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                int source = i * 37 % (WIDTH * WIDTH);
+                int destination = i * 91 % (WIDTH * WIDTH);
+                results.add(executor.submit(() -> finder.shortestPath(source, destination).getDistance()));
+            }
+            for (int i = 0; i < 40; i++) {
+                int source = i * 37 % (WIDTH * WIDTH);
+                int destination = i * 91 % (WIDTH * WIDTH);
+                assertEquals(GraphAlgorithms.dijkstra(grid, source, Double::doubleValue).distanceTo(destination),
+                        results.get(i).get(), 1e-9);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    // Test arguments are checked
+    @Test
+    void testArguments() {
+        PathFinder<String> finder = PathFinder.of(graph, Integer::doubleValue);
+        assertThrows(NoSuchVertexException.class, () -> finder.shortestPath("A", "Z"));
+        assertThrows(NoSuchVertexException.class, () -> finder.aStar("Z", "A", (u, v) -> 0));
+        assertThrows(IllegalArgumentException.class, () -> finder.aStar("A", "B", null));
+        assertThrows(IllegalArgumentException.class, () -> PathFinder.of(graph, null));
+        assertThrows(IllegalArgumentException.class, () -> PathFinder.euclidean(null, v -> 0));
+        graph.addEdge("E", "F", -1);
+        assertThrows(IllegalArgumentException.class, () -> PathFinder.of(graph, Integer::doubleValue));
+    }
+}
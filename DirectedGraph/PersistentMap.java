@@ -0,0 +1,545 @@
+/**
+ * A persistent hash map: a hash array mapped trie whose updates copy only the path from the
+ * root to the changed entry, so every earlier version of the map stays valid and shares all
+ * untouched nodes with the newer ones.
+ *
+ * Copying a path on every update is wasted work when no old version is being kept, so updates
+ * take an edit token. Nodes remember the token they were created under, and an update under
+ * the same token changes those nodes in place. Switching to a new token freezes everything
+ * created under the old one, which makes taking a snapshot O(1): the writer keeps updating in
+ * place until the first update after a snapshot, then copies each path once. Only one writer
+ * may use a token, and it must always continue from the map the last update returned.
+ *
+ * Each node holds up to 32 slots selected by 5 bits of the hash. A slot holds a key and its
+ * value, or a null key and a child node. Keys whose 32-bit hashes are equal end up in a node
+ * below the last level, which holds its entries as a plain list. Keys and values must not be
+ * null.
+ *
+ * @author mfullhart20@georgefox.edu
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+final class PersistentMap<K, V>
+{
+    // Number of hash bits consumed per level
+    private static final int BITS = 5;
+    // Nodes at or below this shift have used up the hash and hold a plain list of entries
+    private static final int LIST_SHIFT = 32;
+    // The shared empty map
+    private static final PersistentMap<?, ?> EMPTY = new PersistentMap<>(null, null, 0);
+
+    // The token of the update that created this map, or null
+    private final Object _edit;
+    // The root node, null if the map is empty
+    private Node _root;
+    // Number of entries
+    private int _size;
+
+    /**
+     * A node of the trie. The array holds two slots per entry: a key and its value, or null
+     * and a child node. Arrays are always exactly as long as needed.
+     */
+    private static final class Node
+    {
+        // The token of the update that created this node
+        private final Object _edit;
+        // Bit i is set if the node has a slot for hash digit i; unused below the last level
+        private int _bitmap;
+        // Keys, values and children
+        private Object[] _array;
+
+        /**
+         * Constructs a node.
+         *
+         * @param edit the token of the update creating the node
+         * @param bitmap the occupied hash digits
+         * @param array the keys, values and children
+         */
+        private Node(Object edit, int bitmap, Object[] array)
+        {
+            _edit = edit;
+            _bitmap = bitmap;
+            _array = array;
+        }
+    }
+
+    /**
+     * Constructs a map over a root node.
+     *
+     * @param edit the token of the update creating the map
+     * @param root the root node
+     * @param size the number of entries
+     */
+    private PersistentMap(Object edit, Node root, int size)
+    {
+        _edit = edit;
+        _root = root;
+        _size = size;
+    }
+
+    /**
+     * Returns the empty map.
+     *
+     * @param <K> the type of the keys
+     * @param <V> the type of the values
+     * @return the empty map
+     */
+    @SuppressWarnings("unchecked")
+    static <K, V> PersistentMap<K, V> empty()
+    {
+        return (PersistentMap<K, V>) EMPTY;
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return the number of entries
+     */
+    int size()
+    {
+        return _size;
+    }
+
+    /**
+     * Looks up the value of a key.
+     *
+     * @param key the key
+     * @return the value of the key, or null if the key is absent
+     */
+    @SuppressWarnings("unchecked")
+    V get(Object key)
+    {
+        Node node = _root;
+        int hash = hash(key);
+        int shift = 0;
+
+        while (node != null)
+        {
+            Object[] array = node._array;
+            if (shift >= LIST_SHIFT)
+            {
+                for (int i = 0; i < array.length; i += 2)
+                {
+                    if (key.equals(array[i]))
+                    {
+                        return (V) array[i + 1];
+                    }
+                }
+                return null;
+            }
+
+            int bit = 1 << ((hash >>> shift) & 31);
+            if ((node._bitmap & bit) == 0)
+            {
+                return null;
+            }
+            int i = 2 * Integer.bitCount(node._bitmap & (bit - 1));
+            if (array[i] != null)
+            {
+                return key.equals(array[i]) ? (V) array[i + 1] : null;
+            }
+            node = (Node) array[i + 1];
+            shift += BITS;
+        }
+        return null;
+    }
+
+    /**
+     * Checks if a key is present.
+     *
+     * @param key the key
+     * @return true if the key is present, false otherwise
+     */
+    boolean containsKey(Object key)
+    {
+        return get(key) != null;
+    }
+
+    /**
+     * Maps a key to a value.
+     *
+     * @param edit the token of the writer
+     * @param key the key
+     * @param value the value
+     * @return the updated map; this map itself if it was created under the same token
+     */
+    PersistentMap<K, V> put(Object edit, K key, V value)
+    {
+        boolean[] added = new boolean[1];
+        Node root = put(edit, _root, 0, hash(key), key, value, added);
+        return update(edit, root, added[0] ? _size + 1 : _size);
+    }
+
+    /**
+     * Removes a key.
+     *
+     * @param edit the token of the writer
+     * @param key the key
+     * @return the updated map; this map itself if it was created under the same token or the
+     * key was absent
+     */
+    PersistentMap<K, V> remove(Object edit, Object key)
+    {
+        if (_root == null)
+        {
+            return this;
+        }
+
+        boolean[] removed = new boolean[1];
+        Node root = remove(edit, _root, 0, hash(key), key, removed);
+        return update(edit, root, removed[0] ? _size - 1 : _size);
+    }
+
+    /**
+     * Produces the map for a new root, reusing this map if it belongs to the writer.
+     *
+     * @param edit the token of the writer
+     * @param root the new root
+     * @param size the new number of entries
+     * @return the updated map
+     */
+    private PersistentMap<K, V> update(Object edit, Node root, int size)
+    {
+        if (root == _root && size == _size)
+        {
+            return this;
+        }
+        if (_edit == edit)
+        {
+            _root = root;
+            _size = size;
+            return this;
+        }
+        return new PersistentMap<>(edit, root, size);
+    }
+
+    /**
+     * Returns a cursor over the entries, in no particular order.
+     *
+     * @return a cursor positioned before the first entry
+     */
+    Cursor<K, V> cursor()
+    {
+        return new Cursor<>(_root);
+    }
+
+    /**
+     * Walks the entries of a map. The cursor reads the nodes of the map as they were when it
+     * was created; it must not be used after the map was updated in place.
+     *
+     * @param <K> the type of the keys
+     * @param <V> the type of the values
+     */
+    static final class Cursor<K, V>
+    {
+        // The nodes on the path to the current entry, and the next slot to read in each
+        private final Node[] _nodes = new Node[LIST_SHIFT / BITS + 2];
+        private final int[] _positions = new int[LIST_SHIFT / BITS + 2];
+        // Index of the deepest node on the path, -1 once the walk is done
+        private int _depth;
+        // The current entry
+        private K _key;
+        private V _value;
+
+        /**
+         * Constructs a cursor over a trie.
+         *
+         * @param root the root node, or null
+         */
+        private Cursor(Node root)
+        {
+            _nodes[0] = root;
+            _depth = root == null ? -1 : 0;
+        }
+
+        /**
+         * Moves to the next entry.
+         *
+         * @return true if there was a next entry, false if the walk is done
+         */
+        @SuppressWarnings("unchecked")
+        boolean advance()
+        {
+            while (_depth >= 0)
+            {
+                Object[] array = _nodes[_depth]._array;
+                int i = _positions[_depth];
+                if (i >= array.length)
+                {
+                    _depth--;
+                    continue;
+                }
+
+                _positions[_depth] = i + 2;
+                if (array[i] == null)
+                {
+                    _depth++;
+                    _nodes[_depth] = (Node) array[i + 1];
+                    _positions[_depth] = 0;
+                }
+                else
+                {
+                    _key = (K) array[i];
+                    _value = (V) array[i + 1];
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Returns the key of the current entry.
+         *
+         * @return the key
+         */
+        K key()
+        {
+            return _key;
+        }
+
+        /**
+         * Returns the value of the current entry.
+         *
+         * @return the value
+         */
+        V value()
+        {
+            return _value;
+        }
+    }
+
+    /**
+     * Spreads the high bits of a hash code into the low ones, which pick the first levels.
+     *
+     * @param key the key
+     * @return the spread hash
+     */
+    private static int hash(Object key)
+    {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Adds or replaces an entry below a node.
+     *
+     * @param edit the token of the writer
+     * @param node the node, or null for an empty subtree
+     * @param shift the number of hash bits used above the node
+     * @param hash the hash of the key
+     * @param key the key
+     * @param value the value
+     * @param added set to true if the key was not present
+     * @return the updated node
+     */
+    private static Node put(Object edit, Node node, int shift, int hash, Object key, Object value,
+                            boolean[] added)
+    {
+        if (node == null)
+        {
+            added[0] = true;
+            return shift >= LIST_SHIFT
+                    ? new Node(edit, 0, new Object[] {key, value})
+                    : new Node(edit, 1 << ((hash >>> shift) & 31), new Object[] {key, value});
+        }
+
+        Object[] array = node._array;
+        if (shift >= LIST_SHIFT)
+        {
+            for (int i = 0; i < array.length; i += 2)
+            {
+                if (key.equals(array[i]))
+                {
+                    return set(edit, node, i + 1, value);
+                }
+            }
+            added[0] = true;
+            return resize(edit, node, node._bitmap, insert(array, array.length, key, value));
+        }
+
+        int bit = 1 << ((hash >>> shift) & 31);
+        int i = 2 * Integer.bitCount(node._bitmap & (bit - 1));
+
+        if ((node._bitmap & bit) == 0)
+        {
+            added[0] = true;
+            return resize(edit, node, node._bitmap | bit, insert(array, i, key, value));
+        }
+        if (array[i] == null)
+        {
+            return set(edit, node, i + 1, put(edit, (Node) array[i + 1], shift + BITS, hash, key, value, added));
+        }
+        if (key.equals(array[i]))
+        {
+            return set(edit, node, i + 1, value);
+        }
+
+        added[0] = true;
+        Node child = pair(edit, shift + BITS, hash(array[i]), array[i], array[i + 1], hash, key, value);
+        Node updated = set(edit, node, i + 1, child);
+        updated._array[i] = null;
+        return updated;
+    }
+
+    /**
+     * Removes an entry below a node.
+     *
+     * @param edit the token of the writer
+     * @param node the node
+     * @param shift the number of hash bits used above the node
+     * @param hash the hash of the key
+     * @param key the key
+     * @param removed set to true if the key was present
+     * @return the updated node, or null if it became empty
+     */
+    private static Node remove(Object edit, Node node, int shift, int hash, Object key, boolean[] removed)
+    {
+        Object[] array = node._array;
+        if (shift >= LIST_SHIFT)
+        {
+            for (int i = 0; i < array.length; i += 2)
+            {
+                if (key.equals(array[i]))
+                {
+                    removed[0] = true;
+                    return array.length == 2 ? null : resize(edit, node, 0, delete(array, i));
+                }
+            }
+            return node;
+        }
+
+        int bit = 1 << ((hash >>> shift) & 31);
+        if ((node._bitmap & bit) == 0)
+        {
+            return node;
+        }
+
+        int i = 2 * Integer.bitCount(node._bitmap & (bit - 1));
+        if (array[i] == null)
+        {
+            Node child = remove(edit, (Node) array[i + 1], shift + BITS, hash, key, removed);
+            if (child != null)
+            {
+                return set(edit, node, i + 1, child);
+            }
+        }
+        else if (key.equals(array[i]))
+        {
+            removed[0] = true;
+        }
+        else
+        {
+            return node;
+        }
+
+        return node._bitmap == bit ? null : resize(edit, node, node._bitmap ^ bit, delete(array, i));
+    }
+
+    /**
+     * Builds the subtree holding two entries whose hashes agree above the given shift.
+     *
+     * @param edit the token of the writer
+     * @param shift the number of hash bits used above the subtree
+     * @param hash1 the hash of the first key
+     * @param key1 the first key
+     * @param value1 the first value
+     * @param hash2 the hash of the second key
+     * @param key2 the second key
+     * @param value2 the second value
+     * @return the root of the subtree
+     */
+    private static Node pair(Object edit, int shift, int hash1, Object key1, Object value1,
+                             int hash2, Object key2, Object value2)
+    {
+        if (shift >= LIST_SHIFT)
+        {
+            return new Node(edit, 0, new Object[] {key1, value1, key2, value2});
+        }
+
+        int digit1 = (hash1 >>> shift) & 31;
+        int digit2 = (hash2 >>> shift) & 31;
+        if (digit1 == digit2)
+        {
+            Node child = pair(edit, shift + BITS, hash1, key1, value1, hash2, key2, value2);
+            return new Node(edit, 1 << digit1, new Object[] {null, child});
+        }
+        return digit1 < digit2
+                ? new Node(edit, (1 << digit1) | (1 << digit2), new Object[] {key1, value1, key2, value2})
+                : new Node(edit, (1 << digit1) | (1 << digit2), new Object[] {key2, value2, key1, value1});
+    }
+
+    /**
+     * Stores a value or child in a slot, in place if the node belongs to the writer.
+     *
+     * @param edit the token of the writer
+     * @param node the node
+     * @param i the slot
+     * @param value the value or child to store
+     * @return the node, or the updated copy of it
+     */
+    private static Node set(Object edit, Node node, int i, Object value)
+    {
+        if (node._array[i] == value)
+        {
+            return node;
+        }
+
+        Node updated = node._edit == edit ? node : new Node(edit, node._bitmap, node._array.clone());
+        updated._array[i] = value;
+        return updated;
+    }
+
+    /**
+     * Replaces the bitmap and array of a node, in place if the node belongs to the writer.
+     *
+     * @param edit the token of the writer
+     * @param node the node
+     * @param bitmap the new bitmap
+     * @param array the new array
+     * @return the node, or the updated copy of it
+     */
+    private static Node resize(Object edit, Node node, int bitmap, Object[] array)
+    {
+        if (node._edit != edit)
+        {
+            return new Node(edit, bitmap, array);
+        }
+        node._bitmap = bitmap;
+        node._array = array;
+        return node;
+    }
+
+    /**
+     * Copies an array with an entry inserted.
+     *
+     * @param array the array
+     * @param i the index of the new key
+     * @param key the key
+     * @param value the value
+     * @return the longer copy
+     */
+    private static Object[] insert(Object[] array, int i, Object key, Object value)
+    {
+        Object[] copy = new Object[array.length + 2];
+        System.arraycopy(array, 0, copy, 0, i);
+        copy[i] = key;
+        copy[i + 1] = value;
+        System.arraycopy(array, i, copy, i + 2, array.length - i);
+        return copy;
+    }
+
+    /**
+     * Copies an array with an entry removed.
+     *
+     * @param array the array
+     * @param i the index of the key to remove
+     * @return the shorter copy
+     */
+    private static Object[] delete(Object[] array, int i)
+    {
+        Object[] copy = new Object[array.length - 2];
+        System.arraycopy(array, 0, copy, 0, i);
+        System.arraycopy(array, i + 2, copy, i, array.length - i - 2);
+        return copy;
+    }
+}
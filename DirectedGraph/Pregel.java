@@ -0,0 +1,499 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs vertex-centric computations (see VertexProgram) over any DirectedGraph. The graph is
+ * brought into CSR form once, with its transpose if the program reads incoming neighbors, and
+ * every superstep then reads the values of the previous superstep from one primitive array and
+ * writes the new values into a second one; the two arrays swap roles after each superstep.
+ * Supersteps are split into ranges of GRAIN vertices and run on a ForkJoinPool, and no object
+ * is created per vertex or per edge.
+ *
+ * The computation stops when the total change of the values in a superstep is at most the
+ * tolerance of the program, or after a given number of supersteps.
+ *
+ * @author mfullhart20@georgefox.edu
+ */
+public final class Pregel
+{
+    // Number of vertices handled by one leaf task
+    private static final int GRAIN = 1024;
+
+    /**
+     * Pregel only has static methods.
+     */
+    private Pregel()
+    {
+    }
+
+    /**
+     * Runs a program on the common ForkJoinPool.
+     *
+     * @param graph the graph to compute over
+     * @param program the program to run
+     * @param maxSupersteps the largest number of supersteps to run
+     * @param <V> the type of the vertex labels
+     * @param <E> the type of the edge labels
+     * @return the values of the vertices
+     * @throws IllegalArgumentException throw IAE if the program is null or maxSupersteps is
+     * negative
+     */
+    public static <V, E> Result<V> run(DirectedGraph<V, E> graph, VertexProgram program, int maxSupersteps)
+    {
+        return run(graph, program, maxSupersteps, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Runs a program on the given pool.
+     *
+     * @param graph the graph to compute over
+     * @param program the program to run
+     * @param maxSupersteps the largest number of supersteps to run
+     * @param pool the pool that runs the supersteps
+     * @param <V> the type of the vertex labels
+     * @param <E> the type of the edge labels
+     * @return the values of the vertices
+     * @throws IllegalArgumentException throw IAE if the program or the pool is null or
+     * maxSupersteps is negative
+     */
+    public static <V, E> Result<V> run(DirectedGraph<V, E> graph, VertexProgram program, int maxSupersteps,
+                                       ForkJoinPool pool)
+    {
+        if (program == null)
+        {
+            throw new IllegalArgumentException("Null program");
+        }
+        if (pool == null)
+        {
+            throw new IllegalArgumentException("Null pool");
+        }
+        if (maxSupersteps < 0)
+        {
+            throw new IllegalArgumentException("Negative superstep count");
+        }
+
+        // The result keeps the graph to map ids to labels, so it must own a copy
+        CsrGraph<V, E> csr = CsrGraph.copyOf(graph);
+        Computation computation = new Computation(csr.size(), csr.offsets(), csr.targets(), program);
+        computation.run(maxSupersteps, pool);
+
+        return new Result<>(csr, computation._values, computation._superstep, computation._converged);
+    }
+
+    /**
+     * The state of one run of a program.
+     */
+    private static class Computation
+    {
+        // The graph in CSR form
+        private final int _n;
+        private final int[] _offsets;
+        private final int[] _targets;
+        // The transposed graph, null if the program does not read incoming neighbors
+        private final int[] _inOffsets;
+        private final int[] _inSources;
+        // The program
+        private final VertexProgram _program;
+
+        // Values at the end of the previous superstep, and the values being computed
+        private double[] _values;
+        private double[] _next;
+        // Global sum of the previous superstep
+        private double _aggregate;
+        // Per-leaf sums of the current superstep, added up in leaf order so runs are
+        // reproducible
+        private final double[] _deltas;
+        private final double[] _aggregates;
+        // Number of supersteps run
+        private int _superstep;
+        // True if the last superstep changed the values by at most the tolerance
+        private boolean _converged;
+
+        /**
+         * Prepares a computation.
+         *
+         * @param n the number of vertices
+         * @param offsets the CSR offsets array
+         * @param targets the CSR targets array
+         * @param program the program to run
+         */
+        private Computation(int n, int[] offsets, int[] targets, VertexProgram program)
+        {
+            _n = n;
+            _offsets = offsets;
+            _targets = targets;
+            _program = program;
+
+            if (program.direction() == VertexProgram.Direction.OUT)
+            {
+                _inOffsets = null;
+                _inSources = null;
+            }
+            else
+            {
+                int[][] transposed = GraphAlgorithms.transpose(n, offsets, targets);
+                _inOffsets = transposed[0];
+                _inSources = transposed[1];
+            }
+
+            _values = new double[n];
+            _next = new double[n];
+            _deltas = new double[(n + GRAIN - 1) / GRAIN];
+            _aggregates = new double[_deltas.length];
+
+            for (int v = 0; v < n; v++)
+            {
+                _values[v] = program.initialValue(v, n);
+                _aggregate += program.aggregate(_values[v], offsets[v + 1] - offsets[v]);
+            }
+        }
+
+        /**
+         * Runs supersteps until the values converge or the limit is reached.
+         *
+         * @param maxSupersteps the largest number of supersteps to run
+         * @param pool the pool that runs the supersteps
+         */
+        private void run(int maxSupersteps, ForkJoinPool pool)
+        {
+            _converged = _n == 0;
+            while (_superstep < maxSupersteps && !_converged)
+            {
+                pool.invoke(new SuperstepTask(0, _n));
+
+                double delta = 0;
+                double aggregate = 0;
+                for (int leaf = 0; leaf < _deltas.length; leaf++)
+                {
+                    delta += _deltas[leaf];
+                    aggregate += _aggregates[leaf];
+                }
+
+                double[] swap = _values;
+                _values = _next;
+                _next = swap;
+                _aggregate = aggregate;
+                _superstep++;
+                _converged = delta <= _program.tolerance();
+            }
+        }
+
+        /**
+         * Computes the next values of a range of vertices.
+         */
+        @SuppressWarnings("serial")
+        private class SuperstepTask extends RecursiveAction
+        {
+            // The range [_from, _to) of vertex ids to compute
+            private final int _from;
+            private final int _to;
+
+            /**
+             * Constructs a task over a range of vertices.
+             *
+             * @param from the first vertex id
+             * @param to one past the last vertex id
+             */
+            private SuperstepTask(int from, int to)
+            {
+                _from = from;
+                _to = to;
+            }
+
+            @Override
+            protected void compute()
+            {
+                if (_to - _from > GRAIN)
+                {
+                    // Split on a multiple of GRAIN so every leaf owns one slot of _deltas
+                    int middle = _from + Math.max(1, (_to - _from) / GRAIN / 2) * GRAIN;
+                    invokeAll(new SuperstepTask(_from, middle), new SuperstepTask(middle, _to));
+                    return;
+                }
+
+                Context context = new Context(Computation.this);
+                double delta = 0;
+                double aggregate = 0;
+
+                for (int v = _from; v < _to; v++)
+                {
+                    context.moveTo(v);
+                    double value = _program.compute(context);
+                    _next[v] = value;
+                    delta += Math.abs(value - _values[v]);
+                    aggregate += _program.aggregate(value, _offsets[v + 1] - _offsets[v]);
+                }
+
+                _deltas[_from / GRAIN] = delta;
+                _aggregates[_from / GRAIN] = aggregate;
+            }
+        }
+    }
+
+    /**
+     * What a vertex sees while it computes its next value: its own value and degree and the
+     * values and degrees of its neighbors, all as of the end of the previous superstep. One
+     * context is reused for every vertex of a task.
+     */
+    public static final class Context
+    {
+        // The computation being run
+        private final Computation _computation;
+        // The vertex being computed
+        private int _vertex;
+        // Number of incoming neighbors read, and total number of neighbors read
+        private int _inCount;
+        private int _count;
+        // Scratch buffer returned by neighborValues()
+        private double[] _buffer = new double[16];
+
+        /**
+         * Constructs a context for one task.
+         *
+         * @param computation the computation being run
+         */
+        private Context(Computation computation)
+        {
+            _computation = computation;
+        }
+
+        /**
+         * Points the context at a vertex.
+         *
+         * @param v the id of the vertex
+         */
+        private void moveTo(int v)
+        {
+            Computation c = _computation;
+            VertexProgram.Direction direction = c._program.direction();
+            _vertex = v;
+            _inCount = direction == VertexProgram.Direction.OUT ? 0 : c._inOffsets[v + 1] - c._inOffsets[v];
+            _count = _inCount + (direction == VertexProgram.Direction.IN ? 0 : c._offsets[v + 1] - c._offsets[v]);
+        }
+
+        /**
+         * Returns the id of the vertex being computed.
+         *
+         * @return the vertex id
+         */
+        public int vertex()
+        {
+            return _vertex;
+        }
+
+        /**
+         * Returns the value of the vertex at the end of the previous superstep.
+         *
+         * @return the value
+         */
+        public double value()
+        {
+            return _computation._values[_vertex];
+        }
+
+        /**
+         * Returns the number of outgoing edges of the vertex.
+         *
+         * @return the out-degree
+         */
+        public int degree()
+        {
+            return _computation._offsets[_vertex + 1] - _computation._offsets[_vertex];
+        }
+
+        /**
+         * Returns the number of neighbors the vertex reads, as chosen by the direction of the
+         * program. With Direction.BOTH a neighbor joined in both directions counts twice.
+         *
+         * @return the number of neighbors
+         */
+        public int neighbors()
+        {
+            return _count;
+        }
+
+        /**
+         * Returns the id of a neighbor.
+         *
+         * @param i the index of the neighbor, from 0 to neighbors() - 1
+         * @return the neighbor id
+         */
+        public int neighbor(int i)
+        {
+            Computation c = _computation;
+            return i < _inCount ? c._inSources[c._inOffsets[_vertex] + i] : c._targets[c._offsets[_vertex] + i - _inCount];
+        }
+
+        /**
+         * Returns the value of a neighbor at the end of the previous superstep.
+         *
+         * @param i the index of the neighbor, from 0 to neighbors() - 1
+         * @return the value of the neighbor
+         */
+        public double neighborValue(int i)
+        {
+            return _computation._values[neighbor(i)];
+        }
+
+        /**
+         * Returns the number of outgoing edges of a neighbor.
+         *
+         * @param i the index of the neighbor, from 0 to neighbors() - 1
+         * @return the out-degree of the neighbor
+         */
+        public int neighborDegree(int i)
+        {
+            int u = neighbor(i);
+            return _computation._offsets[u + 1] - _computation._offsets[u];
+        }
+
+        /**
+         * Copies the values of all neighbors into a buffer owned by the context. The first
+         * neighbors() entries are valid until the next vertex is computed, and the program may
+         * reorder them.
+         *
+         * @return the buffer
+         */
+        public double[] neighborValues()
+        {
+            if (_buffer.length < _count)
+            {
+                _buffer = new double[Math.max(_count, 2 * _buffer.length)];
+            }
+            for (int i = 0; i < _count; i++)
+            {
+                _buffer[i] = neighborValue(i);
+            }
+            return _buffer;
+        }
+
+        /**
+         * Returns the number of vertices in the graph.
+         *
+         * @return the number of vertices
+         */
+        public int vertexCount()
+        {
+            return _computation._n;
+        }
+
+        /**
+         * Returns the number of the superstep being run, starting at 0.
+         *
+         * @return the superstep
+         */
+        public int superstep()
+        {
+            return _computation._superstep;
+        }
+
+        /**
+         * Returns the sum of VertexProgram.aggregate() over all vertices at the end of the
+         * previous superstep.
+         *
+         * @return the global sum
+         */
+        public double aggregate()
+        {
+            return _computation._aggregate;
+        }
+    }
+
+    /**
+     * The result of running a program: the final value of every vertex.
+     *
+     * @param <V> the type of the vertex labels
+     */
+    public static class Result<V>
+    {
+        // The graph the ids refer to
+        private final CsrGraph<V, ?> _graph;
+        // Final value of each vertex, indexed by id
+        private final double[] _values;
+        // Number of supersteps run
+        private final int _supersteps;
+        // True if the values converged within the superstep limit
+        private final boolean _converged;
+
+        /**
+         * Constructs a result.
+         *
+         * @param graph the graph the ids refer to
+         * @param values the final values
+         * @param supersteps the number of supersteps run
+         * @param converged true if the values converged
+         */
+        Result(CsrGraph<V, ?> graph, double[] values, int supersteps, boolean converged)
+        {
+            _graph = graph;
+            _values = values;
+            _supersteps = supersteps;
+            _converged = converged;
+        }
+
+        /**
+         * Returns the final value of a vertex.
+         *
+         * @param v the vertex
+         * @return the value
+         * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+         */
+        public double valueOf(V v)
+        {
+            return _values[_graph.indexOf(v)];
+        }
+
+        /**
+         * Returns the id of a vertex in getValues().
+         *
+         * @param v the vertex
+         * @return the id
+         * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+         */
+        public int idOf(V v)
+        {
+            return _graph.indexOf(v);
+        }
+
+        /**
+         * Returns the vertex with a given id.
+         *
+         * @param id the id
+         * @return the vertex
+         */
+        public V vertexAt(int id)
+        {
+            return _graph.vertexAt(id);
+        }
+
+        /**
+         * Returns the final values, indexed by vertex id. The array is shared, not copied.
+         *
+         * @return the values
+         */
+        public double[] getValues()
+        {
+            return _values;
+        }
+
+        /**
+         * Returns the number of supersteps that were run.
+         *
+         * @return the number of supersteps
+         */
+        public int supersteps()
+        {
+            return _supersteps;
+        }
+
+        /**
+         * Checks if the values converged before the superstep limit.
+         *
+         * @return true if the computation converged, false otherwise
+         */
+        public boolean isConverged()
+        {
+            return _converged;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Compares PageRank computed with a plain loop over edges(), which creates an Edge object per
+ * edge per iteration, against the PageRank program run by Pregel. Both run ITERATIONS
+ * iterations on a power-law graph. Pass thread counts as arguments to time Pregel on pools of
+ * those sizes; the default is the common pool.
+ *
+ * @author mfullhart20@georgefox.edu
+ */
+public class PregelBenchmark
+{
+    // Number of vertices and edges of the graph
+    private static final int VERTICES = 200_000;
+    private static final int EDGES = 2_000_000;
+    // Number of PageRank iterations per run
+    private static final int ITERATIONS = 20;
+    // Damping factor of PageRank
+    private static final double DAMPING = 0.85;
+    // Number of untimed runs used to warm up the JIT
+    private static final int WARMUP_RUNS = 2;
+    // Number of timed runs
+    private static final int MEASURED_RUNS = 3;
+
+    // Written by every run so the JIT cannot discard the work
+    private static volatile double _sink;
+
+    /**
+     * Runs the comparison and prints the best time of each approach.
+     *
+     * @param args optional thread counts
+     */
+    public static void main(String[] args)
+    {
+        ListGraph<Integer, Integer> graph = GraphFixtures.fill(new ListGraph<>(), VERTICES,
+                GraphFixtures.edges(GraphFixtures.Shape.POWER_LAW, VERTICES, EDGES, 1));
+        // The tolerance is 0 so Pregel runs all ITERATIONS supersteps
+        VertexProgram pageRank = VertexPrograms.pageRank(DAMPING, 0);
+
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < WARMUP_RUNS + MEASURED_RUNS; run++)
+        {
+            long start = System.nanoTime();
+            _sink = naive(graph)[0];
+            if (run >= WARMUP_RUNS)
+            {
+                best = Math.min(best, System.nanoTime() - start);
+            }
+        }
+        System.out.printf("edges() loop         %,10.1f ms%n", best / 1e6);
+
+        List<ForkJoinPool> pools = new ArrayList<>();
+        if (args.length == 0)
+        {
+            pools.add(ForkJoinPool.commonPool());
+        }
+        for (String arg : args)
+        {
+            pools.add(new ForkJoinPool(Integer.parseInt(arg)));
+        }
+
+        for (ForkJoinPool pool : pools)
+        {
+            best = Long.MAX_VALUE;
+            for (int run = 0; run < WARMUP_RUNS + MEASURED_RUNS; run++)
+            {
+                long start = System.nanoTime();
+                _sink = Pregel.run(graph, pageRank, ITERATIONS, pool).getValues()[0];
+                if (run >= WARMUP_RUNS)
+                {
+                    best = Math.min(best, System.nanoTime() - start);
+                }
+            }
+            System.out.printf("Pregel, %2d threads   %,10.1f ms%n", pool.getParallelism(), best / 1e6);
+        }
+    }
+
+    /**
+     * Computes PageRank by walking edges() once per iteration.
+     *
+     * @param graph the graph
+     * @return the ranks, indexed by vertex
+     */
+    private static double[] naive(DirectedGraph<Integer, Integer> graph)
+    {
+        int n = graph.size();
+        double[] rank = new double[n];
+        Arrays.fill(rank, 1.0 / n);
+
+        for (int iteration = 0; iteration < ITERATIONS; iteration++)
+        {
+            double dangling = 0;
+            for (int v = 0; v < n; v++)
+            {
+                if (graph.degree(v) == 0)
+                {
+                    dangling += rank[v];
+                }
+            }
+
+            double[] next = new double[n];
+            Arrays.fill(next, (1 - DAMPING) / n + DAMPING * dangling / n);
+            Iterator<Edge<Integer, Integer>> edges = graph.edges();
+            while (edges.hasNext())
+            {
+                Edge<Integer, Integer> edge = edges.next();
+                next[edge.getV()] += DAMPING * rank[edge.getU()] / graph.degree(edge.getU());
+            }
+            rank = next;
+        }
+        return rank;
+    }
+}
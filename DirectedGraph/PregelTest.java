@@ -0,0 +1,137 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+class PregelTest {
+    private static ListGraph<Integer, Integer> graph(int n, int[][] edges) {
+        ListGraph<Integer, Integer> graph = new ListGraph<>();
+        for (int v = 0; v < n; v++) {
+            graph.add(v);
+        }
+        for (int[] edge : edges) {
+            graph.addEdge(edge[0], edge[1], 1);
+        }
+        return graph;
+    }
+
+    // Computes PageRank with a plain power iteration over edges()
+    private static double[] powerIteration(DirectedGraph<Integer, Integer> graph, int n, double damping, int steps) {
+        double[] rank = new double[n];
+        Arrays.fill(rank, 1.0 / n);
+        for (int step = 0; step < steps; step++) {
+            double[] next = new double[n];
+            double dangling = 0;
+            for (int v = 0; v < n; v++) {
+                if (graph.degree(v) == 0) {
+                    dangling += rank[v];
+                }
+            }
+            for (int v = 0; v < n; v++) {
+                next[v] = (1 - damping) / n + damping * dangling / n;
+            }
+            final double[] current = rank;
+            graph.edges().forEachRemaining(edge ->
+                    next[edge.getV()] += damping * current[edge.getU()] / graph.degree(edge.getU()));
+            rank = next;
+        }
+        return rank;
+    }
+
+    // Test PageRank against a power iteration, including a vertex without outgoing edges
+    @Test
+    void testPageRank() {
+        ListGraph<Integer, Integer> graph = graph(4, new int[][] {{0, 1}, {1, 2}, {2, 0}, {2, 1}, {0, 3}});
+        Pregel.Result<Integer> result = Pregel.run(graph, VertexPrograms.pageRank(0.85, 1e-12), 200);
+        double[] expected = powerIteration(graph, 4, 0.85, 200);
+        double sum = 0;
+        for (int v = 0; v < 4; v++) {
+            assertEquals(expected[v], result.valueOf(v), 1e-9);
+            sum += result.valueOf(v);
+        }
+        assertEquals(1.0, sum, 1e-9);
+        assertTrue(result.isConverged());
+        assertTrue(result.supersteps() < 200);
+    }
+
+    // Test connected components ignore edge direction
+    @Test
+    void testConnectedComponents() {
+        ListGraph<Integer, Integer> graph = graph(7, new int[][] {{1, 0}, {2, 1}, {4, 3}, {5, 4}, {3, 5}});
+        Pregel.Result<Integer> result = Pregel.run(graph, VertexPrograms.connectedComponents(), 100);
+        assertArrayEquals(new double[] {0, 0, 0, 3, 3, 3, 6}, result.getValues());
+        assertTrue(result.isConverged());
+    }
+
+    // Test a result on a CsrGraph keeps its vertex mapping when the graph changes
+    @Test
+    void testResultSurvivesMutation() {
+        CsrGraph<Integer, Integer> csr = CsrGraph.copyOf(graph(4, new int[][] {{1, 0}, {3, 2}}));
+        Pregel.Result<Integer> result = Pregel.run(csr, VertexPrograms.connectedComponents(), 100);
+        csr.remove(0);
+        assertEquals(Integer.valueOf(0), result.vertexAt(0));
+        assertEquals(1, result.idOf(1));
+        assertEquals(0, result.valueOf(1));
+        assertEquals(2, result.valueOf(3));
+    }
+
+    // Test label propagation separates two cliques joined by one edge
+    @Test
+    void testLabelPropagation() {
+        ListGraph<Integer, Integer> graph = graph(8, new int[0][]);
+        for (List<Integer> clique : List.of(List.of(0, 1, 2, 3), List.of(4, 5, 6, 7))) {
+            for (int u : clique) {
+                for (int v : clique) {
+                    if (u != v) {
+                        graph.addEdge(u, v, 1);
+                    }
+                }
+            }
+        }
+        graph.addEdge(3, 4, 1);
+        Pregel.Result<Integer> result = Pregel.run(graph, VertexPrograms.labelPropagation(), 50);
+        for (int v = 1; v < 4; v++) {
+            assertEquals(result.valueOf(0), result.valueOf(v));
+            assertEquals(result.valueOf(4), result.valueOf(v + 4));
+        }
+        assertNotEquals(result.valueOf(0), result.valueOf(4));
+    }
+
+    // Test a parallel run gives exactly the values of a run on one thread
+    @Test
+    void testParallelRunIsReproducible() {
+        int n = 20_000;
+        ListGraph<Integer, Integer> graph = GraphFixtures.fill(new ListGraph<>(), n,
+                GraphFixtures.edges(GraphFixtures.Shape.POWER_LAW, n, n * 5, 8));
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool several = new ForkJoinPool(4);
+        try {
+            for (VertexProgram program : List.of(VertexPrograms.pageRank(0.85, 1e-10),
+                    VertexPrograms.connectedComponents(), VertexPrograms.labelPropagation())) {
+                Pregel.Result<Integer> one = Pregel.run(graph, program, 30, single);
+                Pregel.Result<Integer> four = Pregel.run(graph, program, 30, several);
+                assertArrayEquals(one.getValues(), four.getValues());
+                assertEquals(one.supersteps(), four.supersteps());
+            }
+        } finally {
+            single.shutdown();
+            several.shutdown();
+        }
+    }
+
+    // Test the superstep limit and argument checks
+    @Test
+    void testLimits() {
+        ListGraph<Integer, Integer> graph = graph(3, new int[][] {{0, 1}, {1, 2}});
+        Pregel.Result<Integer> result = Pregel.run(graph, VertexPrograms.connectedComponents(), 1);
+        assertArrayEquals(new double[] {0, 0, 1}, result.getValues());
+        assertFalse(result.isConverged());
+        assertEquals(0, Pregel.run(graph, VertexPrograms.pageRank(0.85, 0), 0).supersteps());
+        assertTrue(Pregel.run(new ListGraph<Integer, Integer>(), VertexPrograms.connectedComponents(), 5).isConverged());
+        assertThrows(IllegalArgumentException.class, () -> Pregel.run(graph, null, 5));
+        assertThrows(IllegalArgumentException.class, () -> Pregel.run(graph, VertexPrograms.connectedComponents(), -1));
+        assertThrows(IllegalArgumentException.class, () -> VertexPrograms.pageRank(1.5, 0));
+        assertThrows(NoSuchVertexException.class, () -> result.valueOf(9));
+    }
+}
@@ -0,0 +1,101 @@
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares answering reachability queries with a fresh breadth-first search against the index
+ * of a ReachabilityGraph, on a random graph that changes slowly between queries. Every run
+ * interleaves QUERIES queries with one edge insertion every UPDATE_INTERVAL queries.
+ *
+ * @author mfullhart20@georgefox.edu
+ */
+public class ReachabilityBenchmark
+{
+    // Number of vertices and edges of the graph
+    private static final int VERTICES = 20_000;
+    private static final int EDGES = 24_000;
+    // Number of queries per run
+    private static final int QUERIES = 20_000;
+    // Number of queries between two edge insertions
+    private static final int UPDATE_INTERVAL = 100;
+    // Number of untimed runs used to warm up the JIT
+    private static final int WARMUP_RUNS = 2;
+    // Number of timed runs
+    private static final int MEASURED_RUNS = 3;
+
+    // Written by every run so the JIT cannot discard the work
+    private static volatile long _sink;
+
+    /**
+     * Runs the comparison and prints the time per query of each approach.
+     *
+     * @param args not used
+     */
+    public static void main(String[] args)
+    {
+        List<Edge<Integer, Integer>> edges =
+                GraphFixtures.edges(GraphFixtures.Shape.RANDOM, VERTICES, EDGES + QUERIES, 1);
+
+        long search = Long.MAX_VALUE;
+        long index = Long.MAX_VALUE;
+        ReachabilityGraph<Integer, Integer> last = null;
+
+        for (int run = 0; run < WARMUP_RUNS + MEASURED_RUNS; run++)
+        {
+            long start = System.nanoTime();
+            run(GraphFixtures.fill(new ListGraph<>(), VERTICES, edges.subList(0, EDGES)), null, edges, run);
+            long searchTime = System.nanoTime() - start;
+
+            last = new ReachabilityGraph<>(GraphFixtures.fill(new ListGraph<>(), VERTICES,
+                    edges.subList(0, EDGES)));
+            start = System.nanoTime();
+            run(last, last, edges, run);
+            long indexTime = System.nanoTime() - start;
+
+            if (run >= WARMUP_RUNS)
+            {
+                search = Math.min(search, searchTime);
+                index = Math.min(index, indexTime);
+            }
+        }
+
+        System.out.printf("breadth-first search %,12.0f ns/query%n", search / (double) QUERIES);
+        System.out.printf("reachability index   %,12.0f ns/query%n", index / (double) QUERIES);
+        System.out.printf("index: %d components, %,d bytes, hit rate %.3f, %d rebuilds%n",
+                last.componentCount(), last.footprint(), last.hitRate(), last.rebuilds());
+    }
+
+    /**
+     * Answers random queries, adding one edge of the fixture every UPDATE_INTERVAL queries.
+     *
+     * @param graph the graph to query and update
+     * @param index the graph as a ReachabilityGraph, or null to answer with a search
+     * @param edges the edges of the fixture; the edges after EDGES are inserted during the run
+     * @param seed the seed of the random queries
+     */
+    private static void run(DirectedGraph<Integer, Integer> graph, ReachabilityGraph<Integer, Integer> index,
+                            List<Edge<Integer, Integer>> edges, long seed)
+    {
+        Random random = new Random(seed);
+        long sink = 0;
+
+        for (int i = 0; i < QUERIES; i++)
+        {
+            if (i % UPDATE_INTERVAL == 0)
+            {
+                Edge<Integer, Integer> edge = edges.get(EDGES + i / UPDATE_INTERVAL);
+                graph.addEdge(edge.getU(), edge.getV(), edge.getLabel());
+            }
+
+            int u = random.nextInt(VERTICES);
+            int v = random.nextInt(VERTICES);
+            boolean reachable = index != null
+                    ? index.isReachable(u, v)
+                    : GraphAlgorithms.breadthFirst(graph, u).contains(v);
+            if (reachable)
+            {
+                sink++;
+            }
+        }
+        _sink = sink;
+    }
+}
@@ -0,0 +1,682 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * A DirectedGraph decorator that answers "is v reachable from u" from a precomputed index
+ * instead of searching the graph on every query. All graph operations are forwarded to the
+ * wrapped graph; mutations made through this decorator keep the index up to date. The wrapped
+ * graph must not be modified directly once it is wrapped.
+ *
+ * The index condenses the graph into its strongly connected components and stores, for every
+ * component, a bitset of the components it reaches. Tarjan's algorithm numbers the components
+ * in reverse topological order, so the bitset of a component is the union of the bitsets of
+ * its successors and every successor is finished first. A query is two map lookups and one
+ * bit test. The bitsets take O(C^2) bits for C components, so the index suits graphs with up
+ * to some tens of thousands of components.
+ *
+ * The index is built lazily by the first query and kept across mutations where that is cheap:
+ *
+ *   add          the new vertex becomes a new component that reaches only itself
+ *   addEdge      the bitset of the destination is merged into every component that reaches
+ *                the source, unless the edge closes a cycle
+ *   removeEdge   nothing changes if the source still reaches the destination through another
+ *                component
+ *   remove       nothing changes if the vertex has no incoming or no outgoing edges
+ *
+ * Any other mutation invalidates the index and the next query rebuilds it in O(V + E + C^2 / 64).
+ * Queries answered from a valid index count as hits, queries that had to rebuild it first as
+ * misses.
+ *
+ * @author mfullhart20@georgefox.edu
+ * @param <V> the type of the vertex labels
+ * @param <E> the type of the edge labels
+ */
+public class ReachabilityGraph<V, E> extends DirectedGraph<V, E>
+{
+    // Estimated heap cost of one entry of _componentOf: the node, the table slot and the
+    // Integer, assuming compressed references
+    private static final int MAP_ENTRY_BYTES = 52;
+    // Heap cost of an array header
+    private static final int ARRAY_HEADER_BYTES = 16;
+
+    // The decorated graph
+    private final DirectedGraph<V, E> _graph;
+    // Maps each vertex to its component, null while the index is invalid
+    private Map<V, Integer> _componentOf;
+    // _reach[c] has bit d set if component c reaches component d; rows have different lengths
+    private long[][] _reach;
+    // Number of components
+    private int _componentCount;
+    // Query and maintenance counters
+    private long _hits;
+    private long _misses;
+    private long _rebuilds;
+    private long _updates;
+    private long _invalidations;
+
+    /**
+     * Wraps a graph with a reachability index.
+     *
+     * @param graph the graph to decorate
+     * @throws IllegalArgumentException throw IAE if the graph is null
+     */
+    public ReachabilityGraph(DirectedGraph<V, E> graph)
+    {
+        if (graph == null)
+        {
+            throw new IllegalArgumentException("Null graph");
+        }
+        _graph = graph;
+    }
+
+    /**
+     * Checks if there is a path from one vertex to another. Every vertex reaches itself.
+     *
+     * @param u the vertex the path starts at
+     * @param v the vertex the path ends at
+     * @return true if v is reachable from u, false otherwise
+     * @throws NoSuchVertexException throw NSVE if either vertex does not exist
+     */
+    public boolean isReachable(V u, V v)
+    {
+        if (_componentOf == null)
+        {
+            _misses++;
+            rebuild();
+        }
+        else
+        {
+            _hits++;
+        }
+
+        return reaches(componentOf(u), componentOf(v));
+    }
+
+    /**
+     * Returns the number of queries answered from a valid index.
+     *
+     * @return the number of hits
+     */
+    public long hits()
+    {
+        return _hits;
+    }
+
+    /**
+     * Returns the number of queries that had to rebuild the index first.
+     *
+     * @return the number of misses
+     */
+    public long misses()
+    {
+        return _misses;
+    }
+
+    /**
+     * Returns the fraction of queries answered from a valid index.
+     *
+     * @return the hit rate, or 0 if there were no queries
+     */
+    public double hitRate()
+    {
+        long queries = _hits + _misses;
+        return queries == 0 ? 0 : _hits / (double) queries;
+    }
+
+    /**
+     * Returns the number of times the index was built from scratch.
+     *
+     * @return the number of rebuilds
+     */
+    public long rebuilds()
+    {
+        return _rebuilds;
+    }
+
+    /**
+     * Returns the number of mutations that kept the index valid.
+     *
+     * @return the number of incremental updates
+     */
+    public long updates()
+    {
+        return _updates;
+    }
+
+    /**
+     * Returns the number of mutations that invalidated the index.
+     *
+     * @return the number of invalidations
+     */
+    public long invalidations()
+    {
+        return _invalidations;
+    }
+
+    /**
+     * Checks if the index is currently valid, so the next query is a hit.
+     *
+     * @return true if the index is valid, false otherwise
+     */
+    public boolean isIndexed()
+    {
+        return _componentOf != null;
+    }
+
+    /**
+     * Returns the number of strongly connected components in the index.
+     *
+     * @return the number of components, or 0 if the index is invalid
+     */
+    public int componentCount()
+    {
+        return _componentOf == null ? 0 : _componentCount;
+    }
+
+    /**
+     * Estimates the heap used by the index: the component bitsets exactly, and the vertex to
+     * component map at a fixed cost per entry.
+     *
+     * @return the estimated size of the index in bytes, or 0 if the index is invalid
+     */
+    public long footprint()
+    {
+        if (_componentOf == null)
+        {
+            return 0;
+        }
+
+        long bytes = ARRAY_HEADER_BYTES + 4L * _reach.length;
+        for (int c = 0; c < _componentCount; c++)
+        {
+            bytes += ARRAY_HEADER_BYTES + 8L * _reach[c].length;
+        }
+        return bytes + (long) MAP_ENTRY_BYTES * _componentOf.size();
+    }
+
+    /**
+     * Adds a vertex to the graph. A valid index gains a component for it.
+     *
+     * @param v the label of the vertex to add
+     */
+    @Override
+    public void add(V v)
+    {
+        _graph.add(v);
+
+        if (_componentOf != null)
+        {
+            int c = _componentCount++;
+            if (c == _reach.length)
+            {
+                _reach = Arrays.copyOf(_reach, Math.max(16, 2 * c));
+            }
+            _reach[c] = new long[(c >>> 6) + 1];
+            _reach[c][c >>> 6] |= 1L << c;
+            _componentOf.put(v, c);
+            _updates++;
+        }
+    }
+
+    /**
+     * Checks if a vertex exists in the wrapped graph.
+     *
+     * @param v the label of the vertex to check
+     * @return true if the vertex exists, false otherwise
+     */
+    @Override
+    public boolean contains(V v)
+    {
+        return _graph.contains(v);
+    }
+
+    /**
+     * Gets a vertex of the wrapped graph.
+     *
+     * @param v the label of the vertex
+     * @return the vertex object
+     */
+    @Override
+    public Vertex<V> get(V v)
+    {
+        return _graph.get(v);
+    }
+
+    /**
+     * Removes a vertex and all associated edges from the graph. A valid index is kept if no
+     * path ran through the vertex, which is the case when it has no incoming or no outgoing
+     * edges.
+     *
+     * @param v the label of the vertex to remove
+     * @return the label of the removed vertex
+     */
+    @Override
+    public V remove(V v)
+    {
+        boolean endpoint = _componentOf != null && _graph.contains(v)
+                && (_graph.degree(v) == 0 || _graph.inDegree(v) == 0);
+
+        V removed = _graph.remove(v);
+
+        if (endpoint)
+        {
+            _componentOf.remove(v);
+            _updates++;
+        }
+        else
+        {
+            invalidate();
+        }
+        return removed;
+    }
+
+    /**
+     * Adds an edge to the graph. A valid index is updated in place unless the edge closes a
+     * cycle and merges components.
+     *
+     * @param u the source vertex
+     * @param v the destination vertex
+     * @param label the edge label
+     */
+    @Override
+    public void addEdge(V u, V v, E label)
+    {
+        _graph.addEdge(u, v, label);
+
+        if (_componentOf == null)
+        {
+            return;
+        }
+
+        int cu = componentOf(u);
+        int cv = componentOf(v);
+        if (reaches(cu, cv))
+        {
+            _updates++;
+        }
+        else if (reaches(cv, cu))
+        {
+            invalidate();
+        }
+        else
+        {
+            long[] reachV = _reach[cv];
+            for (int c = 0; c < _componentCount; c++)
+            {
+                if (reaches(c, cu))
+                {
+                    _reach[c] = union(_reach[c], reachV);
+                }
+            }
+            _updates++;
+        }
+    }
+
+    /**
+     * Checks if an edge exists in the wrapped graph.
+     *
+     * @param u the source vertex
+     * @param v the destination vertex
+     * @return true if the edge exists, false otherwise
+     */
+    @Override
+    public boolean containsEdge(V u, V v)
+    {
+        return _graph.containsEdge(u, v);
+    }
+
+    /**
+     * Gets an edge of the wrapped graph.
+     *
+     * @param u the source vertex
+     * @param v the destination vertex
+     * @return the edge object
+     */
+    @Override
+    public Edge<V, E> getEdge(V u, V v)
+    {
+        return _graph.getEdge(u, v);
+    }
+
+    /**
+     * Removes an edge from the graph. A valid index is kept if the source still reaches the
+     * destination through a successor in another component: that successor cannot reach back
+     * into the component of the source, so its bitset never depended on the removed edge.
+     *
+     * @param u the source vertex
+     * @param v the destination vertex
+     * @return the label of the removed edge
+     */
+    @Override
+    public E removeEdge(V u, V v)
+    {
+        E label = _graph.removeEdge(u, v);
+
+        if (_componentOf == null)
+        {
+            return label;
+        }
+
+        int cu = componentOf(u);
+        int cv = componentOf(v);
+        if (cu != cv)
+        {
+            Iterator<Vertex<V>> adjacent = _graph.adjacent(u, true);
+            while (adjacent.hasNext())
+            {
+                int cw = componentOf(adjacent.next().getLabel());
+                if (cw != cu && reaches(cw, cv))
+                {
+                    _updates++;
+                    return label;
+                }
+            }
+        }
+
+        invalidate();
+        return label;
+    }
+
+    /**
+     * Returns the number of vertices in the wrapped graph.
+     *
+     * @return the number of vertices
+     */
+    @Override
+    public int size()
+    {
+        return _graph.size();
+    }
+
+    /**
+     * Returns the number of outgoing edges of a vertex.
+     *
+     * @param v the vertex to check
+     * @return the degree of the vertex
+     */
+    @Override
+    public int degree(V v)
+    {
+        return _graph.degree(v);
+    }
+
+    /**
+     * Returns the number of incoming edges of a vertex.
+     *
+     * @param v the vertex to check
+     * @return the in-degree of the vertex
+     */
+    @Override
+    public int inDegree(V v)
+    {
+        return _graph.inDegree(v);
+    }
+
+    /**
+     * Returns the number of edges in the wrapped graph.
+     *
+     * @return the number of edges
+     */
+    @Override
+    public int edgeCount()
+    {
+        return _graph.edgeCount();
+    }
+
+    /**
+     * Gets an iterator over the vertices of the wrapped graph.
+     *
+     * @return an iterator over vertex objects
+     */
+    @Override
+    public Iterator<Vertex<V>> vertices()
+    {
+        return _graph.vertices();
+    }
+
+    /**
+     * Gets an iterator over the vertices of the wrapped graph.
+     *
+     * @param flyweight true to reuse one Vertex object for the whole iteration
+     * @return an iterator over vertex objects
+     */
+    @Override
+    public Iterator<Vertex<V>> vertices(boolean flyweight)
+    {
+        return _graph.vertices(flyweight);
+    }
+
+    /**
+     * Gets an iterator over the vertices adjacent to a vertex.
+     *
+     * @param v the label of the source vertex
+     * @return an iterator over adjacent vertex objects
+     */
+    @Override
+    public Iterator<Vertex<V>> adjacent(V v)
+    {
+        return _graph.adjacent(v);
+    }
+
+    /**
+     * Gets an iterator over the vertices adjacent to a vertex.
+     *
+     * @param v the label of the source vertex
+     * @param flyweight true to reuse one Vertex object for the whole iteration
+     * @return an iterator over adjacent vertex objects
+     */
+    @Override
+    public Iterator<Vertex<V>> adjacent(V v, boolean flyweight)
+    {
+        return _graph.adjacent(v, flyweight);
+    }
+
+    /**
+     * Gets an iterator over the vertices with an edge into a vertex.
+     *
+     * @param v the label of the destination vertex
+     * @return an iterator over vertex objects
+     */
+    @Override
+    public Iterator<Vertex<V>> incoming(V v)
+    {
+        return _graph.incoming(v);
+    }
+
+    /**
+     * Gets an iterator over the edges of the wrapped graph.
+     *
+     * @return an iterator over edge objects
+     */
+    @Override
+    public Iterator<Edge<V, E>> edges()
+    {
+        return _graph.edges();
+    }
+
+    /**
+     * Gets an iterator over the edges of the wrapped graph.
+     *
+     * @param flyweight true to reuse one Edge object for the whole iteration
+     * @return an iterator over edge objects
+     */
+    @Override
+    public Iterator<Edge<V, E>> edges(boolean flyweight)
+    {
+        return _graph.edges(flyweight);
+    }
+
+    /**
+     * Adds a batch of edges through the wrapped graph and invalidates the index.
+     *
+     * @param edges the edges to add
+     * @param parallel true to let the wrapped graph prepare the batch on several threads
+     */
+    @Override
+    public void addEdges(Iterable<Edge<V, E>> edges, boolean parallel)
+    {
+        try
+        {
+            _graph.addEdges(edges, parallel);
+        }
+        finally
+        {
+            invalidate();
+        }
+    }
+
+    /**
+     * Clears the graph by removing all vertices and edges, and drops the index.
+     */
+    @Override
+    public void clear()
+    {
+        _graph.clear();
+        invalidate();
+    }
+
+    /**
+     * Checks if the wrapped graph is empty.
+     *
+     * @return true if the graph has no vertices, false otherwise
+     */
+    @Override
+    public boolean isEmpty()
+    {
+        return _graph.isEmpty();
+    }
+
+    /**
+     * Drops the index so the next query rebuilds it.
+     */
+    private void invalidate()
+    {
+        if (_componentOf != null)
+        {
+            _componentOf = null;
+            _reach = null;
+            _componentCount = 0;
+            _invalidations++;
+        }
+    }
+
+    /**
+     * Builds the index from scratch: condenses the graph with Tarjan's algorithm, then fills
+     * the bitsets of the components in the order they were completed.
+     */
+    private void rebuild()
+    {
+        CsrGraph<V, E> csr = GraphAlgorithms.compact(_graph);
+        int n = csr.size();
+        int[] offsets = csr.offsets();
+        int[] targets = csr.targets();
+        int[] component = new int[n];
+        int count = GraphAlgorithms.tarjan(n, offsets, targets, component);
+
+        // Group the vertices by component with a counting sort
+        int[] start = new int[count + 1];
+        for (int v = 0; v < n; v++)
+        {
+            start[component[v] + 1]++;
+        }
+        for (int c = 0; c < count; c++)
+        {
+            start[c + 1] += start[c];
+        }
+        int[] members = new int[n];
+        int[] next = Arrays.copyOf(start, count);
+        for (int v = 0; v < n; v++)
+        {
+            members[next[component[v]]++] = v;
+        }
+
+        // Every edge between components goes to a lower number, so the successors of c are
+        // finished before c and c fits in a row of (c >>> 6) + 1 words
+        long[][] reach = new long[Math.max(16, count)][];
+        int[] merged = new int[count];
+        Arrays.fill(merged, -1);
+        for (int c = 0; c < count; c++)
+        {
+            long[] row = new long[(c >>> 6) + 1];
+            row[c >>> 6] |= 1L << c;
+            for (int i = start[c]; i < start[c + 1]; i++)
+            {
+                int v = members[i];
+                for (int p = offsets[v]; p < offsets[v + 1]; p++)
+                {
+                    int d = component[targets[p]];
+                    if (d != c && merged[d] != c)
+                    {
+                        merged[d] = c;
+                        long[] successor = reach[d];
+                        for (int w = 0; w < successor.length; w++)
+                        {
+                            row[w] |= successor[w];
+                        }
+                    }
+                }
+            }
+            reach[c] = row;
+        }
+
+        Map<V, Integer> componentOf = new HashMap<>(Math.max(16, (int) (n / 0.75f) + 1));
+        for (int v = 0; v < n; v++)
+        {
+            componentOf.put(csr.vertexAt(v), component[v]);
+        }
+
+        _componentOf = componentOf;
+        _reach = reach;
+        _componentCount = count;
+        _rebuilds++;
+    }
+
+    /**
+     * Looks up the component of a vertex in the valid index.
+     *
+     * @param v the vertex
+     * @return the component of the vertex
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    private int componentOf(V v)
+    {
+        Integer c = _componentOf.get(v);
+        if (c == null)
+        {
+            throw new NoSuchVertexException("Vertex not found");
+        }
+        return c;
+    }
+
+    /**
+     * Checks if one component reaches another in the valid index.
+     *
+     * @param c the component the path starts at
+     * @param d the component the path ends at
+     * @return true if c reaches d, false otherwise
+     */
+    private boolean reaches(int c, int d)
+    {
+        long[] row = _reach[c];
+        return (d >>> 6) < row.length && (row[d >>> 6] & (1L << d)) != 0;
+    }
+
+    /**
+     * Merges a bitset into another, growing it if needed.
+     *
+     * @param row the bitset to merge into
+     * @param other the bitset to merge
+     * @return row, or a longer copy of it, holding the union
+     */
+    private static long[] union(long[] row, long[] other)
+    {
+        long[] result = row.length >= other.length ? row : Arrays.copyOf(row, other.length);
+        for (int w = 0; w < other.length; w++)
+        {
+            result[w] |= other[w];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,120 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+class ReachabilityGraphTest {
+    private ReachabilityGraph<String, Integer> graph;
+
+    @BeforeEach
+    void setUp() {
+        graph = new ReachabilityGraph<>(new ListGraph<>());
+        for (String v : List.of("A", "B", "C", "D", "E")) {
+            graph.add(v);
+        }
+        graph.addEdge("A", "B", 1);
+        graph.addEdge("B", "C", 1);
+        graph.addEdge("C", "A", 1);
+        graph.addEdge("C", "D", 1);
+    }
+
+    // Test queries over a graph with a cycle
+    @Test
+    void testIsReachable() {
+        assertTrue(graph.isReachable("A", "D"));
+        assertTrue(graph.isReachable("C", "B"));
+        assertTrue(graph.isReachable("E", "E"));
+        assertFalse(graph.isReachable("D", "A"));
+        assertFalse(graph.isReachable("A", "E"));
+        assertEquals(3, graph.componentCount());
+        assertThrows(NoSuchVertexException.class, () -> graph.isReachable("A", "Z"));
+    }
+
+    // Test the counters of the index
+    @Test
+    void testHitsAndMisses() {
+        assertFalse(graph.isIndexed());
+        graph.isReachable("A", "D");
+        graph.isReachable("D", "A");
+        graph.isReachable("B", "C");
+        assertEquals(1, graph.misses());
+        assertEquals(2, graph.hits());
+        assertEquals(2 / 3.0, graph.hitRate(), 1e-9);
+        assertEquals(1, graph.rebuilds());
+        assertTrue(graph.footprint() > 0);
+    }
+
+    // Test mutations that keep the index
+    @Test
+    void testIncrementalUpdates() {
+        graph.isReachable("A", "A");
+        graph.add("F");
+        graph.addEdge("D", "E", 1);
+        graph.addEdge("E", "F", 1);
+        graph.addEdge("C", "E", 1);
+        assertTrue(graph.isReachable("B", "F"));
+        assertFalse(graph.isReachable("F", "E"));
+        graph.removeEdge("C", "E");
+        assertTrue(graph.isReachable("A", "E"));
+        graph.remove("F");
+        assertFalse(graph.contains("F"));
+        assertTrue(graph.isReachable("B", "E"));
+        assertTrue(graph.isIndexed());
+        assertEquals(1, graph.rebuilds());
+        assertEquals(0, graph.invalidations());
+        assertEquals(6, graph.updates());
+    }
+
+    // Test mutations that drop the index
+    @Test
+    void testInvalidation() {
+        graph.isReachable("A", "A");
+        graph.addEdge("D", "C", 1);
+        assertFalse(graph.isIndexed());
+        assertTrue(graph.isReachable("D", "A"));
+        graph.removeEdge("C", "D");
+        graph.removeEdge("D", "C");
+        assertFalse(graph.isReachable("A", "D"));
+        graph.remove("B");
+        assertFalse(graph.isReachable("A", "C"));
+        assertEquals(3, graph.invalidations());
+        assertEquals(4, graph.rebuilds());
+    }
+
+    // Test random mutations and queries against a breadth-first search
+    @Test
+    void testMatchesSearch() {
+        Random random = new Random(5);
+        ListGraph<Integer, Integer> plain = new ListGraph<>();
+        ReachabilityGraph<Integer, Integer> indexed = new ReachabilityGraph<>(plain);
+        for (int i = 0; i < 40; i++) {
+            indexed.add(i);
+        }
+        for (int i = 0; i < 3_000; i++) {
+            int u = random.nextInt(40);
+            int v = random.nextInt(40);
+            int op = random.nextInt(20);
+            if (op == 0) {
+                if (indexed.contains(u)) {
+                    indexed.remove(u);
+                } else {
+                    indexed.add(u);
+                }
+            } else if (op < 10 && indexed.contains(u) && indexed.contains(v)) {
+                if (indexed.containsEdge(u, v)) {
+                    indexed.removeEdge(u, v);
+                } else {
+                    indexed.addEdge(u, v, i);
+                }
+            } else if (indexed.contains(u) && indexed.contains(v)) {
+                Set<Integer> reached = new HashSet<>(GraphAlgorithms.breadthFirst(plain, u));
+                assertEquals(reached.contains(v), indexed.isReachable(u, v));
+            }
+        }
+        assertTrue(indexed.updates() > 0);
+        assertTrue(indexed.hits() > 0);
+    }
+}
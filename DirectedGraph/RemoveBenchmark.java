@@ -0,0 +1,97 @@
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Measures vertex removal throughput on random graphs with 10^6 edges. Each run builds a
+ * graph of VERTICES vertices with DEGREE random outgoing edges apiece and then times the
+ * removal of REMOVALS randomly chosen vertices.
+ *
+ * @author mfullhart20@georgefox.edu
+ */
+public class RemoveBenchmark
+{
+    // Shape of the benchmark graph: VERTICES * DEGREE = 10^6 edges
+    private static final int VERTICES = 100_000;
+    private static final int DEGREE = 10;
+    // Number of vertices removed per measured run
+    private static final int REMOVALS = 10_000;
+    // Number of untimed runs used to warm up the JIT
+    private static final int WARMUP_RUNS = 2;
+    // Number of timed runs
+    private static final int MEASURED_RUNS = 3;
+
+    /**
+     * Runs the benchmark for every graph implementation and prints removals per second.
+     *
+     * @param args unused
+     */
+    public static void main(String[] args)
+    {
+        run("ListGraph", ListGraph::new);
+        run("MatrixGraph", MatrixGraph::new);
+    }
+
+    /**
+     * Benchmarks one graph implementation.
+     *
+     * @param name the name printed for the implementation
+     * @param factory creates empty graphs of the implementation
+     */
+    private static void run(String name, Supplier<DirectedGraph<Integer, Integer>> factory)
+    {
+        for (int i = 0; i < WARMUP_RUNS; i++)
+        {
+            measure(factory.get(), i);
+        }
+
+        double best = 0;
+        for (int i = 0; i < MEASURED_RUNS; i++)
+        {
+            best = Math.max(best, measure(factory.get(), WARMUP_RUNS + i));
+        }
+
+        System.out.printf("%-12s %,.0f removals/s (%,d vertices, %,d edges)%n",
+                name, best, VERTICES, VERTICES * DEGREE);
+    }
+
+    /**
+     * Builds a random graph and times a batch of vertex removals.
+     *
+     * @param graph an empty graph to fill
+     * @param seed the seed of the random graph
+     * @return the number of removals per second
+     */
+    private static double measure(DirectedGraph<Integer, Integer> graph, long seed)
+    {
+        Random random = new Random(seed);
+
+        for (int v = 0; v < VERTICES; v++)
+        {
+            graph.add(v);
+        }
+        for (int u = 0; u < VERTICES; u++)
+        {
+            while (graph.degree(u) < DEGREE)
+            {
+                int v = random.nextInt(VERTICES);
+                if (!graph.containsEdge(u, v))
+                {
+                    graph.addEdge(u, v, v);
+                }
+            }
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < REMOVALS; i++)
+        {
+            int v = random.nextInt(VERTICES);
+            if (graph.contains(v))
+            {
+                graph.remove(v);
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        return REMOVALS / (elapsed / 1e9);
+    }
+}
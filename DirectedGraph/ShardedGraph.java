@@ -0,0 +1,1034 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A graph split into shards that live in separate files in one directory, of which only a few
+ * are held on the heap at a time. Every vertex is owned by one shard. A shard holds its owned
+ * vertices with all their outgoing and incoming edges, so every per-vertex operation is served
+ * by the shard that owns the vertex; an edge between two shards is stored in both, and the
+ * other endpoint is kept in each shard as a ghost vertex that only exists to anchor the edge.
+ *
+ * The directory holds one GraphFile per shard, named shard-i.graph, and a manifest with the
+ * owned vertices of every shard and the edge counts. A shard is loaded into a ListGraph the
+ * first time it is needed; when more than the allowed number of shards are resident, the
+ * least recently used one is written back if it changed and dropped. New vertices go to the
+ * shard picked by the hash of their label. flush() or close() writes the changed shards and
+ * the manifest; files are replaced atomically.
+ *
+ * The vertex to shard map stays on the heap, so the heap needs room for it plus the resident
+ * shards. I/O errors inside graph operations are thrown as UncheckedIOException.
+ *
+ * @author mfullhart20@georgefox.edu
+ * @param <V> the type of the vertex labels
+ * @param <E> the type of the edge labels
+ */
+public class ShardedGraph<V, E> extends DirectedGraph<V, E> implements Closeable
+{
+    // "DGSH"
+    private static final int MAGIC = 0x44475348;
+    private static final int VERSION = 1;
+    // Name of the manifest file
+    private static final String MANIFEST = "shards.manifest";
+
+    // The directory holding the shard files
+    private final Path _directory;
+    // Encode and decode the labels in the files
+    private final LabelCodec<V> _vertexCodec;
+    private final LabelCodec<E> _edgeCodec;
+    // Largest number of shards on the heap at once
+    private final int _maxResident;
+    // Maps each vertex to the shard that owns it
+    private final Map<V, Integer> _owner;
+    // The resident shards, least recently used first
+    private final LinkedHashMap<Integer, ListGraph<V, E>> _resident;
+    // True for each shard whose resident copy differs from its file
+    private final boolean[] _dirty;
+    // Number of edges, and number of edges between two shards
+    private int _edgeCount;
+    private long _crossEdges;
+    // Number of shard loads and evictions
+    private long _loads;
+    private long _evictions;
+
+    /**
+     * Constructs a sharded graph over a directory.
+     *
+     * @param directory the directory holding the shard files
+     * @param shards the number of shards
+     * @param maxResident the largest number of shards on the heap at once
+     * @param vertexCodec encodes the vertex labels
+     * @param edgeCodec encodes the edge labels
+     */
+    private ShardedGraph(Path directory, int shards, int maxResident, LabelCodec<V> vertexCodec,
+                         LabelCodec<E> edgeCodec)
+    {
+        _directory = directory;
+        _maxResident = maxResident;
+        _vertexCodec = vertexCodec;
+        _edgeCodec = edgeCodec;
+        _owner = new HashMap<>();
+        _resident = new LinkedHashMap<>(16, 0.75f, true);
+        _dirty = new boolean[shards];
+    }
+
+    /**
+     * Creates an empty sharded graph in a directory, replacing any graph stored there.
+     *
+     * @param directory the directory to store the shards in; created if missing
+     * @param shards the number of shards
+     * @param maxResident the largest number of shards on the heap at once, at least 2
+     * @param vertexCodec encodes the vertex labels
+     * @param edgeCodec encodes the edge labels
+     * @param <V> the type of the vertex labels
+     * @param <E> the type of the edge labels
+     * @return the empty graph
+     * @throws IOException if the directory cannot be written
+     * @throws IllegalArgumentException throw IAE if an argument is null, shards is not
+     * positive or maxResident is less than 2
+     */
+    public static <V, E> ShardedGraph<V, E> create(Path directory, int shards, int maxResident,
+                                                   LabelCodec<V> vertexCodec, LabelCodec<E> edgeCodec)
+            throws IOException
+    {
+        check(directory, shards, maxResident, vertexCodec, edgeCodec);
+
+        Files.createDirectories(directory);
+        for (int s = 0; s < shards; s++)
+        {
+            Files.deleteIfExists(shardPath(directory, s));
+        }
+        ShardedGraph<V, E> graph = new ShardedGraph<>(directory, shards, maxResident, vertexCodec, edgeCodec);
+        graph.writeManifest();
+        return graph;
+    }
+
+    /**
+     * Opens a sharded graph stored in a directory. No shard is loaded until it is needed.
+     *
+     * @param directory the directory holding the shards
+     * @param maxResident the largest number of shards on the heap at once, at least 2
+     * @param vertexCodec decodes the vertex labels, the same codec the shards were written with
+     * @param edgeCodec decodes the edge labels, the same codec the shards were written with
+     * @param <V> the type of the vertex labels
+     * @param <E> the type of the edge labels
+     * @return the graph
+     * @throws IOException if the manifest cannot be read or is not a shard manifest
+     * @throws IllegalArgumentException throw IAE if an argument is null or maxResident is
+     * less than 2
+     */
+    public static <V, E> ShardedGraph<V, E> open(Path directory, int maxResident, LabelCodec<V> vertexCodec,
+                                                 LabelCodec<E> edgeCodec) throws IOException
+    {
+        check(directory, 1, maxResident, vertexCodec, edgeCodec);
+
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(directory.resolve(MANIFEST)), 1 << 16)))
+        {
+            if (in.readInt() != MAGIC)
+            {
+                throw new IOException("Not a shard manifest");
+            }
+            if (in.readInt() != VERSION)
+            {
+                throw new IOException("Unsupported shard manifest version");
+            }
+
+            int shards = in.readInt();
+            ShardedGraph<V, E> graph = new ShardedGraph<>(directory, shards, maxResident, vertexCodec, edgeCodec);
+            graph._edgeCount = in.readInt();
+            graph._crossEdges = in.readLong();
+
+            for (int s = 0; s < shards; s++)
+            {
+                int owned = in.readInt();
+                for (int i = 0; i < owned; i++)
+                {
+                    byte[] bytes = new byte[in.readInt()];
+                    in.readFully(bytes);
+                    graph._owner.put(vertexCodec.decode(ByteBuffer.wrap(bytes)), s);
+                }
+            }
+            return graph;
+        }
+    }
+
+    /**
+     * Splits a graph into shards and writes them to a directory, replacing any graph stored
+     * there. Only one shard is built on the heap at a time.
+     *
+     * @param graph the graph to split
+     * @param partition the shard of every vertex, computed by GraphPartitioner for this graph
+     * @param directory the directory to store the shards in; created if missing
+     * @param vertexCodec encodes the vertex labels
+     * @param edgeCodec encodes the edge labels
+     * @param <V> the type of the vertex labels
+     * @param <E> the type of the edge labels
+     * @throws IOException if the directory cannot be written
+     * @throws IllegalArgumentException throw IAE if an argument is null
+     * @throws NoSuchVertexException throw NSVE if the partition misses a vertex of the graph
+     */
+    public static <V, E> void write(DirectedGraph<V, E> graph, GraphPartitioner.Partition<V> partition,
+                                    Path directory, LabelCodec<V> vertexCodec, LabelCodec<E> edgeCodec)
+            throws IOException
+    {
+        if (graph == null || partition == null)
+        {
+            throw new IllegalArgumentException("Null argument");
+        }
+        int shards = partition.shardCount();
+        check(directory, shards, 2, vertexCodec, edgeCodec);
+
+        CsrGraph<V, E> csr = GraphAlgorithms.compact(graph);
+        int n = csr.size();
+        int[] offsets = csr.offsets();
+        int[] targets = csr.targets();
+
+        int[] shardOf = new int[n];
+        for (int v = 0; v < n; v++)
+        {
+            shardOf[v] = partition.shardOf(csr.vertexAt(v));
+        }
+
+        // Positions of the incoming edges of every vertex, so in-edges keep their labels
+        int[] inOffsets = new int[n + 1];
+        int[] inPositions = new int[offsets[n]];
+        for (int e = 0; e < offsets[n]; e++)
+        {
+            inOffsets[targets[e] + 1]++;
+        }
+        for (int v = 0; v < n; v++)
+        {
+            inOffsets[v + 1] += inOffsets[v];
+        }
+        int[] fill = new int[n];
+        System.arraycopy(inOffsets, 0, fill, 0, n);
+        int[] sources = new int[offsets[n]];
+        for (int u = 0; u < n; u++)
+        {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++)
+            {
+                sources[fill[targets[e]]] = u;
+                inPositions[fill[targets[e]]++] = e;
+            }
+        }
+
+        Files.createDirectories(directory);
+        ShardedGraph<V, E> sharded = new ShardedGraph<>(directory, shards, 2, vertexCodec, edgeCodec);
+        for (int s = 0; s < shards; s++)
+        {
+            ListGraph<V, E> shard = new ListGraph<>();
+            for (int v = 0; v < n; v++)
+            {
+                if (shardOf[v] == s)
+                {
+                    shard.add(csr.vertexAt(v));
+                    sharded._owner.put(csr.vertexAt(v), s);
+                }
+            }
+            for (int u = 0; u < n; u++)
+            {
+                if (shardOf[u] != s)
+                {
+                    continue;
+                }
+                V source = csr.vertexAt(u);
+                for (int e = offsets[u]; e < offsets[u + 1]; e++)
+                {
+                    V target = csr.vertexAt(targets[e]);
+                    addGhost(shard, target);
+                    shard.addEdge(source, target, csr.edgeLabel(e));
+                    if (shardOf[targets[e]] != s)
+                    {
+                        sharded._crossEdges++;
+                    }
+                }
+                for (int p = inOffsets[u]; p < inOffsets[u + 1]; p++)
+                {
+                    if (shardOf[sources[p]] != s)
+                    {
+                        V other = csr.vertexAt(sources[p]);
+                        addGhost(shard, other);
+                        shard.addEdge(other, source, csr.edgeLabel(inPositions[p]));
+                    }
+                }
+            }
+            sharded.writeShard(s, shard);
+        }
+
+        sharded._edgeCount = csr.edgeCount();
+        sharded.writeManifest();
+    }
+
+    /**
+     * Checks the arguments shared by the factory methods.
+     *
+     * @param directory the directory
+     * @param shards the number of shards
+     * @param maxResident the largest number of resident shards
+     * @param vertexCodec the vertex codec
+     * @param edgeCodec the edge codec
+     * @throws IllegalArgumentException throw IAE if an argument is null or out of range
+     */
+    private static void check(Path directory, int shards, int maxResident, LabelCodec<?> vertexCodec,
+                              LabelCodec<?> edgeCodec)
+    {
+        if (directory == null || vertexCodec == null || edgeCodec == null)
+        {
+            throw new IllegalArgumentException("Null argument");
+        }
+        if (shards <= 0)
+        {
+            throw new IllegalArgumentException("Shard count must be positive");
+        }
+        if (maxResident < 2)
+        {
+            throw new IllegalArgumentException("At least two shards must fit on the heap");
+        }
+    }
+
+    /**
+     * Returns the number of shards.
+     *
+     * @return the number of shards
+     */
+    public int shardCount()
+    {
+        return _dirty.length;
+    }
+
+    /**
+     * Returns the shard that owns a vertex.
+     *
+     * @param v the vertex
+     * @return the shard
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    public int shardOf(V v)
+    {
+        Integer shard = v == null ? null : _owner.get(v);
+        if (shard == null)
+        {
+            throw new NoSuchVertexException("Vertex not found");
+        }
+        return shard;
+    }
+
+    /**
+     * Returns the number of edges whose endpoints are owned by different shards.
+     *
+     * @return the number of cross-shard edges
+     */
+    public long crossShardEdges()
+    {
+        return _crossEdges;
+    }
+
+    /**
+     * Returns the number of shards currently on the heap.
+     *
+     * @return the number of resident shards
+     */
+    public int residentShards()
+    {
+        return _resident.size();
+    }
+
+    /**
+     * Returns the number of times a shard was loaded from its file.
+     *
+     * @return the number of loads
+     */
+    public long loads()
+    {
+        return _loads;
+    }
+
+    /**
+     * Returns the number of times a shard was dropped from the heap to make room.
+     *
+     * @return the number of evictions
+     */
+    public long evictions()
+    {
+        return _evictions;
+    }
+
+    /**
+     * Writes every changed shard and the manifest.
+     *
+     * @throws IOException if a file cannot be written
+     */
+    public void flush() throws IOException
+    {
+        for (Map.Entry<Integer, ListGraph<V, E>> entry : _resident.entrySet())
+        {
+            if (_dirty[entry.getKey()])
+            {
+                writeShard(entry.getKey(), entry.getValue());
+            }
+        }
+        writeManifest();
+    }
+
+    /**
+     * Writes every changed shard and the manifest, and drops the resident shards.
+     *
+     * @throws IOException if a file cannot be written
+     */
+    @Override
+    public void close() throws IOException
+    {
+        flush();
+        _resident.clear();
+    }
+
+    /**
+     * Adds a vertex to the shard picked by the hash of its label.
+     *
+     * @param v the label of the vertex to add
+     * @throws IllegalArgumentException throw IAE if the vertex is null
+     * @throws DuplicateVertexException throw DVE if the vertex already exists
+     */
+    @Override
+    public void add(V v)
+    {
+        if (v == null)
+        {
+            throw new IllegalArgumentException("Null vertex");
+        }
+        if (_owner.containsKey(v))
+        {
+            throw new DuplicateVertexException("Vertex already exists");
+        }
+
+        int s = GraphPartitioner.hashShard(v, shardCount());
+        shard(s).add(v);
+        _dirty[s] = true;
+        _owner.put(v, s);
+        _modCount++;
+    }
+
+    /**
+     * Checks if a vertex with the given label exists in the graph.
+     *
+     * @param v the label of the vertex to check
+     * @return true if the vertex exists, false otherwise
+     */
+    @Override
+    public boolean contains(V v)
+    {
+        return v != null && _owner.containsKey(v);
+    }
+
+    /**
+     * Gets the vertex object for a given label.
+     *
+     * @param v the label of the vertex
+     * @return the vertex object
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    @Override
+    public Vertex<V> get(V v)
+    {
+        shardOf(v);
+        return new Vertex<>(v);
+    }
+
+    /**
+     * Removes a vertex and all associated edges from the graph. The edges to other shards
+     * are removed there first, then the vertex is removed from its own shard.
+     *
+     * @param v the label of the vertex to remove
+     * @return the label of the removed vertex
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    @Override
+    public V remove(V v)
+    {
+        int s = shardOf(v);
+        ListGraph<V, E> own = shard(s);
+        List<V> targets = labels(own.adjacent(v, true));
+        List<V> sources = labels(own.incoming(v));
+
+        // Another shard may evict this one, so it is fetched again after these loops
+        for (V w : targets)
+        {
+            int sw = _owner.get(w);
+            if (sw != s)
+            {
+                ListGraph<V, E> other = shard(sw);
+                other.removeEdge(v, w);
+                prune(other, sw, v);
+                _dirty[sw] = true;
+                _crossEdges--;
+            }
+        }
+        for (V u : sources)
+        {
+            int su = _owner.get(u);
+            if (su != s)
+            {
+                ListGraph<V, E> other = shard(su);
+                other.removeEdge(u, v);
+                prune(other, su, v);
+                _dirty[su] = true;
+                _crossEdges--;
+            }
+        }
+
+        own = shard(s);
+        _edgeCount -= own.degree(v) + own.inDegree(v) - (own.containsEdge(v, v) ? 1 : 0);
+        own.remove(v);
+        _owner.remove(v);
+        for (V w : targets)
+        {
+            prune(own, s, w);
+        }
+        for (V u : sources)
+        {
+            prune(own, s, u);
+        }
+        _dirty[s] = true;
+        _modCount++;
+        return v;
+    }
+
+    /**
+     * Adds a directed edge between two vertices with a given label. The edge is stored in the
+     * shard of each endpoint.
+     *
+     * @param u the source vertex
+     * @param v the destination vertex
+     * @param label the edge label
+     * @throws IllegalArgumentException throw IAE if the label is null
+     * @throws NoSuchVertexException throw NSVE if either vertex does not exist
+     * @throws DuplicateEdgeException throw DEE if the edge already exists
+     */
+    @Override
+    public void addEdge(V u, V v, E label)
+    {
+        if (label == null)
+        {
+            throw new IllegalArgumentException("Null edge label");
+        }
+        int su = shardOf(u);
+        int sv = shardOf(v);
+
+        ListGraph<V, E> source = shard(su);
+        if (source.contains(v) && source.containsEdge(u, v))
+        {
+            throw new DuplicateEdgeException("Edge already exists");
+        }
+        addGhost(source, v);
+        source.addEdge(u, v, label);
+        _dirty[su] = true;
+
+        if (sv != su)
+        {
+            ListGraph<V, E> target = shard(sv);
+            addGhost(target, u);
+            target.addEdge(u, v, label);
+            _dirty[sv] = true;
+            _crossEdges++;
+        }
+        _edgeCount++;
+        _modCount++;
+    }
+
+    /**
+     * Checks if an edge exists between two vertices.
+     *
+     * @param u the source vertex
+     * @param v the destination vertex
+     * @return true if the edge exists, false otherwise
+     * @throws NoSuchVertexException throw NSVE if either vertex does not exist
+     */
+    @Override
+    public boolean containsEdge(V u, V v)
+    {
+        ListGraph<V, E> source = shard(shardOf(u));
+        shardOf(v);
+        return source.contains(v) && source.containsEdge(u, v);
+    }
+
+    /**
+     * Gets the edge object between two vertices.
+     *
+     * @param u the source vertex
+     * @param v the destination vertex
+     * @return the edge object
+     * @throws NoSuchVertexException throw NSVE if either vertex does not exist
+     * @throws NoSuchEdgeException throw NSEE if the edge does not exist
+     */
+    @Override
+    public Edge<V, E> getEdge(V u, V v)
+    {
+        if (!containsEdge(u, v))
+        {
+            throw new NoSuchEdgeException("Edge not found");
+        }
+        Edge<V, E> edge = shard(shardOf(u)).getEdge(u, v);
+        return new Edge<>(u, v, edge.getLabel());
+    }
+
+    /**
+     * Removes an edge between two vertices, from the shard of each endpoint.
+     *
+     * @param u the source vertex
+     * @param v the destination vertex
+     * @return the label of the removed edge
+     * @throws NoSuchVertexException throw NSVE if either vertex does not exist
+     * @throws NoSuchEdgeException throw NSEE if the edge does not exist
+     */
+    @Override
+    public E removeEdge(V u, V v)
+    {
+        if (!containsEdge(u, v))
+        {
+            throw new NoSuchEdgeException("Edge not found");
+        }
+        int su = _owner.get(u);
+        int sv = _owner.get(v);
+
+        ListGraph<V, E> source = shard(su);
+        E label = source.removeEdge(u, v);
+        prune(source, su, v);
+        _dirty[su] = true;
+
+        if (sv != su)
+        {
+            ListGraph<V, E> target = shard(sv);
+            target.removeEdge(u, v);
+            prune(target, sv, u);
+            _dirty[sv] = true;
+            _crossEdges--;
+        }
+        _edgeCount--;
+        _modCount++;
+        return label;
+    }
+
+    /**
+     * Returns the number of vertices in the graph.
+     *
+     * @return the number of vertices
+     */
+    @Override
+    public int size()
+    {
+        return _owner.size();
+    }
+
+    /**
+     * Returns the number of outgoing edges from a given vertex.
+     *
+     * @param v the vertex to check
+     * @return the degree of the vertex
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    @Override
+    public int degree(V v)
+    {
+        return shard(shardOf(v)).degree(v);
+    }
+
+    /**
+     * Returns the number of incoming edges of a given vertex.
+     *
+     * @param v the vertex to check
+     * @return the in-degree of the vertex
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    @Override
+    public int inDegree(V v)
+    {
+        return shard(shardOf(v)).inDegree(v);
+    }
+
+    /**
+     * Returns the total number of edges in the graph.
+     *
+     * @return the number of edges
+     */
+    @Override
+    public int edgeCount()
+    {
+        return _edgeCount;
+    }
+
+    /**
+     * Gets an iterator over all vertices in the graph. No shard is loaded.
+     *
+     * @return an iterator over vertex objects
+     */
+    @Override
+    public Iterator<Vertex<V>> vertices()
+    {
+        return new LabelIterator(_owner.keySet().iterator(), false);
+    }
+
+    /**
+     * Gets an iterator over all vertices in the graph, optionally reusing a single flyweight
+     * Vertex. No shard is loaded.
+     *
+     * @param flyweight true to reuse one Vertex object for the whole iteration
+     * @return an iterator over vertex objects
+     */
+    @Override
+    public Iterator<Vertex<V>> vertices(boolean flyweight)
+    {
+        return new LabelIterator(_owner.keySet().iterator(), flyweight);
+    }
+
+    /**
+     * Gets an iterator over all vertices adjacent to the given vertex.
+     *
+     * @param v the label of the source vertex
+     * @return an iterator over adjacent vertex objects
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    @Override
+    public Iterator<Vertex<V>> adjacent(V v)
+    {
+        return new Forward<>(shard(shardOf(v)).adjacent(v));
+    }
+
+    /**
+     * Gets an iterator over all vertices with an edge into the given vertex.
+     *
+     * @param v the label of the destination vertex
+     * @return an iterator over vertex objects
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    @Override
+    public Iterator<Vertex<V>> incoming(V v)
+    {
+        return new Forward<>(shard(shardOf(v)).incoming(v));
+    }
+
+    /**
+     * Gets an iterator over all edges in the graph. The shards are visited in order, each is
+     * loaded as the iteration reaches it, and every edge is returned once, by the shard of
+     * its source.
+     *
+     * @return an iterator over edge objects
+     */
+    @Override
+    public Iterator<Edge<V, E>> edges()
+    {
+        return edges(false);
+    }
+
+    /**
+     * Gets an iterator over all edges in the graph, optionally reusing a single flyweight Edge.
+     *
+     * @param flyweight true to reuse one Edge object for the whole iteration
+     * @return an iterator over edge objects
+     */
+    @Override
+    public Iterator<Edge<V, E>> edges(boolean flyweight)
+    {
+        return new EdgeIterator(flyweight)
+        {
+            // The shard being walked, and its edges
+            private int _shard = -1;
+            private Iterator<Edge<V, E>> _edges;
+            // The next edge owned by _shard, null if not found yet
+            private Edge<V, E> _next;
+
+            @Override
+            public boolean hasNext()
+            {
+                while (_next == null)
+                {
+                    if (_edges != null && _edges.hasNext())
+                    {
+                        Edge<V, E> edge = _edges.next();
+                        if (_owner.get(edge.getU()) == _shard)
+                        {
+                            _next = edge;
+                        }
+                    }
+                    else if (_shard + 1 < shardCount())
+                    {
+                        _shard++;
+                        _edges = shard(_shard).edges(true);
+                    }
+                    else
+                    {
+                        return false;
+                    }
+                }
+                return true;
+            }
+
+            @Override
+            protected Edge<V, E> nextElement()
+            {
+                Edge<V, E> next = _next;
+                _next = null;
+                return edge(next.getU(), next.getV(), next.getLabel());
+            }
+        };
+    }
+
+    /**
+     * Clears the graph by removing all vertices and edges and deleting the shard files.
+     *
+     * @throws UncheckedIOException if a shard file cannot be deleted
+     */
+    @Override
+    public void clear()
+    {
+        try
+        {
+            for (int s = 0; s < shardCount(); s++)
+            {
+                Files.deleteIfExists(shardPath(_directory, s));
+                _dirty[s] = false;
+            }
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+
+        _resident.clear();
+        _owner.clear();
+        _edgeCount = 0;
+        _crossEdges = 0;
+        _modCount++;
+    }
+
+    /**
+     * Checks if the graph is empty.
+     *
+     * @return true if the graph has no vertices, false otherwise
+     */
+    @Override
+    public boolean isEmpty()
+    {
+        return _owner.isEmpty();
+    }
+
+    /**
+     * Gets a shard, loading it if it is not resident and evicting the least recently used
+     * shard if too many are. A shard must be fetched again after another shard was fetched,
+     * because that may have evicted it.
+     *
+     * @param s the shard
+     * @return the resident shard
+     * @throws UncheckedIOException if a shard file cannot be read or written
+     */
+    private ListGraph<V, E> shard(int s)
+    {
+        ListGraph<V, E> shard = _resident.get(s);
+        if (shard != null)
+        {
+            return shard;
+        }
+
+        try
+        {
+            shard = new ListGraph<>();
+            Path path = shardPath(_directory, s);
+            if (Files.exists(path))
+            {
+                MappedGraph<V, E> mapped = MappedGraph.open(path, _vertexCodec, _edgeCodec);
+                Iterator<Vertex<V>> vertices = mapped.vertices(true);
+                while (vertices.hasNext())
+                {
+                    shard.add(vertices.next().getLabel());
+                }
+                Iterator<Edge<V, E>> edges = mapped.edges(true);
+                while (edges.hasNext())
+                {
+                    Edge<V, E> edge = edges.next();
+                    shard.addEdge(edge.getU(), edge.getV(), edge.getLabel());
+                }
+            }
+            _loads++;
+
+            _resident.put(s, shard);
+            Iterator<Map.Entry<Integer, ListGraph<V, E>>> eldest = _resident.entrySet().iterator();
+            while (_resident.size() > _maxResident)
+            {
+                Map.Entry<Integer, ListGraph<V, E>> entry = eldest.next();
+                if (_dirty[entry.getKey()])
+                {
+                    writeShard(entry.getKey(), entry.getValue());
+                }
+                eldest.remove();
+                _evictions++;
+            }
+            return shard;
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes a shard to its file through a temporary file, and marks it clean.
+     *
+     * @param s the shard
+     * @param shard the contents of the shard
+     * @throws IOException if the file cannot be written
+     */
+    private void writeShard(int s, ListGraph<V, E> shard) throws IOException
+    {
+        Path path = shardPath(_directory, s);
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        GraphFile.write(shard, temporary, _vertexCodec, _edgeCodec);
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        _dirty[s] = false;
+    }
+
+    /**
+     * Writes the manifest: the counts and the owned vertices of every shard.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    private void writeManifest() throws IOException
+    {
+        List<List<byte[]>> owned = new ArrayList<>(shardCount());
+        for (int s = 0; s < shardCount(); s++)
+        {
+            owned.add(new ArrayList<>());
+        }
+        for (Map.Entry<V, Integer> entry : _owner.entrySet())
+        {
+            owned.get(entry.getValue()).add(_vertexCodec.encode(entry.getKey()));
+        }
+
+        Path path = _directory.resolve(MANIFEST);
+        Path temporary = path.resolveSibling(MANIFEST + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temporary), 1 << 16)))
+        {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(shardCount());
+            out.writeInt(_edgeCount);
+            out.writeLong(_crossEdges);
+            for (List<byte[]> labels : owned)
+            {
+                out.writeInt(labels.size());
+                for (byte[] bytes : labels)
+                {
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                }
+            }
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Returns the path of a shard file.
+     *
+     * @param directory the directory of the graph
+     * @param s the shard
+     * @return the path of the file
+     */
+    private static Path shardPath(Path directory, int s)
+    {
+        return directory.resolve("shard-" + s + ".graph");
+    }
+
+    /**
+     * Adds a vertex to a shard as a ghost if the shard does not hold it yet.
+     *
+     * @param shard the shard
+     * @param v the vertex
+     * @param <V> the type of the vertex labels
+     */
+    private static <V> void addGhost(DirectedGraph<V, ?> shard, V v)
+    {
+        if (!shard.contains(v))
+        {
+            shard.add(v);
+        }
+    }
+
+    /**
+     * Removes a ghost vertex from a shard once it has no edges left there.
+     *
+     * @param shard the shard
+     * @param s the number of the shard
+     * @param v the vertex
+     */
+    private void prune(ListGraph<V, E> shard, int s, V v)
+    {
+        Integer owner = _owner.get(v);
+        if (shard.contains(v) && (owner == null || owner != s) && shard.degree(v) == 0 && shard.inDegree(v) == 0)
+        {
+            shard.remove(v);
+        }
+    }
+
+    /**
+     * Copies the labels of the vertices returned by an iterator.
+     *
+     * @param vertices the vertices
+     * @return the labels
+     */
+    private List<V> labels(Iterator<Vertex<V>> vertices)
+    {
+        List<V> labels = new ArrayList<>();
+        while (vertices.hasNext())
+        {
+            labels.add(vertices.next().getLabel());
+        }
+        return labels;
+    }
+
+    /**
+     * Forwards an iterator over a shard, failing fast on changes to the sharded graph.
+     *
+     * @param <T> the type of the elements
+     */
+    private class Forward<T> extends GraphIterator<T>
+    {
+        // The iterator over the shard
+        private final Iterator<T> _inner;
+
+        /**
+         * Constructs an iterator that forwards to another.
+         *
+         * @param inner the iterator over the shard
+         */
+        private Forward(Iterator<T> inner)
+        {
+            _inner = inner;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return _inner.hasNext();
+        }
+
+        @Override
+        protected T nextElement()
+        {
+            return _inner.next();
+        }
+    }
+}
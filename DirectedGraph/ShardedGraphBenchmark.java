@@ -0,0 +1,150 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures how partitioning affects a ShardedGraph. The graph is made of communities of
+ * consecutive ids with a few edges between them, and is split once by hash and once with
+ * refinement. Each split is written to shard files and walked by random walks that follow
+ * outgoing edges, with different numbers of resident shards; a walk step that leaves the
+ * resident shards costs a load, so fewer cut edges mean fewer loads.
+ *
+ * @author mfullhart20@georgefox.edu
+ */
+public class ShardedGraphBenchmark
+{
+    // Number of vertices, size of a community and outgoing edges per vertex
+    private static final int VERTICES = 100_000;
+    private static final int COMMUNITY = 1_000;
+    private static final int DEGREE = 5;
+    // Fraction of the edges that leave their community
+    private static final double CROSSING = 0.05;
+    // Number of shards
+    private static final int SHARDS = 16;
+    // Numbers of resident shards to compare
+    private static final int[] RESIDENT = {2, 4, 8};
+    // Number of walk steps per run
+    private static final int STEPS = 500;
+    // Number of untimed runs used to warm up the JIT
+    private static final int WARMUP_RUNS = 2;
+    // Number of timed runs
+    private static final int MEASURED_RUNS = 3;
+
+    /**
+     * Runs the comparison and prints the edge cut of each split and the best walk time and
+     * the loads for each number of resident shards.
+     *
+     * @param args not used
+     * @throws IOException if the shard files cannot be written
+     */
+    public static void main(String[] args) throws IOException
+    {
+        ListGraph<Integer, Integer> graph = communities();
+        Path directory = Files.createTempDirectory("shards");
+
+        long start = System.nanoTime();
+        GraphPartitioner.Partition<Integer> hashed = GraphPartitioner.partition(graph, SHARDS, 0, 0.1);
+        long hashTime = System.nanoTime() - start;
+        start = System.nanoTime();
+        GraphPartitioner.Partition<Integer> refined = GraphPartitioner.partition(graph, SHARDS);
+        long refineTime = System.nanoTime() - start;
+
+        System.out.printf("edges %,d%n", graph.edgeCount());
+        System.out.printf("hash      cut %,9d  %,8.1f ms%n", hashed.edgeCut(), hashTime / 1e6);
+        System.out.printf("refined   cut %,9d  %,8.1f ms%n", refined.edgeCut(), refineTime / 1e6);
+
+        List<GraphPartitioner.Partition<Integer>> partitions = List.of(hashed, refined);
+        List<String> names = List.of("hash", "refined");
+        for (int p = 0; p < partitions.size(); p++)
+        {
+            Path shards = directory.resolve(names.get(p));
+            ShardedGraph.write(graph, partitions.get(p), shards, LabelCodec.INTEGER, LabelCodec.INTEGER);
+
+            for (int resident : RESIDENT)
+            {
+                long best = Long.MAX_VALUE;
+                long loads = 0;
+                for (int run = 0; run < WARMUP_RUNS + MEASURED_RUNS; run++)
+                {
+                    ShardedGraph<Integer, Integer> sharded =
+                            ShardedGraph.open(shards, resident, LabelCodec.INTEGER, LabelCodec.INTEGER);
+                    start = System.nanoTime();
+                    walk(sharded, run);
+                    long time = System.nanoTime() - start;
+                    if (run >= WARMUP_RUNS)
+                    {
+                        best = Math.min(best, time);
+                        loads = sharded.loads();
+                    }
+                }
+                System.out.printf("%-8s resident %d  %,8.1f ms  %,7d loads%n", names.get(p), resident,
+                        best / 1e6, loads);
+            }
+        }
+    }
+
+    /**
+     * Builds the graph of communities.
+     *
+     * @return the graph
+     */
+    private static ListGraph<Integer, Integer> communities()
+    {
+        Random random = new Random(1);
+        List<Edge<Integer, Integer>> edges = new ArrayList<>();
+        for (int v = 0; v < VERTICES; v++)
+        {
+            int base = v / COMMUNITY * COMMUNITY;
+            for (int i = 0; i < DEGREE; i++)
+            {
+                int w = random.nextDouble() < CROSSING ? random.nextInt(VERTICES) : base + random.nextInt(COMMUNITY);
+                edges.add(new Edge<>(v, w, i));
+            }
+        }
+        // Drop the duplicates the random draws produce
+        ListGraph<Integer, Integer> graph = new ListGraph<>();
+        for (int v = 0; v < VERTICES; v++)
+        {
+            graph.add(v);
+        }
+        for (Edge<Integer, Integer> edge : edges)
+        {
+            if (!graph.containsEdge(edge.getU(), edge.getV()))
+            {
+                graph.addEdge(edge.getU(), edge.getV(), edge.getLabel());
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Walks the graph along random outgoing edges, restarting at a random vertex at a dead end.
+     *
+     * @param graph the graph
+     * @param seed the seed of the walk
+     */
+    private static void walk(ShardedGraph<Integer, Integer> graph, long seed)
+    {
+        Random random = new Random(seed);
+        int v = random.nextInt(VERTICES);
+        for (int step = 0; step < STEPS; step++)
+        {
+            int degree = graph.degree(v);
+            if (degree == 0)
+            {
+                v = random.nextInt(VERTICES);
+                continue;
+            }
+            Iterator<Vertex<Integer>> adjacent = graph.adjacent(v);
+            for (int skip = random.nextInt(degree); skip > 0; skip--)
+            {
+                adjacent.next();
+            }
+            v = adjacent.next().getLabel();
+        }
+    }
+}
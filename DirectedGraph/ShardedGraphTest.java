@@ -0,0 +1,186 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.Set;
+
+class ShardedGraphTest {
+    @TempDir
+    Path directory;
+
+    private ShardedGraph<String, Integer> graph;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        graph = ShardedGraph.create(directory, 8, 2, LabelCodec.STRING, LabelCodec.INTEGER);
+    }
+
+    private static Set<String> edges(DirectedGraph<String, Integer> graph) {
+        Set<String> edges = new HashSet<>();
+        graph.edges(true).forEachRemaining(edge -> edges.add(edge.getU() + ">" + edge.getV() + ":" + edge.getLabel()));
+        return edges;
+    }
+
+    private static Set<String> labels(Iterator<Vertex<String>> vertices) {
+        Set<String> labels = new HashSet<>();
+        vertices.forEachRemaining(vertex -> labels.add(vertex.getLabel()));
+        return labels;
+    }
+
+    private static void assertSameGraph(DirectedGraph<String, Integer> expected, ShardedGraph<String, Integer> actual) {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.edgeCount(), actual.edgeCount());
+        assertEquals(labels(expected.vertices()), labels(actual.vertices()));
+        assertEquals(edges(expected), edges(actual));
+        long cross = 0;
+        for (Edge<String, Integer> edge : (Iterable<Edge<String, Integer>>) expected::edges) {
+            if (actual.shardOf(edge.getU()) != actual.shardOf(edge.getV())) {
+                cross++;
+            }
+        }
+        assertEquals(cross, actual.crossShardEdges());
+        for (Vertex<String> vertex : (Iterable<Vertex<String>>) expected::vertices) {
+            String v = vertex.getLabel();
+            assertEquals(expected.degree(v), actual.degree(v));
+            assertEquals(expected.inDegree(v), actual.inDegree(v));
+            assertEquals(labels(expected.adjacent(v)), labels(actual.adjacent(v)));
+            assertEquals(labels(expected.incoming(v)), labels(actual.incoming(v)));
+        }
+    }
+
+    // Test vertex and edge operations
+    @Test
+    void testOperations() {
+        graph.add("A");
+        graph.add("B");
+        assertThrows(DuplicateVertexException.class, () -> graph.add("A"));
+        assertThrows(IllegalArgumentException.class, () -> graph.add(null));
+        graph.addEdge("A", "B", 1);
+        graph.addEdge("B", "B", 2);
+        assertThrows(DuplicateEdgeException.class, () -> graph.addEdge("A", "B", 3));
+        assertThrows(NoSuchVertexException.class, () -> graph.addEdge("A", "C", 3));
+        assertThrows(IllegalArgumentException.class, () -> graph.addEdge("A", "B", null));
+        assertEquals(1, graph.getEdge("A", "B").getLabel());
+        assertThrows(NoSuchEdgeException.class, () -> graph.getEdge("B", "A"));
+        assertThrows(NoSuchVertexException.class, () -> graph.containsEdge("A", "C"));
+        assertEquals(2, graph.inDegree("B"));
+        assertEquals(Set.of("A>B:1", "B>B:2"), edges(graph));
+        assertEquals(1, graph.removeEdge("A", "B"));
+        assertThrows(NoSuchEdgeException.class, () -> graph.removeEdge("A", "B"));
+        graph.addEdge("A", "B", 4);
+        assertEquals("B", graph.remove("B"));
+        assertThrows(NoSuchVertexException.class, () -> graph.shardOf("B"));
+        assertEquals(0, graph.edgeCount());
+        assertEquals(0, graph.degree("A"));
+        assertEquals(0, graph.crossShardEdges());
+        assertEquals(1, graph.size());
+        graph.clear();
+        assertTrue(graph.isEmpty());
+    }
+
+    // Test random changes match a list graph while at most two shards are resident
+    @Test
+    void testRandomOperationsWithBoundedResidency() throws IOException {
+        ListGraph<String, Integer> expected = new ListGraph<>();
+        Random random = new Random(11);
+        for (int i = 0; i < 4000; i++) {
+            String u = "v" + random.nextInt(120);
+            String v = "v" + random.nextInt(120);
+            int operation = random.nextInt(10);
+            if (!expected.contains(u)) {
+                expected.add(u);
+                graph.add(u);
+            } else if (!expected.contains(v)) {
+                expected.add(v);
+                graph.add(v);
+            } else if (operation < 6) {
+                if (!expected.containsEdge(u, v)) {
+                    expected.addEdge(u, v, i);
+                    graph.addEdge(u, v, i);
+                }
+            } else if (operation < 9) {
+                if (expected.containsEdge(u, v)) {
+                    assertEquals(expected.removeEdge(u, v), graph.removeEdge(u, v));
+                }
+            } else {
+                expected.remove(u);
+                graph.remove(u);
+            }
+            assertTrue(graph.residentShards() <= 2);
+            if (expected.contains(u) && expected.contains(v)) {
+                assertEquals(expected.containsEdge(u, v), graph.containsEdge(u, v));
+            }
+        }
+        assertSameGraph(expected, graph);
+        assertTrue(graph.evictions() > 0);
+
+        graph.close();
+        assertEquals(0, graph.residentShards());
+        ShardedGraph<String, Integer> reopened = ShardedGraph.open(directory, 3, LabelCodec.STRING, LabelCodec.INTEGER);
+        assertEquals(0, reopened.residentShards());
+        assertSameGraph(expected, reopened);
+        assertTrue(reopened.residentShards() <= 3);
+    }
+
+    // Test writing a partitioned graph into shard files
+    @Test
+    void testWritePartition() throws IOException {
+        ListGraph<String, Integer> source = new ListGraph<>();
+        Random random = new Random(5);
+        for (int v = 0; v < 200; v++) {
+            source.add("v" + v);
+        }
+        for (int i = 0; i < 800; i++) {
+            String u = "v" + random.nextInt(200);
+            String v = "v" + random.nextInt(200);
+            if (!source.containsEdge(u, v)) {
+                source.addEdge(u, v, i);
+            }
+        }
+        GraphPartitioner.Partition<String> partition = GraphPartitioner.partition(source, 4);
+        Path shards = directory.resolve("written");
+        ShardedGraph.write(source, partition, shards, LabelCodec.STRING, LabelCodec.INTEGER);
+        assertTrue(Files.exists(shards.resolve("shard-3.graph")));
+
+        ShardedGraph<String, Integer> opened = ShardedGraph.open(shards, 2, LabelCodec.STRING, LabelCodec.INTEGER);
+        assertEquals(4, opened.shardCount());
+        assertEquals(partition.edgeCut(), opened.crossShardEdges());
+        for (int v = 0; v < 200; v++) {
+            assertEquals(partition.shardOf("v" + v), opened.shardOf("v" + v));
+        }
+        assertSameGraph(source, opened);
+
+        opened.add("extra");
+        opened.addEdge("extra", "v0", -1);
+        source.add("extra");
+        source.addEdge("extra", "v0", -1);
+        opened.flush();
+        assertSameGraph(source, ShardedGraph.open(shards, 2, LabelCodec.STRING, LabelCodec.INTEGER));
+    }
+
+    // Test iterators fail fast and arguments are checked
+    @Test
+    void testIteratorsAndArguments() {
+        graph.add("A");
+        graph.add("B");
+        graph.addEdge("A", "B", 1);
+        Iterator<Edge<String, Integer>> edges = graph.edges();
+        Iterator<Vertex<String>> adjacent = graph.adjacent("A");
+        graph.add("C");
+        assertThrows(ConcurrentModificationException.class, edges::next);
+        assertThrows(ConcurrentModificationException.class, adjacent::next);
+        assertThrows(IllegalArgumentException.class,
+                () -> ShardedGraph.create(directory, 4, 1, LabelCodec.STRING, LabelCodec.INTEGER));
+        assertThrows(IllegalArgumentException.class,
+                () -> ShardedGraph.create(directory, 0, 2, LabelCodec.STRING, LabelCodec.INTEGER));
+        assertThrows(IllegalArgumentException.class,
+                () -> ShardedGraph.create(null, 4, 2, LabelCodec.STRING, LabelCodec.INTEGER));
+    }
+}
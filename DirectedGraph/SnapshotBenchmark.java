@@ -0,0 +1,93 @@
+import java.util.List;
+
+/**
+ * Compares the two ways of giving a reader a consistent view of a changing graph: copying a
+ * ListGraph, and taking a snapshot of a SnapshotGraph. Also times loading the graph, since the
+ * persistent maps of SnapshotGraph make every write slower than in a ListGraph, and measures
+ * the heap a snapshot retains once the graph has changed after it (see
+ * MemoryBenchmark.usedHeap).
+ *
+ * @author mfullhart20@georgefox.edu
+ */
+public class SnapshotBenchmark
+{
+    // Number of vertices and edges of the graph
+    private static final int VERTICES = 100_000;
+    private static final int EDGES = 1_000_000;
+    // Number of views taken per run, with one edge removed between two views
+    private static final int VIEWS = 20;
+    // Number of edges removed after the snapshot whose retained heap is measured
+    private static final int CHANGES = 100;
+    // Number of untimed runs used to warm up the JIT
+    private static final int WARMUP_RUNS = 2;
+    // Number of timed runs
+    private static final int MEASURED_RUNS = 3;
+
+    /**
+     * Runs the comparison and prints the best time of each step.
+     *
+     * @param args not used
+     */
+    public static void main(String[] args)
+    {
+        List<Edge<Integer, Integer>> edges =
+                GraphFixtures.edges(GraphFixtures.Shape.RANDOM, VERTICES, EDGES, 1);
+        long[] best = {Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE};
+
+        for (int run = 0; run < WARMUP_RUNS + MEASURED_RUNS; run++)
+        {
+            long start = System.nanoTime();
+            ListGraph<Integer, Integer> list = GraphFixtures.fill(new ListGraph<>(), VERTICES, edges);
+            long listLoad = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            SnapshotGraph<Integer, Integer> snapshots =
+                    GraphFixtures.fill(new SnapshotGraph<>(), VERTICES, edges);
+            long snapshotLoad = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < VIEWS; i++)
+            {
+                ListGraph<Integer, Integer> copy = new ListGraph<>();
+                list.vertices(true).forEachRemaining(vertex -> copy.add(vertex.getLabel()));
+                copy.addEdges(list.edgeStream().toList());
+                list.removeEdge(edges.get(i).getU(), edges.get(i).getV());
+            }
+            long copies = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < VIEWS; i++)
+            {
+                snapshots.snapshot();
+                snapshots.removeEdge(edges.get(i).getU(), edges.get(i).getV());
+            }
+            long views = System.nanoTime() - start;
+
+            if (run >= WARMUP_RUNS)
+            {
+                best[0] = Math.min(best[0], listLoad);
+                best[1] = Math.min(best[1], snapshotLoad);
+                best[2] = Math.min(best[2], copies);
+                best[3] = Math.min(best[3], views);
+            }
+        }
+
+        System.out.printf("load ListGraph        %,10.1f ms%n", best[0] / 1e6);
+        System.out.printf("load SnapshotGraph    %,10.1f ms%n", best[1] / 1e6);
+        System.out.printf("copy ListGraph        %,10.1f ms/view%n", best[2] / 1e6 / VIEWS);
+        System.out.printf("snapshot + write      %,10.4f ms/view%n", best[3] / 1e6 / VIEWS);
+
+        long empty = MemoryBenchmark.usedHeap();
+        SnapshotGraph<Integer, Integer> graph = GraphFixtures.fill(new SnapshotGraph<>(), VERTICES, edges);
+        long full = MemoryBenchmark.usedHeap() - empty;
+        SnapshotGraph<Integer, Integer> snapshot = graph.snapshot();
+        for (int i = 0; i < CHANGES; i++)
+        {
+            graph.removeEdge(edges.get(i).getU(), edges.get(i).getV());
+        }
+        long withSnapshot = MemoryBenchmark.usedHeap() - empty;
+        System.out.printf("heap of graph         %,10.1f MB%n", full / 1e6);
+        System.out.printf("heap with snapshot    %,10.1f MB after %d changes (%d edges in snapshot)%n",
+                withSnapshot / 1e6, CHANGES, snapshot.edgeCount());
+    }
+}
@@ -0,0 +1,611 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A concrete implementation of the DirectedGraph class that can hand out immutable snapshots
+ * of itself while it keeps changing. Every vertex maps to its outgoing and incoming edges
+ * through persistent hash maps (see PersistentMap), so a snapshot is O(1): it keeps the maps
+ * of the moment it was taken, and the graph copies a map node only the first time a write
+ * after the snapshot touches it. A snapshot therefore costs memory only in proportion to the
+ * changes made since it was taken, and no memory at all once it is dropped.
+ *
+ * The graph has a single writer: its mutators and snapshot() are synchronized, but its own
+ * read methods and iterators are meant for the writing thread. Other threads read through
+ * snapshots, which are never locked and never throw ConcurrentModificationException. A
+ * snapshot is itself a SnapshotGraph whose mutators throw UnsupportedOperationException. It
+ * must be handed to other threads through a safe channel such as a concurrent collection or
+ * an executor, or taken by the reading thread itself.
+ *
+ * @author mfullhart20@georgefox.edu
+ * @param <V> the type of the vertex labels
+ * @param <E> the type of the edge labels
+ */
+public class SnapshotGraph<V, E> extends DirectedGraph<V, E>
+{
+    // Token of the current writer; replaced by snapshot() to freeze every existing node
+    private Object _edit;
+    // Maps each vertex to its edges
+    private PersistentMap<V, Node<V, E>> _nodes;
+    // Total number of edges in the graph
+    private int _edgeCount;
+    // The last snapshot taken, null once the graph changed after it
+    private SnapshotGraph<V, E> _snapshot;
+
+    /**
+     * The edges of one vertex. A node belongs to the writer token it was created under and
+     * is copied before a write under any other token.
+     *
+     * @param <V> the type of the vertex labels
+     * @param <E> the type of the edge labels
+     */
+    private static final class Node<V, E>
+    {
+        // The token of the writer that created this node
+        private final Object _edit;
+        // Maps each destination of an outgoing edge to the edge label
+        private PersistentMap<V, E> _out;
+        // Maps each source of an incoming edge to the edge label
+        private PersistentMap<V, E> _in;
+
+        /**
+         * Constructs a node.
+         *
+         * @param edit the token of the writer creating the node
+         * @param out the outgoing edges
+         * @param in the incoming edges
+         */
+        private Node(Object edit, PersistentMap<V, E> out, PersistentMap<V, E> in)
+        {
+            _edit = edit;
+            _out = out;
+            _in = in;
+        }
+    }
+
+    /**
+     * Constructs an empty SnapshotGraph.
+     */
+    public SnapshotGraph()
+    {
+        _edit = new Object();
+        _nodes = PersistentMap.empty();
+        _edgeCount = 0;
+    }
+
+    /**
+     * Constructs a read-only snapshot over frozen nodes.
+     *
+     * @param nodes the vertices and their edges
+     * @param edgeCount the number of edges
+     */
+    private SnapshotGraph(PersistentMap<V, Node<V, E>> nodes, int edgeCount)
+    {
+        _nodes = nodes;
+        _edgeCount = edgeCount;
+    }
+
+    /**
+     * Returns an immutable view of the graph as it is now. The view does not change when the
+     * graph does. Taking a snapshot is O(1), and taking another one before the graph changes
+     * returns the same view.
+     *
+     * @return the snapshot
+     */
+    public synchronized SnapshotGraph<V, E> snapshot()
+    {
+        if (isSnapshot())
+        {
+            return this;
+        }
+        if (_snapshot == null)
+        {
+            _edit = new Object();
+            _snapshot = new SnapshotGraph<>(_nodes, _edgeCount);
+        }
+        return _snapshot;
+    }
+
+    /**
+     * Checks if this graph is a read-only snapshot.
+     *
+     * @return true if the graph is a snapshot, false if it is a writable graph
+     */
+    public boolean isSnapshot()
+    {
+        return _edit == null;
+    }
+
+    /**
+     * Adds a vertex to the graph.
+     *
+     * @param v the label of the vertex to add
+     * @throws IllegalArgumentException throw IAE if the vertex is null
+     * @throws DuplicateVertexException throw DVE if the vertex already exists
+     * @throws UnsupportedOperationException throw UOE if the graph is a snapshot
+     */
+    @Override
+    public synchronized void add(V v)
+    {
+        checkWritable();
+        if (v == null)
+        {
+            throw new IllegalArgumentException("Null vertex");
+        }
+        if (_nodes.containsKey(v))
+        {
+            throw new DuplicateVertexException("Vertex already exists");
+        }
+
+        _nodes = _nodes.put(_edit, v, new Node<>(_edit, PersistentMap.empty(), PersistentMap.empty()));
+        changed();
+    }
+
+    /**
+     * Checks if a vertex with the given label exists in the graph.
+     *
+     * @param v the label of the vertex to check
+     * @return true if the vertex exists, false otherwise
+     */
+    @Override
+    public boolean contains(V v)
+    {
+        return v != null && _nodes.containsKey(v);
+    }
+
+    /**
+     * Gets the vertex object for a given label.
+     *
+     * @param v the label of the vertex
+     * @return the vertex object
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    @Override
+    public Vertex<V> get(V v)
+    {
+        node(v);
+        return new Vertex<>(v);
+    }
+
+    /**
+     * Removes a vertex and all associated edges from the graph.
+     *
+     * @param v the label of the vertex to remove
+     * @return the label of the removed vertex
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     * @throws UnsupportedOperationException throw UOE if the graph is a snapshot
+     */
+    @Override
+    public synchronized V remove(V v)
+    {
+        checkWritable();
+        Node<V, E> node = node(v);
+
+        PersistentMap.Cursor<V, E> out = node._out.cursor();
+        while (out.advance())
+        {
+            if (!out.key().equals(v))
+            {
+                Node<V, E> target = editable(out.key());
+                target._in = target._in.remove(_edit, v);
+            }
+        }
+        _edgeCount -= node._out.size();
+
+        PersistentMap.Cursor<V, E> in = node._in.cursor();
+        while (in.advance())
+        {
+            if (!in.key().equals(v))
+            {
+                Node<V, E> source = editable(in.key());
+                source._out = source._out.remove(_edit, v);
+                _edgeCount--;
+            }
+        }
+
+        _nodes = _nodes.remove(_edit, v);
+        changed();
+        return v;
+    }
+
+    /**
+     * Adds a directed edge between two vertices with a given label.
+     *
+     * @param u the source vertex
+     * @param v the destination vertex
+     * @param label the edge label
+     * @throws IllegalArgumentException throw IAE if the label is null
+     * @throws NoSuchVertexException throw NSVE if either vertex does not exist
+     * @throws DuplicateEdgeException throw DEE if the edge already exists
+     * @throws UnsupportedOperationException throw UOE if the graph is a snapshot
+     */
+    @Override
+    public synchronized void addEdge(V u, V v, E label)
+    {
+        checkWritable();
+        if (label == null)
+        {
+            throw new IllegalArgumentException("Null edge label");
+        }
+        Node<V, E> source = node(u);
+        node(v);
+        if (source._out.containsKey(v))
+        {
+            throw new DuplicateEdgeException("Edge already exists");
+        }
+
+        source = editable(u);
+        source._out = source._out.put(_edit, v, label);
+        Node<V, E> target = editable(v);
+        target._in = target._in.put(_edit, u, label);
+        _edgeCount++;
+        changed();
+    }
+
+    /**
+     * Checks if an edge exists between two vertices.
+     *
+     * @param u the source vertex
+     * @param v the destination vertex
+     * @return true if the edge exists, false otherwise
+     * @throws NoSuchVertexException throw NSVE if either vertex does not exist
+     */
+    @Override
+    public boolean containsEdge(V u, V v)
+    {
+        Node<V, E> source = node(u);
+        node(v);
+        return source._out.containsKey(v);
+    }
+
+    /**
+     * Gets the edge object between two vertices.
+     *
+     * @param u the source vertex
+     * @param v the destination vertex
+     * @return the edge object
+     * @throws NoSuchVertexException throw NSVE if either vertex does not exist
+     * @throws NoSuchEdgeException throw NSEE if the edge does not exist
+     */
+    @Override
+    public Edge<V, E> getEdge(V u, V v)
+    {
+        Node<V, E> source = node(u);
+        node(v);
+        E label = source._out.get(v);
+        if (label == null)
+        {
+            throw new NoSuchEdgeException("Edge not found");
+        }
+        return new Edge<>(u, v, label);
+    }
+
+    /**
+     * Removes an edge between two vertices.
+     *
+     * @param u the source vertex
+     * @param v the destination vertex
+     * @return the label of the removed edge
+     * @throws NoSuchEdgeException throw NSEE if either vertex or the edge does not exist
+     * @throws UnsupportedOperationException throw UOE if the graph is a snapshot
+     */
+    @Override
+    public synchronized E removeEdge(V u, V v)
+    {
+        checkWritable();
+        Node<V, E> source = u == null ? null : _nodes.get(u);
+        E label = source == null || v == null ? null : source._out.get(v);
+        if (label == null)
+        {
+            throw new NoSuchEdgeException("Edge not found");
+        }
+
+        source = editable(u);
+        source._out = source._out.remove(_edit, v);
+        Node<V, E> target = editable(v);
+        target._in = target._in.remove(_edit, u);
+        _edgeCount--;
+        changed();
+        return label;
+    }
+
+    /**
+     * Returns the number of vertices in the graph.
+     *
+     * @return the number of vertices
+     */
+    @Override
+    public int size()
+    {
+        return _nodes.size();
+    }
+
+    /**
+     * Returns the number of outgoing edges from a given vertex.
+     *
+     * @param v the vertex to check
+     * @return the degree of the vertex
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    @Override
+    public int degree(V v)
+    {
+        return node(v)._out.size();
+    }
+
+    /**
+     * Returns the number of incoming edges of a given vertex.
+     *
+     * @param v the vertex to check
+     * @return the in-degree of the vertex
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    @Override
+    public int inDegree(V v)
+    {
+        return node(v)._in.size();
+    }
+
+    /**
+     * Returns the total number of edges in the graph.
+     *
+     * @return the number of edges
+     */
+    @Override
+    public int edgeCount()
+    {
+        return _edgeCount;
+    }
+
+    /**
+     * Gets an iterator over all vertices in the graph.
+     *
+     * @return an iterator over vertex objects
+     */
+    @Override
+    public Iterator<Vertex<V>> vertices()
+    {
+        return vertices(false);
+    }
+
+    /**
+     * Gets an iterator over all vertices in the graph, optionally reusing a single flyweight
+     * Vertex.
+     *
+     * @param flyweight true to reuse one Vertex object for the whole iteration
+     * @return an iterator over vertex objects
+     */
+    @Override
+    public Iterator<Vertex<V>> vertices(boolean flyweight)
+    {
+        return new LabelIterator(new Keys<>(_nodes.cursor()), flyweight);
+    }
+
+    /**
+     * Gets an iterator over all vertices adjacent to the given vertex.
+     *
+     * @param v the label of the source vertex
+     * @return an iterator over adjacent vertex objects
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    @Override
+    public Iterator<Vertex<V>> adjacent(V v)
+    {
+        return adjacent(v, false);
+    }
+
+    /**
+     * Gets an iterator over all vertices adjacent to the given vertex, optionally reusing a
+     * single flyweight Vertex.
+     *
+     * @param v the label of the source vertex
+     * @param flyweight true to reuse one Vertex object for the whole iteration
+     * @return an iterator over adjacent vertex objects
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    @Override
+    public Iterator<Vertex<V>> adjacent(V v, boolean flyweight)
+    {
+        return new LabelIterator(new Keys<>(node(v)._out.cursor()), flyweight);
+    }
+
+    /**
+     * Gets an iterator over all vertices with an edge into the given vertex.
+     *
+     * @param v the label of the destination vertex
+     * @return an iterator over vertex objects
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    @Override
+    public Iterator<Vertex<V>> incoming(V v)
+    {
+        return new LabelIterator(new Keys<>(node(v)._in.cursor()), false);
+    }
+
+    /**
+     * Gets an iterator over all edges in the graph.
+     *
+     * @return an iterator over edge objects
+     */
+    @Override
+    public Iterator<Edge<V, E>> edges()
+    {
+        return edges(false);
+    }
+
+    /**
+     * Gets an iterator over all edges in the graph, optionally reusing a single flyweight Edge.
+     *
+     * @param flyweight true to reuse one Edge object for the whole iteration
+     * @return an iterator over edge objects
+     */
+    @Override
+    public Iterator<Edge<V, E>> edges(boolean flyweight)
+    {
+        PersistentMap.Cursor<V, Node<V, E>> vertices = _nodes.cursor();
+
+        return new EdgeIterator(flyweight)
+        {
+            // Cursor over the outgoing edges of the current vertex
+            private PersistentMap.Cursor<V, E> _out;
+            // True if _out is positioned on an edge that has not been returned
+            private boolean _ready;
+
+            @Override
+            public boolean hasNext()
+            {
+                while (!_ready)
+                {
+                    if (_out != null && _out.advance())
+                    {
+                        _ready = true;
+                    }
+                    else if (vertices.advance())
+                    {
+                        _out = vertices.value()._out.cursor();
+                    }
+                    else
+                    {
+                        return false;
+                    }
+                }
+                return true;
+            }
+
+            @Override
+            protected Edge<V, E> nextElement()
+            {
+                _ready = false;
+                return edge(vertices.key(), _out.key(), _out.value());
+            }
+        };
+    }
+
+    /**
+     * Clears the graph by removing all vertices and edges.
+     *
+     * @throws UnsupportedOperationException throw UOE if the graph is a snapshot
+     */
+    @Override
+    public synchronized void clear()
+    {
+        checkWritable();
+        _nodes = PersistentMap.empty();
+        _edgeCount = 0;
+        changed();
+    }
+
+    /**
+     * Checks if the graph is empty.
+     *
+     * @return true if the graph has no vertices, false otherwise
+     */
+    @Override
+    public boolean isEmpty()
+    {
+        return _nodes.size() == 0;
+    }
+
+    /**
+     * Looks up the node of a vertex.
+     *
+     * @param v the vertex
+     * @return the node of the vertex
+     * @throws NoSuchVertexException throw NSVE if the vertex does not exist
+     */
+    private Node<V, E> node(V v)
+    {
+        Node<V, E> node = v == null ? null : _nodes.get(v);
+        if (node == null)
+        {
+            throw new NoSuchVertexException("Vertex not found");
+        }
+        return node;
+    }
+
+    /**
+     * Gets the node of an existing vertex for writing, copying it first if it is shared with
+     * a snapshot.
+     *
+     * @param v the vertex
+     * @return a node owned by the current writer token
+     */
+    private Node<V, E> editable(V v)
+    {
+        Node<V, E> node = _nodes.get(v);
+        if (node._edit != _edit)
+        {
+            node = new Node<>(_edit, node._out, node._in);
+            _nodes = _nodes.put(_edit, v, node);
+        }
+        return node;
+    }
+
+    /**
+     * Records a structural change.
+     */
+    private void changed()
+    {
+        _snapshot = null;
+        _modCount++;
+    }
+
+    /**
+     * Throws if the graph is a snapshot.
+     *
+     * @throws UnsupportedOperationException throw UOE if the graph is a snapshot
+     */
+    private void checkWritable()
+    {
+        if (isSnapshot())
+        {
+            throw new UnsupportedOperationException("Snapshots are read-only");
+        }
+    }
+
+    /**
+     * Adapts a cursor to an iterator over its keys.
+     *
+     * @param <K> the type of the keys
+     */
+    private static final class Keys<K> implements Iterator<K>
+    {
+        // The cursor to adapt
+        private final PersistentMap.Cursor<K, ?> _cursor;
+        // True if the cursor is positioned on a key that has not been returned
+        private boolean _ready;
+        // False once the cursor is exhausted
+        private boolean _more = true;
+
+        /**
+         * Constructs an iterator over the keys of a cursor.
+         *
+         * @param cursor the cursor, positioned before its first entry
+         */
+        private Keys(PersistentMap.Cursor<K, ?> cursor)
+        {
+            _cursor = cursor;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            if (!_ready && _more)
+            {
+                _ready = _cursor.advance();
+                _more = _ready;
+            }
+            return _ready;
+        }
+
+        @Override
+        public K next()
+        {
+            if (!hasNext())
+            {
+                throw new NoSuchElementException();
+            }
+            _ready = false;
+            return _cursor.key();
+        }
+    }
+}
@@ -0,0 +1,230 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+class SnapshotGraphTest {
+    private SnapshotGraph<String, Integer> graph;
+
+    @BeforeEach
+    void setUp() {
+        graph = new SnapshotGraph<>();
+    }
+
+    private static Set<String> edges(DirectedGraph<String, Integer> graph) {
+        Set<String> edges = new HashSet<>();
+        graph.edges(true).forEachRemaining(edge -> edges.add(edge.getU() + edge.getV() + edge.getLabel()));
+        return edges;
+    }
+
+    // Test vertex and edge operations
+    @Test
+    void testOperations() {
+        graph.add("A");
+        graph.add("B");
+        assertThrows(DuplicateVertexException.class, () -> graph.add("A"));
+        assertThrows(IllegalArgumentException.class, () -> graph.add(null));
+        graph.addEdge("A", "B", 1);
+        graph.addEdge("B", "B", 2);
+        assertThrows(DuplicateEdgeException.class, () -> graph.addEdge("A", "B", 3));
+        assertThrows(NoSuchVertexException.class, () -> graph.addEdge("A", "C", 3));
+        assertEquals(1, graph.getEdge("A", "B").getLabel());
+        assertThrows(NoSuchEdgeException.class, () -> graph.getEdge("B", "A"));
+        assertEquals(2, graph.inDegree("B"));
+        assertEquals(Set.of("AB1", "BB2"), edges(graph));
+        assertEquals(1, graph.removeEdge("A", "B"));
+        assertThrows(NoSuchEdgeException.class, () -> graph.removeEdge("A", "B"));
+        graph.addEdge("A", "B", 4);
+        graph.remove("B");
+        assertEquals(0, graph.edgeCount());
+        assertEquals(0, graph.degree("A"));
+        assertEquals(1, graph.size());
+    }
+
+    // Test keys whose hash codes are equal
+    @Test
+    void testCollidingKeys() {
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        graph.add("Aa");
+        graph.add("BB");
+        graph.add("AaAa");
+        graph.add("BBBB");
+        graph.addEdge("Aa", "BB", 1);
+        SnapshotGraph<String, Integer> snapshot = graph.snapshot();
+        graph.remove("BB");
+        graph.addEdge("AaAa", "BBBB", 2);
+        assertTrue(snapshot.contains("BB"));
+        assertFalse(graph.contains("BB"));
+        assertEquals(Set.of("AaBB1"), edges(snapshot));
+        assertEquals(Set.of("AaAaBBBB2"), edges(graph));
+    }
+
+    // Test a snapshot does not see later changes
+    @Test
+    void testSnapshotIsolation() {
+        graph.add("A");
+        graph.add("B");
+        graph.addEdge("A", "B", 1);
+        SnapshotGraph<String, Integer> snapshot = graph.snapshot();
+        assertSame(snapshot, graph.snapshot());
+        graph.add("C");
+        graph.addEdge("B", "C", 2);
+        graph.removeEdge("A", "B");
+        assertNotSame(snapshot, graph.snapshot());
+        assertEquals(2, snapshot.size());
+        assertEquals(Set.of("AB1"), edges(snapshot));
+        assertEquals(Set.of("BC2"), edges(graph));
+        assertTrue(snapshot.isSnapshot());
+        assertSame(snapshot, snapshot.snapshot());
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.add("D"));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.removeEdge("A", "B"));
+        assertThrows(UnsupportedOperationException.class, snapshot::clear);
+    }
+
+    // Test iterators over the graph fail fast but iterators over a snapshot do not
+    @Test
+    void testIterators() {
+        graph.add("A");
+        graph.add("B");
+        SnapshotGraph<String, Integer> snapshot = graph.snapshot();
+        Iterator<Vertex<String>> live = graph.vertices();
+        Iterator<Vertex<String>> frozen = snapshot.vertices();
+        graph.add("C");
+        assertThrows(ConcurrentModificationException.class, live::next);
+        Set<String> labels = new HashSet<>();
+        frozen.forEachRemaining(vertex -> labels.add(vertex.getLabel()));
+        assertEquals(Set.of("A", "B"), labels);
+    }
+
+    // Test random operations against ListGraph, with a snapshot checked against a copy
+    @Test
+    void testMatchesListGraph() {
+        Random random = new Random(9);
+        SnapshotGraph<Integer, Integer> snapshots = new SnapshotGraph<>();
+        ListGraph<Integer, Integer> reference = new ListGraph<>();
+        List<SnapshotGraph<Integer, Integer>> taken = new ArrayList<>();
+        List<Set<String>> expected = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            int u = random.nextInt(300);
+            int v = random.nextInt(300);
+            int op = random.nextInt(20);
+            if (op == 0) {
+                if (reference.contains(u)) {
+                    assertEquals(reference.remove(u), snapshots.remove(u));
+                } else {
+                    reference.add(u);
+                    snapshots.add(u);
+                }
+            } else if (op == 1 && i % 10 == 0) {
+                taken.add(snapshots.snapshot());
+                expected.add(edgeSet(reference));
+            } else if (reference.contains(u) && reference.contains(v)) {
+                if (reference.containsEdge(u, v)) {
+                    assertEquals(reference.removeEdge(u, v), snapshots.removeEdge(u, v));
+                } else {
+                    reference.addEdge(u, v, i);
+                    snapshots.addEdge(u, v, i);
+                }
+            }
+        }
+        assertEquals(reference.size(), snapshots.size());
+        assertEquals(edgeSet(reference), edgeSet(snapshots));
+        for (int v = 0; v < 300; v++) {
+            if (reference.contains(v)) {
+                assertEquals(reference.inDegree(v), snapshots.inDegree(v));
+            }
+        }
+        assertFalse(taken.isEmpty());
+        for (int i = 0; i < taken.size(); i++) {
+            assertEquals(expected.get(i), edgeSet(taken.get(i)));
+            assertEquals(expected.get(i).size(), taken.get(i).edgeCount());
+        }
+    }
+
+    private static Set<String> edgeSet(DirectedGraph<Integer, Integer> graph) {
+        Set<String> edges = new HashSet<>();
+        graph.edges().forEachRemaining(edge -> edges.add(edge.getU() + ">" + edge.getV() + ":" + edge.getLabel()));
+        return edges;
+    }
+
+    // Test readers iterate snapshots while a writer keeps adding edges
+    @Test
+    void testConcurrentReaders() throws Exception {
+        SnapshotGraph<Integer, Integer> shared = new SnapshotGraph<>();
+        for (int v = 0; v < 1_000; v++) {
+            shared.add(v);
+        }
+        ExecutorService readers = Executors.newFixedThreadPool(2);
+        List<Future<?>> results = new ArrayList<>();
+        for (int r = 0; r < 2; r++) {
+            results.add(readers.submit(() -> {
+                for (int i = 0; i < 200; i++) {
+                    SnapshotGraph<Integer, Integer> snapshot = shared.snapshot();
+                    assertEquals(snapshot.edgeCount(), snapshot.edgeStream().count());
+                }
+            }));
+        }
+        Random random = new Random(2);
+        for (int i = 0; i < 20_000; i++) {
+            int u = random.nextInt(1_000);
+            int v = random.nextInt(1_000);
+            if (!shared.containsEdge(u, v)) {
+                shared.addEdge(u, v, i);
+            }
+        }
+        for (Future<?> result : results) {
+            result.get();
+        }
+        readers.shutdown();
+        assertTrue(readers.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    // Test writes after a snapshot copy only what they change and leave every older snapshot intact
+    @Test
+    void testCopyOnWrite() {
+        int n = 2_000;
+        List<Edge<Integer, Integer>> edges = GraphFixtures.edges(GraphFixtures.Shape.RANDOM, n, n * 10, 4);
+        SnapshotGraph<Integer, Integer> big = GraphFixtures.fill(new SnapshotGraph<>(), n, edges);
+
+        SnapshotGraph<Integer, Integer> first = big.snapshot();
+        for (int i = 0; i < 100; i++) {
+            big.removeEdge(edges.get(i).getU(), edges.get(i).getV());
+        }
+        big.add(n);
+        SnapshotGraph<Integer, Integer> second = big.snapshot();
+        for (int i = 100; i < 200; i++) {
+            big.removeEdge(edges.get(i).getU(), edges.get(i).getV());
+        }
+        big.addEdge(n, 0, -1);
+
+        assertEquals(edges.size(), first.edgeCount());
+        assertEquals(edges.size() - 100, second.edgeCount());
+        assertEquals(edges.size() - 199, big.edgeCount());
+        assertFalse(first.contains(n));
+        assertTrue(second.contains(n));
+        assertEquals(0, second.degree(n));
+        assertEquals(1, big.degree(n));
+        for (int i = 0; i < 200; i++) {
+            Edge<Integer, Integer> edge = edges.get(i);
+            assertEquals(edge.getLabel(), first.getEdge(edge.getU(), edge.getV()).getLabel());
+            assertEquals(i >= 100, second.containsEdge(edge.getU(), edge.getV()));
+            assertFalse(big.containsEdge(edge.getU(), edge.getV()));
+        }
+        for (int i = 200; i < edges.size(); i += 97) {
+            Edge<Integer, Integer> edge = edges.get(i);
+            assertTrue(first.containsEdge(edge.getU(), edge.getV()));
+            assertTrue(second.containsEdge(edge.getU(), edge.getV()));
+            assertTrue(big.containsEdge(edge.getU(), edge.getV()));
+        }
+    }
+}
@@ -7,7 +7,7 @@
 public class Vertex<V>
 {
     // The label of the vertex, used to uniquely identify it
-    private final V _label;
+    private V _label;
 
     /**
      * Constructs a vertex with the specified label.
@@ -35,6 +35,17 @@ public class Vertex<V>
         return _label;
     }
 
+    /**
+     * Points a flyweight vertex at a new label. Only iterators that hand out a reused Vertex
+     * call this.
+     *
+     * @param label the new label of the vertex
+     */
+    void reset(V label)
+    {
+        _label = label;
+    }
+
     /**
      * Compares this vertex to another object for equality. Two vertices are considered
      * equal if their labels are the same.
@@ -0,0 +1,76 @@
+/**
+ * A vertex-centric computation run by Pregel. Every vertex holds a double value. In each
+ * superstep every vertex computes its next value from its own value and the values its
+ * neighbors held at the end of the previous superstep, so the order in which vertices are
+ * computed does not matter and a superstep can run on many threads. VertexPrograms holds the
+ * built-in programs.
+ *
+ * Programs may also contribute to a global sum: after each superstep the engine adds up
+ * aggregate() over all vertices and hands the total to the next superstep through
+ * Pregel.Context.aggregate().
+ *
+ * @author mfullhart20@georgefox.edu
+ */
+public interface VertexProgram
+{
+    /**
+     * The neighbors whose values a vertex reads.
+     */
+    enum Direction
+    {
+        // The sources of the incoming edges
+        IN,
+        // The destinations of the outgoing edges
+        OUT,
+        // Both, with the incoming neighbors first
+        BOTH
+    }
+
+    /**
+     * Returns the neighbors whose values a vertex reads.
+     *
+     * @return the direction of the neighbors
+     */
+    Direction direction();
+
+    /**
+     * Returns the value of a vertex before the first superstep.
+     *
+     * @param vertex the id of the vertex
+     * @param vertexCount the number of vertices in the graph
+     * @return the initial value
+     */
+    double initialValue(int vertex, int vertexCount);
+
+    /**
+     * Computes the next value of a vertex. The context is only valid during the call.
+     *
+     * @param context the vertex, its value and the values of its neighbors
+     * @return the next value of the vertex
+     */
+    double compute(Pregel.Context context);
+
+    /**
+     * Returns the contribution of a vertex to the global sum passed to the next superstep.
+     * The default contributes nothing.
+     *
+     * @param value the value of the vertex
+     * @param degree the number of outgoing edges of the vertex
+     * @return the contribution
+     */
+    default double aggregate(double value, int degree)
+    {
+        return 0;
+    }
+
+    /**
+     * Returns the largest total change of the values, summed over all vertices, at which the
+     * computation counts as converged. The default of 0 stops once no value changes.
+     *
+     * @return the convergence tolerance
+     */
+    default double tolerance()
+    {
+        return 0;
+    }
+}
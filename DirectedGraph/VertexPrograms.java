@@ -0,0 +1,176 @@
+import java.util.Arrays;
+
+/**
+ * The built-in vertex programs for Pregel.
+ *
+ * @author mfullhart20@georgefox.edu
+ */
+public final class VertexPrograms
+{
+    /**
+     * VertexPrograms only has static methods.
+     */
+    private VertexPrograms()
+    {
+    }
+
+    /**
+     * Returns a PageRank program. Every vertex starts with rank 1 / n and in each superstep
+     * receives a share of the rank of each incoming neighbor, split evenly over the neighbor's
+     * outgoing edges. The rank of vertices without outgoing edges is spread over all vertices,
+     * so the ranks always sum to 1.
+     *
+     * @param damping the probability of following an edge rather than jumping, usually 0.85
+     * @param tolerance the total change of the ranks at which to stop
+     * @return the program
+     * @throws IllegalArgumentException throw IAE if damping is not between 0 and 1 or the
+     * tolerance is negative
+     */
+    public static VertexProgram pageRank(double damping, double tolerance)
+    {
+        if (!(damping >= 0 && damping <= 1))
+        {
+            throw new IllegalArgumentException("Damping must be between 0 and 1");
+        }
+        if (!(tolerance >= 0))
+        {
+            throw new IllegalArgumentException("Negative tolerance");
+        }
+
+        return new VertexProgram()
+        {
+            @Override
+            public Direction direction()
+            {
+                return Direction.IN;
+            }
+
+            @Override
+            public double initialValue(int vertex, int vertexCount)
+            {
+                return 1.0 / vertexCount;
+            }
+
+            @Override
+            public double compute(Pregel.Context context)
+            {
+                double sum = 0;
+                for (int i = 0; i < context.neighbors(); i++)
+                {
+                    sum += context.neighborValue(i) / context.neighborDegree(i);
+                }
+                int n = context.vertexCount();
+                return (1 - damping) / n + damping * (sum + context.aggregate() / n);
+            }
+
+            @Override
+            public double aggregate(double value, int degree)
+            {
+                return degree == 0 ? value : 0;
+            }
+
+            @Override
+            public double tolerance()
+            {
+                return tolerance;
+            }
+        };
+    }
+
+    /**
+     * Returns a program that finds the weakly connected components. Every vertex starts with
+     * its own id and takes the smallest value among itself and its neighbors in both
+     * directions, so when the values stop changing each vertex holds the smallest id of its
+     * component.
+     *
+     * @return the program
+     */
+    public static VertexProgram connectedComponents()
+    {
+        return new VertexProgram()
+        {
+            @Override
+            public Direction direction()
+            {
+                return Direction.BOTH;
+            }
+
+            @Override
+            public double initialValue(int vertex, int vertexCount)
+            {
+                return vertex;
+            }
+
+            @Override
+            public double compute(Pregel.Context context)
+            {
+                double smallest = context.value();
+                for (int i = 0; i < context.neighbors(); i++)
+                {
+                    smallest = Math.min(smallest, context.neighborValue(i));
+                }
+                return smallest;
+            }
+        };
+    }
+
+    /**
+     * Returns a label propagation program for community detection. Every vertex starts with
+     * its own id as its label and takes the label that is most common among its neighbors in
+     * both directions. A vertex keeps its label when it is among the most common ones, and
+     * otherwise ties go to the smallest label, which keeps the synchronous updates from
+     * flipping back and forth forever on most graphs. Run it with a superstep limit.
+     *
+     * @return the program
+     */
+    public static VertexProgram labelPropagation()
+    {
+        return new VertexProgram()
+        {
+            @Override
+            public Direction direction()
+            {
+                return Direction.BOTH;
+            }
+
+            @Override
+            public double initialValue(int vertex, int vertexCount)
+            {
+                return vertex;
+            }
+
+            @Override
+            public double compute(Pregel.Context context)
+            {
+                int count = context.neighbors();
+                double current = context.value();
+                if (count == 0)
+                {
+                    return current;
+                }
+
+                double[] labels = context.neighborValues();
+                Arrays.sort(labels, 0, count);
+
+                double best = current;
+                int bestRun = 0;
+                for (int start = 0; start < count; )
+                {
+                    int end = start + 1;
+                    while (end < count && labels[end] == labels[start])
+                    {
+                        end++;
+                    }
+                    int run = end - start;
+                    if (run > bestRun || (run == bestRun && labels[start] == current))
+                    {
+                        best = labels[start];
+                        bestRun = run;
+                    }
+                    start = end;
+                }
+                return best;
+            }
+        };
+    }
+}